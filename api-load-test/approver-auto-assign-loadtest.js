@@ -0,0 +1,99 @@
+// approver-auto-assign-loadtest.js
+// Simulasi fairness/throughput auto-assignment approver.
+// Banyak admin request /admin/assign TANPA firstApprovalId/secondApprovalId secara bersamaan,
+// lalu beban approver dibandingkan sebelum dan sesudah lewat /admin/approvers/load.
+// Expected: tidak ada 5xx, assign cepat, dan selisih estimatedDaysToClear antar approver kecil
+// (approver dengan throughput lebih tinggi menerima lebih banyak workflow).
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Gauge, Trend } from 'k6/metrics';
+
+// ============== CONFIG VIA ENV =================
+const HOST       = __ENV.HOST || 'http://localhost:18080';
+const BASE_PATH  = __ENV.BASE_PATH || '/api/v1/kpr-applications';
+const TOKEN      = __ENV.ADMIN_TOKEN || '';
+const MAX_SPREAD = Number(__ENV.MAX_SPREAD || 1.5);
+const LOG_FAIL   = String(__ENV.LOG_FAIL || 'false').toLowerCase() === 'true';
+
+// ID aplikasi yang sudah lolos tahap developer dan belum di-assign (dipisah koma)
+const APPLICATION_IDS = (__ENV.APPLICATION_IDS || '')
+    .split(',').map(s => s.trim()).filter(Boolean).map(Number);
+
+// ============== METRICS & THRESHOLDS ===========
+const assigned     = new Counter('assign_success');
+const serverErrors = new Counter('assign_5xx');
+const assignTime   = new Trend('assign_duration', true);
+const spread       = new Gauge('approver_days_to_clear_spread');
+const maxDelta     = new Gauge('approver_assigned_delta_max');
+const minDelta     = new Gauge('approver_assigned_delta_min');
+
+export const options = {
+    scenarios: {
+        assign: {
+            executor: 'shared-iterations',
+            vus: Number(__ENV.VUS || 10),
+            iterations: Math.max(APPLICATION_IDS.length, 1),
+            maxDuration: '2m',
+        },
+    },
+    thresholds: {
+        assign_5xx: ['count==0'],
+        assign_duration: ['p(95)<500'],
+        approver_days_to_clear_spread: [`value<=${MAX_SPREAD}`],
+    },
+};
+
+const headers = () => ({
+    Authorization: `Bearer ${TOKEN}`,
+    'Content-Type': 'application/json',
+});
+
+function fetchLoads() {
+    const res = http.get(`${HOST}${BASE_PATH}/admin/approvers/load`, { headers: headers() });
+    check(res, { 'load endpoint 200': (r) => r.status === 200 });
+    const body = res.json();
+    return (body && body.data) || [];
+}
+
+export function setup() {
+    if (!TOKEN) throw new Error('Set ADMIN_TOKEN dengan access token ADMIN');
+    if (APPLICATION_IDS.length === 0) throw new Error('Set APPLICATION_IDS (dipisah koma)');
+    return { before: fetchLoads() };
+}
+
+export default function () {
+    const applicationId = APPLICATION_IDS[__ITER % APPLICATION_IDS.length];
+    const res = http.post(
+        `${HOST}${BASE_PATH}/admin/assign`,
+        JSON.stringify({ applicationId }),
+        { headers: headers(), timeout: '30s' },
+    );
+    assignTime.add(res.timings.duration);
+
+    if (res.status === 200) assigned.add(1);
+    if (res.status >= 500) serverErrors.add(1);
+    if (LOG_FAIL && res.status !== 200) {
+        console.log(`application ${applicationId} -> ${res.status}: ${String(res.body).slice(0, 200)}`);
+    }
+    check(res, { 'no server error': (r) => r.status < 500 });
+}
+
+export function teardown(data) {
+    const before = {};
+    data.before.forEach((l) => { before[l.approverId] = l.queueDepth; });
+    const after = fetchLoads();
+    if (after.length === 0) return;
+
+    const deltas = after.map((l) => l.queueDepth - (before[l.approverId] || 0));
+    const days = after.map((l) => l.estimatedDaysToClear);
+    maxDelta.add(Math.max(...deltas));
+    minDelta.add(Math.min(...deltas));
+    spread.add(Math.max(...days) - Math.min(...days));
+
+    after.forEach((l) => {
+        console.log(
+            `approver ${l.approverId}: +${l.queueDepth - (before[l.approverId] || 0)} ` +
+            `(queue=${l.queueDepth}, done=${l.recentCompletions}, days=${l.estimatedDaysToClear.toFixed(2)})`,
+        );
+    });
+}
@@ -0,0 +1,68 @@
+// dashboard-stats-loadtest.js
+// Latency dashboard statistik developer, staff (approver) dan admin dengan range acak.
+// Jalankan terhadap database berisi banyak aplikasi (lihat sql/dashboard-kpi-benchmark.sql untuk
+// data sintetis 1 juta baris). Expected: tidak ada 5xx dan p95 per dashboard di bawah MAX_P95_MS.
+// Dashboard admin di-cache 5 menit, jadi iterasi admin mengukur jalur cache setelah request pertama.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+// ============== CONFIG VIA ENV =================
+const HOST            = __ENV.HOST || 'http://localhost:18080';
+const DEVELOPER_TOKEN = __ENV.DEVELOPER_TOKEN || '';
+const APPROVER_TOKEN  = __ENV.APPROVER_TOKEN || '';
+const ADMIN_TOKEN     = __ENV.ADMIN_TOKEN || '';
+const RPS             = Number(__ENV.RPS || 20);
+const DURATION        = __ENV.DURATION || '1m';
+const MAX_P95_MS      = Number(__ENV.MAX_P95_MS || 300);
+const LOG_FAIL        = String(__ENV.LOG_FAIL || 'false').toLowerCase() === 'true';
+
+const DASHBOARDS = [
+    { name: 'developer', token: DEVELOPER_TOKEN, path: '/api/v1/stat-developer/dashboard', ranges: ['6m', '7m', '12m'] },
+    { name: 'staff', token: APPROVER_TOKEN, path: '/api/v1/stat-staff/dashboard', ranges: ['7d', '30d', '90d', 'ytd'] },
+    { name: 'admin', token: ADMIN_TOKEN, path: '/api/v1/stat-admin/dashboard', ranges: ['7d', '30d', '90d', 'ytd'] },
+].filter((d) => d.token);
+
+// ============== METRICS & THRESHOLDS ===========
+const serverErrors = new Counter('dashboard_5xx');
+const durations = {};
+DASHBOARDS.forEach((d) => { durations[d.name] = new Trend(`dashboard_${d.name}_duration`, true); });
+
+const thresholds = { dashboard_5xx: ['count==0'] };
+DASHBOARDS.forEach((d) => { thresholds[`dashboard_${d.name}_duration`] = [`p(95)<${MAX_P95_MS}`]; });
+
+export const options = {
+    scenarios: {
+        dashboards: {
+            executor: 'constant-arrival-rate',
+            rate: RPS,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: Math.max(RPS, 1),
+            maxVUs: Math.max(RPS * 4, 10),
+        },
+    },
+    thresholds,
+};
+
+export function setup() {
+    if (DASHBOARDS.length === 0) {
+        throw new Error('Set minimal salah satu DEVELOPER_TOKEN, APPROVER_TOKEN atau ADMIN_TOKEN');
+    }
+}
+
+export default function () {
+    const dashboard = DASHBOARDS[__ITER % DASHBOARDS.length];
+    const range = dashboard.ranges[Math.floor(Math.random() * dashboard.ranges.length)];
+    const res = http.get(`${HOST}${dashboard.path}?range=${range}`, {
+        headers: { Authorization: `Bearer ${dashboard.token}` },
+        timeout: '30s',
+    });
+    durations[dashboard.name].add(res.timings.duration);
+
+    if (res.status >= 500) serverErrors.add(1);
+    if (LOG_FAIL && res.status !== 200) {
+        console.log(`${dashboard.name} ${range} -> ${res.status}: ${String(res.body).slice(0, 200)}`);
+    }
+    check(res, { 'dashboard 200': (r) => r.status === 200 });
+}
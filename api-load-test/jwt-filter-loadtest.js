@@ -0,0 +1,65 @@
+// jwt-filter-loadtest.js
+// Latency jalur autentikasi JWT: JwtAuthenticationFilter lalu controller yang membaca userId/role
+// dari token yang sama. Token hanya di-parse dan diverifikasi sekali per request, jadi selisih
+// p95 antara endpoint terautentikasi dan endpoint publik (BASELINE_PATH) mendekati biaya satu
+// verifikasi HMAC plus lookup user. Expected: tidak ada 5xx/401 dan p95 di bawah MAX_P95_MS.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+// ============== CONFIG VIA ENV =================
+const HOST          = __ENV.HOST || 'http://localhost:18080';
+const TOKEN         = __ENV.TOKEN || '';
+const AUTH_PATH     = __ENV.AUTH_PATH || '/api/v1/notifications/user';
+const BASELINE_PATH = __ENV.BASELINE_PATH || '/actuator/health';
+const RPS           = Number(__ENV.RPS || 200);
+const DURATION      = __ENV.DURATION || '1m';
+const MAX_P95_MS    = Number(__ENV.MAX_P95_MS || 50);
+const LOG_FAIL      = String(__ENV.LOG_FAIL || 'false').toLowerCase() === 'true';
+
+// ============== METRICS & THRESHOLDS ===========
+const authDuration = new Trend('jwt_authenticated_duration', true);
+const baselineDuration = new Trend('jwt_baseline_duration', true);
+const rejected = new Counter('jwt_rejected');
+
+export const options = {
+    scenarios: {
+        filter: {
+            executor: 'constant-arrival-rate',
+            rate: RPS,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: Math.max(Math.ceil(RPS / 10), 1),
+            maxVUs: Math.max(RPS, 10),
+        },
+    },
+    thresholds: {
+        jwt_rejected: ['count==0'],
+        jwt_authenticated_duration: [`p(95)<${MAX_P95_MS}`],
+    },
+};
+
+export function setup() {
+    if (!TOKEN) {
+        throw new Error('Set TOKEN dengan access token yang valid');
+    }
+}
+
+export default function () {
+    // Selang-seling agar baseline diukur pada beban yang sama
+    if (__ITER % 2 === 0) {
+        const res = http.get(`${HOST}${BASELINE_PATH}`, { timeout: '10s' });
+        baselineDuration.add(res.timings.duration);
+        return;
+    }
+    const res = http.get(`${HOST}${AUTH_PATH}`, {
+        headers: { Authorization: `Bearer ${TOKEN}` },
+        timeout: '10s',
+    });
+    authDuration.add(res.timings.duration);
+    if (res.status === 401 || res.status === 403 || res.status >= 500) rejected.add(1);
+    if (LOG_FAIL && res.status !== 200) {
+        console.log(`${AUTH_PATH} -> ${res.status}: ${String(res.body).slice(0, 200)}`);
+    }
+    check(res, { 'authenticated 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,81 @@
+// login-burst-loadtest.js
+// Lonjakan login sambil mengukur endpoint lain. BCrypt berjalan di pool password-hash (satu thread
+// per core, antrian terbatas), jadi saat lonjakan login sebagian request login dijawab 429 dengan
+// cepat sementara endpoint lain (BYSTANDER_PATH) tetap di bawah MAX_P95_MS.
+// Expected: tidak ada 5xx di login, login_rejected_429 > 0 saat RPS melebihi kapasitas pool, dan
+// p95 bystander_duration tetap rendah. Pakai akun uji di lingkungan dengan pengiriman OTP dummy.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+// ============== CONFIG VIA ENV =================
+const HOST           = __ENV.HOST || 'http://localhost:18080';
+const IDENTIFIER     = __ENV.IDENTIFIER || '';
+const PASSWORD       = __ENV.PASSWORD || '';
+const BYSTANDER_PATH = __ENV.BYSTANDER_PATH || '/api/v1/properties?limit=10';
+const LOGIN_RPS      = Number(__ENV.LOGIN_RPS || 200);
+const BYSTANDER_RPS  = Number(__ENV.BYSTANDER_RPS || 50);
+const DURATION       = __ENV.DURATION || '1m';
+const MAX_P95_MS     = Number(__ENV.MAX_P95_MS || 300);
+const LOG_FAIL       = String(__ENV.LOG_FAIL || 'false').toLowerCase() === 'true';
+
+// ============== METRICS & THRESHOLDS ===========
+const loginDuration = new Trend('login_duration', true);
+const bystanderDuration = new Trend('bystander_duration', true);
+const loginRejected = new Counter('login_rejected_429');
+const serverErrors = new Counter('server_errors');
+
+export const options = {
+    scenarios: {
+        login_burst: {
+            executor: 'constant-arrival-rate',
+            exec: 'login',
+            rate: LOGIN_RPS,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: Math.max(Math.ceil(LOGIN_RPS / 5), 1),
+            maxVUs: Math.max(LOGIN_RPS * 2, 10),
+        },
+        bystander: {
+            executor: 'constant-arrival-rate',
+            exec: 'bystander',
+            rate: BYSTANDER_RPS,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: Math.max(Math.ceil(BYSTANDER_RPS / 10), 1),
+            maxVUs: Math.max(BYSTANDER_RPS, 10),
+        },
+    },
+    thresholds: {
+        server_errors: ['count==0'],
+        bystander_duration: [`p(95)<${MAX_P95_MS}`],
+    },
+};
+
+export function setup() {
+    if (!IDENTIFIER || !PASSWORD) {
+        throw new Error('Set IDENTIFIER dan PASSWORD akun uji');
+    }
+}
+
+export function login() {
+    const res = http.post(
+        `${HOST}/api/v1/auth/login`,
+        JSON.stringify({ identifier: IDENTIFIER, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' }, timeout: '30s' },
+    );
+    loginDuration.add(res.timings.duration);
+    if (res.status === 429) loginRejected.add(1);
+    if (res.status >= 500) serverErrors.add(1);
+    if (LOG_FAIL && res.status !== 200 && res.status !== 429) {
+        console.log(`login -> ${res.status}: ${String(res.body).slice(0, 200)}`);
+    }
+    check(res, { 'login 200 or 429': (r) => r.status === 200 || r.status === 429 });
+}
+
+export function bystander() {
+    const res = http.get(`${HOST}${BYSTANDER_PATH}`, { timeout: '10s' });
+    bystanderDuration.add(res.timings.duration);
+    if (res.status >= 500) serverErrors.add(1);
+    check(res, { 'bystander 200': (r) => r.status === 200 });
+}
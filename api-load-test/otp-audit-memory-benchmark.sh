@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# otp-audit-memory-benchmark.sh
+# Bandingkan memori Redis per event audit OTP: satu key per event (format lama, SET + TTL 30 hari)
+# vs satu Redis Stream (XADD MAXLEN ~). Memakai database terpisah (DB, default 15) yang
+# di-FLUSHDB sebelum dan sesudah tiap run; jangan arahkan ke database yang berisi data.
+set -euo pipefail
+
+REDIS_URL="${REDIS_URL:-redis://localhost:6379}"
+DB="${DB:-15}"
+EVENTS="${EVENTS:-100000}"
+
+cli() { redis-cli -u "$REDIS_URL" -n "$DB" "$@"; }
+used_memory() { cli INFO memory | awk -F: '/^used_memory:/ {print $2}' | tr -d '\r'; }
+
+cli FLUSHDB > /dev/null
+before=$(used_memory)
+for ((i = 0; i < EVENTS; i++)); do
+  ts="2024-06-10T10:$((i / 6000 % 60)):$((i / 100 % 60)).$((i % 1000))"
+  printf 'SET "audit:otp:%s:%d" "%s|62****%04d|login|OTP_VALIDATED|SUCCESS" EX 2592000\n' \
+    "$ts" "$((RANDOM * 32768 + RANDOM))" "$ts" "$((i % 10000))"
+done | cli --pipe > /dev/null
+keys_bytes=$(( $(used_memory) - before ))
+
+cli FLUSHDB > /dev/null
+before=$(used_memory)
+for ((i = 0; i < EVENTS; i++)); do
+  printf 'XADD audit:otp MAXLEN ~ 1000000 * phoneHash %064x maskedPhone 62****%04d purpose login action OTP_VALIDATED result SUCCESS\n' \
+    "$((i % 10000))" "$((i % 10000))"
+done | cli --pipe > /dev/null
+stream_bytes=$(( $(used_memory) - before ))
+cli FLUSHDB > /dev/null
+
+echo "events:               $EVENTS"
+echo "key per event:        $keys_bytes bytes ($((keys_bytes / EVENTS)) bytes/event)"
+echo "single stream:        $stream_bytes bytes ($((stream_bytes / EVENTS)) bytes/event)"
@@ -0,0 +1,103 @@
+// property-reserve-race-loadtest.js
+// Banyak user men-submit KPR untuk properti yang SAMA secara bersamaan.
+// Expected: tepat satu submit sukses (property RESERVED), sisanya ditolak cepat
+// tanpa menunggu lock (reserve memakai UPDATE ... FOR NO KEY UPDATE SKIP LOCKED,
+// dijalankan sebelum aplikasi di-insert).
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+// ============== CONFIG VIA ENV =================
+const HOST        = __ENV.HOST || 'http://localhost:18080';
+const SUBMIT_PATH = __ENV.SUBMIT_PATH || '/api/v1/kpr-applications';
+const PROPERTY_ID = __ENV.PROPERTY_ID || '1';
+const KPR_RATE_ID = __ENV.KPR_RATE_ID || '1';
+const LOG_FAIL    = String(__ENV.LOG_FAIL || 'false').toLowerCase() === 'true';
+
+// Access token user berbeda (dipisah koma); satu user hanya boleh satu pengajuan per properti
+const TOKENS = (__ENV.TOKENS || '').split(',').map(s => s.trim()).filter(Boolean);
+
+const PROPERTY_VALUE = Number(__ENV.PROPERTY_VALUE || 500_000_000);
+const DOWN_PAYMENT   = Number(__ENV.DOWN_PAYMENT || 100_000_000);
+const TERM_YEARS     = Number(__ENV.TERM_YEARS || 15);
+
+// ============== METRICS & THRESHOLDS ===========
+const winners      = new Counter('reserve_winners');
+const losers       = new Counter('reserve_losers');
+const serverErrors = new Counter('reserve_5xx');
+const loserLatency = new Trend('reserve_loser_duration', true);
+
+export const options = {
+    scenarios: {
+        race: {
+            executor: 'per-vu-iterations',
+            vus: Math.max(TOKENS.length, 1),
+            iterations: 1,
+            maxDuration: '1m',
+        },
+    },
+    thresholds: {
+        reserve_winners: ['count==1'],
+        reserve_5xx: ['count==0'],
+        // Loser tidak menunggu transaksi pemenang selesai
+        reserve_loser_duration: ['p(95)<1000'],
+    },
+};
+
+function formBody(vu) {
+    return {
+        propertyId: PROPERTY_ID,
+        kprRateId: KPR_RATE_ID,
+        'simulationData.propertyValue': String(PROPERTY_VALUE),
+        'simulationData.downPayment': String(DOWN_PAYMENT),
+        'simulationData.loanAmount': String(PROPERTY_VALUE - DOWN_PAYMENT),
+        'simulationData.loanTermYears': String(TERM_YEARS),
+        'personalData.fullName': `Race Tester ${vu}`,
+        'personalData.nik': String(3170000000000000 + vu),
+        'personalData.birthDate': '1990-01-01',
+        'personalData.birthPlace': 'Jakarta',
+        'personalData.gender': 'MALE',
+        'personalData.maritalStatus': 'SINGLE',
+        'personalData.address': 'Jl. Uji Beban No. 1',
+        'personalData.city': 'Jakarta',
+        'personalData.province': 'DKI Jakarta',
+        'personalData.postalCode': '12345',
+        'employmentData.occupation': 'Karyawan',
+        'employmentData.monthlyIncome': '30000000',
+        'employmentData.companyName': 'PT Uji',
+        'employmentData.companyAddress': 'Jl. Kantor No. 2',
+        'employmentData.companyCity': 'Jakarta',
+        'employmentData.companyProvince': 'DKI Jakarta',
+        'employmentData.companyPostalCode': '12345',
+        bankAccountNumber: String(1000000000 + vu),
+    };
+}
+
+export function setup() {
+    if (TOKENS.length < 2) {
+        throw new Error('Set TOKENS dengan minimal 2 access token user yang berbeda');
+    }
+}
+
+export default function () {
+    const token = TOKENS[(__VU - 1) % TOKENS.length];
+    const res = http.post(`${HOST}${SUBMIT_PATH}`, formBody(__VU), {
+        headers: { Authorization: `Bearer ${token}` },
+        timeout: '30s',
+    });
+
+    if (res.status >= 200 && res.status < 300) {
+        winners.add(1);
+    } else if (res.status >= 500) {
+        serverErrors.add(1);
+    } else {
+        losers.add(1);
+        loserLatency.add(res.timings.duration);
+    }
+
+    if (LOG_FAIL && (res.status < 200 || res.status >= 300)) {
+        console.log(`VU ${__VU} -> ${res.status}: ${String(res.body).slice(0, 200)}`);
+    }
+
+    check(res, { 'no server error': (r) => r.status < 500 });
+}
@@ -0,0 +1,139 @@
+-- dashboard-kpi-benchmark.sql
+-- Benchmark query KPI dashboard developer pada tabel sintetis 1 juta aplikasi.
+-- Membandingkan pola lama (8 query COUNT terpisah untuk 2 periode + load entity untuk grafik
+-- bulanan) dengan satu query COUNT(*) FILTER + GROUPING SETS date_trunc yang dipakai sekarang.
+-- Semua objek dibuat di schema bench_dashboard sehingga aman dijalankan di database dev:
+--   psql "$DATABASE_URL" -f dashboard-kpi-benchmark.sql
+-- Bandingkan "Execution Time" setiap EXPLAIN ANALYZE; hapus dengan DROP SCHEMA bench_dashboard CASCADE.
+
+\set ON_ERROR_STOP on
+\timing on
+
+DROP SCHEMA IF EXISTS bench_dashboard CASCADE;
+CREATE SCHEMA bench_dashboard;
+SET search_path = bench_dashboard, public;
+
+CREATE TABLE properties (id integer PRIMARY KEY, developer_id integer NOT NULL);
+INSERT INTO properties SELECT g, 1 + g % 50 FROM generate_series(1, 5000) g;
+
+CREATE TABLE kpr_applications (
+    id integer PRIMARY KEY,
+    user_id integer NOT NULL,
+    property_id integer NOT NULL,
+    status application_status NOT NULL,
+    loan_amount decimal(15,2) NOT NULL,
+    monthly_installment decimal(15,2) NOT NULL,
+    submitted_at timestamp,
+    approved_at timestamp,
+    created_at timestamp NOT NULL
+);
+
+INSERT INTO kpr_applications
+SELECT g,
+       1 + (random() * 200000)::int,
+       1 + g % 5000,
+       (ARRAY['SUBMITTED','DOCUMENT_VERIFICATION','PROPERTY_APPRAISAL','CREDIT_ANALYSIS',
+              'APPROVAL_PENDING','APPROVED','REJECTED']::application_status[])[1 + g % 7],
+       (200 + random() * 1800)::int * 1000000,
+       (2 + random() * 18)::int * 1000000,
+       ts,
+       CASE WHEN g % 7 = 5 THEN ts + random() * INTERVAL '10 days' END,
+       ts
+FROM generate_series(1, 1000000) g,
+     LATERAL (SELECT now() - random() * INTERVAL '730 days' + g * INTERVAL '0 seconds' AS ts) t;
+
+CREATE INDEX ON kpr_applications (created_at, id);
+CREATE INDEX ON kpr_applications (status, created_at, id);
+CREATE INDEX ON kpr_applications (property_id);
+CREATE INDEX ON properties (developer_id);
+
+CREATE TABLE approval_workflow (
+    application_id integer NOT NULL,
+    assigned_to integer NOT NULL,
+    created_at timestamp NOT NULL,
+    completed_at timestamp
+);
+INSERT INTO approval_workflow
+SELECT id, 1 + id % 40, created_at, approved_at FROM kpr_applications;
+CREATE INDEX ON approval_workflow (assigned_to, application_id);
+
+ANALYZE;
+
+-- Periode 12 bulan: [cur_start, end) dan sebelumnya [prev_start, cur_start)
+\set developer_id 7
+SELECT date_trunc('month', now()) - INTERVAL '23 months' AS prev_start,
+       date_trunc('month', now()) - INTERVAL '11 months' AS cur_start,
+       date_trunc('month', now()) + INTERVAL '1 month' AS end_at
+\gset
+
+-- ============ SEBELUM: satu scan per KPI per periode ============
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT count(*) FROM kpr_applications k JOIN properties p ON p.id = k.property_id
+WHERE p.developer_id = :developer_id AND k.status = 'APPROVED'
+  AND k.created_at BETWEEN :'cur_start' AND :'end_at';
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT count(*) FROM kpr_applications k JOIN properties p ON p.id = k.property_id
+WHERE p.developer_id = :developer_id AND k.status = 'REJECTED'
+  AND k.created_at BETWEEN :'cur_start' AND :'end_at';
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT count(*) FROM kpr_applications k JOIN properties p ON p.id = k.property_id
+WHERE p.developer_id = :developer_id
+  AND k.status IN ('SUBMITTED','DOCUMENT_VERIFICATION','PROPERTY_APPRAISAL','CREDIT_ANALYSIS','APPROVAL_PENDING')
+  AND k.created_at BETWEEN :'cur_start' AND :'end_at';
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT count(DISTINCT k.user_id) FROM kpr_applications k JOIN properties p ON p.id = k.property_id
+WHERE p.developer_id = :developer_id AND k.created_at BETWEEN :'cur_start' AND :'end_at';
+-- (empat query yang sama diulang untuk periode sebelumnya)
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT count(*) FROM kpr_applications k JOIN properties p ON p.id = k.property_id
+WHERE p.developer_id = :developer_id AND k.status = 'APPROVED'
+  AND k.created_at BETWEEN :'prev_start' AND :'cur_start';
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT count(*) FROM kpr_applications k JOIN properties p ON p.id = k.property_id
+WHERE p.developer_id = :developer_id AND k.status = 'REJECTED'
+  AND k.created_at BETWEEN :'prev_start' AND :'cur_start';
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT count(*) FROM kpr_applications k JOIN properties p ON p.id = k.property_id
+WHERE p.developer_id = :developer_id
+  AND k.status IN ('SUBMITTED','DOCUMENT_VERIFICATION','PROPERTY_APPRAISAL','CREDIT_ANALYSIS','APPROVAL_PENDING')
+  AND k.created_at BETWEEN :'prev_start' AND :'cur_start';
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT count(DISTINCT k.user_id) FROM kpr_applications k JOIN properties p ON p.id = k.property_id
+WHERE p.developer_id = :developer_id AND k.created_at BETWEEN :'prev_start' AND :'cur_start';
+-- Grafik bulanan: semua baris periode berjalan dikirim ke aplikasi lalu di-group di Java
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT k.* FROM kpr_applications k JOIN properties p ON p.id = k.property_id
+WHERE p.developer_id = :developer_id AND k.created_at BETWEEN :'cur_start' AND :'end_at';
+
+-- ============ SESUDAH: satu query untuk seluruh dashboard ============
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT GROUPING(date_trunc('month', created_at)),
+       CAST(date_trunc('month', created_at) AS date),
+       COUNT(*) FILTER (WHERE cur AND status = 'APPROVED'),
+       COUNT(*) FILTER (WHERE cur AND status = 'REJECTED'),
+       COUNT(*) FILTER (WHERE cur AND status IN ('SUBMITTED', 'DOCUMENT_VERIFICATION',
+                        'PROPERTY_APPRAISAL', 'CREDIT_ANALYSIS', 'APPROVAL_PENDING')),
+       COUNT(DISTINCT user_id) FILTER (WHERE cur),
+       COUNT(*) FILTER (WHERE NOT cur AND status = 'APPROVED'),
+       COUNT(*) FILTER (WHERE NOT cur AND status = 'REJECTED'),
+       COUNT(*) FILTER (WHERE NOT cur AND status IN ('SUBMITTED', 'DOCUMENT_VERIFICATION',
+                        'PROPERTY_APPRAISAL', 'CREDIT_ANALYSIS', 'APPROVAL_PENDING')),
+       COUNT(DISTINCT user_id) FILTER (WHERE NOT cur),
+       COUNT(*) FILTER (WHERE cur AND status = 'PROPERTY_APPRAISAL'),
+       COUNT(*) FILTER (WHERE cur AND status = 'CREDIT_ANALYSIS'),
+       COUNT(*) FILTER (WHERE cur AND status = 'APPROVAL_PENDING'),
+       COUNT(*) FILTER (WHERE cur AND approved_at - submitted_at < INTERVAL '3 days'),
+       COUNT(*) FILTER (WHERE cur AND approved_at - submitted_at >= INTERVAL '3 days'
+                        AND approved_at - submitted_at < INTERVAL '6 days'),
+       COUNT(*) FILTER (WHERE cur AND approved_at - submitted_at >= INTERVAL '6 days'),
+       COUNT(*) FILTER (WHERE cur),
+       COALESCE(SUM(loan_amount) FILTER (WHERE cur), 0),
+       COALESCE(SUM(monthly_installment) FILTER (WHERE cur), 0)
+FROM (SELECT k.created_at, k.status, k.user_id, k.loan_amount, k.monthly_installment,
+             k.submitted_at, k.approved_at, k.created_at >= :'cur_start' AS cur
+      FROM kpr_applications k
+      WHERE k.property_id IN (SELECT p.id FROM properties p WHERE p.developer_id = :developer_id)
+        AND k.created_at >= :'prev_start' AND k.created_at < :'end_at') a
+GROUP BY GROUPING SETS ((), (date_trunc('month', created_at)));
+
+RESET search_path;
@@ -1,5 +1,12 @@
+// verify-otp-loadtest.js
+// Verifikasi OTP dijalankan sebagai satu script Lua di Redis (cek batas percobaan, hitung
+// percobaan, bandingkan constant time, hapus jika cocok) sehingga hanya satu round trip Redis per
+// request. Jalankan dengan LABEL=before di build lama dan LABEL=after di build baru, lalu isi
+// BASELINE_P95_MS dengan p95 run "before" agar summary menampilkan penurunan latency.
+// Matikan atau naikkan rate limit otp (app.rate-limit.otp.*) agar request tidak dijawab 429.
 import http from 'k6/http';
 import { check, sleep } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
 import { textSummary } from 'https://jslib.k6.io/k6-summary/0.0.4/index.js';
 
 // ============== ENV & DEFAULTS ==============
@@ -13,6 +20,9 @@ const VERIFY_PATH = (__ENV.VERIFY_PATH || '/api/v1/auth/verify-login-otp').start
 const PURPOSE   = __ENV.PURPOSE || 'login';
 const THINK_MS  = Number(__ENV.THINK_MS || 0);       // default 0ms biar lebih “keras”
 const LOG_FAIL  = String(__ENV.LOG_FAIL || 'false').toLowerCase() === 'true';
+const LABEL     = __ENV.LABEL || 'after';            // nama run, mis. before / after
+const MAX_P95_MS      = Number(__ENV.MAX_P95_MS || 300);
+const BASELINE_P95_MS = Number(__ENV.BASELINE_P95_MS || 0); // p95 run sebelumnya (0 = tidak ada)
 
 // Env buat load profile “keras”
 const RPS       = Number(__ENV.RPS || 100);          // target request per second
@@ -31,6 +41,13 @@ const OTPS = (__ENV.OTPS || '000000')
     .map(s => s.trim())
     .filter(Boolean);
 
+// ============== METRICS ==============
+// Waktu verifikasi per hasil: OTP salah/terblokir (4xx) dan sukses (2xx) melewati jalur Redis yang
+// sama, jadi keduanya ikut diukur
+const verifyDuration = new Trend('verify_otp_duration', true);
+const verifyRejected = new Trend('verify_otp_rejected_duration', true);
+const rateLimited = new Counter('verify_otp_rate_limited');
+
 // ============== HELPERS ==============
 function pick(arr) {
     return arr[Math.floor(Math.random() * arr.length)];
@@ -47,13 +64,14 @@ export const options = {
             preAllocatedVUs: VUS,
             maxVUs: MAX_VUS,
             exec: 'default',
-            tags: { scenario: 'hard_verify_otp' },
+            tags: { scenario: 'hard_verify_otp', label: LABEL },
         },
     },
     thresholds: {
         // pakai metric bawaan saja
         http_req_failed: ['rate<0.01'],          // kurang dari 1% gagal
-        http_req_duration: ['p(95)<300'],        // 95% request < 300ms
+        http_req_duration: [`p(95)<${MAX_P95_MS}`], // 95% request < MAX_P95_MS
+        verify_otp_rate_limited: ['count==0'],   // 429 berarti yang terukur rate limiter
     },
     discardResponseBodies: false,
     // @ts-ignore
@@ -77,6 +95,13 @@ export default function () {
         tags: { endpoint: VERIFY_PATH },
     });
 
+    verifyDuration.add(res.timings.duration);
+    if (res.status === 429) {
+        rateLimited.add(1);
+    } else if (res.status >= 400 && res.status < 500) {
+        verifyRejected.add(res.timings.duration);
+    }
+
     const ok = check(res, {
         'status 2xx': (r) => r.status >= 200 && r.status < 300,
     });
@@ -100,6 +125,12 @@ export function handleSummary(data) {
     // total request pakai metric bawaan http_reqs
     const totalReq = data.metrics.http_reqs?.values?.count || 0;
 
+    const verifyP95 = data.metrics.verify_otp_duration?.values?.['p(95)'];
+    const rejectedP95 = data.metrics.verify_otp_rejected_duration?.values?.['p(95)'];
+    const dropPct = BASELINE_P95_MS > 0 && verifyP95 !== undefined
+        ? (((BASELINE_P95_MS - verifyP95) / BASELINE_P95_MS) * 100).toFixed(1)
+        : 'n/a';
+
     const html = `
 <!doctype html>
 <html>
@@ -123,6 +154,7 @@ export function handleSummary(data) {
   <div class="card">
     <h2>Summary</h2>
     <table>
+      <tr><th>Label</th><td>${LABEL}</td></tr>
       <tr><th>Purpose</th><td>${PURPOSE}</td></tr>
       <tr><th>Total Requests</th><td>${totalReq}</td></tr>
       <tr><th>Failed Rate</th><td>${(failedRate * 100).toFixed(2)} %</td></tr>
@@ -132,6 +164,16 @@ export function handleSummary(data) {
     </table>
   </div>
 
+  <div class="card">
+    <h2>Before / After</h2>
+    <table>
+      <tr><th>verify_otp p95 (${LABEL})</th><td>${verifyP95?.toFixed?.(2) || 'n/a'} ms</td></tr>
+      <tr><th>rejected OTP p95</th><td>${rejectedP95?.toFixed?.(2) || 'n/a'} ms</td></tr>
+      <tr><th>baseline p95</th><td>${BASELINE_P95_MS > 0 ? BASELINE_P95_MS + ' ms' : 'n/a'}</td></tr>
+      <tr><th>p95 drop</th><td>${dropPct} %</td></tr>
+    </table>
+  </div>
+
   <div class="card">
     <h2>Config</h2>
     <table>
@@ -150,8 +192,12 @@ export function handleSummary(data) {
 </html>
 `;
 
+    const comparison = BASELINE_P95_MS > 0
+        ? `\n verify_otp p95 ${LABEL}: ${verifyP95?.toFixed?.(2)} ms vs baseline ${BASELINE_P95_MS} ms (${dropPct} % lower)\n`
+        : '';
+
     return {
-        stdout: textSummary(data, { indent: ' ', enableColors: true }),
-        'verify-otp-summary.html': html,
+        stdout: textSummary(data, { indent: ' ', enableColors: true }) + comparison,
+        [`verify-otp-summary-${LABEL}.html`]: html,
     };
 }
@@ -67,11 +67,12 @@ public class CorsFilter implements Filter {
     response.setHeader(
         "Access-Control-Allow-Headers",
         "Authorization, Content-Type, X-Requested-With, Accept, Origin, "
-            + "Access-Control-Request-Method, Access-Control-Request-Headers, X-Custom-Header");
+            + "Access-Control-Request-Method, Access-Control-Request-Headers, X-Custom-Header, "
+            + "Idempotency-Key");
     response.setHeader(
         "Access-Control-Expose-Headers",
         "Access-Control-Allow-Origin, Access-Control-Allow-Credentials, Authorization, "
-            + "Content-Type, X-Total-Count, X-Page-Number, X-Page-Size");
+            + "Content-Type, X-Total-Count, X-Page-Number, X-Page-Size, Idempotency-Replayed");
     response.setHeader("Access-Control-Max-Age", "3600");
 
     // Handle preflight requests
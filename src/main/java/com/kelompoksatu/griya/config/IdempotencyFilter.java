@@ -0,0 +1,286 @@
+package com.kelompoksatu.griya.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kelompoksatu.griya.dto.ApiResponse;
+import com.kelompoksatu.griya.service.IdempotencyService;
+import com.kelompoksatu.griya.service.IdempotencyService.IdempotencyRecord;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Idempotency Filter untuk POST/PUT/PATCH yang membawa header Idempotency-Key.
+ *
+ * <p>Retry dengan key yang sama (per user dan endpoint) mendapat response yang tersimpan, atau 409
+ * jika request pertama masih diproses. Filter ini berjalan setelah Spring Security sehingga atribut
+ * userId dari JwtAuthenticationFilter sudah tersedia. Jika Redis tidak tersedia, request tetap
+ * diproses seperti biasa (fail-open).
+ *
+ * <p>Hanya request terautentikasi yang diproses, dan endpoint auth dikecualikan: response-nya
+ * berisi token dan tidak boleh di-replay ke client lain. Key terikat ke hash body request; key yang
+ * dipakai ulang dengan body berbeda dijawab 422. Hanya response 2xx dan 409 yang disimpan, status
+ * lain melepas key agar client bisa mencoba ulang.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  public static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+  private static final int MAX_KEY_LENGTH = 128;
+  private static final String AUTH_PATH_PREFIX = "/api/v1/auth/";
+
+  private final IdempotencyService idempotencyService;
+  private final ObjectMapper objectMapper;
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String method = request.getMethod();
+    boolean mutating =
+        "POST".equalsIgnoreCase(method)
+            || "PUT".equalsIgnoreCase(method)
+            || "PATCH".equalsIgnoreCase(method);
+    return !mutating
+        || !StringUtils.hasText(request.getHeader(IDEMPOTENCY_HEADER))
+        || request.getAttribute("userId") == null
+        || request.getRequestURI().startsWith(AUTH_PATH_PREFIX);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    String idempotencyKey = request.getHeader(IDEMPOTENCY_HEADER).trim();
+    if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+      writeError(response, HttpServletResponse.SC_BAD_REQUEST, "Idempotency-Key terlalu panjang");
+      return;
+    }
+
+    String scopedKey = buildScopedKey(request, idempotencyKey);
+    BodyHashedRequest hashed = hashBody(request);
+    request = hashed.request();
+    String bodyHash = hashed.bodyHash();
+
+    boolean claimed;
+    try {
+      claimed = idempotencyService.tryBegin(scopedKey, bodyHash);
+    } catch (Exception e) {
+      log.warn("Idempotency store unavailable, processing request without it: {}", e.getMessage());
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    if (!claimed) {
+      replayOrReject(scopedKey, bodyHash, response);
+      return;
+    }
+
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    try {
+      filterChain.doFilter(request, wrapper);
+    } catch (IOException | ServletException | RuntimeException e) {
+      safeRelease(scopedKey);
+      throw e;
+    }
+
+    int status = wrapper.getStatus();
+    boolean replayable =
+        (status >= 200 && status < 300) || status == HttpServletResponse.SC_CONFLICT;
+    if (!replayable) {
+      // Error validasi atau server: biarkan client mencoba ulang dengan key yang sama
+      safeRelease(scopedKey);
+    } else {
+      try {
+        String body = new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8);
+        idempotencyService.complete(scopedKey, bodyHash, status, wrapper.getContentType(), body);
+      } catch (Exception e) {
+        log.warn("Failed to store idempotent response for {}: {}", scopedKey, e.getMessage());
+        safeRelease(scopedKey);
+      }
+    }
+    wrapper.copyBodyToResponse();
+  }
+
+  private void replayOrReject(String scopedKey, String bodyHash, HttpServletResponse response)
+      throws IOException {
+    IdempotencyRecord record = idempotencyService.find(scopedKey);
+    if (record != null && record.getBodyHash() != null && !record.getBodyHash().equals(bodyHash)) {
+      writeError(
+          response,
+          HttpStatus.UNPROCESSABLE_ENTITY.value(),
+          "Idempotency-Key sudah dipakai untuk request dengan body berbeda");
+      return;
+    }
+    if (record != null && record.isCompleted()) {
+      log.info("Replaying stored response for idempotency key {}", scopedKey);
+      response.setStatus(record.getStatus());
+      if (record.getContentType() != null) {
+        response.setContentType(record.getContentType());
+      }
+      response.setCharacterEncoding("UTF-8");
+      response.setHeader(REPLAYED_HEADER, "true");
+      if (record.getBody() != null) {
+        response.getWriter().write(record.getBody());
+      }
+      response.getWriter().flush();
+      return;
+    }
+
+    writeError(
+        response,
+        HttpServletResponse.SC_CONFLICT,
+        "Permintaan dengan Idempotency-Key yang sama masih diproses");
+  }
+
+  /** Key di-scope per user dan endpoint agar tidak bisa bertabrakan antar user */
+  private String buildScopedKey(HttpServletRequest request, String idempotencyKey) {
+    Object userId = request.getAttribute("userId");
+    String scope = userId != null ? "user:" + userId : "anon";
+    return scope + ":" + request.getMethod() + ":" + request.getRequestURI() + ":" + idempotencyKey;
+  }
+
+  /** Request (dibungkus jika body perlu dibaca ulang) beserta SHA-256 body-nya */
+  private record BodyHashedRequest(HttpServletRequest request, String bodyHash) {}
+
+  /**
+   * Hash body request. Multipart dan form di-hash dari part/parameter yang sudah di-parse container
+   * (tetap bisa dibaca controller); body lain dibaca penuh lalu disajikan ulang lewat wrapper.
+   */
+  private BodyHashedRequest hashBody(HttpServletRequest request)
+      throws IOException, ServletException {
+    MessageDigest digest = DigestUtils.getSha256Digest();
+    String contentType = request.getContentType();
+    if (contentType != null && contentType.toLowerCase().startsWith("multipart/")) {
+      for (Part part : request.getParts()) {
+        digest.update(part.getName().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        try (InputStream content = part.getInputStream()) {
+          DigestUtils.updateDigest(digest, content);
+        }
+        digest.update((byte) 0);
+      }
+      return new BodyHashedRequest(request, Hex.encodeHexString(digest.digest()));
+    }
+    if (contentType != null
+        && contentType.toLowerCase().startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)) {
+      new TreeMap<>(request.getParameterMap())
+          .forEach(
+              (name, values) -> {
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                for (String value : values) {
+                  digest.update((byte) 0);
+                  digest.update(value.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 1);
+              });
+      return new BodyHashedRequest(request, Hex.encodeHexString(digest.digest()));
+    }
+    byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+    return new BodyHashedRequest(
+        new CachedBodyRequest(request, body), Hex.encodeHexString(digest.digest(body)));
+  }
+
+  /** Menyajikan body yang sudah dibaca filter ke handler berikutnya */
+  private static class CachedBodyRequest extends HttpServletRequestWrapper {
+    private final byte[] body;
+
+    CachedBodyRequest(HttpServletRequest request, byte[] body) {
+      super(request);
+      this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream source = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public boolean isFinished() {
+          return source.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read() {
+          return source.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+          return source.read(buffer, offset, length);
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      String encoding = getCharacterEncoding();
+      return new BufferedReader(
+          new InputStreamReader(
+              getInputStream(),
+              encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int getContentLength() {
+      return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+      return body.length;
+    }
+  }
+
+  private void safeRelease(String scopedKey) {
+    try {
+      idempotencyService.release(scopedKey);
+    } catch (Exception e) {
+      log.warn("Failed to release idempotency key {}: {}", scopedKey, e.getMessage());
+    }
+  }
+
+  private void writeError(HttpServletResponse response, int status, String message)
+      throws IOException {
+    response.setStatus(status);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding("UTF-8");
+    response.getWriter().write(objectMapper.writeValueAsString(ApiResponse.error(message)));
+    response.getWriter().flush();
+  }
+}
@@ -0,0 +1,195 @@
+package com.kelompoksatu.griya.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kelompoksatu.griya.dto.ApiResponse;
+import com.kelompoksatu.griya.service.RateLimiterService;
+import com.kelompoksatu.griya.service.RateLimiterService.Decision;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Rate limit per route untuk endpoint yang rawan disalahgunakan: login, OTP, pengajuan KPR dan
+ * listing properti publik.
+ *
+ * <p>Policy pertama yang cocok dengan method dan path dipakai. Client diidentifikasi dengan userId
+ * (jika policy per user dan request terautentikasi) atau alamat remote koneksi. Filter berjalan
+ * setelah Spring Security, dan sebelum {@link IdempotencyFilter} agar request yang ditolak tidak
+ * mengklaim Idempotency-Key. Jika Redis tidak tersedia, request tetap diproses (fail-open).
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+  private final RateLimiterService rateLimiterService;
+  private final ObjectMapper objectMapper;
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  @Value("${app.rate-limit.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.rate-limit.login.limit:10}")
+  private int loginLimit;
+
+  @Value("${app.rate-limit.login.period-seconds:60}")
+  private long loginPeriodSeconds;
+
+  @Value("${app.rate-limit.otp.limit:10}")
+  private int otpLimit;
+
+  @Value("${app.rate-limit.otp.period-seconds:60}")
+  private long otpPeriodSeconds;
+
+  @Value("${app.rate-limit.submit.limit:5}")
+  private int submitLimit;
+
+  @Value("${app.rate-limit.submit.period-seconds:60}")
+  private long submitPeriodSeconds;
+
+  @Value("${app.rate-limit.listing.limit:120}")
+  private int listingLimit;
+
+  @Value("${app.rate-limit.listing.period-seconds:60}")
+  private long listingPeriodSeconds;
+
+  private List<RoutePolicy> policies;
+
+  /**
+   * @param name nama policy, bagian dari key Redis
+   * @param method HTTP method yang dibatasi
+   * @param patterns pola path (Ant)
+   * @param perUser batasi per userId jika terautentikasi, selain itu per IP
+   */
+  private record RoutePolicy(
+      String name,
+      String method,
+      List<String> patterns,
+      int limit,
+      Duration period,
+      boolean perUser) {}
+
+  @PostConstruct
+  public void init() {
+    policies =
+        List.of(
+            new RoutePolicy(
+                "login",
+                "POST",
+                List.of("/api/v1/auth/login"),
+                loginLimit,
+                Duration.ofSeconds(loginPeriodSeconds),
+                false),
+            new RoutePolicy(
+                "otp",
+                "POST",
+                List.of("/api/v1/auth/*-otp", "/api/v1/auth/**/*-otp"),
+                otpLimit,
+                Duration.ofSeconds(otpPeriodSeconds),
+                false),
+            new RoutePolicy(
+                "submit",
+                "POST",
+                List.of("/api/v1/kpr-applications"),
+                submitLimit,
+                Duration.ofSeconds(submitPeriodSeconds),
+                true),
+            new RoutePolicy(
+                "listing",
+                "GET",
+                List.of("/api/v1/properties", "/api/v1/properties/**"),
+                listingLimit,
+                Duration.ofSeconds(listingPeriodSeconds),
+                false));
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled || findPolicy(request) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    RoutePolicy policy = findPolicy(request);
+    String key = policy.name() + ":" + clientKey(request, policy);
+
+    Decision decision;
+    try {
+      decision = rateLimiterService.tryAcquire(key, policy.limit(), policy.period());
+    } catch (Exception e) {
+      log.warn("Rate limiter unavailable, processing request without it: {}", e.getMessage());
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    if (!decision.allowed()) {
+      log.warn("Rate limit {} exceeded for {}", policy.name(), key);
+      long retryAfterSeconds = Math.max((decision.retryAfterMillis() + 999) / 1000, 1);
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+      response.setHeader(REMAINING_HEADER, "0");
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.setCharacterEncoding("UTF-8");
+      response
+          .getWriter()
+          .write(
+              objectMapper.writeValueAsString(
+                  ApiResponse.error(
+                      "Terlalu banyak permintaan. Silakan coba lagi dalam "
+                          + retryAfterSeconds
+                          + " detik.")));
+      response.getWriter().flush();
+      return;
+    }
+
+    response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+    filterChain.doFilter(request, response);
+  }
+
+  private RoutePolicy findPolicy(HttpServletRequest request) {
+    String path = request.getRequestURI();
+    for (RoutePolicy policy : policies) {
+      if (!policy.method().equalsIgnoreCase(request.getMethod())) {
+        continue;
+      }
+      for (String pattern : policy.patterns()) {
+        if (pathMatcher.match(pattern, path)) {
+          return policy;
+        }
+      }
+    }
+    return null;
+  }
+
+  private String clientKey(HttpServletRequest request, RoutePolicy policy) {
+    Object userId = request.getAttribute("userId");
+    if (policy.perUser() && userId != null) {
+      return "user:" + userId;
+    }
+    // Alamat dari koneksi, bukan header X-Forwarded-For yang bisa diisi bebas oleh client. Di
+    // belakang proxy, server.forward-headers-strategy=native menggantinya dengan IP client asli
+    // hanya jika request datang dari proxy tepercaya
+    return "ip:" + request.getRemoteAddr();
+  }
+}
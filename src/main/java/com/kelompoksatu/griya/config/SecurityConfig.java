@@ -2,6 +2,8 @@ package com.kelompoksatu.griya.config;
 
 import com.kelompoksatu.griya.security.JwtAuthenticationEntryPoint;
 import com.kelompoksatu.griya.security.JwtAuthenticationFilter;
+import com.kelompoksatu.griya.util.BCryptCostCalibrator;
+import jakarta.servlet.DispatcherType;
 import java.util.Arrays;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Value;
@@ -42,10 +44,19 @@ public class SecurityConfig {
   @Value("${security.cors.allowed-headers}")
   private String allowedHeaders;
 
+  @Value("${app.password-hash.bcrypt-strength:12}")
+  private int bcryptStrength;
+
+  /** Jika > 0, cost BCrypt diukur saat startup agar satu hash mendekati target ini */
+  @Value("${app.password-hash.calibrate-target-ms:0}")
+  private long calibrateTargetMs;
+
   /** Password encoder bean using BCrypt */
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder(12); // Strength 12 for better security
+    int strength =
+        calibrateTargetMs > 0 ? BCryptCostCalibrator.calibrate(calibrateTargetMs) : bcryptStrength;
+    return new BCryptPasswordEncoder(strength);
   }
 
   /** Authentication manager bean */
@@ -110,6 +121,7 @@ public class SecurityConfig {
     configuration.addAllowedHeader("Access-Control-Request-Method");
     configuration.addAllowedHeader("Access-Control-Request-Headers");
     configuration.addAllowedHeader("X-Custom-Header");
+    configuration.addAllowedHeader("Idempotency-Key");
 
     // Expose headers to frontend
     configuration.setExposedHeaders(
@@ -120,7 +132,8 @@ public class SecurityConfig {
             "Content-Type",
             "X-Total-Count",
             "X-Page-Number",
-            "X-Page-Size"));
+            "X-Page-Size",
+            "Idempotency-Replayed"));
 
     // Cache preflight response for 1 hour
     configuration.setMaxAge(3600L);
@@ -155,6 +168,10 @@ public class SecurityConfig {
         .authorizeHttpRequests(
             authz ->
                 authz
+                    // Async dispatch (SSE stream selesai) sudah diotorisasi pada request awal
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                    .permitAll()
+
                     // Public endpoints (no authentication required)
                     .requestMatchers(
                         "/api/v1/notifications/{id}",
@@ -193,7 +210,7 @@ public class SecurityConfig {
                     .permitAll()
 
                     // Admin endpoints (require ADMIN role)
-                    .requestMatchers("/api/v1/admin/**")
+                    .requestMatchers("/api/v1/admin/**", "/actuator/metrics/**")
                     .hasRole("ADMIN")
 
                     // User endpoints (require authentication)
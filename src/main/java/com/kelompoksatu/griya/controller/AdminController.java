@@ -4,6 +4,8 @@ import com.kelompoksatu.griya.dto.*;
 import com.kelompoksatu.griya.repository.PropertyFavoriteRepository;
 import com.kelompoksatu.griya.service.AdminService;
 import com.kelompoksatu.griya.service.DeveloperService;
+import com.kelompoksatu.griya.service.OtpAuditService;
+import com.kelompoksatu.griya.service.OtpService;
 import com.kelompoksatu.griya.service.PropertyService;
 import com.kelompoksatu.griya.service.UserService;
 import com.kelompoksatu.griya.util.JwtUtil;
@@ -15,13 +17,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -44,6 +50,8 @@ public class AdminController {
   private final PropertyService propertyService;
   private final UserService userService;
   private final JwtUtil jwtUtil;
+  private final OtpAuditService otpAuditService;
+  private final OtpService otpService;
 
   // ==================== DEVELOPER MANAGEMENT ====================
 
@@ -714,6 +722,42 @@ public class AdminController {
     return ResponseEntity.ok(response);
   }
 
+  /** Audit OTP satu nomor telepon dalam rentang waktu (default 24 jam terakhir) */
+  @Operation(
+      summary = "Get OTP audit events",
+      description =
+          "Returns OTP audit events for one phone number within a time range, newest first."
+              + " When hasNext is true, pass nextCursor to continue the search")
+  @GetMapping("/otp-audit")
+  public ResponseEntity<ApiResponse<KeysetPageResponse<OtpAuditEntry>>> getOtpAudit(
+      @Parameter(description = "Phone number", example = "081234567890") @RequestParam String phone,
+      @Parameter(description = "Start time (ISO)", example = "2024-06-01T00:00:00")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @Parameter(description = "End time (ISO)", example = "2024-06-02T00:00:00")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to,
+      @Parameter(description = "Maximum number of events", example = "100")
+          @RequestParam(defaultValue = "100")
+          @Min(1)
+          @Max(1000)
+          int limit,
+      @Parameter(description = "Cursor from the previous response (nextCursor)")
+          @RequestParam(required = false)
+          String cursor,
+      HttpServletRequest httpRequest) {
+    LocalDateTime end = to != null ? to : LocalDateTime.now();
+    LocalDateTime start = from != null ? from : end.minusDays(1);
+    KeysetPageResponse<OtpAuditEntry> events =
+        otpAuditService.find(otpService.normalizePhoneNumber(phone), start, end, limit, cursor);
+
+    return ResponseEntity.ok(
+        ApiResponse.success(
+            events, "OTP audit retrieved successfully", httpRequest.getRequestURI()));
+  }
+
   @DeleteMapping("/users/{id}")
   public ResponseEntity<ApiResponse<Void>> hardDeleteUser(
       @PathVariable Integer id,
@@ -1,14 +1,16 @@
 package com.kelompoksatu.griya.controller;
 
 import com.kelompoksatu.griya.dto.*;
+import com.kelompoksatu.griya.security.JwtPrincipal;
 import com.kelompoksatu.griya.service.ApprovalWorkflowService;
-import com.kelompoksatu.griya.util.JwtUtil;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,16 +23,14 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "bearerAuth")
 public class ApprovalController {
   private final ApprovalWorkflowService approvalWorkflowService;
-  private final JwtUtil jwtUtil;
 
   @PostMapping("/developer")
   public ResponseEntity<ApiResponse<Boolean>> approveOrRejectWorkflowDeveloper(
       @Valid @RequestBody ApprovalConfirmation request,
-      @RequestHeader("Authorization") String authHeader) {
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal) {
     try {
       log.info("Processing workflow approval/rejection for developer");
-      String token = authHeader.replace("Bearer ", "");
-      Integer userId = jwtUtil.extractUserId(token);
+      Integer userId = principal.userId();
       approvalWorkflowService.approveOrRejectWorkflowDeveloper(request, userId);
       String action = request.getIsApproved() ? "APPROVED" : "REJECTED";
       String message = "Workflow berhasil " + action;
@@ -44,11 +44,10 @@ public class ApprovalController {
   @PostMapping("/verifikator")
   public ResponseEntity<ApiResponse<Boolean>> approveOrRejectWorkflowVerifikator(
       @Valid @RequestBody ApprovalConfirmation request,
-      @RequestHeader("Authorization") String authHeader) {
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal) {
     try {
       log.info("Processing workflow approval/rejection for verifikator");
-      String token = authHeader.replace("Bearer ", "");
-      Integer userId = jwtUtil.extractUserId(token);
+      Integer userId = principal.userId();
       approvalWorkflowService.approveOrRejectWorkflowVerifikator(request, userId);
       String action = request.getIsApproved() ? "APPROVED" : "REJECTED";
       String message = "Workflow berhasil " + action;
@@ -58,4 +57,44 @@ public class ApprovalController {
       return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
     }
   }
+
+  @PostMapping("/developer/bulk")
+  public ResponseEntity<ApiResponse<BulkApprovalResponse>> bulkApproveOrRejectWorkflowDeveloper(
+      @Valid @RequestBody BulkApprovalRequest request,
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal) {
+    try {
+      log.info(
+          "Processing bulk workflow approval/rejection for developer: {} decisions",
+          request.getDecisions().size());
+      Integer userId = principal.userId();
+      BulkApprovalResponse result =
+          approvalWorkflowService.bulkApproveOrRejectDeveloper(request.getDecisions(), userId);
+      return ResponseEntity.ok(ApiResponse.success(bulkMessage(result), result));
+    } catch (Exception e) {
+      return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+    }
+  }
+
+  @PostMapping("/verifikator/bulk")
+  public ResponseEntity<ApiResponse<BulkApprovalResponse>> bulkApproveOrRejectWorkflowVerifikator(
+      @Valid @RequestBody BulkApprovalRequest request,
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal) {
+    try {
+      log.info(
+          "Processing bulk workflow approval/rejection for verifikator: {} decisions",
+          request.getDecisions().size());
+      Integer userId = principal.userId();
+      BulkApprovalResponse result =
+          approvalWorkflowService.bulkApproveOrRejectVerifikator(request.getDecisions(), userId);
+      return ResponseEntity.ok(ApiResponse.success(bulkMessage(result), result));
+    } catch (Exception e) {
+      return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+    }
+  }
+
+  private String bulkMessage(BulkApprovalResponse result) {
+    return String.format(
+        "%d workflow APPROVED, %d REJECTED, %d gagal",
+        result.getApproved(), result.getRejected(), result.getFailed());
+  }
 }
@@ -1,6 +1,7 @@
 package com.kelompoksatu.griya.controller;
 
 import com.kelompoksatu.griya.dto.*;
+import com.kelompoksatu.griya.exception.PasswordHashingBusyException;
 import com.kelompoksatu.griya.service.AuthService;
 import com.kelompoksatu.griya.service.OtpService;
 import com.kelompoksatu.griya.service.RedisService;
@@ -63,6 +64,9 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
       }
 
+    } catch (PasswordHashingBusyException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .body(ApiResponse.error(e.getMessage(), httpRequest.getRequestURI()));
     } catch (IllegalArgumentException e) {
       log.error("Validation error during registration: {}", e.getMessage());
 
@@ -320,6 +324,9 @@ public class AuthController {
               developerResponse, "Developer registered successfully", httpRequest.getRequestURI());
 
       return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    } catch (PasswordHashingBusyException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .body(ApiResponse.error(e.getMessage(), httpRequest.getRequestURI()));
     } catch (IllegalArgumentException e) {
       log.error("Validation error during developer registration: {}", e.getMessage());
       ApiResponse<RegisterDeveloperResponse> response =
@@ -365,6 +372,9 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
       }
 
+    } catch (PasswordHashingBusyException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .body(ApiResponse.error(e.getMessage(), httpRequest.getRequestURI()));
     } catch (IllegalArgumentException e) {
       log.error("Invalid login request: {}", e.getMessage());
 
@@ -494,6 +504,31 @@ public class AuthController {
     }
   }
 
+  /** Logout dari semua perangkat POST /api/v1/auth/logout-all */
+  @PostMapping("/logout-all")
+  public ResponseEntity<ApiResponse<Integer>> logoutAll(
+      @RequestHeader("Authorization") String authHeader, HttpServletRequest httpRequest) {
+
+    try {
+      Integer userId = jwtUtil.extractUserIdFromHeader(authHeader);
+      int revoked = authService.logoutAll(userId);
+
+      ApiResponse<Integer> response =
+          ApiResponse.success(
+              revoked, "Logout dari semua perangkat berhasil", httpRequest.getRequestURI());
+
+      return ResponseEntity.ok(response);
+
+    } catch (Exception e) {
+      log.error("Logout all failed: {}", e.getMessage());
+
+      ApiResponse<Integer> response =
+          ApiResponse.error(e.getMessage(), httpRequest.getRequestURI());
+
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+  }
+
   /** Validate JWT token POST /api/v1/auth/validate */
   @PostMapping("/validate")
   public ResponseEntity<ApiResponse<Boolean>> validateToken(
@@ -622,6 +657,9 @@ public class AuthController {
       redisService.delete("pwd_reset:" + token);
       return ResponseEntity.ok(
           ApiResponse.success(true, "Password berhasil direset", httpRequest.getRequestURI()));
+    } catch (PasswordHashingBusyException e) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .body(ApiResponse.error(e.getMessage(), httpRequest.getRequestURI()));
     } catch (IllegalArgumentException e) {
       return ResponseEntity.status(HttpStatus.BAD_REQUEST)
           .body(ApiResponse.error(e.getMessage(), httpRequest.getRequestURI()));
@@ -1,6 +1,7 @@
 package com.kelompoksatu.griya.controller;
 
 import com.kelompoksatu.griya.dto.*;
+import com.kelompoksatu.griya.security.JwtPrincipal;
 import com.kelompoksatu.griya.service.KprApplicationService;
 import com.kelompoksatu.griya.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,6 +11,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -20,6 +22,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -87,7 +91,9 @@ public class KprApplicationController {
       description =
           "Submit a new KPR (Home Loan) application with property details, personal data, "
               + "employment information, and required documents. Supports file uploads for KTP, NPWP, "
-              + "salary slip, and other supporting documents.")
+              + "salary slip, and other supporting documents. Send an Idempotency-Key header to "
+              + "make retries safe: a repeated key returns the stored response instead of "
+              + "submitting again.")
   @ApiResponses(
       value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -111,7 +117,10 @@ public class KprApplicationController {
             content = @Content(mediaType = "application/json")),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "409",
-            description = "Conflict - User already has pending application for this property",
+            description =
+                "Conflict - Property is no longer available, user already has pending application "
+                    + "for this property, "
+                    + "or a request with the same Idempotency-Key is still being processed",
             content = @Content(mediaType = "application/json")),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "413",
@@ -265,6 +274,11 @@ public class KprApplicationController {
 
       return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
+    } catch (IllegalStateException e) {
+      // Pending application for this property, or the property was reserved by another submission
+      logger.warn("KPR application rejected: {}", e.getMessage());
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(new ApiResponse<>(false, e.getMessage(), null));
     } catch (Exception e) {
       logger.error("Error processing KPR application: {}", e.getMessage(), e);
       ApiResponse<KprApplicationResponse> response =
@@ -332,9 +346,11 @@ public class KprApplicationController {
 
       logger.info("Processing KPR application detail request for user ID: {}", userId);
 
+      String role = jwtUtil.extractUserRole(token);
+
       // Get application detail through service
       KprApplicationDetailResponse response =
-          kprApplicationService.getApplicationDetail(applicationId, userId);
+          kprApplicationService.getApplicationDetail(applicationId, userId, role);
 
       logger.info("KPR application detail retrieved successfully for ID: {}", applicationId);
       return ResponseEntity.ok(
@@ -720,6 +736,10 @@ public class KprApplicationController {
       logger.info("KPR application assigned successfully");
       return ResponseEntity.ok(
           new ApiResponse<String>(true, "KPR application assigned successfully", "ASSIGNED"));
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      logger.warn("Invalid KPR assignment request: {}", e.getMessage());
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+          .body(new ApiResponse<>(false, e.getMessage(), null));
     } catch (Exception e) {
       logger.error("Error assigning KPR application: {}", e.getMessage(), e);
       ApiResponse<String> response =
@@ -728,6 +748,83 @@ public class KprApplicationController {
     }
   }
 
+  @GetMapping("/admin/approvers/load")
+  @Operation(
+      summary = "Get approver workload",
+      description =
+          "Queue depth and recent throughput per approver, as used by auto-assignment when /admin/assign is called without approver ids.")
+  public ResponseEntity<ApiResponse<List<ApproverLoadResponse>>> getApproverLoads(
+      @Parameter(hidden = true) @RequestHeader("Authorization") String authHeader) {
+    try {
+      var token = jwtUtil.extractTokenFromHeader(authHeader);
+      String role = jwtUtil.extractUserRole(token);
+      List<ApproverLoadResponse> response = kprApplicationService.getApproverLoads(role);
+      return ResponseEntity.ok(
+          new ApiResponse<>(true, "Approver workload retrieved successfully", response));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN)
+          .body(new ApiResponse<>(false, e.getMessage(), null));
+    } catch (Exception e) {
+      logger.error("Error retrieving approver workload: {}", e.getMessage(), e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(
+              new ApiResponse<>(false, "Failed to get approver workload: " + e.getMessage(), null));
+    }
+  }
+
+  @GetMapping("/{applicationId}/timeline")
+  @Operation(
+      summary = "Get KPR application timeline",
+      description =
+          "Submit, assignment and approve/reject events of an application in order, read from the append-only event log.")
+  public ResponseEntity<ApiResponse<ApplicationTimelineResponse>> getApplicationTimeline(
+      @PathVariable("applicationId") Integer applicationId,
+      @Parameter(hidden = true) @RequestHeader("Authorization") String authHeader) {
+    try {
+      var token = jwtUtil.extractTokenFromHeader(authHeader);
+      Integer userId = jwtUtil.extractUserId(token);
+      String role = jwtUtil.extractUserRole(token);
+      ApplicationTimelineResponse response =
+          kprApplicationService.getApplicationTimeline(applicationId, userId, role);
+      return ResponseEntity.ok(
+          new ApiResponse<>(true, "Application timeline retrieved successfully", response));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND)
+          .body(new ApiResponse<>(false, e.getMessage(), null));
+    } catch (Exception e) {
+      logger.error("Error retrieving application timeline: {}", e.getMessage(), e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(
+              new ApiResponse<>(
+                  false, "Failed to get application timeline: " + e.getMessage(), null));
+    }
+  }
+
+  @PostMapping("/admin/{applicationId}/events/replay")
+  @Operation(
+      summary = "Rebuild application from events",
+      description =
+          "Replays the event log of an application, writes the projected status back and rebuilds the detail read model.")
+  public ResponseEntity<ApiResponse<String>> rebuildApplicationFromEvents(
+      @PathVariable("applicationId") Integer applicationId,
+      @Parameter(hidden = true) @RequestHeader("Authorization") String authHeader) {
+    try {
+      var token = jwtUtil.extractTokenFromHeader(authHeader);
+      String role = jwtUtil.extractUserRole(token);
+      String status = kprApplicationService.rebuildApplicationFromEvents(applicationId, role);
+      return ResponseEntity.ok(
+          new ApiResponse<>(true, "Application rebuilt from events with status " + status, status));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(new ApiResponse<>(false, e.getMessage(), null));
+    } catch (Exception e) {
+      logger.error("Error rebuilding application from events: {}", e.getMessage(), e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(
+              new ApiResponse<>(
+                  false, "Failed to rebuild application from events: " + e.getMessage(), null));
+    }
+  }
+
   @GetMapping("/admin/in-progress")
   public ResponseEntity<ApiResponse<List<KprInProgress>>> getAllKprApplicationsAll(
       @Parameter(hidden = true) @RequestHeader("Authorization") String authHeader) {
@@ -782,4 +879,90 @@ public class KprApplicationController {
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
   }
+
+  /**
+   * Keyset-paginated work queue for the developer (PROPERTY_APPRAISAL workflows)
+   *
+   * @param principal Authenticated user from the JWT filter
+   * @param request Filter, sort and cursor parameters
+   * @return Page of queue items with nextCursor
+   */
+  @GetMapping("/developer/queue")
+  @Operation(
+      summary = "Get developer work queue (cursor paginated)",
+      description =
+          "Open PROPERTY_APPRAISAL workflows of the developer. Supports status, createdAt and dueDate filters, sorting by createdAt or dueDate, and cursor pagination via nextCursor.")
+  public ResponseEntity<ApiResponse<KeysetPageResponse<KprQueueItem>>> getDeveloperQueue(
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
+      @Valid @ModelAttribute KprQueueRequest request) {
+    return getWorkQueue(KprWorkQueue.DEVELOPER, principal, request);
+  }
+
+  /**
+   * Keyset-paginated work queue for the verifikator/approver
+   *
+   * @param principal Authenticated user from the JWT filter
+   * @param request Filter, sort and cursor parameters
+   * @return Page of queue items with nextCursor
+   */
+  @GetMapping("/verifikator/queue")
+  @Operation(
+      summary = "Get verifikator work queue (cursor paginated)",
+      description =
+          "Open workflows assigned to the verifikator whose previous stage is approved. Supports status, createdAt and dueDate filters, sorting by createdAt or dueDate, and cursor pagination via nextCursor.")
+  public ResponseEntity<ApiResponse<KeysetPageResponse<KprQueueItem>>> getVerifikatorQueue(
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
+      @Valid @ModelAttribute KprQueueRequest request) {
+    return getWorkQueue(KprWorkQueue.VERIFIKATOR, principal, request);
+  }
+
+  /**
+   * Keyset-paginated admin queue
+   *
+   * @param principal Authenticated user from the JWT filter
+   * @param scope ALL, UNASSIGNED (only developer workflow) or ASSIGNED (fully assigned)
+   * @param request Filter, sort and cursor parameters
+   * @return Page of queue items with nextCursor
+   */
+  @GetMapping("/admin/queue")
+  @Operation(
+      summary = "Get admin work queue (cursor paginated)",
+      description =
+          "All, unassigned or assigned applications for the admin. Supports status and createdAt filters, sorting by createdAt, and cursor pagination via nextCursor.")
+  public ResponseEntity<ApiResponse<KeysetPageResponse<KprQueueItem>>> getAdminQueue(
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
+      @Parameter(description = "Queue scope", example = "UNASSIGNED")
+          @RequestParam(defaultValue = "ALL")
+          String scope,
+      @Valid @ModelAttribute KprQueueRequest request) {
+    KprWorkQueue queue =
+        switch (scope.toUpperCase()) {
+          case "UNASSIGNED" -> KprWorkQueue.ADMIN_UNASSIGNED;
+          case "ASSIGNED" -> KprWorkQueue.ADMIN_ASSIGNED;
+          default -> KprWorkQueue.ADMIN_ALL;
+        };
+    return getWorkQueue(queue, principal, request);
+  }
+
+  private ResponseEntity<ApiResponse<KeysetPageResponse<KprQueueItem>>> getWorkQueue(
+      KprWorkQueue queue, JwtPrincipal principal, KprQueueRequest request) {
+    try {
+      KeysetPageResponse<KprQueueItem> response =
+          kprApplicationService.getWorkQueue(queue, principal.userId(), principal.role(), request);
+      return ResponseEntity.ok(
+          new ApiResponse<>(true, "KPR work queue retrieved successfully", response));
+    } catch (AccessDeniedException e) {
+      logger.warn("KPR work queue {} denied: {}", queue, e.getMessage());
+      return ResponseEntity.status(HttpStatus.FORBIDDEN)
+          .body(new ApiResponse<>(false, e.getMessage(), null));
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid KPR work queue request: {}", e.getMessage());
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+          .body(new ApiResponse<>(false, e.getMessage(), null));
+    } catch (Exception e) {
+      logger.error("Error retrieving KPR work queue {}: {}", queue, e.getMessage(), e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(new ApiResponse<>(false, "Failed to get KPR work queue: " + e.getMessage(), null));
+    }
+  }
 }
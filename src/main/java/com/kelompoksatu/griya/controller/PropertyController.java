@@ -2,15 +2,18 @@ package com.kelompoksatu.griya.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kelompoksatu.griya.dto.AffordabilityRequest;
+import com.kelompoksatu.griya.dto.AffordabilityResponse;
 import com.kelompoksatu.griya.dto.ApiResponse;
 import com.kelompoksatu.griya.dto.CreatePropertyRequest;
 import com.kelompoksatu.griya.dto.PropertyResponse;
 import com.kelompoksatu.griya.entity.Property;
 import com.kelompoksatu.griya.entity.PropertyFavorite;
 import com.kelompoksatu.griya.repository.PropertyFavoriteRepository;
+import com.kelompoksatu.griya.security.JwtPrincipal;
+import com.kelompoksatu.griya.service.AffordabilityService;
 import com.kelompoksatu.griya.service.DeveloperService;
 import com.kelompoksatu.griya.service.PropertyService;
-import com.kelompoksatu.griya.util.JwtUtil;
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -24,6 +27,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -37,20 +41,20 @@ public class PropertyController {
   private final PropertyService propertyService;
   private final DeveloperService developerService;
   private final PropertyFavoriteRepository propertyFavoriteRepository;
+  private final AffordabilityService affordabilityService;
   private static final String ERROR_RETRIEVE_PROPERTIES = "Failed to retrieve properties: ";
   private static final String MSG_PROPERTY_RETRIEVED = "Property retrieved successfully";
-  private final JwtUtil jwtUtil;
 
   @Autowired
   public PropertyController(
       PropertyService propertyService,
       DeveloperService developerService,
       PropertyFavoriteRepository propertyFavoriteRepository,
-      JwtUtil jwtUtil) {
+      AffordabilityService affordabilityService) {
     this.propertyService = propertyService;
     this.developerService = developerService;
     this.propertyFavoriteRepository = propertyFavoriteRepository;
-    this.jwtUtil = jwtUtil;
+    this.affordabilityService = affordabilityService;
   }
 
   /** Create a new property */
@@ -72,6 +76,29 @@ public class PropertyController {
     }
   }
 
+  /**
+   * KPR pre-qualification: compute the maximum loan and property price per eligible KPR rate from
+   * the applicant's income, obligations and age, and list AVAILABLE properties within budget
+   */
+  @PostMapping("/affordability")
+  public ResponseEntity<ApiResponse<AffordabilityResponse>> checkAffordability(
+      @Valid @RequestBody AffordabilityRequest request) {
+    try {
+      AffordabilityResponse result = affordabilityService.preQualify(request);
+      ApiResponse<AffordabilityResponse> response =
+          new ApiResponse<>(true, "Affordability calculated successfully", result);
+      return ResponseEntity.ok(response);
+    } catch (IllegalArgumentException e) {
+      ApiResponse<AffordabilityResponse> response = new ApiResponse<>(false, e.getMessage(), null);
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    } catch (Exception e) {
+      log.error("Error calculating affordability: {}", e.getMessage(), e);
+      ApiResponse<AffordabilityResponse> response =
+          new ApiResponse<>(false, "Failed to calculate affordability: " + e.getMessage(), null);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
+  }
+
   /**
    * Get all properties, optionally filtered by query parameters Example:
    * /api/properties?city=Jakarta&status=AVAILABLE&minPrice=500000000&maxPrice=2000000000
@@ -110,11 +137,12 @@ public class PropertyController {
 
   @PostMapping("/favorites")
   public ResponseEntity<ApiResponse<Map<String, Object>>> toggleFavorite(
-      @RequestParam String propertyId, @RequestHeader("Authorization") String authHeader) {
+      @RequestParam String propertyId, @AuthenticationPrincipal JwtPrincipal principal) {
 
     try {
-      String token = jwtUtil.extractTokenFromHeader(authHeader);
-      Integer userId = jwtUtil.extractUserId(token);
+      // Principal hanya ada jika filter JWT menerima token (valid, sesi belum di-revoke, user
+      // aktif)
+      Integer userId = principal != null ? principal.userId() : null;
 
       if (userId == null) {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -163,11 +191,10 @@ public class PropertyController {
 
   @GetMapping("/favorites")
   public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getMyFavorites(
-      @RequestHeader("Authorization") String authHeader) {
+      @AuthenticationPrincipal JwtPrincipal principal) {
 
     try {
-      String token = jwtUtil.extractTokenFromHeader(authHeader);
-      Integer userId = jwtUtil.extractUserId(token);
+      Integer userId = principal != null ? principal.userId() : null;
 
       if (userId == null) {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
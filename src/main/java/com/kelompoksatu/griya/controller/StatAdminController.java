@@ -1,19 +1,22 @@
 package com.kelompoksatu.griya.controller;
 
 import com.kelompoksatu.griya.dto.ApiResponse;
+import com.kelompoksatu.griya.security.JwtPrincipal;
+import com.kelompoksatu.griya.service.DashboardLiveService;
 import com.kelompoksatu.griya.service.StatAdminService;
-import com.kelompoksatu.griya.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/stat-admin")
@@ -22,17 +25,15 @@ import org.springframework.web.bind.annotation.RestController;
 public class StatAdminController {
 
   private final StatAdminService service;
-  private final JwtUtil jwtUtil;
+  private final DashboardLiveService dashboardLiveService;
 
   @GetMapping("/dashboard")
   public ResponseEntity<ApiResponse<java.util.Map<String, Object>>> dashboard(
-      @Parameter(hidden = true) @RequestHeader("Authorization") String authHeader,
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
       @RequestParam(name = "range", required = false) String range,
       HttpServletRequest httpRequest) {
     try {
-      String token = jwtUtil.extractTokenFromHeader(authHeader);
-      String role = jwtUtil.extractUserRole(token);
-      if (role == null || !"ADMIN".equalsIgnoreCase(role)) {
+      if (!"ADMIN".equalsIgnoreCase(principal.role())) {
         return ResponseEntity.status(HttpStatus.FORBIDDEN)
             .body(ApiResponse.error("Akses ditolak: bukan ADMIN", httpRequest.getRequestURI()));
       }
@@ -45,4 +46,21 @@ public class StatAdminController {
           .body(ApiResponse.error(e.getMessage(), httpRequest.getRequestURI()));
     }
   }
+
+  /** Stream SSE dashboard admin: event snapshot lalu delta setiap perubahan status aplikasi */
+  @GetMapping("/dashboard/stream")
+  public ResponseEntity<SseEmitter> dashboardStream(
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
+      @RequestParam(name = "range", required = false) String range) {
+    if (!"ADMIN".equalsIgnoreCase(principal.role())) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    return ResponseEntity.ok()
+        .contentType(MediaType.TEXT_EVENT_STREAM)
+        .body(
+            dashboardLiveService.subscribe(
+                DashboardLiveService.adminScope(),
+                service.liveSnapshotKey(range),
+                () -> service.getDashboardStructuredUncached(range)));
+  }
 }
@@ -4,21 +4,24 @@ import com.kelompoksatu.griya.dto.ApiResponse;
 import com.kelompoksatu.griya.dto.DeveloperStatsResponse;
 import com.kelompoksatu.griya.entity.User;
 import com.kelompoksatu.griya.repository.UserRepository;
+import com.kelompoksatu.griya.security.JwtPrincipal;
+import com.kelompoksatu.griya.service.DashboardLiveService;
 import com.kelompoksatu.griya.service.StatDeveloperService;
-import com.kelompoksatu.griya.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Tag(name = "Developer Statistics", description = "Dashboard statistics for Developer")
 @RestController
@@ -28,23 +31,20 @@ import org.springframework.web.bind.annotation.RestController;
 public class StatDeveloperController {
 
   private final StatDeveloperService statDeveloperService;
-  private final JwtUtil jwtUtil;
+  private final DashboardLiveService dashboardLiveService;
   private final UserRepository userRepository;
 
   @GetMapping("/dashboard")
   public ResponseEntity<ApiResponse<DeveloperStatsResponse>> getDashboard(
-      @Parameter(hidden = true) @RequestHeader("Authorization") String authHeader,
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
       @RequestParam(name = "range", required = false) String range,
       HttpServletRequest request) {
-    String token = jwtUtil.extractTokenFromHeader(authHeader);
-    String role = jwtUtil.extractUserRole(token);
-    if (role == null || !"DEVELOPER".equalsIgnoreCase(role)) {
+    if (!"DEVELOPER".equalsIgnoreCase(principal.role())) {
       return ResponseEntity.status(HttpStatus.FORBIDDEN)
           .body(ApiResponse.error("Akses ditolak: bukan DEVELOPER", request.getRequestURI()));
     }
 
-    Integer userId = jwtUtil.extractUserId(token);
-    Optional<User> userOpt = userRepository.findById(userId);
+    Optional<User> userOpt = userRepository.findById(principal.userId());
     if (userOpt.isEmpty()) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
           .body(ApiResponse.error("Token tidak valid", request.getRequestURI()));
@@ -59,4 +59,29 @@ public class StatDeveloperController {
     return ResponseEntity.ok(
         ApiResponse.success(stats, "Statistics fetched", request.getRequestURI()));
   }
+
+  /** Stream SSE dashboard developer: event snapshot lalu delta setiap perubahan status aplikasi */
+  @GetMapping("/dashboard/stream")
+  public ResponseEntity<SseEmitter> getDashboardStream(
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
+      @RequestParam(name = "range", required = false) String range) {
+    if (!"DEVELOPER".equalsIgnoreCase(principal.role())) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    Optional<User> userOpt = userRepository.findById(principal.userId());
+    if (userOpt.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+    if (userOpt.get().getDeveloper() == null || userOpt.get().getDeveloper().getId() == null) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    Integer developerId = userOpt.get().getDeveloper().getId();
+    return ResponseEntity.ok()
+        .contentType(MediaType.TEXT_EVENT_STREAM)
+        .body(
+            dashboardLiveService.subscribe(
+                DashboardLiveService.developerScope(developerId),
+                statDeveloperService.liveSnapshotKey(developerId, range),
+                () -> statDeveloperService.getDashboardUncached(developerId, range)));
+  }
 }
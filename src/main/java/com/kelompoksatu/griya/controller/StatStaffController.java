@@ -2,19 +2,22 @@ package com.kelompoksatu.griya.controller;
 
 import com.kelompoksatu.griya.dto.ApiResponse;
 import com.kelompoksatu.griya.dto.StaffStatsResponse;
+import com.kelompoksatu.griya.security.JwtPrincipal;
+import com.kelompoksatu.griya.service.DashboardLiveService;
 import com.kelompoksatu.griya.service.StatStaffService;
-import com.kelompoksatu.griya.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/stat-staff")
@@ -23,25 +26,40 @@ import org.springframework.web.bind.annotation.RestController;
 public class StatStaffController {
 
   private final StatStaffService service;
-
-  private final JwtUtil jwtUtil;
+  private final DashboardLiveService dashboardLiveService;
 
   @GetMapping("/dashboard")
   public ResponseEntity<ApiResponse<StaffStatsResponse>> dashboard(
-      @Parameter(hidden = true) @RequestHeader("Authorization") String authHeader,
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
       @RequestParam(name = "range", required = false) String range,
       HttpServletRequest httpRequest) {
 
-    String token = jwtUtil.extractTokenFromHeader(authHeader);
-    String role = jwtUtil.extractUserRole(token);
-    if (role == null || !"APPROVER".equalsIgnoreCase(role)) {
+    if (!"APPROVER".equalsIgnoreCase(principal.role())) {
       return ResponseEntity.status(HttpStatus.FORBIDDEN)
           .body(ApiResponse.error("Akses ditolak: bukan STAFF", httpRequest.getRequestURI()));
     }
 
-    Integer staffId = jwtUtil.extractUserId(token);
+    Integer staffId = principal.userId();
     StaffStatsResponse resp = service.getDashboard(staffId, range);
     return ResponseEntity.ok(
         ApiResponse.success(resp, "Statistics fetched", httpRequest.getRequestURI()));
   }
+
+  /** Stream SSE dashboard staff: event snapshot lalu delta setiap perubahan status aplikasi */
+  @GetMapping("/dashboard/stream")
+  public ResponseEntity<SseEmitter> dashboardStream(
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
+      @RequestParam(name = "range", required = false) String range) {
+    if (!"APPROVER".equalsIgnoreCase(principal.role())) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    Integer staffId = principal.userId();
+    return ResponseEntity.ok()
+        .contentType(MediaType.TEXT_EVENT_STREAM)
+        .body(
+            dashboardLiveService.subscribe(
+                DashboardLiveService.staffScope(staffId),
+                service.liveSnapshotKey(staffId, range),
+                () -> service.getDashboardUncached(staffId, range)));
+  }
 }
@@ -2,8 +2,8 @@ package com.kelompoksatu.griya.controller;
 
 import com.kelompoksatu.griya.dto.ApiResponse;
 import com.kelompoksatu.griya.entity.SystemNotification;
+import com.kelompoksatu.griya.security.JwtPrincipal;
 import com.kelompoksatu.griya.service.SystemNotificationService;
-import com.kelompoksatu.griya.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.servlet.http.HttpServletRequest; // Import yang umum digunakan di Controller lain
 import java.util.List;
@@ -11,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -21,20 +22,19 @@ import org.springframework.web.bind.annotation.*;
 public class SystemNotificationController {
 
   private final SystemNotificationService notificationService;
-  private final JwtUtil jwtUtil;
 
   /** [POST] /api/v1/notifications: Membuat notifikasi baru. */
   @PostMapping
   public ResponseEntity<ApiResponse<SystemNotification>> createNotification(
-      @Parameter(hidden = true) @RequestHeader("Authorization") String authHeader,
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
       @RequestBody SystemNotification notification,
       HttpServletRequest request) {
     log.info(
         "CONTROLLER: Received POST request to create notification at path: {}",
         request.getRequestURI());
 
-    String token = jwtUtil.extractTokenFromHeader(authHeader);
-    Integer userId = jwtUtil.extractUserId(token);
+    // Principal hanya ada jika filter JWT menerima token (valid, sesi belum di-revoke, user aktif)
+    Integer userId = principal != null ? principal.userId() : null;
     if (userId == null) {
       ApiResponse<SystemNotification> unauthorized =
           ApiResponse.error("Token tidak valid", request.getRequestURI());
@@ -58,15 +58,13 @@ public class SystemNotificationController {
   /** [GET] /api/v1/notifications/user/{userId}: Mendapatkan semua notifikasi untuk user. */
   @GetMapping("/user")
   public ResponseEntity<ApiResponse<List<SystemNotification>>> getNotificationsForUser(
-      @Parameter(hidden = true) @RequestHeader("Authorization") String authHeader,
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
       HttpServletRequest request) {
 
-    String token = jwtUtil.extractTokenFromHeader(authHeader);
-
-    // Extract user ID from token
-    Integer userId = jwtUtil.extractUserId(token);
+    // User ID dari token yang sudah diverifikasi filter JWT
+    Integer userId = principal != null ? principal.userId() : null;
     if (userId == null) {
-      // Handle case where user ID is not found in token
+      // Handle case where request is not authenticated
       ApiResponse<List<SystemNotification>> response =
           ApiResponse.error("User ID not found in token.", request.getRequestURI());
       return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED); // 401 UNAUTHORIZED
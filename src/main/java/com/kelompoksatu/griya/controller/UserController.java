@@ -3,9 +3,9 @@ package com.kelompoksatu.griya.controller;
 import com.kelompoksatu.griya.dto.ApiResponse;
 import com.kelompoksatu.griya.dto.UpdateUserRequest;
 import com.kelompoksatu.griya.dto.UserResponse;
+import com.kelompoksatu.griya.security.JwtPrincipal;
 import com.kelompoksatu.griya.service.AuthService;
 import com.kelompoksatu.griya.service.UserService;
-import com.kelompoksatu.griya.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,6 +18,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 /** REST Controller for user operations API Version: v1 */
@@ -31,18 +32,15 @@ public class UserController {
 
   private final AuthService authService;
   private final UserService userService;
-  private final JwtUtil jwtUtil;
 
   /** Get user profile GET /api/v1/user/profile */
   @GetMapping("/profile")
   public ResponseEntity<ApiResponse<UserResponse>> getProfile(
-      @RequestHeader("Authorization") String authHeader, HttpServletRequest httpRequest) {
-
-    // Extract token from Authorization header
-    String token = jwtUtil.extractTokenFromHeader(authHeader);
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
+      HttpServletRequest httpRequest) {
 
-    // Get user profile
-    UserResponse userResponse = authService.getProfile(token);
+    // Get user profile of the authenticated user
+    UserResponse userResponse = authService.getProfile(principal.userId());
 
     ApiResponse<UserResponse> response =
         ApiResponse.success(
@@ -54,11 +52,10 @@ public class UserController {
   /** Get current user info (minimal endpoint for quick user verification) GET /api/v1/user/me */
   @GetMapping("/me")
   public ResponseEntity<ApiResponse<UserResponse>> getCurrentUser(
-      @RequestHeader("Authorization") String authHeader, HttpServletRequest httpRequest) {
-
-    String token = jwtUtil.extractTokenFromHeader(authHeader);
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
+      HttpServletRequest httpRequest) {
 
-    UserResponse userResponse = authService.getProfile(token);
+    UserResponse userResponse = authService.getProfile(principal.userId());
 
     ApiResponse<UserResponse> response =
         ApiResponse.success(
@@ -130,24 +127,14 @@ public class UserController {
           @Valid
           @RequestBody
           UpdateUserRequest request,
-      @RequestHeader("Authorization") String authHeader,
+      @Parameter(hidden = true) @AuthenticationPrincipal JwtPrincipal principal,
       HttpServletRequest httpRequest) {
 
     log.info("User update attempt for user ID: {}", id);
 
     try {
-      // Extract and validate token
-      String token = jwtUtil.extractTokenFromHeader(authHeader);
-
-      if (!authService.validateToken(token)) {
-        ApiResponse<UserResponse> response =
-            ApiResponse.error(
-                "Token tidak valid atau telah kedaluwarsa", httpRequest.getRequestURI());
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
-      }
-
-      // Extract user ID from JWT token
-      Integer tokenUserId = jwtUtil.extractUserId(token);
+      // User ID from the token verified by the JWT filter
+      Integer tokenUserId = principal.userId();
 
       // Ensure user can only update their own profile
       if (!tokenUserId.equals(id)) {
@@ -0,0 +1,60 @@
+package com.kelompoksatu.griya.dto;
+
+import com.kelompoksatu.griya.entity.KprRate;
+import com.kelompoksatu.griya.entity.Property;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Request DTO for KPR affordability pre-qualification */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Applicant financial profile for KPR pre-qualification")
+public class AffordabilityRequest {
+
+  @Schema(description = "Gross monthly income (Rp)", example = "15000000")
+  @NotNull(message = "Monthly income is required") @DecimalMin(value = "0.01", message = "Monthly income must be greater than 0")
+  private BigDecimal monthlyIncome;
+
+  @Schema(description = "Existing monthly debt installments (Rp)", example = "2000000")
+  @DecimalMin(value = "0", message = "Existing obligations cannot be negative")
+  @Builder.Default
+  private BigDecimal existingObligations = BigDecimal.ZERO;
+
+  @Schema(description = "Applicant age in years", example = "30")
+  @NotNull(message = "Age is required") @Min(value = 17, message = "Age must be at least 17")
+  @Max(value = 80, message = "Age cannot exceed 80")
+  private Integer age;
+
+  @Schema(description = "Customer segment", example = "EMPLOYEE", defaultValue = "ALL")
+  @Builder.Default
+  private KprRate.CustomerSegment customerSegment = KprRate.CustomerSegment.ALL;
+
+  @Schema(
+      description =
+          "Available down payment (Rp). When omitted the maximum price assumes the rate LTV",
+      example = "100000000")
+  @DecimalMin(value = "0", message = "Down payment cannot be negative")
+  private BigDecimal downPayment;
+
+  @Schema(description = "Only match properties of this type", example = "RUMAH")
+  private Property.PropertyType propertyType;
+
+  @Schema(description = "Only match properties in this city", example = "Jakarta Selatan")
+  private String city;
+
+  @Schema(description = "Maximum number of matching properties", example = "20")
+  @Min(value = 1, message = "Property limit must be at least 1")
+  @Max(value = 100, message = "Property limit cannot exceed 100")
+  @Builder.Default
+  private int propertyLimit = 20;
+}
@@ -0,0 +1,51 @@
+package com.kelompoksatu.griya.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Response DTO for KPR affordability pre-qualification */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AffordabilityResponse {
+
+  /** Debt-to-income cap applied to the monthly income */
+  private BigDecimal maxDebtToIncomeRatio;
+
+  /** Monthly installment budget after existing obligations */
+  private BigDecimal maxMonthlyInstallment;
+
+  /** Highest loan amount across all eligible rates */
+  private BigDecimal maxLoanAmount;
+
+  /** Highest property price across all eligible rates */
+  private BigDecimal maxPropertyPrice;
+
+  /** Result per eligible rate, best (highest property price) first */
+  private List<RateAffordability> rates;
+
+  /** AVAILABLE, KPR-eligible properties within budget, most expensive first */
+  private List<AffordablePropertyResponse> properties;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class RateAffordability {
+    private Integer kprRateId;
+    private String rateName;
+    private String propertyType;
+    private String customerSegment;
+    private BigDecimal effectiveRate;
+    private Integer tenorYears;
+    private BigDecimal maxLoanAmount;
+    private BigDecimal maxPropertyPrice;
+    private BigDecimal requiredDownPayment;
+    private BigDecimal monthlyInstallment;
+  }
+}
@@ -0,0 +1,55 @@
+package com.kelompoksatu.griya.dto;
+
+import com.kelompoksatu.griya.entity.Property;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Property matched by the affordability pre-qualification, with its best installment estimate */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AffordablePropertyResponse {
+  private Integer propertyId;
+  private String propertyCode;
+  private String slug;
+  private String title;
+  private String city;
+  private String province;
+  private Property.PropertyType propertyType;
+  private BigDecimal price;
+  private BigDecimal minDownPaymentPercent;
+
+  /** Cheapest installment across eligible rates for this property */
+  private Integer kprRateId;
+
+  private String rateName;
+  private Integer tenorYears;
+  private BigDecimal estimatedLoanAmount;
+  private BigDecimal estimatedMonthlyInstallment;
+
+  /** Constructor for JPQL projection; estimates are filled in afterwards */
+  public AffordablePropertyResponse(
+      Integer propertyId,
+      String propertyCode,
+      String slug,
+      String title,
+      String city,
+      String province,
+      Property.PropertyType propertyType,
+      BigDecimal price,
+      BigDecimal minDownPaymentPercent) {
+    this.propertyId = propertyId;
+    this.propertyCode = propertyCode;
+    this.slug = slug;
+    this.title = title;
+    this.city = city;
+    this.province = province;
+    this.propertyType = propertyType;
+    this.price = price;
+    this.minDownPaymentPercent = minDownPaymentPercent;
+  }
+}
@@ -0,0 +1,38 @@
+package com.kelompoksatu.griya.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Timeline aplikasi KPR yang dibaca dari event log append-only */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationTimelineResponse {
+  private Integer applicationId;
+  private String applicationNumber;
+
+  /** Status aplikasi hasil replay event */
+  private String currentStatus;
+
+  private List<TimelineEvent> events;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class TimelineEvent {
+    private Integer seq;
+    private String eventType;
+    private Integer actorId;
+    private String stage;
+    private String toStatus;
+    private JsonNode data;
+    private LocalDateTime occurredAt;
+  }
+}
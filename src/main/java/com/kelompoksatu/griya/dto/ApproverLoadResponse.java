@@ -0,0 +1,21 @@
+package com.kelompoksatu.griya.dto;
+
+import lombok.*;
+
+/** Beban kerja approver yang dipakai auto-assignment (CREDIT_ANALYSIS/FINAL_APPROVAL) */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApproverLoadResponse {
+  private Integer approverId;
+
+  /** Workflow approval yang masih PENDING/IN_PROGRESS */
+  private int queueDepth;
+
+  /** Workflow approval yang selesai dalam window throughput */
+  private int recentCompletions;
+
+  /** Perkiraan hari untuk menghabiskan antrian saat ini */
+  private double estimatedDaysToClear;
+}
@@ -9,6 +9,8 @@ import lombok.*;
 @Data
 public class AssignWorkflowRequest {
   @NonNull private Integer applicationId;
-  @NonNull private Integer firstApprovalId;
-  @NonNull private Integer secondApprovalId;
+
+  // Kosongkan firstApprovalId dan secondApprovalId untuk auto-assignment berdasarkan beban approver
+  private Integer firstApprovalId;
+  private Integer secondApprovalId;
 }
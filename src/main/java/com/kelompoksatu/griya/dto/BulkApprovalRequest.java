@@ -0,0 +1,21 @@
+package com.kelompoksatu.griya.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Keputusan approve/reject untuk banyak aplikasi yang diproses dalam satu transaksi */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalRequest {
+
+  @NotEmpty(message = "Decisions tidak boleh kosong")
+  @Size(max = 100, message = "Maksimal 100 keputusan per request")
+  private List<ApprovalConfirmation> decisions;
+}
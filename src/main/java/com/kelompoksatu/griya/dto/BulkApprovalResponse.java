@@ -0,0 +1,37 @@
+package com.kelompoksatu.griya.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Hasil bulk approve/reject, satu item per keputusan sesuai urutan request */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalResponse {
+  private int total;
+  private int approved;
+  private int rejected;
+  private int failed;
+  private List<ItemResult> results;
+
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class ItemResult {
+    private Integer applicationId;
+    private boolean success;
+
+    /** APPROVED atau REJECTED; null jika gagal */
+    private String action;
+
+    /** Status aplikasi setelah keputusan diterapkan */
+    private String applicationStatus;
+
+    private String message;
+  }
+}
@@ -0,0 +1,43 @@
+package com.kelompoksatu.griya.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cursor (keyset) paginated response. Unlike {@link PaginatedResponse} there is no page number;
+ * clients pass nextCursor back to get the following page.
+ *
+ * @param <T> The type of data being paginated
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Keyset paginated response with an opaque cursor for the next page")
+public class KeysetPageResponse<T> {
+
+  @Schema(description = "List of items in the current page", example = "[]")
+  private List<T> data;
+
+  @Schema(description = "Number of items requested per page", example = "20")
+  private int size;
+
+  @Schema(description = "Whether there is a next page", example = "true")
+  private boolean hasNext;
+
+  @Schema(description = "Cursor for the next page (null if no next page)")
+  private String nextCursor;
+
+  @Schema(
+      description =
+          "Approximate total matching rows, from the query planner estimate. Only returned on the first page",
+      example = "1200")
+  private Long approximateTotal;
+
+  @Schema(description = "Whether approximateTotal is an exact count", example = "false")
+  private boolean totalExact;
+}
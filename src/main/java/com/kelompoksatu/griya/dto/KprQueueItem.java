@@ -0,0 +1,32 @@
+package com.kelompoksatu.griya.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/** Satu baris antrian kerja KPR (developer, verifikator, admin). Field mengikuti KprInProgress. */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class KprQueueItem {
+  private Integer id;
+  private String applicantName;
+  private String applicantEmail;
+  private String applicantPhone;
+  private String aplikasiKode;
+  private String namaProperti;
+  private String alamat;
+  private BigDecimal harga;
+  private String tanggal;
+  private String jenis;
+  private String status;
+
+  /** Stage workflow milik user pada antrian developer/verifikator, null pada antrian admin */
+  private String stage;
+
+  /** Due date workflow milik user pada antrian developer/verifikator, null pada antrian admin */
+  private LocalDateTime dueDate;
+
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,71 @@
+package com.kelompoksatu.griya.dto;
+
+import com.kelompoksatu.griya.entity.KprApplication;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/** Request DTO for keyset-paginated KPR work queues. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Filter, sort and cursor parameters for KPR work queues")
+public class KprQueueRequest {
+
+  @Schema(description = "Filter by application status (any of)", example = "[\"SUBMITTED\"]")
+  private List<KprApplication.ApplicationStatus> statuses;
+
+  @Schema(description = "Only applications created at or after this time")
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime createdFrom;
+
+  @Schema(description = "Only applications created before this time")
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime createdTo;
+
+  @Schema(description = "Only workflows due before this time (developer/verifikator queues)")
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime dueBefore;
+
+  @Schema(
+      description = "Sort field",
+      allowableValues = {"createdAt", "dueDate"},
+      defaultValue = "createdAt")
+  @Pattern(regexp = "(?i)createdAt|dueDate", message = "sortBy must be createdAt or dueDate")
+  @Builder.Default
+  private String sortBy = "createdAt";
+
+  @Schema(
+      description = "Sort direction",
+      allowableValues = {"asc", "desc"},
+      defaultValue = "asc")
+  @Pattern(regexp = "(?i)asc|desc", message = "sortDirection must be asc or desc")
+  @Builder.Default
+  private String sortDirection = "asc";
+
+  @Schema(description = "Opaque cursor from the previous page (nextCursor)")
+  private String cursor;
+
+  @Schema(description = "Number of items per page", minimum = "1", maximum = "100")
+  @Min(value = 1, message = "Page size must be at least 1")
+  @Max(value = 100, message = "Page size cannot exceed 100")
+  @Builder.Default
+  private int size = 20;
+
+  public boolean isAscending() {
+    return !"desc".equalsIgnoreCase(sortDirection);
+  }
+
+  public boolean isSortByDueDate() {
+    return "dueDate".equalsIgnoreCase(sortBy);
+  }
+}
@@ -0,0 +1,19 @@
+package com.kelompoksatu.griya.dto;
+
+/** Work queues yang tersedia untuk developer, verifikator dan admin */
+public enum KprWorkQueue {
+  /** Workflow PROPERTY_APPRAISAL milik developer yang sudah di-assign lengkap */
+  DEVELOPER,
+  /** Workflow pending milik verifikator/approver yang stage sebelumnya sudah approved */
+  VERIFIKATOR,
+  /** Semua aplikasi */
+  ADMIN_ALL,
+  /** Aplikasi yang baru memiliki workflow developer (belum di-assign admin) */
+  ADMIN_UNASSIGNED,
+  /** Aplikasi yang sudah di-assign ke verifikator dan approver */
+  ADMIN_ASSIGNED;
+
+  public boolean isAssigneeQueue() {
+    return this == DEVELOPER || this == VERIFIKATOR;
+  }
+}
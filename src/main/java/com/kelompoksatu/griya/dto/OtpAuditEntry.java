@@ -0,0 +1,35 @@
+package com.kelompoksatu.griya.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Satu event audit OTP dari stream audit */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "OTP audit event")
+public class OtpAuditEntry {
+
+  @Schema(description = "Stream entry id", example = "1718000000000-0")
+  private String id;
+
+  @Schema(description = "Waktu event", example = "2024-06-10T10:13:20")
+  private LocalDateTime timestamp;
+
+  @Schema(description = "Nomor telepon yang dimasking", example = "62****7890")
+  private String maskedPhone;
+
+  @Schema(description = "Tujuan OTP", example = "login")
+  private String purpose;
+
+  @Schema(description = "Jenis event", example = "OTP_VALIDATED")
+  private String action;
+
+  @Schema(description = "Hasil event", example = "SUCCESS")
+  private String result;
+}
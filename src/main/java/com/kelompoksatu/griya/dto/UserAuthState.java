@@ -0,0 +1,14 @@
+package com.kelompoksatu.griya.dto;
+
+import com.kelompoksatu.griya.entity.UserStatus;
+import java.time.LocalDateTime;
+
+/** Field user yang dibutuhkan untuk autentikasi request: status akun, role dan lock login */
+public record UserAuthState(UserStatus status, String role, LocalDateTime lockedUntil) {
+
+  /** Sama dengan {@code UserService.isAccountActive}: aktif dan tidak sedang terkunci */
+  public boolean isActive() {
+    return status == UserStatus.ACTIVE
+        && (lockedUntil == null || !lockedUntil.isAfter(LocalDateTime.now()));
+  }
+}
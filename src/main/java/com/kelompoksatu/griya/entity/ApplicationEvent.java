@@ -0,0 +1,74 @@
+package com.kelompoksatu.griya.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Event append-only untuk satu aplikasi KPR (tabel application_events). Event tidak pernah diubah
+ * atau dihapus; seq berurutan per aplikasi dan diisi saat insert.
+ */
+@Entity
+@Immutable
+@Table(name = "application_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "application_id", nullable = false)
+  private Integer applicationId;
+
+  @Column(name = "seq", nullable = false)
+  private Integer seq;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "event_type", nullable = false, length = 40)
+  private EventType eventType;
+
+  /** User yang memicu event; null untuk event sistem */
+  @Column(name = "actor_id")
+  private Integer actorId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "stage", length = 40)
+  private ApprovalWorkflow.WorkflowStage stage;
+
+  /** Status aplikasi setelah event; null jika event tidak mengubah status */
+  @Enumerated(EnumType.STRING)
+  @Column(name = "to_status", length = 40)
+  private KprApplication.ApplicationStatus toStatus;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(columnDefinition = "jsonb")
+  private JsonNode data;
+
+  @Column(name = "occurred_at", nullable = false)
+  private LocalDateTime occurredAt;
+
+  public enum EventType {
+    SUBMITTED,
+    WORKFLOW_ASSIGNED,
+    APPROVED,
+    REJECTED
+  }
+}
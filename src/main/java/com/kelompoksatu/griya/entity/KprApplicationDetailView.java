@@ -0,0 +1,45 @@
+package com.kelompoksatu.griya.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Read model denormalisasi untuk detail aplikasi KPR. Kolom detail menyimpan
+ * KprApplicationDetailResponse dalam bentuk JSONB, sedangkan pemilik dan developer disimpan sebagai
+ * kolom terpisah untuk pengecekan otorisasi.
+ */
+@Entity
+@Table(name = "kpr_application_detail_views")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KprApplicationDetailView {
+
+  @Id
+  @Column(name = "application_id")
+  private Integer applicationId;
+
+  @Column(name = "owner_user_id", nullable = false)
+  private Integer ownerUserId;
+
+  @Column(name = "developer_user_id")
+  private Integer developerUserId;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(columnDefinition = "jsonb", nullable = false)
+  private JsonNode detail;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.kelompoksatu.griya.entity;
 
+import com.kelompoksatu.griya.service.KprRateChangeListener;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -13,6 +14,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 /** KPR interest rates and loan terms configuration */
 @Entity
+@EntityListeners(KprRateChangeListener.class)
 @Table(name = "kpr_rates")
 @Data
 @AllArgsConstructor
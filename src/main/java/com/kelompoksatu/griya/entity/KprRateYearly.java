@@ -1,5 +1,6 @@
 package com.kelompoksatu.griya.entity;
 
+import com.kelompoksatu.griya.service.KprRateChangeListener;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,6 +13,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 /** Yearly rate configuration per tenor/year for KPR rates */
 @Entity
+@EntityListeners(KprRateChangeListener.class)
 @Table(name = "kpr_rate_yearly")
 @Data
 @Builder
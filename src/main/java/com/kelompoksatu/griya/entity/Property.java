@@ -116,6 +116,13 @@ public class Property {
   @JdbcType(PostgreSQLEnumJdbcType.class)
   private PropertyStatus status = PropertyStatus.AVAILABLE;
 
+  /**
+   * Dinaikkan oleh reserve/release atomik di PropertyRepository. Tidak ditulis oleh save() agar
+   * update entity biasa tidak menimpa nilai dari conditional update.
+   */
+  @Column(insertable = false, updatable = false)
+  private Long version;
+
   private LocalDate availabilityDate;
   private LocalDate handoverDate;
 
@@ -1,5 +1,7 @@
 package com.kelompoksatu.griya.entity;
 
+import com.kelompoksatu.griya.service.UserPrincipalCacheListener;
+import com.kelompoksatu.griya.service.UserRegistrationStatsListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
@@ -12,6 +14,7 @@ import org.hibernate.dialect.PostgreSQLEnumJdbcType;
 
 /** Core user table with enhanced security features */
 @Entity
+@EntityListeners({UserRegistrationStatsListener.class, UserPrincipalCacheListener.class})
 @Table(
     name = "users",
     uniqueConstraints = {
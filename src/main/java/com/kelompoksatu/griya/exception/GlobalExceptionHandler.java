@@ -1,6 +1,7 @@
 package com.kelompoksatu.griya.exception;
 
 import com.kelompoksatu.griya.service.NotificationService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.ValidationException;
@@ -14,6 +15,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
@@ -238,6 +240,12 @@ public class GlobalExceptionHandler {
     return apiError(status, message, req, null);
   }
 
+  @ExceptionHandler(PasswordHashingBusyException.class)
+  public ResponseEntity<Map<String, Object>> handlePasswordHashingBusy(
+      PasswordHashingBusyException ex, WebRequest req) {
+    return apiError(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), req, null);
+  }
+
   /* ========== VALIDATION EXCEPTION LEGACY ========== */
 
   @ExceptionHandler(ValidationException.class)
@@ -279,6 +287,28 @@ public class GlobalExceptionHandler {
     return apiError(status, message, req, null);
   }
 
+  @ExceptionHandler(AccessDeniedException.class)
+  public ResponseEntity<Map<String, Object>> handleAccessDenied(
+      AccessDeniedException ex, WebRequest req) {
+    HttpStatus status = HttpStatus.FORBIDDEN;
+    String message = ex.getMessage();
+
+    sendErrorNotification(status, message, req, ex);
+
+    return apiError(status, message, req, null);
+  }
+
+  /** Token tidak valid, kedaluwarsa, atau sesinya sudah di-revoke */
+  @ExceptionHandler(JwtException.class)
+  public ResponseEntity<Map<String, Object>> handleJwtException(JwtException ex, WebRequest req) {
+    HttpStatus status = HttpStatus.UNAUTHORIZED;
+    String message = ex.getMessage();
+
+    sendErrorNotification(status, message, req, ex);
+
+    return apiError(status, message, req, null);
+  }
+
   @ExceptionHandler(IllegalArgumentException.class)
   public ResponseEntity<Map<String, Object>> handleIllegalArgument(
       IllegalArgumentException ex, WebRequest req) {
@@ -0,0 +1,12 @@
+package com.kelompoksatu.griya.exception;
+
+/**
+ * Pool hashing password penuh (lonjakan login/registrasi). Dijawab 429 agar klien mencoba lagi,
+ * bukan menunggu di belakang antrian BCrypt.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+  public PasswordHashingBusyException(String message) {
+    super(message);
+  }
+}
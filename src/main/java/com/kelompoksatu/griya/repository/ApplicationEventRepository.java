@@ -0,0 +1,20 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.entity.ApplicationEvent;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/** Repository for the append-only application event log */
+@Repository
+public interface ApplicationEventRepository
+    extends JpaRepository<ApplicationEvent, Long>, ApplicationEventRepositoryCustom {
+
+  /** Semua event aplikasi sebagai satu range scan pada (application_id, seq) */
+  List<ApplicationEvent> findByApplicationIdOrderBySeqAsc(Integer applicationId);
+
+  /** Id event terbesar yang sudah commit (0 jika log kosong), dipakai sebagai watermark snapshot */
+  @Query("SELECT COALESCE(MAX(e.id), 0) FROM ApplicationEvent e")
+  long findMaxEventId();
+}
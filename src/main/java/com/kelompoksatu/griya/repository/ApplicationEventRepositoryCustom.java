@@ -0,0 +1,37 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.entity.ApplicationEvent;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Custom append operation for ApplicationEvent that assigns per-application sequence numbers */
+public interface ApplicationEventRepositoryCustom {
+
+  /**
+   * Append all events with a single multi-row INSERT. seq is assigned per application in list
+   * order, continuing from the last stored event; generated id and seq are written back.
+   */
+  List<ApplicationEvent> appendAll(List<ApplicationEvent> events);
+
+  /**
+   * Konteks event yang sudah tersimpan untuk dashboard live: status sebelum event, status dan
+   * tanggal pembuatan aplikasi saat ini, developer pemilik properti, semua assignee workflow, dan
+   * jumlah workflow milik {@code assignedTo} event (untuk event WORKFLOW_ASSIGNED)
+   */
+  record EventContext(
+      Integer applicationId,
+      Integer seq,
+      String previousStatus,
+      String currentStatus,
+      LocalDateTime applicationCreatedAt,
+      Integer developerId,
+      List<Integer> assigneeIds,
+      int assigneeWorkflowCount) {}
+
+  /**
+   * Muat konteks untuk event yang sudah punya seq, dalam satu query.
+   *
+   * @param assignedTo assignee per event (null jika bukan event assignment), sejajar dengan events
+   */
+  List<EventContext> findEventContexts(List<ApplicationEvent> events, List<Integer> assignedTo);
+}
@@ -0,0 +1,152 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.entity.ApplicationEvent;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link ApplicationEventRepositoryCustom}. Writers of the same application
+ * are serialized with a transaction-scoped advisory lock, so MAX(seq) + ROW_NUMBER() computed in
+ * the INSERT cannot hand out the same seq twice.
+ */
+@RequiredArgsConstructor
+public class ApplicationEventRepositoryCustomImpl implements ApplicationEventRepositoryCustom {
+
+  /** Namespace advisory lock (key pertama) untuk application_events */
+  private static final int ADVISORY_LOCK_NAMESPACE = 41;
+
+  private static final String INSERT_PREFIX =
+      "INSERT INTO application_events "
+          + "(application_id, seq, event_type, actor_id, stage, to_status, data, occurred_at) "
+          + "SELECT v.application_id, "
+          + "COALESCE((SELECT MAX(e.seq) FROM application_events e "
+          + "WHERE e.application_id = v.application_id), 0) "
+          + "+ ROW_NUMBER() OVER (PARTITION BY v.application_id ORDER BY v.ord), "
+          + "v.event_type, v.actor_id, v.stage, v.to_status, CAST(v.data AS jsonb), v.occurred_at "
+          + "FROM (VALUES ";
+
+  private static final String ROW_PLACEHOLDER =
+      "(CAST(? AS integer), CAST(? AS integer), CAST(? AS varchar), CAST(? AS integer), "
+          + "CAST(? AS varchar), CAST(? AS varchar), CAST(? AS text), CAST(? AS timestamp))";
+
+  private static final String INSERT_SUFFIX =
+      ") v(ord, application_id, event_type, actor_id, stage, to_status, data, occurred_at) "
+          + "RETURNING id, application_id, seq";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public List<ApplicationEvent> appendAll(List<ApplicationEvent> events) {
+    if (events == null || events.isEmpty()) {
+      return List.of();
+    }
+    lockApplications(events);
+
+    LocalDateTime now = LocalDateTime.now();
+    StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+    List<Object> params = new ArrayList<>(events.size() * 8);
+    for (int i = 0; i < events.size(); i++) {
+      ApplicationEvent event = events.get(i);
+      if (event.getOccurredAt() == null) {
+        event.setOccurredAt(now);
+      }
+      sql.append(i == 0 ? "" : ", ").append(ROW_PLACEHOLDER);
+      params.add(i);
+      params.add(event.getApplicationId());
+      params.add(event.getEventType().name());
+      params.add(event.getActorId());
+      params.add(event.getStage() != null ? event.getStage().name() : null);
+      params.add(event.getToStatus() != null ? event.getToStatus().name() : null);
+      params.add(event.getData() != null ? event.getData().toString() : null);
+      params.add(Timestamp.valueOf(event.getOccurredAt()));
+    }
+    sql.append(INSERT_SUFFIX);
+
+    // seq naik mengikuti urutan list per aplikasi, jadi baris hasil dipasangkan lewat seq
+    Map<Integer, TreeMap<Integer, Long>> idsBySeq = new HashMap<>();
+    jdbcTemplate.query(
+        sql.toString(),
+        rs -> {
+          idsBySeq
+              .computeIfAbsent(rs.getInt(2), id -> new TreeMap<>())
+              .put(rs.getInt(3), rs.getLong(1));
+        },
+        params.toArray());
+    for (ApplicationEvent event : events) {
+      Map.Entry<Integer, Long> first = idsBySeq.get(event.getApplicationId()).pollFirstEntry();
+      event.setSeq(first.getKey());
+      event.setId(first.getValue());
+    }
+    return events;
+  }
+
+  @Override
+  public List<EventContext> findEventContexts(
+      List<ApplicationEvent> events, List<Integer> assignedTo) {
+    if (events == null || events.isEmpty()) {
+      return List.of();
+    }
+    List<Object> params = new ArrayList<>(events.size() * 3);
+    for (int i = 0; i < events.size(); i++) {
+      params.add(events.get(i).getApplicationId());
+      params.add(events.get(i).getSeq());
+      params.add(assignedTo.get(i));
+    }
+    return jdbcTemplate.query(
+        "SELECT v.application_id, v.seq, "
+            + "(SELECT e.to_status FROM application_events e "
+            + "WHERE e.application_id = v.application_id AND e.seq < v.seq "
+            + "AND e.to_status IS NOT NULL ORDER BY e.seq DESC LIMIT 1), "
+            + "CAST(k.status AS text), k.created_at, p.developer_id, "
+            + "ARRAY(SELECT DISTINCT aw.assigned_to FROM approval_workflow aw "
+            + "WHERE aw.application_id = v.application_id AND aw.assigned_to IS NOT NULL), "
+            + "(SELECT COUNT(*) FROM approval_workflow aw "
+            + "WHERE aw.application_id = v.application_id AND aw.assigned_to = v.assigned_to) "
+            + "FROM (VALUES "
+            + String.join(
+                ", ",
+                Collections.nCopies(
+                    events.size(), "(CAST(? AS integer), CAST(? AS integer), CAST(? AS integer))"))
+            + ") v(application_id, seq, assigned_to) "
+            + "LEFT JOIN kpr_applications k ON k.id = v.application_id "
+            + "LEFT JOIN properties p ON p.id = k.property_id",
+        (rs, rowNum) -> {
+          Timestamp createdAt = rs.getTimestamp(5);
+          Integer[] assignees = (Integer[]) rs.getArray(7).getArray();
+          return new EventContext(
+              rs.getInt(1),
+              rs.getInt(2),
+              rs.getString(3),
+              rs.getString(4),
+              createdAt != null ? createdAt.toLocalDateTime() : null,
+              rs.getObject(6, Integer.class),
+              List.of(assignees),
+              rs.getInt(8));
+        },
+        params.toArray());
+  }
+
+  /** Kunci aplikasi dalam urutan id agar dua writer tidak saling deadlock */
+  private void lockApplications(List<ApplicationEvent> events) {
+    TreeSet<Integer> applicationIds = new TreeSet<>();
+    events.forEach(event -> applicationIds.add(event.getApplicationId()));
+    List<Object> params = new ArrayList<>(applicationIds.size() + 1);
+    params.add(ADVISORY_LOCK_NAMESPACE);
+    params.addAll(applicationIds);
+    jdbcTemplate.query(
+        "SELECT pg_advisory_xact_lock(?, ids.id) FROM (SELECT id FROM (VALUES "
+            + String.join(", ", Collections.nCopies(applicationIds.size(), "(CAST(? AS integer))"))
+            + ") v(id) ORDER BY id) ids",
+        rs -> {},
+        params.toArray());
+  }
+}
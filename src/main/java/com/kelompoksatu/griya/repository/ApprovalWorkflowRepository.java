@@ -21,7 +21,8 @@ import org.springframework.stereotype.Repository;
  * workflow management
  */
 @Repository
-public interface ApprovalWorkflowRepository extends JpaRepository<ApprovalWorkflow, Integer> {
+public interface ApprovalWorkflowRepository
+    extends JpaRepository<ApprovalWorkflow, Integer>, ApprovalWorkflowRepositoryCustom {
 
   // Basic CRUD operations are inherited from JpaRepository
   @Query("SELECT COUNT(w) FROM ApprovalWorkflow w WHERE w.kprApplication.id = :applicationId")
@@ -217,4 +218,49 @@ public interface ApprovalWorkflowRepository extends JpaRepository<ApprovalWorkfl
 
   // Delete workflows by application ID (for cleanup)
   void deleteByApplicationId(Integer applicationId);
+
+  /**
+   * Workflow aktif yang punya due date dan aplikasinya belum final, untuk memuat timer SLA saat
+   * node menjadi leader. Kolom: id, applicationId, assignedTo, dueDate
+   */
+  @Query(
+      "SELECT aw.id, aw.applicationId, aw.assignedTo, aw.dueDate FROM ApprovalWorkflow aw "
+          + "WHERE aw.status IN ('PENDING', 'IN_PROGRESS') AND aw.dueDate IS NOT NULL "
+          + "AND aw.kprApplication.status NOT IN ('APPROVED', 'REJECTED', 'CANCELLED', 'DISBURSED')")
+  List<Object[]> findActiveWorkflowDueDates();
+
+  /**
+   * Naikkan prioritas workflow yang melewati SLA. Hanya berhasil jika workflow masih aktif dan
+   * prioritasnya belum diubah proses lain.
+   */
+  @Modifying
+  @Query(
+      "UPDATE ApprovalWorkflow aw SET aw.priority = :newPriority, aw.escalatedAt = :escalatedAt, "
+          + "aw.updatedAt = :escalatedAt "
+          + "WHERE aw.id = :workflowId AND aw.priority = :currentPriority "
+          + "AND aw.status IN ('PENDING', 'IN_PROGRESS')")
+  int escalatePriority(
+      @Param("workflowId") Integer workflowId,
+      @Param("currentPriority") PriorityLevel currentPriority,
+      @Param("newPriority") PriorityLevel newPriority,
+      @Param("escalatedAt") LocalDateTime escalatedAt);
+
+  /**
+   * Jumlah workflow approval (CREDIT_ANALYSIS/FINAL_APPROVAL) yang masih aktif per assignee.
+   * Workflow milik aplikasi yang sudah final (mis. ditolak di tahap sebelumnya) tidak dihitung.
+   */
+  @Query(
+      "SELECT aw.assignedTo, COUNT(aw) FROM ApprovalWorkflow aw "
+          + "WHERE aw.status IN ('PENDING', 'IN_PROGRESS') "
+          + "AND aw.stage IN ('CREDIT_ANALYSIS', 'FINAL_APPROVAL') "
+          + "AND aw.kprApplication.status NOT IN ('APPROVED', 'REJECTED', 'CANCELLED', 'DISBURSED') "
+          + "GROUP BY aw.assignedTo")
+  List<Object[]> countActiveApprovalStagesByAssignee();
+
+  /** Jumlah workflow approval (CREDIT_ANALYSIS/FINAL_APPROVAL) yang selesai sejak waktu tertentu */
+  @Query(
+      "SELECT aw.assignedTo, COUNT(aw) FROM ApprovalWorkflow aw "
+          + "WHERE aw.status IN ('APPROVED', 'REJECTED') AND aw.completedAt >= :since "
+          + "AND aw.stage IN ('CREDIT_ANALYSIS', 'FINAL_APPROVAL') GROUP BY aw.assignedTo")
+  List<Object[]> countCompletedApprovalStagesByAssigneeSince(@Param("since") LocalDateTime since);
 }
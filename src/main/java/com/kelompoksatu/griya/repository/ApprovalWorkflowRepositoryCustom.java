@@ -0,0 +1,39 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.entity.ApprovalWorkflow.WorkflowStage;
+import com.kelompoksatu.griya.entity.KprApplication.ApplicationStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/** Set-based updates for bulk approval decisions that JPQL cannot express in one statement */
+public interface ApprovalWorkflowRepositoryCustom {
+
+  /** Workflow PENDING yang diselesaikan oleh bulk update */
+  record CompletedWorkflow(Integer applicationId, WorkflowStage stage) {}
+
+  /** Ringkasan aplikasi untuk notifikasi bulk approval */
+  record ApplicationSummary(
+      Integer applicationId, String applicationNumber, Integer applicantId, Integer propertyId) {}
+
+  /**
+   * Approve atau reject semua workflow PENDING milik assignee untuk aplikasi yang diberikan dalam
+   * satu UPDATE. Alasan per aplikasi disimpan ke approval_notes (approve) atau rejection_reason
+   * (reject). Hanya workflow yang benar-benar berubah yang dikembalikan.
+   */
+  List<CompletedWorkflow> completePendingWorkflows(
+      Integer assignedTo,
+      Map<Integer, String> reasonsByApplicationId,
+      boolean approved,
+      LocalDateTime completedAt);
+
+  /** Ubah status banyak aplikasi ke status yang sama dalam satu UPDATE */
+  int updateApplicationStatuses(
+      Collection<Integer> applicationIds, ApplicationStatus status, LocalDateTime updatedAt);
+
+  /** Kembalikan properti RESERVED milik aplikasi-aplikasi tersebut ke AVAILABLE */
+  int releaseReservedProperties(Collection<Integer> applicationIds);
+
+  List<ApplicationSummary> findApplicationSummaries(Collection<Integer> applicationIds);
+}
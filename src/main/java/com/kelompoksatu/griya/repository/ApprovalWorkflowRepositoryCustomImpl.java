@@ -0,0 +1,118 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.entity.ApprovalWorkflow.WorkflowStage;
+import com.kelompoksatu.griya.entity.KprApplication.ApplicationStatus;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link ApprovalWorkflowRepositoryCustom}. Each bulk decision is a single
+ * statement: per-item reasons are joined in as a VALUES list, e.g. UPDATE approval_workflow aw ...
+ * FROM (VALUES (?, ?), ...) v(application_id, reason), and status changes use WHERE id IN (...).
+ */
+@RequiredArgsConstructor
+public class ApprovalWorkflowRepositoryCustomImpl implements ApprovalWorkflowRepositoryCustom {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public List<CompletedWorkflow> completePendingWorkflows(
+      Integer assignedTo,
+      Map<Integer, String> reasonsByApplicationId,
+      boolean approved,
+      LocalDateTime completedAt) {
+    if (reasonsByApplicationId == null || reasonsByApplicationId.isEmpty()) {
+      return List.of();
+    }
+
+    String reasonColumn = approved ? "approval_notes" : "rejection_reason";
+    StringBuilder sql =
+        new StringBuilder("UPDATE approval_workflow aw SET status = CAST(? AS workflow_status), ")
+            .append("completed_at = ?, ")
+            .append(reasonColumn)
+            .append(" = v.reason, updated_at = ? FROM (VALUES ");
+    List<Object> params = new ArrayList<>(reasonsByApplicationId.size() * 2 + 4);
+    params.add(approved ? "APPROVED" : "REJECTED");
+    params.add(Timestamp.valueOf(completedAt));
+    params.add(Timestamp.valueOf(completedAt));
+
+    int i = 0;
+    for (Map.Entry<Integer, String> entry : reasonsByApplicationId.entrySet()) {
+      sql.append(i++ == 0 ? "" : ", ").append("(CAST(? AS integer), CAST(? AS text))");
+      params.add(entry.getKey());
+      params.add(entry.getValue());
+    }
+    sql.append(") v(application_id, reason) ")
+        .append("WHERE aw.application_id = v.application_id AND aw.assigned_to = ? ")
+        .append("AND aw.status = 'PENDING' ")
+        .append("RETURNING aw.application_id, CAST(aw.stage AS text)");
+    params.add(assignedTo);
+
+    return jdbcTemplate.query(
+        sql.toString(),
+        (rs, rowNum) -> new CompletedWorkflow(rs.getInt(1), WorkflowStage.valueOf(rs.getString(2))),
+        params.toArray());
+  }
+
+  @Override
+  public int updateApplicationStatuses(
+      Collection<Integer> applicationIds, ApplicationStatus status, LocalDateTime updatedAt) {
+    if (applicationIds == null || applicationIds.isEmpty()) {
+      return 0;
+    }
+    List<Object> params = new ArrayList<>(applicationIds.size() + 2);
+    params.add(status.name());
+    params.add(Timestamp.valueOf(updatedAt));
+    params.addAll(applicationIds);
+    return jdbcTemplate.update(
+        "UPDATE kpr_applications SET status = CAST(? AS application_status), updated_at = ? "
+            + "WHERE id IN ("
+            + placeholders(applicationIds.size())
+            + ")",
+        params.toArray());
+  }
+
+  @Override
+  public int releaseReservedProperties(Collection<Integer> applicationIds) {
+    if (applicationIds == null || applicationIds.isEmpty()) {
+      return 0;
+    }
+    return jdbcTemplate.update(
+        "UPDATE properties SET status = 'AVAILABLE', version = version + 1, "
+            + "updated_at = CURRENT_TIMESTAMP "
+            + "WHERE status = 'RESERVED' AND id IN "
+            + "(SELECT property_id FROM kpr_applications WHERE id IN ("
+            + placeholders(applicationIds.size())
+            + "))",
+        applicationIds.toArray());
+  }
+
+  @Override
+  public List<ApplicationSummary> findApplicationSummaries(Collection<Integer> applicationIds) {
+    if (applicationIds == null || applicationIds.isEmpty()) {
+      return List.of();
+    }
+    return jdbcTemplate.query(
+        "SELECT id, application_number, user_id, property_id FROM kpr_applications WHERE id IN ("
+            + placeholders(applicationIds.size())
+            + ")",
+        (rs, rowNum) ->
+            new ApplicationSummary(
+                rs.getInt(1),
+                rs.getString(2),
+                (Integer) rs.getObject(3),
+                (Integer) rs.getObject(4)),
+        applicationIds.toArray());
+  }
+
+  private String placeholders(int count) {
+    return String.join(", ", Collections.nCopies(count, "?"));
+  }
+}
@@ -0,0 +1,153 @@
+package com.kelompoksatu.griya.repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hasil agregasi dashboard statistik yang dihitung di database, beserta SQL bersama untuk dashboard
+ * developer dan staff.
+ *
+ * <p>Satu query membaca aplikasi periode sebelumnya sampai akhir periode berjalan sekaligus. Kolom
+ * {@code cur} menandai baris periode berjalan, sehingga KPI kedua periode dihitung dengan {@code
+ * COUNT(*) FILTER (WHERE ...)} dalam satu scan. Customer unik dihitung terpisah dari sketch
+ * HyperLogLog. {@code GROUPING SETS} menghasilkan satu baris total untuk KPI/funnel/SLA dan satu
+ * baris per bulan ({@code date_trunc}) untuk grafik bulanan.
+ */
+public final class DashboardAggregates {
+
+  /** Status yang dihitung sebagai pending di KPI */
+  static final String PENDING_STATUSES =
+      "'SUBMITTED', 'DOCUMENT_VERIFICATION', 'PROPERTY_APPRAISAL', 'CREDIT_ANALYSIS', "
+          + "'APPROVAL_PENDING'";
+
+  /** SLA dari submit sampai approve aplikasi, dipakai dashboard developer */
+  static final String APPLICATION_SLA_COLUMNS =
+      "COUNT(*) FILTER (WHERE cur AND approved_at - submitted_at < INTERVAL '3 days'), "
+          + "COUNT(*) FILTER (WHERE cur AND approved_at - submitted_at >= INTERVAL '3 days' "
+          + "AND approved_at - submitted_at < INTERVAL '6 days'), "
+          + "COUNT(*) FILTER (WHERE cur AND approved_at - submitted_at >= INTERVAL '6 days')";
+
+  private DashboardAggregates() {}
+
+  /**
+   * KPI periode berjalan dan periode sebelumnya. Jumlah customer unik tidak dihitung di query ini
+   * melainkan dari sketch HyperLogLog, lihat {@link #withCustomers}.
+   */
+  public record KpiComparison(
+      long approved,
+      long rejected,
+      long pending,
+      long customers,
+      long prevApproved,
+      long prevRejected,
+      long prevPending,
+      long prevCustomers) {
+
+    public KpiComparison withCustomers(long customers, long prevCustomers) {
+      return new KpiComparison(
+          approved,
+          rejected,
+          pending,
+          customers,
+          prevApproved,
+          prevRejected,
+          prevPending,
+          prevCustomers);
+    }
+  }
+
+  /** Total aplikasi per bulan pembuatan pada periode berjalan */
+  public record MonthlyApplicationTotal(
+      YearMonth month,
+      long submitted,
+      long approved,
+      BigDecimal loanAmountSum,
+      BigDecimal monthlyInstallmentSum) {}
+
+  /** Seluruh angka dashboard developer/staff */
+  public record ScopedDashboardStats(
+      KpiComparison kpis,
+      long propertyAppraisal,
+      long creditAnalysis,
+      long approvalPending,
+      long slaUpToTwoDays,
+      long slaThreeToFiveDays,
+      long slaOverFiveDays,
+      List<MonthlyApplicationTotal> months) {}
+
+  /**
+   * Query dashboard untuk aplikasi yang memenuhi {@code scopePredicate} (alias {@code k}).
+   *
+   * <p>Urutan parameter: parameter {@code withClause}, awal periode berjalan, parameter scope, awal
+   * periode sebelumnya, akhir periode berjalan (eksklusif).
+   *
+   * @param withClause CTE opsional (tanpa kata WITH) yang dipakai {@code slaColumns}
+   * @param slaColumns tiga kolom SLA: 0-2 hari, 3-5 hari, lebih dari 5 hari
+   */
+  static String scopedDashboardSql(String withClause, String scopePredicate, String slaColumns) {
+    return (withClause != null ? "WITH " + withClause + " " : "")
+        + "SELECT GROUPING(date_trunc('month', created_at)), "
+        + "CAST(date_trunc('month', created_at) AS date), "
+        + "COUNT(*) FILTER (WHERE cur AND status = 'APPROVED'), "
+        + "COUNT(*) FILTER (WHERE cur AND status = 'REJECTED'), "
+        + "COUNT(*) FILTER (WHERE cur AND status IN ("
+        + PENDING_STATUSES
+        + ")), "
+        + "COUNT(*) FILTER (WHERE NOT cur AND status = 'APPROVED'), "
+        + "COUNT(*) FILTER (WHERE NOT cur AND status = 'REJECTED'), "
+        + "COUNT(*) FILTER (WHERE NOT cur AND status IN ("
+        + PENDING_STATUSES
+        + ")), "
+        + "COUNT(*) FILTER (WHERE cur AND status = 'PROPERTY_APPRAISAL'), "
+        + "COUNT(*) FILTER (WHERE cur AND status = 'CREDIT_ANALYSIS'), "
+        + "COUNT(*) FILTER (WHERE cur AND status = 'APPROVAL_PENDING'), "
+        + slaColumns
+        + ", COUNT(*) FILTER (WHERE cur), "
+        + "COALESCE(SUM(loan_amount) FILTER (WHERE cur), 0), "
+        + "COALESCE(SUM(monthly_installment) FILTER (WHERE cur), 0) "
+        + "FROM (SELECT k.created_at, k.status, k.loan_amount, "
+        + "k.monthly_installment, k.submitted_at, k.approved_at, k.created_at >= ? AS cur "
+        + "FROM kpr_applications k WHERE "
+        + scopePredicate
+        + " AND k.created_at >= ? AND k.created_at < ?) a "
+        + "GROUP BY GROUPING SETS ((), (date_trunc('month', created_at)))";
+  }
+
+  /** Petakan hasil {@link #scopedDashboardSql}; baris bulan tanpa aplikasi berjalan diabaikan */
+  static ScopedDashboardStats extractScopedDashboard(ResultSet rs) throws SQLException {
+    long[] totals = new long[12];
+    List<MonthlyApplicationTotal> months = new ArrayList<>();
+    while (rs.next()) {
+      if (rs.getInt(1) == 1) {
+        for (int i = 0; i < totals.length; i++) {
+          totals[i] = rs.getLong(i + 3);
+        }
+        continue;
+      }
+      long submitted = rs.getLong(15);
+      if (submitted == 0) {
+        continue;
+      }
+      months.add(
+          new MonthlyApplicationTotal(
+              YearMonth.from(rs.getDate(2).toLocalDate()),
+              submitted,
+              rs.getLong(3),
+              rs.getBigDecimal(16),
+              rs.getBigDecimal(17)));
+    }
+    return new ScopedDashboardStats(
+        new KpiComparison(totals[0], totals[1], totals[2], 0, totals[3], totals[4], totals[5], 0),
+        totals[6],
+        totals[7],
+        totals[8],
+        totals[9],
+        totals[10],
+        totals[11],
+        months);
+  }
+}
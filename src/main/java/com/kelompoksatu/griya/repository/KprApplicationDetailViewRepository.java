@@ -0,0 +1,9 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.entity.KprApplicationDetailView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface KprApplicationDetailViewRepository
+    extends JpaRepository<KprApplicationDetailView, Integer> {}
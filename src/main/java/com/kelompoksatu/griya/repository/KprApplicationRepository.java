@@ -14,7 +14,8 @@ import org.springframework.stereotype.Repository;
 
 /** Repository for KPR Application operations */
 @Repository
-public interface KprApplicationRepository extends JpaRepository<KprApplication, Integer> {
+public interface KprApplicationRepository
+    extends JpaRepository<KprApplication, Integer>, KprApplicationRepositoryCustom {
 
   List<KprApplication> findKprApplicationsByUserId(Integer userId);
 
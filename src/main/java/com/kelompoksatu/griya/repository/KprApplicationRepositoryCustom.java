@@ -0,0 +1,17 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.dto.KeysetPageResponse;
+import com.kelompoksatu.griya.dto.KprQueueItem;
+import com.kelompoksatu.griya.dto.KprQueueRequest;
+import com.kelompoksatu.griya.dto.KprWorkQueue;
+
+/** Custom queries for KprApplication that need dynamic filtering and keyset pagination */
+public interface KprApplicationRepositoryCustom {
+
+  /**
+   * Ambil satu halaman work queue dengan keyset pagination. assigneeId hanya dipakai untuk antrian
+   * developer dan verifikator.
+   */
+  KeysetPageResponse<KprQueueItem> findWorkQueue(
+      KprWorkQueue queue, Integer assigneeId, KprQueueRequest request);
+}
@@ -0,0 +1,305 @@
+package com.kelompoksatu.griya.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kelompoksatu.griya.dto.KeysetPageResponse;
+import com.kelompoksatu.griya.dto.KprQueueItem;
+import com.kelompoksatu.griya.dto.KprQueueRequest;
+import com.kelompoksatu.griya.dto.KprWorkQueue;
+import com.kelompoksatu.griya.entity.KprApplication;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link KprApplicationRepositoryCustom}. Queues are read with native SQL so
+ * the keyset predicate can be a row comparison, e.g. (k.created_at, k.id) &gt; (?, ?), which
+ * PostgreSQL serves directly from the composite indexes added in V39.
+ *
+ * <p>Assignee queues read the open workflows of the assignee as a grouped subquery (one row per
+ * application, with its earliest due date), so an application with several open workflows still
+ * appears once and the (sort key, id) keyset stays unique.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class KprApplicationRepositoryCustomImpl implements KprApplicationRepositoryCustom {
+
+  private static final String SELECT_COLUMNS =
+      "SELECT k.id, u.username, u.email, u.phone, k.application_number, p.title, p.address, "
+          + "k.loan_amount, k.created_at, r.rate_name, CAST(k.status AS text) AS status, ";
+
+  private static final String FROM_APPLICATIONS =
+      " FROM kpr_applications k "
+          + "JOIN users u ON u.id = k.user_id "
+          + "JOIN properties p ON p.id = k.property_id "
+          + "JOIN kpr_rates r ON r.id = k.kpr_rate_id ";
+
+  /**
+   * Workflow terbuka milik assignee, satu baris per aplikasi: due date paling awal dan stage dari
+   * workflow tersebut. %s diisi kondisi stage antrian.
+   */
+  private static final String JOIN_ASSIGNED_WORKFLOWS =
+      "JOIN (SELECT aw.application_id, MIN(aw.due_date) AS due_date, "
+          + "(ARRAY_AGG(CAST(aw.stage AS text) ORDER BY aw.due_date ASC NULLS LAST))[1] AS stage "
+          + "FROM approval_workflow aw "
+          + "WHERE aw.assigned_to = ? AND aw.status IN ('PENDING', 'IN_PROGRESS') AND %s "
+          + "GROUP BY aw.application_id) aq ON aq.application_id = k.id ";
+
+  private static final String DEVELOPER_CONDITION =
+      "aw.stage = 'PROPERTY_APPRAISAL' "
+          + "AND EXISTS (SELECT 1 FROM approval_workflow ca "
+          + "WHERE ca.application_id = aw.application_id "
+          + "AND ca.stage = 'CREDIT_ANALYSIS' AND ca.assigned_to IS NOT NULL) "
+          + "AND EXISTS (SELECT 1 FROM approval_workflow fa "
+          + "WHERE fa.application_id = aw.application_id "
+          + "AND fa.stage = 'FINAL_APPROVAL' AND fa.assigned_to IS NOT NULL)";
+
+  private static final String VERIFIKATOR_CONDITION =
+      "(aw.stage IN ('DOCUMENT_VERIFICATION', 'PROPERTY_APPRAISAL') "
+          + "OR (aw.stage = 'CREDIT_ANALYSIS' AND EXISTS (SELECT 1 FROM approval_workflow prev "
+          + "WHERE prev.application_id = aw.application_id AND prev.stage = 'PROPERTY_APPRAISAL' "
+          + "AND prev.status = 'APPROVED')) "
+          + "OR (aw.stage = 'FINAL_APPROVAL' AND EXISTS (SELECT 1 FROM approval_workflow prev2 "
+          + "WHERE prev2.application_id = aw.application_id AND prev2.stage = 'CREDIT_ANALYSIS' "
+          + "AND prev2.status = 'APPROVED')))";
+
+  private static final String WORKFLOW_COUNT =
+      "(SELECT COUNT(*) FROM approval_workflow aw WHERE aw.application_id = k.id)";
+
+  private static final String DUE_DATE_SORT_KEY = "aq.due_date";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+
+  @Override
+  public KeysetPageResponse<KprQueueItem> findWorkQueue(
+      KprWorkQueue queue, Integer assigneeId, KprQueueRequest request) {
+    if (request.isSortByDueDate() && !queue.isAssigneeQueue()) {
+      throw new IllegalArgumentException(
+          "Sort dueDate hanya tersedia untuk antrian developer dan verifikator");
+    }
+
+    boolean sortByDueDate = request.isSortByDueDate();
+    String sortKey = sortByDueDate ? DUE_DATE_SORT_KEY : "k.created_at";
+    boolean ascending = request.isAscending();
+    int size = request.getSize();
+
+    // FROM + WHERE dipakai bersama oleh query halaman dan estimasi total
+    StringBuilder fromWhere = new StringBuilder(FROM_APPLICATIONS);
+    List<Object> params = new ArrayList<>();
+    List<String> conditions = new ArrayList<>();
+
+    switch (queue) {
+      case DEVELOPER ->
+          fromWhere.append(String.format(JOIN_ASSIGNED_WORKFLOWS, DEVELOPER_CONDITION));
+      case VERIFIKATOR ->
+          fromWhere.append(String.format(JOIN_ASSIGNED_WORKFLOWS, VERIFIKATOR_CONDITION));
+      case ADMIN_UNASSIGNED -> conditions.add(WORKFLOW_COUNT + " = 1");
+      case ADMIN_ASSIGNED -> conditions.add(WORKFLOW_COUNT + " = 3");
+      case ADMIN_ALL -> {}
+    }
+    if (queue.isAssigneeQueue()) {
+      params.add(assigneeId);
+    }
+
+    List<KprApplication.ApplicationStatus> statuses = request.getStatuses();
+    if (statuses != null && !statuses.isEmpty()) {
+      conditions.add(
+          "k.status IN ("
+              + String.join(
+                  ", ", Collections.nCopies(statuses.size(), "CAST(? AS application_status)"))
+              + ")");
+      statuses.forEach(status -> params.add(status.name()));
+    }
+    if (request.getCreatedFrom() != null) {
+      conditions.add("k.created_at >= ?");
+      params.add(Timestamp.valueOf(request.getCreatedFrom()));
+    }
+    if (request.getCreatedTo() != null) {
+      conditions.add("k.created_at < ?");
+      params.add(Timestamp.valueOf(request.getCreatedTo()));
+    }
+    if (request.getDueBefore() != null) {
+      if (!queue.isAssigneeQueue()) {
+        throw new IllegalArgumentException(
+            "Filter dueBefore hanya tersedia untuk antrian developer dan verifikator");
+      }
+      conditions.add("aq.due_date < ?");
+      params.add(Timestamp.valueOf(request.getDueBefore()));
+    }
+
+    if (!conditions.isEmpty()) {
+      fromWhere.append("WHERE ").append(String.join(" AND ", conditions)).append(' ');
+    }
+
+    // Keyset predicate dan limit hanya untuk query halaman
+    StringBuilder pageSql = new StringBuilder(SELECT_COLUMNS);
+    pageSql
+        .append(queue.isAssigneeQueue() ? "aq.stage" : "NULL")
+        .append(" AS stage, ")
+        .append(queue.isAssigneeQueue() ? "aq.due_date" : "NULL")
+        .append(" AS due_date, ")
+        .append(sortKey)
+        .append(" AS sort_key")
+        .append(fromWhere);
+
+    List<Object> pageParams = new ArrayList<>(params);
+    if (request.getCursor() != null && !request.getCursor().isBlank()) {
+      Cursor cursor = Cursor.decode(request.getCursor());
+      pageSql.append(conditions.isEmpty() ? "WHERE " : "AND ");
+      if (sortByDueDate) {
+        appendDueDateKeyset(pageSql, pageParams, cursor, ascending);
+      } else {
+        if (cursor.sortValue() == null) {
+          throw new IllegalArgumentException("Cursor tidak valid");
+        }
+        pageSql.append("(k.created_at, k.id) ").append(ascending ? "> " : "< ").append("(?, ?) ");
+        pageParams.add(Timestamp.valueOf(cursor.sortValue()));
+        pageParams.add(cursor.id());
+      }
+    }
+    String direction = ascending ? "ASC" : "DESC";
+    pageSql
+        .append("ORDER BY ")
+        .append(sortKey)
+        .append(' ')
+        .append(direction)
+        // Workflow tanpa due date paling akhir pada ascending, paling awal pada descending
+        .append(sortByDueDate ? (ascending ? " NULLS LAST" : " NULLS FIRST") : "")
+        .append(", k.id ")
+        .append(direction)
+        .append(" LIMIT ?");
+    pageParams.add(size + 1);
+
+    List<LocalDateTime> sortValues = new ArrayList<>();
+    List<KprQueueItem> rows =
+        jdbcTemplate.query(
+            pageSql.toString(),
+            (rs, rowNum) -> {
+              sortValues.add(rs.getObject("sort_key", LocalDateTime.class));
+              LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+              return KprQueueItem.builder()
+                  .id(rs.getInt("id"))
+                  .applicantName(rs.getString("username"))
+                  .applicantEmail(rs.getString("email"))
+                  .applicantPhone(rs.getString("phone"))
+                  .aplikasiKode(rs.getString("application_number"))
+                  .namaProperti(rs.getString("title"))
+                  .alamat(rs.getString("address"))
+                  .harga(rs.getBigDecimal("loan_amount"))
+                  .tanggal(createdAt != null ? createdAt.toString() : null)
+                  .jenis(rs.getString("rate_name"))
+                  .status(rs.getString("status"))
+                  .stage(rs.getString("stage"))
+                  .dueDate(rs.getObject("due_date", LocalDateTime.class))
+                  .createdAt(createdAt)
+                  .build();
+            },
+            pageParams.toArray());
+
+    boolean hasNext = rows.size() > size;
+    List<KprQueueItem> data = hasNext ? rows.subList(0, size) : rows;
+    String nextCursor = null;
+    if (hasNext) {
+      KprQueueItem last = data.get(data.size() - 1);
+      nextCursor = new Cursor(sortValues.get(data.size() - 1), last.getId()).encode();
+    }
+
+    // Total hanya dihitung di halaman pertama; jika semua baris muat di satu halaman, total pasti
+    Long total = null;
+    boolean exact = false;
+    boolean firstPage = request.getCursor() == null || request.getCursor().isBlank();
+    if (firstPage) {
+      if (!hasNext) {
+        total = (long) data.size();
+        exact = true;
+      } else {
+        total = Math.max(estimateRows(fromWhere.toString(), params), size + 1L);
+      }
+    }
+
+    return KeysetPageResponse.<KprQueueItem>builder()
+        .data(new ArrayList<>(data))
+        .size(size)
+        .hasNext(hasNext)
+        .nextCursor(nextCursor)
+        .approximateTotal(total)
+        .totalExact(exact)
+        .build();
+  }
+
+  /**
+   * Keyset predicate untuk sort due date. Due date bisa NULL (diurutkan paling akhir pada
+   * ascending), sehingga row comparison biasa tidak cukup: baris NULL ditangani dengan predicate
+   * terpisah.
+   */
+  private static void appendDueDateKeyset(
+      StringBuilder sql, List<Object> params, Cursor cursor, boolean ascending) {
+    if (cursor.sortValue() == null) {
+      if (ascending) {
+        // Sudah di bagian NULL: tinggal sisa baris NULL
+        sql.append("(aq.due_date IS NULL AND k.id > ?) ");
+      } else {
+        // Masih di bagian NULL: sisa baris NULL lalu semua baris bertanggal
+        sql.append("((aq.due_date IS NULL AND k.id < ?) OR aq.due_date IS NOT NULL) ");
+      }
+      params.add(cursor.id());
+      return;
+    }
+    sql.append("((aq.due_date, k.id) ").append(ascending ? "> " : "< ").append("(?, ?)");
+    if (ascending) {
+      sql.append(" OR aq.due_date IS NULL");
+    }
+    sql.append(") ");
+    params.add(Timestamp.valueOf(cursor.sortValue()));
+    params.add(cursor.id());
+  }
+
+  /**
+   * Estimasi jumlah baris dari planner (EXPLAIN tanpa ANALYZE), sehingga tidak perlu COUNT(*) atas
+   * seluruh antrian.
+   */
+  private long estimateRows(String fromWhere, List<Object> params) {
+    try {
+      String plan =
+          jdbcTemplate.queryForObject(
+              "EXPLAIN (FORMAT JSON) SELECT 1" + fromWhere, String.class, params.toArray());
+      JsonNode root = objectMapper.readTree(plan);
+      return root.path(0).path("Plan").path("Plan Rows").asLong(0);
+    } catch (Exception e) {
+      log.warn("Failed to estimate work queue size: {}", e.getMessage());
+      return 0L;
+    }
+  }
+
+  /** Posisi terakhir pada halaman sebelumnya: nilai sort (NULL untuk due date kosong) dan id */
+  private record Cursor(LocalDateTime sortValue, Integer id) {
+
+    String encode() {
+      String raw = (sortValue != null ? sortValue.toString() : "") + "|" + id;
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(String token) {
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf('|');
+        String sortValue = raw.substring(0, separator);
+        return new Cursor(
+            sortValue.isEmpty() ? null : LocalDateTime.parse(sortValue),
+            Integer.valueOf(raw.substring(separator + 1)));
+      } catch (RuntimeException e) {
+        throw new IllegalArgumentException("Cursor tidak valid");
+      }
+    }
+  }
+}
@@ -62,4 +62,12 @@ public interface KprRateRepository extends JpaRepository<KprRate, Integer> {
   /** Find rates by customer segment */
   List<KprRate> findByCustomerSegmentAndIsActiveTrueOrderByEffectiveRateAsc(
       KprRate.CustomerSegment customerSegment);
+
+  /** Find all active rates valid on the given date */
+  @Query(
+      "SELECT k FROM KprRate k WHERE k.isActive = true "
+          + "AND (k.effectiveDate <= :currentDate) "
+          + "AND (k.expiryDate IS NULL OR k.expiryDate >= :currentDate) "
+          + "ORDER BY k.effectiveRate ASC")
+  List<KprRate> findActiveRates(@Param("currentDate") LocalDate currentDate);
 }
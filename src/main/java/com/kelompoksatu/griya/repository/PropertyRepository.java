@@ -1,12 +1,15 @@
 package com.kelompoksatu.griya.repository;
 
+import com.kelompoksatu.griya.dto.AffordablePropertyResponse;
 import com.kelompoksatu.griya.entity.Property;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -158,6 +161,8 @@ SELECT
     p.property_type,
     p.listing_type,
     p.description,
+    p.is_kpr_eligible,
+    p.min_down_payment_percent,
     -- ambil nama file utama
     COALESCE(
         (SELECT pi.file_name FROM property_images pi
@@ -339,4 +344,73 @@ GROUP BY p.id
       @Param("minPrice") BigDecimal minPrice,
       @Param("maxPrice") BigDecimal maxPrice,
       @Param("propertyType") String propertyType);
+
+  /**
+   * Find AVAILABLE, KPR-eligible properties whose price is within the maximum affordable price for
+   * their property type. Types without an eligible rate should be passed a negative limit; a null
+   * propertyType matches every type.
+   */
+  @Query(
+      "SELECT new com.kelompoksatu.griya.dto.AffordablePropertyResponse("
+          + "p.id, p.propertyCode, p.slug, p.title, p.city, p.province, p.propertyType, p.price, "
+          + "p.minDownPaymentPercent) "
+          + "FROM Property p "
+          + "WHERE p.status = 'AVAILABLE' AND p.isKprEligible = true "
+          + "AND LOWER(p.city) LIKE LOWER(CONCAT('%', :city, '%')) "
+          + "AND (:propertyType IS NULL OR p.propertyType = :propertyType) "
+          + "AND ((p.propertyType = 'RUMAH' AND p.price <= :maxRumah) "
+          + "  OR (p.propertyType = 'APARTEMEN' AND p.price <= :maxApartemen) "
+          + "  OR (p.propertyType = 'RUKO' AND p.price <= :maxRuko) "
+          + "  OR (p.propertyType NOT IN ('RUMAH', 'APARTEMEN', 'RUKO') AND p.price <= :maxOther)) "
+          + "ORDER BY p.price DESC, p.id ASC")
+  List<AffordablePropertyResponse> findAffordableProperties(
+      @Param("city") String city,
+      @Param("propertyType") Property.PropertyType propertyType,
+      @Param("maxRumah") BigDecimal maxRumah,
+      @Param("maxApartemen") BigDecimal maxApartemen,
+      @Param("maxRuko") BigDecimal maxRuko,
+      @Param("maxOther") BigDecimal maxOther,
+      Pageable pageable);
+
+  /**
+   * Reservasi properti secara atomik: hanya berhasil jika status masih AVAILABLE dan version sama
+   * dengan yang dibaca saat validasi. SKIP LOCKED membuat pengajuan lain yang sedang mereservasi
+   * properti yang sama langsung gagal (0 baris) tanpa menunggu lock.
+   *
+   * <p>Memakai FOR NO KEY UPDATE (lock yang sama dengan UPDATE biasa) agar tidak bentrok dengan
+   * lock FOR KEY SHARE dari pengecekan foreign key baris lain yang mereferensikan properti ini.
+   * Harus dipanggil sebelum aplikasi KPR di-insert, karena insert tersebut mengambil FOR KEY SHARE
+   * atas baris properti.
+   *
+   * @return 1 jika reservasi berhasil, 0 jika properti sudah tidak tersedia atau sedang direservasi
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+    UPDATE properties
+    SET status = 'RESERVED', version = version + 1, updated_at = CURRENT_TIMESTAMP
+    WHERE id = (
+      SELECT id FROM properties
+      WHERE id = :id AND status = 'AVAILABLE' AND version = :expectedVersion
+      FOR NO KEY UPDATE SKIP LOCKED)
+    """,
+      nativeQuery = true)
+  int reserveIfAvailable(@Param("id") Integer id, @Param("expectedVersion") Long expectedVersion);
+
+  /**
+   * Kembalikan properti RESERVED menjadi AVAILABLE secara atomik.
+   *
+   * @return 1 jika properti dilepas, 0 jika status sudah bukan RESERVED
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+    UPDATE properties
+    SET status = 'AVAILABLE', version = version + 1, updated_at = CURRENT_TIMESTAMP
+    WHERE id = :id AND status = 'RESERVED'
+    """,
+      nativeQuery = true)
+  int releaseIfReserved(@Param("id") Integer id);
 }
@@ -0,0 +1,58 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.repository.DashboardAggregates.KpiComparison;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/** Maintenance and reads of the stats_daily_* rollup tables behind the admin dashboard */
+public interface StatAdminRepositoryCustom {
+
+  /** Jumlah aplikasi dan total pinjaman per bulan pembuatan dan status saat ini */
+  record MonthlyStatusTotal(
+      YearMonth month, String status, long applicationCount, BigDecimal loanAmountSum) {}
+
+  /** KPI kedua periode dan total per bulan/status periode berjalan */
+  record DashboardTotals(KpiComparison kpis, List<MonthlyStatusTotal> monthlyTotals) {}
+
+  /**
+   * Satu customer pada hari pembuatan aplikasinya, beserta developer properti (baris aplikasi) atau
+   * staff yang di-assign (baris workflow); tepat salah satu dari keduanya terisi
+   */
+  record CustomerActivity(LocalDate day, int userId, Integer developerId, Integer assigneeId) {}
+
+  /** Hari pembuatan aplikasi-aplikasi tersebut */
+  Set<LocalDate> findApplicationDays(Collection<Integer> applicationIds);
+
+  /** Hitung ulang rollup aplikasi dan customer untuk hari-hari tersebut dari kpr_applications */
+  void recomputeApplicationDays(Collection<LocalDate> days);
+
+  /** Hitung ulang rollup registrasi user untuk hari-hari tersebut dari users */
+  void recomputeRegistrationDays(Collection<LocalDate> days);
+
+  /** Bangun ulang semua rollup dari tabel sumber */
+  void rebuildAll();
+
+  /**
+   * KPI periode berjalan [start, end) dan sebelumnya [prevStart, start) beserta rollup aplikasi
+   * periode berjalan per bulan dan status, dalam satu query. Customer unik tidak terisi; lihat
+   * {@link com.kelompoksatu.griya.service.CustomerSketchService}.
+   */
+  DashboardTotals sumDashboard(LocalDate prevStart, LocalDate start, LocalDate end);
+
+  Map<YearMonth, Integer> sumRegistrationsByMonth(LocalDate start, LocalDate end);
+
+  /** Customer unik eksak [start, end) dari rollup; fallback jika sketch HyperLogLog belum siap */
+  long countDistinctCustomers(LocalDate start, LocalDate end);
+
+  /** Stream semua aktivitas customer sejak tanggal tersebut untuk mengisi ulang sketch */
+  void forEachCustomerActivity(LocalDate since, Consumer<CustomerActivity> consumer);
+
+  /** Aktivitas customer untuk aplikasi-aplikasi tersebut */
+  List<CustomerActivity> findCustomerActivities(Collection<Integer> applicationIds);
+}
@@ -0,0 +1,275 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.repository.DashboardAggregates.KpiComparison;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link StatAdminRepositoryCustom}. A day is recomputed by deleting its
+ * rollup rows and re-aggregating that day from the source table, which keeps updates idempotent.
+ * Per-day recomputes take a shared advisory lock plus a per-day lock; the full rebuild takes the
+ * shared lock exclusively so both never interleave on the same rows. Application and registration
+ * days are locked in separate namespaces, so a transaction recomputing both (always applications
+ * first, each in date order) acquires its locks in one global order.
+ */
+@RequiredArgsConstructor
+public class StatAdminRepositoryCustomImpl implements StatAdminRepositoryCustom {
+
+  /** Namespace advisory lock (key pertama) untuk rollup stats_daily dan lock global rebuild */
+  private static final int ADVISORY_LOCK_NAMESPACE = 42;
+
+  /** Namespace lock per hari stats_daily_applications dan stats_daily_customers */
+  private static final int APPLICATION_DAY_LOCK_NAMESPACE = ADVISORY_LOCK_NAMESPACE;
+
+  /** Namespace lock per hari stats_daily_registrations */
+  private static final int REGISTRATION_DAY_LOCK_NAMESPACE = 43;
+
+  /** Key kedua untuk lock global rebuild */
+  private static final int GLOBAL_LOCK_KEY = -1;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public Set<LocalDate> findApplicationDays(Collection<Integer> applicationIds) {
+    if (applicationIds == null || applicationIds.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(
+        jdbcTemplate.query(
+            "SELECT DISTINCT CAST(created_at AS date) FROM kpr_applications "
+                + "WHERE created_at IS NOT NULL AND id IN ("
+                + placeholders(applicationIds.size())
+                + ")",
+            (rs, rowNum) -> rs.getDate(1).toLocalDate(),
+            applicationIds.toArray()));
+  }
+
+  @Override
+  public void recomputeApplicationDays(Collection<LocalDate> days) {
+    for (LocalDate day : lockDays(APPLICATION_DAY_LOCK_NAMESPACE, days)) {
+      Date from = Date.valueOf(day);
+      Date to = Date.valueOf(day.plusDays(1));
+      jdbcTemplate.update("DELETE FROM stats_daily_applications WHERE day = ?", from);
+      jdbcTemplate.update(
+          "INSERT INTO stats_daily_applications (day, status, application_count, loan_amount_sum) "
+              + "SELECT ?, CAST(status AS text), COUNT(*), COALESCE(SUM(loan_amount), 0) "
+              + "FROM kpr_applications "
+              + "WHERE created_at >= ? AND created_at < ? AND status IS NOT NULL "
+              + "GROUP BY status",
+          from,
+          from,
+          to);
+      jdbcTemplate.update("DELETE FROM stats_daily_customers WHERE day = ?", from);
+      jdbcTemplate.update(
+          "INSERT INTO stats_daily_customers (day, user_id) "
+              + "SELECT DISTINCT ?, user_id FROM kpr_applications "
+              + "WHERE created_at >= ? AND created_at < ?",
+          from,
+          from,
+          to);
+    }
+  }
+
+  @Override
+  public void recomputeRegistrationDays(Collection<LocalDate> days) {
+    for (LocalDate day : lockDays(REGISTRATION_DAY_LOCK_NAMESPACE, days)) {
+      Date from = Date.valueOf(day);
+      jdbcTemplate.update(
+          "INSERT INTO stats_daily_registrations (day, user_count, updated_at) "
+              + "SELECT ?, COUNT(*), CURRENT_TIMESTAMP FROM users "
+              + "WHERE created_at >= ? AND created_at < ? "
+              + "ON CONFLICT (day) DO UPDATE "
+              + "SET user_count = EXCLUDED.user_count, updated_at = EXCLUDED.updated_at",
+          from,
+          from,
+          Date.valueOf(day.plusDays(1)));
+    }
+  }
+
+  @Override
+  public void rebuildAll() {
+    jdbcTemplate.query(
+        "SELECT pg_advisory_xact_lock(?, ?)", rs -> {}, ADVISORY_LOCK_NAMESPACE, GLOBAL_LOCK_KEY);
+    jdbcTemplate.update("DELETE FROM stats_daily_applications");
+    jdbcTemplate.update(
+        "INSERT INTO stats_daily_applications (day, status, application_count, loan_amount_sum) "
+            + "SELECT CAST(created_at AS date), CAST(status AS text), COUNT(*), "
+            + "COALESCE(SUM(loan_amount), 0) FROM kpr_applications "
+            + "WHERE created_at IS NOT NULL AND status IS NOT NULL GROUP BY 1, 2");
+    jdbcTemplate.update("DELETE FROM stats_daily_customers");
+    jdbcTemplate.update(
+        "INSERT INTO stats_daily_customers (day, user_id) "
+            + "SELECT DISTINCT CAST(created_at AS date), user_id FROM kpr_applications "
+            + "WHERE created_at IS NOT NULL");
+    jdbcTemplate.update("DELETE FROM stats_daily_registrations");
+    jdbcTemplate.update(
+        "INSERT INTO stats_daily_registrations (day, user_count) "
+            + "SELECT CAST(created_at AS date), COUNT(*) FROM users "
+            + "WHERE created_at IS NOT NULL GROUP BY 1");
+  }
+
+  @Override
+  public DashboardTotals sumDashboard(LocalDate prevStart, LocalDate start, LocalDate end) {
+    Date from = Date.valueOf(prevStart);
+    Date split = Date.valueOf(start);
+    Date to = Date.valueOf(end);
+    return jdbcTemplate.query(
+        "SELECT GROUPING(status), CAST(date_trunc('month', day) AS date), status, "
+            + "COALESCE(SUM(application_count) FILTER (WHERE cur), 0), "
+            + "COALESCE(SUM(loan_amount_sum) FILTER (WHERE cur), 0), "
+            + "COALESCE(SUM(application_count) FILTER (WHERE cur AND status = 'APPROVED'), 0), "
+            + "COALESCE(SUM(application_count) FILTER (WHERE cur AND status = 'REJECTED'), 0), "
+            + "COALESCE(SUM(application_count) FILTER (WHERE cur AND status IN ("
+            + DashboardAggregates.PENDING_STATUSES
+            + ")), 0), "
+            + "COALESCE(SUM(application_count) FILTER (WHERE NOT cur AND status = 'APPROVED'), 0), "
+            + "COALESCE(SUM(application_count) FILTER (WHERE NOT cur AND status = 'REJECTED'), 0), "
+            + "COALESCE(SUM(application_count) FILTER (WHERE NOT cur AND status IN ("
+            + DashboardAggregates.PENDING_STATUSES
+            + ")), 0) "
+            + "FROM (SELECT day, status, application_count, loan_amount_sum, day >= ? AS cur "
+            + "FROM stats_daily_applications WHERE day >= ? AND day < ?) d "
+            + "GROUP BY GROUPING SETS ((), (date_trunc('month', day), status))",
+        rs -> {
+          KpiComparison kpis = new KpiComparison(0, 0, 0, 0, 0, 0, 0, 0);
+          List<MonthlyStatusTotal> monthlyTotals = new ArrayList<>();
+          while (rs.next()) {
+            if (rs.getInt(1) == 1) {
+              kpis =
+                  new KpiComparison(
+                      rs.getLong(6),
+                      rs.getLong(7),
+                      rs.getLong(8),
+                      0,
+                      rs.getLong(9),
+                      rs.getLong(10),
+                      rs.getLong(11),
+                      0);
+            } else if (rs.getLong(4) > 0) {
+              monthlyTotals.add(
+                  new MonthlyStatusTotal(
+                      YearMonth.from(rs.getDate(2).toLocalDate()),
+                      rs.getString(3),
+                      rs.getLong(4),
+                      rs.getBigDecimal(5)));
+            }
+          }
+          return new DashboardTotals(kpis, monthlyTotals);
+        },
+        split,
+        from,
+        to);
+  }
+
+  @Override
+  public long countDistinctCustomers(LocalDate start, LocalDate end) {
+    Long count =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT user_id) FROM stats_daily_customers WHERE day >= ? AND day < ?",
+            Long.class,
+            Date.valueOf(start),
+            Date.valueOf(end));
+    return count != null ? count : 0;
+  }
+
+  @Override
+  public void forEachCustomerActivity(LocalDate since, Consumer<CustomerActivity> consumer) {
+    Date from = Date.valueOf(since);
+    queryCustomerActivities("k.created_at >= ?", new Object[] {from}, consumer);
+  }
+
+  @Override
+  public List<CustomerActivity> findCustomerActivities(Collection<Integer> applicationIds) {
+    if (applicationIds == null || applicationIds.isEmpty()) {
+      return List.of();
+    }
+    List<CustomerActivity> activities = new ArrayList<>();
+    queryCustomerActivities(
+        "k.id IN (" + placeholders(applicationIds.size()) + ")",
+        applicationIds.toArray(),
+        activities::add);
+    return activities;
+  }
+
+  /**
+   * Baris aplikasi (dengan developer) dan baris workflow (dengan assignee) untuk sketch customer
+   */
+  private void queryCustomerActivities(
+      String applicationPredicate, Object[] params, Consumer<CustomerActivity> consumer) {
+    Object[] args = new Object[params.length * 2];
+    System.arraycopy(params, 0, args, 0, params.length);
+    System.arraycopy(params, 0, args, params.length, params.length);
+    jdbcTemplate.query(
+        "SELECT CAST(k.created_at AS date), k.user_id, p.developer_id, NULL "
+            + "FROM kpr_applications k LEFT JOIN properties p ON p.id = k.property_id "
+            + "WHERE k.created_at IS NOT NULL AND k.user_id IS NOT NULL AND "
+            + applicationPredicate
+            + " UNION ALL "
+            + "SELECT DISTINCT CAST(k.created_at AS date), k.user_id, NULL, aw.assigned_to "
+            + "FROM approval_workflow aw JOIN kpr_applications k ON k.id = aw.application_id "
+            + "WHERE k.created_at IS NOT NULL AND k.user_id IS NOT NULL "
+            + "AND aw.assigned_to IS NOT NULL AND "
+            + applicationPredicate,
+        rs -> {
+          consumer.accept(
+              new CustomerActivity(
+                  rs.getDate(1).toLocalDate(),
+                  rs.getInt(2),
+                  rs.getObject(3, Integer.class),
+                  rs.getObject(4, Integer.class)));
+        },
+        args);
+  }
+
+  @Override
+  public Map<YearMonth, Integer> sumRegistrationsByMonth(LocalDate start, LocalDate end) {
+    Map<YearMonth, Integer> totals = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT CAST(date_trunc('month', day) AS date), SUM(user_count) "
+            + "FROM stats_daily_registrations WHERE day >= ? AND day < ? GROUP BY 1",
+        rs -> {
+          totals.put(YearMonth.from(rs.getDate(1).toLocalDate()), rs.getInt(2));
+        },
+        Date.valueOf(start),
+        Date.valueOf(end));
+    return totals;
+  }
+
+  /**
+   * Ambil lock shared global dan lock per hari (dalam namespace rollup-nya) dalam urutan tanggal;
+   * dikembalikan terurut
+   */
+  private List<LocalDate> lockDays(int namespace, Collection<LocalDate> days) {
+    if (days == null || days.isEmpty()) {
+      return List.of();
+    }
+    List<LocalDate> sorted = new ArrayList<>(new TreeSet<>(days));
+    jdbcTemplate.query(
+        "SELECT pg_advisory_xact_lock_shared(?, ?)",
+        rs -> {},
+        ADVISORY_LOCK_NAMESPACE,
+        GLOBAL_LOCK_KEY);
+    for (LocalDate day : sorted) {
+      jdbcTemplate.query(
+          "SELECT pg_advisory_xact_lock(?, ?)", rs -> {}, namespace, (int) day.toEpochDay());
+    }
+    return sorted;
+  }
+
+  private String placeholders(int count) {
+    return String.join(", ", Collections.nCopies(count, "?"));
+  }
+}
@@ -0,0 +1,21 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.repository.DashboardAggregates.ScopedDashboardStats;
+import java.time.LocalDateTime;
+
+/** Single-pass aggregation behind the developer dashboard */
+public interface StatDeveloperRepositoryCustom {
+
+  /**
+   * KPI periode berjalan [start, end) dan sebelumnya [prevStart, start), funnel, SLA dan total
+   * bulanan untuk aplikasi pada properti milik developer, dalam satu query
+   */
+  ScopedDashboardStats aggregateDashboard(
+      Integer developerId, LocalDateTime prevStart, LocalDateTime start, LocalDateTime end);
+
+  /**
+   * Customer unik eksak untuk properti milik developer dengan aplikasi dibuat dalam [start, end);
+   * fallback jika sketch HyperLogLog belum siap
+   */
+  long countDistinctCustomers(Integer developerId, LocalDateTime start, LocalDateTime end);
+}
@@ -0,0 +1,46 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.repository.DashboardAggregates.ScopedDashboardStats;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/** JDBC implementation of {@link StatDeveloperRepositoryCustom} */
+@RequiredArgsConstructor
+public class StatDeveloperRepositoryCustomImpl implements StatDeveloperRepositoryCustom {
+
+  private static final String DASHBOARD_SQL =
+      DashboardAggregates.scopedDashboardSql(
+          null,
+          "k.property_id IN (SELECT p.id FROM properties p WHERE p.developer_id = ?)",
+          DashboardAggregates.APPLICATION_SLA_COLUMNS);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public ScopedDashboardStats aggregateDashboard(
+      Integer developerId, LocalDateTime prevStart, LocalDateTime start, LocalDateTime end) {
+    return jdbcTemplate.query(
+        DASHBOARD_SQL,
+        DashboardAggregates::extractScopedDashboard,
+        Timestamp.valueOf(start),
+        developerId,
+        Timestamp.valueOf(prevStart),
+        Timestamp.valueOf(end));
+  }
+
+  @Override
+  public long countDistinctCustomers(Integer developerId, LocalDateTime start, LocalDateTime end) {
+    Long count =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT k.user_id) FROM kpr_applications k WHERE "
+                + "k.property_id IN (SELECT p.id FROM properties p WHERE p.developer_id = ?) "
+                + "AND k.created_at >= ? AND k.created_at < ?",
+            Long.class,
+            developerId,
+            Timestamp.valueOf(start),
+            Timestamp.valueOf(end));
+    return count != null ? count : 0;
+  }
+}
@@ -0,0 +1,22 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.repository.DashboardAggregates.ScopedDashboardStats;
+import java.time.LocalDateTime;
+
+/** Single-pass aggregation behind the approver (staff) dashboard */
+public interface StatStaffRepositoryCustom {
+
+  /**
+   * KPI periode berjalan [start, end) dan sebelumnya [prevStart, start), funnel dan total bulanan
+   * untuk aplikasi yang pernah di-assign ke staff, plus SLA workflow staff yang dibuat dalam
+   * periode berjalan, dalam satu query
+   */
+  ScopedDashboardStats aggregateDashboard(
+      Integer staffUserId, LocalDateTime prevStart, LocalDateTime start, LocalDateTime end);
+
+  /**
+   * Customer unik eksak untuk aplikasi yang pernah di-assign ke staff dengan aplikasi dibuat dalam
+   * [start, end); fallback jika sketch HyperLogLog belum siap
+   */
+  long countDistinctCustomers(Integer staffUserId, LocalDateTime start, LocalDateTime end);
+}
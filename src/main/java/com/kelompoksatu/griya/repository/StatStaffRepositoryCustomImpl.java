@@ -0,0 +1,59 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.repository.DashboardAggregates.ScopedDashboardStats;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link StatStaffRepositoryCustom}. SLA dihitung dari durasi workflow staff
+ * (created_at sampai completed_at) dalam CTE yang dievaluasi sekali.
+ */
+@RequiredArgsConstructor
+public class StatStaffRepositoryCustomImpl implements StatStaffRepositoryCustom {
+
+  private static final String DASHBOARD_SQL =
+      DashboardAggregates.scopedDashboardSql(
+          "sla AS (SELECT "
+              + "COUNT(*) FILTER (WHERE completed_at - created_at < INTERVAL '3 days') AS fast, "
+              + "COUNT(*) FILTER (WHERE completed_at - created_at >= INTERVAL '3 days' "
+              + "AND completed_at - created_at < INTERVAL '6 days') AS medium, "
+              + "COUNT(*) FILTER (WHERE completed_at - created_at >= INTERVAL '6 days') AS slow "
+              + "FROM approval_workflow WHERE assigned_to = ? "
+              + "AND created_at >= ? AND created_at < ?)",
+          "k.id IN (SELECT aw.application_id FROM approval_workflow aw WHERE aw.assigned_to = ?)",
+          "(SELECT fast FROM sla), (SELECT medium FROM sla), (SELECT slow FROM sla)");
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public ScopedDashboardStats aggregateDashboard(
+      Integer staffUserId, LocalDateTime prevStart, LocalDateTime start, LocalDateTime end) {
+    return jdbcTemplate.query(
+        DASHBOARD_SQL,
+        DashboardAggregates::extractScopedDashboard,
+        staffUserId,
+        Timestamp.valueOf(start),
+        Timestamp.valueOf(end),
+        Timestamp.valueOf(start),
+        staffUserId,
+        Timestamp.valueOf(prevStart),
+        Timestamp.valueOf(end));
+  }
+
+  @Override
+  public long countDistinctCustomers(Integer staffUserId, LocalDateTime start, LocalDateTime end) {
+    Long count =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT k.user_id) FROM kpr_applications k WHERE "
+                + "k.id IN (SELECT aw.application_id FROM approval_workflow aw "
+                + "WHERE aw.assigned_to = ?) "
+                + "AND k.created_at >= ? AND k.created_at < ?",
+            Long.class,
+            staffUserId,
+            Timestamp.valueOf(start),
+            Timestamp.valueOf(end));
+    return count != null ? count : 0;
+  }
+}
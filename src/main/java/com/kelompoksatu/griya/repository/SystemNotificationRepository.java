@@ -6,7 +6,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface SystemNotificationRepository extends JpaRepository<SystemNotification, Long> {
+public interface SystemNotificationRepository
+    extends JpaRepository<SystemNotification, Long>, SystemNotificationRepositoryCustom {
 
   // Mencari notifikasi berdasarkan user_id, diurutkan dari yang terbaru
   List<SystemNotification> findByUserIdOrderByCreatedAtDesc(Integer userId);
@@ -0,0 +1,14 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.entity.SystemNotification;
+import java.util.List;
+
+/** Custom bulk operations for SystemNotification that JPA cannot express efficiently */
+public interface SystemNotificationRepositoryCustom {
+
+  /**
+   * Insert all notifications with a single multi-row INSERT statement. Generated id and createdAt
+   * are written back to the given entities.
+   */
+  List<SystemNotification> insertAll(List<SystemNotification> notifications);
+}
@@ -0,0 +1,70 @@
+package com.kelompoksatu.griya.repository;
+
+import com.kelompoksatu.griya.entity.NotificationStatus;
+import com.kelompoksatu.griya.entity.SystemNotification;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link SystemNotificationRepositoryCustom}. The entity uses IDENTITY ids,
+ * which disables Hibernate insert batching, so bulk inserts are issued as one VALUES list instead.
+ */
+@RequiredArgsConstructor
+public class SystemNotificationRepositoryCustomImpl implements SystemNotificationRepositoryCustom {
+
+  private static final String INSERT_PREFIX =
+      "INSERT INTO system_notifications "
+          + "(user_id, notification_type, title, message, channel, status, scheduled_at, metadata, created_at) "
+          + "VALUES ";
+
+  private static final String ROW_PLACEHOLDER =
+      "(?, CAST(? AS notification_type), ?, ?, CAST(? AS notification_channel), "
+          + "CAST(? AS notification_status), ?, CAST(? AS jsonb), ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public List<SystemNotification> insertAll(List<SystemNotification> notifications) {
+    if (notifications == null || notifications.isEmpty()) {
+      return List.of();
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+    List<Object> params = new ArrayList<>(notifications.size() * 9);
+
+    for (int i = 0; i < notifications.size(); i++) {
+      SystemNotification n = notifications.get(i);
+      if (n.getStatus() == null) {
+        n.setStatus(NotificationStatus.PENDING);
+      }
+      if (n.getCreatedAt() == null) {
+        n.setCreatedAt(now);
+      }
+
+      sql.append(i == 0 ? "" : ", ").append(ROW_PLACEHOLDER);
+      params.add(n.getUserId());
+      params.add(n.getNotificationType() != null ? n.getNotificationType().name() : null);
+      params.add(n.getTitle());
+      params.add(n.getMessage());
+      params.add(n.getChannel() != null ? n.getChannel().name() : null);
+      params.add(n.getStatus().name());
+      params.add(n.getScheduledAt() != null ? Timestamp.valueOf(n.getScheduledAt()) : null);
+      params.add(n.getMetadata() != null ? n.getMetadata().toString() : null);
+      params.add(Timestamp.valueOf(n.getCreatedAt()));
+    }
+    sql.append(" RETURNING id");
+
+    // PostgreSQL returns the generated rows in VALUES order for a single INSERT statement
+    List<Long> ids =
+        jdbcTemplate.query(sql.toString(), (rs, rowNum) -> rs.getLong(1), params.toArray());
+    for (int i = 0; i < ids.size() && i < notifications.size(); i++) {
+      notifications.get(i).setId(ids.get(i));
+    }
+    return notifications;
+  }
+}
@@ -1,8 +1,10 @@
 package com.kelompoksatu.griya.repository;
 
 import com.kelompoksatu.griya.dto.AdminSimpleResponse;
+import com.kelompoksatu.griya.dto.UserAuthState;
 import com.kelompoksatu.griya.dto.UserResponse;
 import com.kelompoksatu.griya.entity.User;
+import com.kelompoksatu.griya.entity.UserStatus;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -18,9 +20,20 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
 
+  /** Find ids of users with the given role name and account status */
+  @Query("SELECT u.id FROM User u WHERE u.role.name = :roleName AND u.status = :status")
+  List<Integer> findIdsByRoleNameAndStatus(
+      @Param("roleName") String roleName, @Param("status") UserStatus status);
+
   /** Find user by username */
   Optional<User> findByUsername(String username);
 
+  /** Status, role dan lock user tanpa memuat relasi EAGER (profile, developer) */
+  @Query(
+      "SELECT new com.kelompoksatu.griya.dto.UserAuthState(u.status, r.name, u.lockedUntil) "
+          + "FROM User u JOIN u.role r WHERE u.id = :userId")
+  Optional<UserAuthState> findAuthStateById(@Param("userId") Integer userId);
+
   /** Find user by email */
   Optional<User> findByEmail(String email);
 
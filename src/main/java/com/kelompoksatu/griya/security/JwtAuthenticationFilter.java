@@ -1,6 +1,6 @@
 package com.kelompoksatu.griya.security;
 
-import com.kelompoksatu.griya.service.UserService;
+import com.kelompoksatu.griya.service.PrincipalCacheService;
 import com.kelompoksatu.griya.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -28,7 +28,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   @Autowired private JwtUtil jwtUtil;
 
-  @Autowired private UserService userService;
+  @Autowired private PrincipalCacheService principalCacheService;
 
   @Override
   protected void doFilterInternal(
@@ -39,26 +39,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       // Extract JWT token from request
       String jwt = getJwtFromRequest(request);
 
-      if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-        // Extract user information from token
-        String username = jwtUtil.extractUsername(jwt);
-        Integer userId = jwtUtil.extractUserId(jwt);
-        String role = jwtUtil.extractUserRole(jwt);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-          // Verify user still exists and is active
-          userService
-              .findByUsername(username)
+      if (StringUtils.hasText(jwt)) {
+        // Token di-parse dan diverifikasi sekali (termasuk cek sesi yang di-revoke); claims dipakai
+        // ulang sepanjang request
+        JwtPrincipal principal = jwtUtil.verify(jwt);
+        String username = principal.username();
+        Integer userId = principal.userId();
+        String role = principal.role();
+
+        if (username != null
+            && userId != null
+            && SecurityContextHolder.getContext().getAuthentication() == null) {
+          // Verify user still exists, is active and still has the token's role (cached per user)
+          principalCacheService
+              .get(userId)
               .ifPresent(
                   user -> {
-                    if (userService.isAccountActive(user)) {
+                    if (!user.role().equals(role)) {
+                      logger.warn("Token role no longer matches user: {}", username);
+                    } else if (user.isActive()) {
                       // Create authorities based on user role
                       List<SimpleGrantedAuthority> authorities =
                           Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
 
                       // Create authentication token
                       UsernamePasswordAuthenticationToken authentication =
-                          new UsernamePasswordAuthenticationToken(username, null, authorities);
+                          new UsernamePasswordAuthenticationToken(principal, null, authorities);
 
                       // Set additional details
                       authentication.setDetails(
@@ -70,6 +76,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                       // Add user ID to request attributes for easy access in controllers
                       request.setAttribute("userId", userId);
                       request.setAttribute("userRole", role);
+                      request.setAttribute(JwtPrincipal.REQUEST_ATTRIBUTE, principal);
 
                       logger.debug("Authentication set for user: {} with role: {}", username, role);
                     } else {
@@ -112,7 +119,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         || path.equals("/api/v1/auth/forgot-password/phone/set-password")
         || path.equals("/api/v1/proxy/image")
         || path.startsWith("/api/v1/features")
-        || path.startsWith("/api/v1/properties")
         || path.equals("/api/v1/auth/verify-otp")
         || path.equals("/actuator/health")
         || path.equals("/error")
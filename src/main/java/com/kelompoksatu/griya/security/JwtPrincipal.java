@@ -0,0 +1,23 @@
+package com.kelompoksatu.griya.security;
+
+import java.security.Principal;
+import java.util.Date;
+
+/**
+ * Identitas dari access token yang sudah diverifikasi satu kali oleh {@link
+ * JwtAuthenticationFilter}. Dipasang sebagai principal {@code Authentication} dan sebagai atribut
+ * request {@link #REQUEST_ATTRIBUTE}, sehingga controller bisa memakai
+ * {@code @AuthenticationPrincipal JwtPrincipal} tanpa mem-parse token lagi. {@code sessionId}
+ * adalah claim {@code sid}, id sesi login yang menerbitkan token.
+ */
+public record JwtPrincipal(
+    String username, Integer userId, String role, String sessionId, Date expiresAt)
+    implements Principal {
+
+  public static final String REQUEST_ATTRIBUTE = "jwtPrincipal";
+
+  @Override
+  public String getName() {
+    return username;
+  }
+}
@@ -32,6 +32,7 @@ public class AdminService {
 
   private final UserRepository userRepository;
   private final UserSessionRepository userSessionRepository;
+  private final SessionStoreService sessionStoreService;
   private final UserProfileRepository userProfileRepository;
   private final RoleRepository roleRepository;
   private final DeveloperRepository developerRepository;
@@ -166,6 +167,9 @@ public class AdminService {
     // baru hapus user
     userRepository.delete(user);
 
+    // sesi aktif di Redis ikut dicabut
+    sessionStoreService.revokeAll(targetUserId);
+
     log.info("Admin {} hard-delete user {}. reason={}", adminId, targetUserId, reason);
   }
 
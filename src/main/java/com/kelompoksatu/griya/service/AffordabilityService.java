@@ -0,0 +1,324 @@
+package com.kelompoksatu.griya.service;
+
+import com.kelompoksatu.griya.dto.AffordabilityRequest;
+import com.kelompoksatu.griya.dto.AffordabilityResponse;
+import com.kelompoksatu.griya.dto.AffordablePropertyResponse;
+import com.kelompoksatu.griya.entity.KprRate;
+import com.kelompoksatu.griya.entity.Property;
+import com.kelompoksatu.griya.repository.PropertyRepository;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Pre-kualifikasi KPR: menghitung pinjaman dan harga properti maksimum untuk setiap KprRate yang
+ * eligible, lalu mencari properti AVAILABLE yang masuk budget.
+ *
+ * <p>Pinjaman maksimum diselesaikan secara closed-form dari rumus anuitas: dengan budget cicilan A,
+ * bunga bulanan r dan N bulan, P = A * (1 - (1 + r)^-N) / r. Tenor dipilih sepanjang mungkin dalam
+ * batas maxTermYears dan maxAge, karena tenor lebih panjang selalu memberi pinjaman lebih besar.
+ * Pinjaman maksimum dihitung dengan rate tertinggi sepanjang tenor (bukan rate teaser tahun
+ * pertama) agar cicilan tetap dalam batas DTI setelah masa teaser; cicilan yang ditampilkan adalah
+ * cicilan awal.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AffordabilityService {
+
+  private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+  /** Jumlah kandidat minimum yang dibaca per query */
+  private static final int CANDIDATE_BATCH = 50;
+
+  private final InstallmentFactorService installmentFactorService;
+  private final PropertyRepository propertyRepository;
+
+  /** Batas total cicilan (kewajiban lama + KPR) terhadap penghasilan bulanan */
+  @Value("${app.affordability.max-debt-to-income-ratio:0.35}")
+  private BigDecimal maxDebtToIncomeRatio;
+
+  /** Batas kandidat properti yang diperiksa per request */
+  @Value("${app.affordability.max-candidates:1000}")
+  private int maxCandidates;
+
+  @Transactional(readOnly = true)
+  public AffordabilityResponse preQualify(AffordabilityRequest request) {
+    double income = request.getMonthlyIncome().doubleValue();
+    double obligations =
+        request.getExistingObligations() != null
+            ? request.getExistingObligations().doubleValue()
+            : 0.0;
+    double budget = income * maxDebtToIncomeRatio.doubleValue() - obligations;
+    Double downPayment =
+        request.getDownPayment() != null ? request.getDownPayment().doubleValue() : null;
+
+    List<RateSolution> solutions = new ArrayList<>();
+    if (budget > 0) {
+      for (KprRate rate : installmentFactorService.getActiveRates()) {
+        RateSolution solution = solve(rate, request, budget, downPayment);
+        if (solution != null) {
+          solutions.add(solution);
+        }
+      }
+    }
+    solutions.sort(Comparator.comparingDouble(RateSolution::maxPrice).reversed());
+
+    List<AffordablePropertyResponse> properties =
+        solutions.isEmpty() ? List.of() : findProperties(request, solutions, downPayment);
+
+    log.debug(
+        "Pre-qualification: budget={}, eligibleRates={}, properties={}",
+        budget,
+        solutions.size(),
+        properties.size());
+
+    return AffordabilityResponse.builder()
+        .maxDebtToIncomeRatio(maxDebtToIncomeRatio)
+        .maxMonthlyInstallment(money(Math.max(budget, 0)))
+        .maxLoanAmount(money(solutions.stream().mapToDouble(RateSolution::maxLoan).max().orElse(0)))
+        .maxPropertyPrice(money(solutions.isEmpty() ? 0 : solutions.get(0).maxPrice()))
+        .rates(solutions.stream().map(this::toRateAffordability).toList())
+        .properties(properties)
+        .build();
+  }
+
+  /** Hitung pinjaman dan harga maksimum untuk satu rate, atau null jika tidak eligible */
+  private RateSolution solve(
+      KprRate rate, AffordabilityRequest request, double budget, Double downPayment) {
+    KprRate.CustomerSegment segment = request.getCustomerSegment();
+    if (segment != null
+        && segment != KprRate.CustomerSegment.ALL
+        && rate.getCustomerSegment() != KprRate.CustomerSegment.ALL
+        && rate.getCustomerSegment() != segment) {
+      return null;
+    }
+    if (rate.getMinIncome() != null
+        && request.getMonthlyIncome().compareTo(rate.getMinIncome()) < 0) {
+      return null;
+    }
+
+    // Tenor terpanjang yang masih selesai sebelum maxAge
+    int tenorYears = rate.getMaxTermYears();
+    if (rate.getMaxAge() != null) {
+      tenorYears = Math.min(tenorYears, rate.getMaxAge() - request.getAge());
+    }
+    if (tenorYears < rate.getMinTermYears() || tenorYears <= 0) {
+      return null;
+    }
+
+    // Nilai sekarang per rupiah cicilan = 1 / faktor kualifikasi (rate tertinggi sepanjang tenor)
+    double annuity = 1.0 / installmentFactorService.qualifyingFactor(rate, tenorYears);
+    // Faktor cicilan tahun pertama, hanya untuk tampilan cicilan awal
+    double startingFactor = installmentFactorService.paymentFactor(rate, tenorYears);
+
+    double maxLoan = budget * annuity;
+    if (rate.getMaxLoanAmount() != null) {
+      maxLoan = Math.min(maxLoan, rate.getMaxLoanAmount().doubleValue());
+    }
+    double minLoan = rate.getMinLoanAmount() != null ? rate.getMinLoanAmount().doubleValue() : 0;
+    if (maxLoan < minLoan) {
+      return null;
+    }
+
+    double ltv = effectiveLtv(rate.getMaxLtvRatio(), rate.getMinDownPaymentPercent());
+    double maxPrice;
+    double loan;
+    if (downPayment == null) {
+      maxPrice = maxLoan / ltv;
+      loan = maxLoan;
+    } else {
+      // loan = price - DP harus <= maxLoan dan <= ltv * price
+      maxPrice = maxLoan + downPayment;
+      if (ltv < 1.0) {
+        maxPrice = Math.min(maxPrice, downPayment / (1.0 - ltv));
+      }
+      loan = Math.max(maxPrice - downPayment, 0);
+      if (loan < minLoan) {
+        return null;
+      }
+    }
+
+    return new RateSolution(
+        rate, tenorYears, annuity, startingFactor, ltv, minLoan, maxLoan, maxPrice, loan);
+  }
+
+  private List<AffordablePropertyResponse> findProperties(
+      AffordabilityRequest request, List<RateSolution> solutions, Double downPayment) {
+    Property.PropertyType requestedType = request.getPropertyType();
+    BigDecimal maxRumah = maxPriceFor(Property.PropertyType.RUMAH, requestedType, solutions);
+    BigDecimal maxApartemen =
+        maxPriceFor(Property.PropertyType.APARTEMEN, requestedType, solutions);
+    BigDecimal maxRuko = maxPriceFor(Property.PropertyType.RUKO, requestedType, solutions);
+    // Tipe lain (tanah, villa, ...) hanya dilayani rate dengan propertyType ALL
+    BigDecimal maxOther =
+        requestedType == null
+                || (requestedType != Property.PropertyType.RUMAH
+                    && requestedType != Property.PropertyType.APARTEMEN
+                    && requestedType != Property.PropertyType.RUKO)
+            ? money(maxPrice(KprRate.PropertyTypeFilter.ALL, solutions))
+            : BigDecimal.valueOf(-1);
+
+    // Batas harga di query hanya batas atas; minimum DP properti dan batas pinjaman per rate baru
+    // bisa dicek di sini, jadi kandidat dibaca per halaman sampai propertyLimit properti lolos
+    int limit = request.getPropertyLimit();
+    int batch = Math.max(limit, CANDIDATE_BATCH);
+    String city = request.getCity() != null ? request.getCity().trim() : "";
+    List<AffordablePropertyResponse> result = new ArrayList<>(limit);
+    int scanned = 0;
+    for (int page = 0; result.size() < limit && scanned < maxCandidates; page++) {
+      List<AffordablePropertyResponse> candidates =
+          propertyRepository.findAffordableProperties(
+              city,
+              requestedType,
+              maxRumah,
+              maxApartemen,
+              maxRuko,
+              maxOther,
+              PageRequest.of(page, batch));
+      for (AffordablePropertyResponse property : candidates) {
+        if (estimateInstallment(property, solutions, downPayment)) {
+          result.add(property);
+          if (result.size() >= limit) {
+            break;
+          }
+        }
+      }
+      scanned += candidates.size();
+      if (candidates.size() < batch) {
+        break;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Pilih rate dengan cicilan termurah untuk properti ini, dengan memperhitungkan minimum DP
+   * properti. Mengembalikan false jika tidak ada rate yang bisa membiayai properti.
+   */
+  private boolean estimateInstallment(
+      AffordablePropertyResponse property, List<RateSolution> solutions, Double downPayment) {
+    double price = property.getPrice().doubleValue();
+    KprRate.PropertyTypeFilter filter = toRateFilter(property.getPropertyType());
+    double propertyLtv = effectiveLtv(null, property.getMinDownPaymentPercent());
+
+    RateSolution best = null;
+    double bestLoan = 0;
+    double bestInstallment = Double.MAX_VALUE;
+    for (RateSolution solution : solutions) {
+      if (!appliesTo(solution.rate(), filter)) {
+        continue;
+      }
+      double maxLoanForPrice = price * Math.min(solution.ltv(), propertyLtv);
+      double loan = downPayment == null ? maxLoanForPrice : Math.max(price - downPayment, 0);
+      if (loan > maxLoanForPrice || loan > solution.maxLoan() || loan < solution.minLoan()) {
+        continue;
+      }
+      double installment = loan * solution.startingFactor();
+      if (installment < bestInstallment) {
+        best = solution;
+        bestLoan = loan;
+        bestInstallment = installment;
+      }
+    }
+    if (best == null) {
+      return false;
+    }
+
+    property.setKprRateId(best.rate().getId());
+    property.setRateName(best.rate().getRateName());
+    property.setTenorYears(best.tenorYears());
+    property.setEstimatedLoanAmount(money(bestLoan));
+    property.setEstimatedMonthlyInstallment(
+        BigDecimal.valueOf(bestInstallment).setScale(2, RoundingMode.HALF_UP));
+    return true;
+  }
+
+  private BigDecimal maxPriceFor(
+      Property.PropertyType type, Property.PropertyType requestedType, List<RateSolution> all) {
+    if (requestedType != null && requestedType != type) {
+      return BigDecimal.valueOf(-1);
+    }
+    return money(maxPrice(toRateFilter(type), all));
+  }
+
+  private double maxPrice(KprRate.PropertyTypeFilter filter, List<RateSolution> solutions) {
+    double max = -1;
+    for (RateSolution solution : solutions) {
+      if (appliesTo(solution.rate(), filter)) {
+        max = Math.max(max, solution.maxPrice());
+      }
+    }
+    return max;
+  }
+
+  private boolean appliesTo(KprRate rate, KprRate.PropertyTypeFilter filter) {
+    return rate.getPropertyType() == KprRate.PropertyTypeFilter.ALL
+        || rate.getPropertyType() == filter;
+  }
+
+  private KprRate.PropertyTypeFilter toRateFilter(Property.PropertyType propertyType) {
+    if (propertyType == null) return KprRate.PropertyTypeFilter.ALL;
+    return switch (propertyType) {
+      case RUMAH -> KprRate.PropertyTypeFilter.RUMAH;
+      case APARTEMEN -> KprRate.PropertyTypeFilter.APARTEMEN;
+      case RUKO -> KprRate.PropertyTypeFilter.RUKO;
+      default -> KprRate.PropertyTypeFilter.ALL;
+    };
+  }
+
+  /** LTV efektif: minimum dari maxLtvRatio (desimal, 0.8000) dan 1 - minimum DP (persen) */
+  private double effectiveLtv(BigDecimal maxLtvRatio, BigDecimal minDownPaymentPercent) {
+    double ltv = maxLtvRatio != null ? maxLtvRatio.doubleValue() : 1.0;
+    if (minDownPaymentPercent != null) {
+      ltv = Math.min(ltv, 1.0 - minDownPaymentPercent.doubleValue() / 100.0);
+    }
+    return ltv > 0 ? ltv : 1.0;
+  }
+
+  private AffordabilityResponse.RateAffordability toRateAffordability(RateSolution solution) {
+    KprRate rate = solution.rate();
+    return AffordabilityResponse.RateAffordability.builder()
+        .kprRateId(rate.getId())
+        .rateName(rate.getRateName())
+        .propertyType(rate.getPropertyType() != null ? rate.getPropertyType().name() : null)
+        .customerSegment(
+            rate.getCustomerSegment() != null ? rate.getCustomerSegment().name() : null)
+        .effectiveRate(rate.getEffectiveRate())
+        .tenorYears(solution.tenorYears())
+        .maxLoanAmount(money(solution.maxLoan()))
+        .maxPropertyPrice(money(solution.maxPrice()))
+        .requiredDownPayment(money(solution.maxPrice() - solution.loan()))
+        .monthlyInstallment(
+            BigDecimal.valueOf(solution.loan() * solution.startingFactor())
+                .setScale(2, RoundingMode.HALF_UP))
+        .build();
+  }
+
+  /** Dibulatkan ke bawah agar nilai maksimum tidak pernah melebihi hasil perhitungan */
+  private BigDecimal money(double value) {
+    if (value < 0) {
+      return BigDecimal.valueOf(-1);
+    }
+    return BigDecimal.valueOf(value).setScale(2, RoundingMode.DOWN);
+  }
+
+  private record RateSolution(
+      KprRate rate,
+      int tenorYears,
+      double annuity,
+      double startingFactor,
+      double ltv,
+      double minLoan,
+      double maxLoan,
+      double maxPrice,
+      double loan) {}
+}
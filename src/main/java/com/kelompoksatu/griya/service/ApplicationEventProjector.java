@@ -0,0 +1,169 @@
+package com.kelompoksatu.griya.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kelompoksatu.griya.entity.ApplicationEvent;
+import com.kelompoksatu.griya.entity.ApprovalWorkflow;
+import com.kelompoksatu.griya.entity.KprApplication.ApplicationStatus;
+import com.kelompoksatu.griya.repository.ApprovalWorkflowRepository;
+import com.kelompoksatu.griya.repository.KprApplicationRepository;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Proyeksi state aplikasi dari event log. {@link #project} murni melipat event sehingga bisa
+ * dipakai untuk timeline dan audit tanpa membaca tabel mutable; {@link #rebuild} menulis hasil
+ * proyeksi kembali ke status aplikasi dan membangun ulang read model detail.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationEventProjector {
+
+  private final ApplicationEventService applicationEventService;
+  private final KprApplicationRepository kprApplicationRepository;
+  private final ApprovalWorkflowRepository approvalWorkflowRepository;
+  private final KprApplicationDetailViewService kprApplicationDetailViewService;
+  private final DailyStatsService dailyStatsService;
+
+  /** State aplikasi hasil replay event */
+  public record ApplicationProjection(
+      Integer applicationId,
+      String applicationNumber,
+      Integer ownerUserId,
+      Integer developerUserId,
+      ApplicationStatus status,
+      Map<ApprovalWorkflow.WorkflowStage, StageProjection> stages,
+      int lastSeq,
+      LocalDateTime lastEventAt) {}
+
+  /** State satu tahap approval hasil replay event */
+  public record StageProjection(
+      Integer assignedTo,
+      ApprovalWorkflow.WorkflowStatus status,
+      Integer decidedBy,
+      LocalDateTime decidedAt) {}
+
+  /** Lipat event (urut seq) menjadi state aplikasi */
+  public ApplicationProjection project(Integer applicationId, List<ApplicationEvent> events) {
+    String applicationNumber = null;
+    Integer ownerUserId = null;
+    Integer developerUserId = null;
+    ApplicationStatus status = null;
+    Map<ApprovalWorkflow.WorkflowStage, StageProjection> stages =
+        new EnumMap<>(ApprovalWorkflow.WorkflowStage.class);
+    int lastSeq = 0;
+    LocalDateTime lastEventAt = null;
+
+    for (ApplicationEvent event : events) {
+      switch (event.getEventType()) {
+        case SUBMITTED -> {
+          JsonNode data = event.getData();
+          if (data != null) {
+            applicationNumber = textOrNull(data, "applicationNumber");
+            ownerUserId = intOrNull(data, "ownerUserId");
+            developerUserId = intOrNull(data, "developerUserId");
+          }
+          if (ownerUserId == null) {
+            ownerUserId = event.getActorId();
+          }
+        }
+        case WORKFLOW_ASSIGNED -> {
+          if (event.getStage() != null) {
+            stages.put(
+                event.getStage(),
+                new StageProjection(
+                    intOrNull(event.getData(), "assignedTo"),
+                    ApprovalWorkflow.WorkflowStatus.PENDING,
+                    null,
+                    null));
+          }
+        }
+        case APPROVED, REJECTED -> {
+          if (event.getStage() != null) {
+            StageProjection previous = stages.get(event.getStage());
+            stages.put(
+                event.getStage(),
+                new StageProjection(
+                    previous != null ? previous.assignedTo() : event.getActorId(),
+                    event.getEventType() == ApplicationEvent.EventType.APPROVED
+                        ? ApprovalWorkflow.WorkflowStatus.APPROVED
+                        : ApprovalWorkflow.WorkflowStatus.REJECTED,
+                    event.getActorId(),
+                    event.getOccurredAt()));
+          }
+        }
+      }
+      if (event.getToStatus() != null) {
+        status = event.getToStatus();
+      }
+      lastSeq = event.getSeq();
+      lastEventAt = event.getOccurredAt();
+    }
+
+    return new ApplicationProjection(
+        applicationId,
+        applicationNumber,
+        ownerUserId,
+        developerUserId,
+        status,
+        stages,
+        lastSeq,
+        lastEventAt);
+  }
+
+  /** Proyeksi dari event log yang tersimpan */
+  public ApplicationProjection project(Integer applicationId) {
+    return project(applicationId, applicationEventService.getEvents(applicationId));
+  }
+
+  /**
+   * Replay event lalu tulis status hasil proyeksi ke kpr_applications jika berbeda, dan jadwalkan
+   * rebuild read model detail setelah commit.
+   *
+   * @throws IllegalArgumentException jika aplikasi tidak punya event
+   */
+  @Transactional
+  public ApplicationProjection rebuild(Integer applicationId) {
+    ApplicationProjection projection = project(applicationId);
+    if (projection.lastSeq() == 0 || projection.status() == null) {
+      throw new IllegalArgumentException("No events found for application ID: " + applicationId);
+    }
+
+    ApplicationStatus current =
+        kprApplicationRepository
+            .findById(applicationId)
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException("Application not found with ID: " + applicationId))
+            .getStatus();
+    if (!Objects.equals(current, projection.status())) {
+      approvalWorkflowRepository.updateStatusKPRApplication(
+          applicationId, projection.status(), LocalDateTime.now());
+      log.info(
+          "Application {} status rebuilt from events: {} -> {}",
+          applicationId,
+          current,
+          projection.status());
+      dailyStatsService.markApplicationsChanged(List.of(applicationId));
+    }
+    kprApplicationDetailViewService.markStale(applicationId);
+    return projection;
+  }
+
+  private String textOrNull(JsonNode node, String field) {
+    JsonNode value = node != null ? node.get(field) : null;
+    return value == null || value.isNull() ? null : value.asText();
+  }
+
+  private Integer intOrNull(JsonNode node, String field) {
+    JsonNode value = node != null ? node.get(field) : null;
+    return value == null || value.isNull() ? null : value.asInt();
+  }
+}
@@ -0,0 +1,156 @@
+package com.kelompoksatu.griya.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kelompoksatu.griya.entity.ApplicationEvent;
+import com.kelompoksatu.griya.entity.ApprovalWorkflow;
+import com.kelompoksatu.griya.entity.KprApplication;
+import com.kelompoksatu.griya.entity.KprApplication.ApplicationStatus;
+import com.kelompoksatu.griya.repository.ApplicationEventRepository;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Penulis event log aplikasi (tabel application_events).
+ *
+ * <p>Event dikumpulkan per transaksi dan ditulis dengan satu multi-row INSERT sesaat sebelum
+ * commit, sehingga event ikut rollback bersama perubahan state yang dicatatnya. Di luar transaksi
+ * event langsung ditulis.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationEventService {
+
+  private final ApplicationEventRepository applicationEventRepository;
+  private final ObjectMapper objectMapper;
+  private final DailyStatsService dailyStatsService;
+  private final DashboardLiveService dashboardLiveService;
+  private final CustomerSketchService customerSketchService;
+
+  /** Key untuk menyimpan batch event milik transaksi yang sedang berjalan. */
+  private final Object batchResourceKey = new Object();
+
+  /** Aplikasi baru disubmit; pemilik dan developer disimpan untuk otorisasi timeline */
+  public void recordSubmitted(KprApplication application, Integer developerUserId) {
+    ObjectNode data = objectMapper.createObjectNode();
+    data.put("applicationNumber", application.getApplicationNumber());
+    data.put("ownerUserId", application.getUserId());
+    data.put("developerUserId", developerUserId);
+    data.put("propertyId", application.getPropertyId());
+    data.put("loanAmount", application.getLoanAmount());
+    append(
+        ApplicationEvent.builder()
+            .applicationId(application.getId())
+            .eventType(ApplicationEvent.EventType.SUBMITTED)
+            .actorId(application.getUserId())
+            .toStatus(ApplicationStatus.SUBMITTED)
+            .data(data)
+            .build());
+  }
+
+  /** Workflow ditugaskan; assignedBy null untuk assignment otomatis saat submit */
+  public void recordWorkflowAssigned(ApprovalWorkflow workflow, Integer assignedBy) {
+    ObjectNode data = objectMapper.createObjectNode();
+    data.put("workflowId", workflow.getId());
+    data.put("assignedTo", workflow.getAssignedTo());
+    data.put("dueDate", workflow.getDueDate() != null ? workflow.getDueDate().toString() : null);
+    append(
+        ApplicationEvent.builder()
+            .applicationId(workflow.getApplicationId())
+            .eventType(ApplicationEvent.EventType.WORKFLOW_ASSIGNED)
+            .actorId(assignedBy)
+            .stage(workflow.getStage())
+            .data(data)
+            .build());
+  }
+
+  /** Keputusan approve/reject pada suatu tahap beserta status aplikasi sesudahnya */
+  public void recordDecision(
+      Integer applicationId,
+      Integer actorId,
+      ApprovalWorkflow.WorkflowStage stage,
+      boolean approved,
+      ApplicationStatus toStatus,
+      String reason) {
+    ObjectNode data = objectMapper.createObjectNode();
+    data.put("reason", reason);
+    append(
+        ApplicationEvent.builder()
+            .applicationId(applicationId)
+            .eventType(
+                approved
+                    ? ApplicationEvent.EventType.APPROVED
+                    : ApplicationEvent.EventType.REJECTED)
+            .actorId(actorId)
+            .stage(stage)
+            .toStatus(toStatus)
+            .data(data)
+            .build());
+  }
+
+  /** Semua event aplikasi urut seq; hanya membaca application_events */
+  public List<ApplicationEvent> getEvents(Integer applicationId) {
+    return applicationEventRepository.findByApplicationIdOrderBySeqAsc(applicationId);
+  }
+
+  private void append(ApplicationEvent event) {
+    if (event.getToStatus() != null) {
+      // Rollup harian dashboard mengikuti setiap perubahan status
+      dailyStatsService.markApplicationsChanged(List.of(event.getApplicationId()));
+    }
+    if (event.getEventType() == ApplicationEvent.EventType.SUBMITTED
+        || event.getEventType() == ApplicationEvent.EventType.WORKFLOW_ASSIGNED) {
+      // Customer baru masuk sketch customer unik admin/developer/staff
+      customerSketchService.markApplications(List.of(event.getApplicationId()));
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      dashboardLiveService.onEventsCommitted(applicationEventRepository.appendAll(List.of(event)));
+      return;
+    }
+
+    @SuppressWarnings("unchecked")
+    List<ApplicationEvent> batch =
+        (List<ApplicationEvent>) TransactionSynchronizationManager.getResource(batchResourceKey);
+    if (batch == null) {
+      List<ApplicationEvent> newBatch = new ArrayList<>();
+      TransactionSynchronizationManager.bindResource(batchResourceKey, newBatch);
+      TransactionSynchronizationManager.registerSynchronization(new BatchSynchronization(newBatch));
+      batch = newBatch;
+    }
+    batch.add(event);
+  }
+
+  private class BatchSynchronization implements TransactionSynchronization {
+
+    private final List<ApplicationEvent> batch;
+
+    private BatchSynchronization(List<ApplicationEvent> batch) {
+      this.batch = batch;
+    }
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      if (!batch.isEmpty()) {
+        applicationEventRepository.appendAll(batch);
+        log.debug("Appended {} application events before commit", batch.size());
+      }
+    }
+
+    @Override
+    public void afterCommit() {
+      // Dashboard live hanya melihat perubahan yang sudah commit
+      dashboardLiveService.onEventsCommitted(batch);
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      TransactionSynchronizationManager.unbindResourceIfPossible(batchResourceKey);
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package com.kelompoksatu.griya.service;
 
 import com.kelompoksatu.griya.dto.ApprovalConfirmation;
+import com.kelompoksatu.griya.dto.BulkApprovalResponse;
 import com.kelompoksatu.griya.entity.ApprovalWorkflow;
 import com.kelompoksatu.griya.entity.KprApplication.ApplicationStatus;
 import com.kelompoksatu.griya.entity.NotificationChannel;
@@ -8,11 +9,20 @@ import com.kelompoksatu.griya.entity.NotificationType;
 import com.kelompoksatu.griya.entity.SystemNotification;
 import com.kelompoksatu.griya.entity.User;
 import com.kelompoksatu.griya.repository.ApprovalWorkflowRepository;
+import com.kelompoksatu.griya.repository.ApprovalWorkflowRepositoryCustom;
 import com.kelompoksatu.griya.repository.DeveloperRepository;
 import com.kelompoksatu.griya.repository.KprApplicationRepository;
 import com.kelompoksatu.griya.repository.PropertyRepository;
 import com.kelompoksatu.griya.repository.UserRepository;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -34,6 +44,10 @@ public class ApprovalWorkflowService {
   private final KprApplicationRepository kprApplicationRepository;
   private final PropertyRepository propertyRepository;
   private final SystemNotificationService systemNotificationService;
+  private final KprApplicationDetailViewService kprApplicationDetailViewService;
+  private final WorkflowSlaService workflowSlaService;
+  private final ApproverAssignmentService approverAssignmentService;
+  private final ApplicationEventService applicationEventService;
 
   public boolean approveOrRejectWorkflowDeveloper(ApprovalConfirmation request, Integer userID) {
     var user =
@@ -47,6 +61,8 @@ public class ApprovalWorkflowService {
     Boolean isApproved = request.getIsApproved();
     String reason = request.getReason();
     var now = LocalDateTime.now();
+    // Read model detail aplikasi dibangun ulang setelah commit (tidak dijalankan jika rollback)
+    kprApplicationDetailViewService.markStale(request.getApplicationId());
     if (isApproved) {
       log.info("Approving workflow for user ID: {}", userID);
       int updatedRows =
@@ -55,8 +71,16 @@ public class ApprovalWorkflowService {
 
       // Update KPR application status to PROPERTY_APPRAISAL when developer approves
       if (updatedRows > 0) {
+        workflowSlaService.onWorkflowsCompleted(request.getApplicationId(), userID);
         approvalWorkflowRepository.updateStatusKPRApplication(
             request.getApplicationId(), ApplicationStatus.PROPERTY_APPRAISAL, now);
+        applicationEventService.recordDecision(
+            request.getApplicationId(),
+            userID,
+            ApprovalWorkflow.WorkflowStage.PROPERTY_APPRAISAL,
+            true,
+            ApplicationStatus.PROPERTY_APPRAISAL,
+            reason);
 
         // Notifications: actor and applicant
         try {
@@ -65,7 +89,7 @@ public class ApprovalWorkflowService {
           String appNumber = optApp.map(a -> a.getApplicationNumber()).orElse("N/A");
 
           // Actor notification
-          systemNotificationService.saveNotification(
+          systemNotificationService.enqueueNotification(
               SystemNotification.builder()
                   .userId(userID)
                   .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -76,7 +100,7 @@ public class ApprovalWorkflowService {
 
           // Applicant notification
           if (applicantId != null) {
-            systemNotificationService.saveNotification(
+            systemNotificationService.enqueueNotification(
                 SystemNotification.builder()
                     .userId(applicantId)
                     .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -98,51 +122,30 @@ public class ApprovalWorkflowService {
             userID, request.getApplicationId(), now, reason);
     approvalWorkflowRepository.updateStatusKPRApplication(
         request.getApplicationId(), ApplicationStatus.REJECTED, now);
-
-    // If the application was tied to a reserved property, release it back to AVAILABLE
-    try {
-      var optApp = kprApplicationRepository.findById(request.getApplicationId());
-      if (optApp.isPresent()) {
-        var app = optApp.get();
-        Integer propertyId = app.getPropertyId();
-        if (propertyId != null) {
-          propertyRepository
-              .findById(propertyId)
-              .ifPresent(
-                  p -> {
-                    try {
-                      if (p.getStatus() != null && p.getStatus().name().equals("RESERVED")) {
-                        p.setStatus(
-                            com.kelompoksatu.griya.entity.Property.PropertyStatus.AVAILABLE);
-                        propertyRepository.save(p);
-                        log.info(
-                            "Property {} released from RESERVED to AVAILABLE due to rejection of application {}",
-                            propertyId,
-                            request.getApplicationId());
-                      }
-                    } catch (Exception e) {
-                      log.warn(
-                          "Failed to update property status for property {}: {}",
-                          propertyId,
-                          e.getMessage());
-                    }
-                  });
-        }
-      }
-    } catch (Exception e) {
-      log.warn(
-          "Error while attempting to release reserved property for application {}: {}",
+    // Event hanya dicatat jika workflow milik user ini benar-benar ditolak
+    if (updatedRows > 0) {
+      applicationEventService.recordDecision(
           request.getApplicationId(),
-          e.getMessage());
+          userID,
+          ApprovalWorkflow.WorkflowStage.PROPERTY_APPRAISAL,
+          false,
+          ApplicationStatus.REJECTED,
+          reason);
     }
 
+    // If the application was tied to a reserved property, release it back to AVAILABLE
+    releaseReservedProperty(request.getApplicationId());
+
+    // Aplikasi ditolak: semua timer SLA workflow aplikasi ini tidak relevan lagi
+    workflowSlaService.onWorkflowsCompleted(request.getApplicationId(), null);
+
     // Notifications: actor and applicant for rejection
     try {
       var optApp = kprApplicationRepository.findById(request.getApplicationId());
       Integer applicantId = optApp.map(a -> a.getUser().getId()).orElse(null);
       String appNumber = optApp.map(a -> a.getApplicationNumber()).orElse("N/A");
 
-      systemNotificationService.saveNotification(
+      systemNotificationService.enqueueNotification(
           SystemNotification.builder()
               .userId(userID)
               .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -152,7 +155,7 @@ public class ApprovalWorkflowService {
               .build());
 
       if (applicantId != null) {
-        systemNotificationService.saveNotification(
+        systemNotificationService.enqueueNotification(
             SystemNotification.builder()
                 .userId(applicantId)
                 .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -182,6 +185,8 @@ public class ApprovalWorkflowService {
     Boolean isApproved = request.getIsApproved();
     String reason = request.getReason();
     var now = LocalDateTime.now();
+    // Read model detail aplikasi dibangun ulang setelah commit (tidak dijalankan jika rollback)
+    kprApplicationDetailViewService.markStale(request.getApplicationId());
 
     if (isApproved) {
       log.info("Approving workflow for user ID: {}", userID);
@@ -212,6 +217,9 @@ public class ApprovalWorkflowService {
               userID, request.getApplicationId(), now, reason);
 
       if (updatedRows > 0) {
+        workflowSlaService.onWorkflowsCompleted(request.getApplicationId(), userID);
+        approverAssignmentService.recordCompleted(userID);
+
         // Determine next application status based on current stage
         ApplicationStatus nextStatus = determineNextApplicationStatus(workflow.getStage());
 
@@ -222,6 +230,8 @@ public class ApprovalWorkflowService {
           approvalWorkflowRepository.updateStatusKPRApplication(
               request.getApplicationId(), nextStatus, now);
         }
+        applicationEventService.recordDecision(
+            request.getApplicationId(), userID, workflow.getStage(), true, nextStatus, reason);
 
         // Notifications: actor and applicant for approval & transition
         try {
@@ -229,7 +239,7 @@ public class ApprovalWorkflowService {
           Integer applicantId = optApp.map(a -> a.getUser().getId()).orElse(null);
           String appNumber = optApp.map(a -> a.getApplicationNumber()).orElse("N/A");
 
-          systemNotificationService.saveNotification(
+          systemNotificationService.enqueueNotification(
               SystemNotification.builder()
                   .userId(userID)
                   .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -243,7 +253,7 @@ public class ApprovalWorkflowService {
                 (nextStatus == ApplicationStatus.APPROVED)
                     ? "Aplikasi KPR Anda disetujui"
                     : "Status aplikasi berubah ke " + nextStatus;
-            systemNotificationService.saveNotification(
+            systemNotificationService.enqueueNotification(
                 SystemNotification.builder()
                     .userId(applicantId)
                     .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -260,6 +270,8 @@ public class ApprovalWorkflowService {
       return updatedRows > 0;
     }
 
+    // Tahap yang ditolak dibaca sebelum workflow berubah menjadi REJECTED
+    ApprovalWorkflow.WorkflowStage rejectedStage = pendingStage(request.getApplicationId(), userID);
     kprApplicationRepository.updateKprApplicationStatus(
         request.getApplicationId(), ApplicationStatus.REJECTED);
 
@@ -267,65 +279,46 @@ public class ApprovalWorkflowService {
     int updatedRows =
         approvalWorkflowRepository.rejectByUserIDandApplicationID(
             userID, request.getApplicationId(), now, reason);
+    if (updatedRows > 0) {
+      approverAssignmentService.recordCompleted(userID);
+    }
     approvalWorkflowRepository.updateStatusKPRApplication(
         request.getApplicationId(), ApplicationStatus.REJECTED, now);
-
-    // Release reserved property if applicable
-    try {
-      var optApp = kprApplicationRepository.findById(request.getApplicationId());
-      if (optApp.isPresent()) {
-        var app = optApp.get();
-        Integer propertyId = app.getPropertyId();
-        if (propertyId != null) {
-          propertyRepository
-              .findById(propertyId)
-              .ifPresent(
-                  p -> {
-                    try {
-                      if (p.getStatus() != null && p.getStatus().name().equals("RESERVED")) {
-                        p.setStatus(
-                            com.kelompoksatu.griya.entity.Property.PropertyStatus.AVAILABLE);
-                        propertyRepository.save(p);
-                        log.info(
-                            "Property {} released from RESERVED to AVAILABLE due to rejection of application {}",
-                            propertyId,
-                            request.getApplicationId());
-                      }
-                    } catch (Exception e) {
-                      log.warn(
-                          "Failed to update property status for property {}: {}",
-                          propertyId,
-                          e.getMessage());
-                    }
-                  });
-        }
-      }
-    } catch (Exception e) {
-      log.warn(
-          "Error while attempting to release reserved property for application {}: {}",
+    if (updatedRows > 0 && rejectedStage != null) {
+      applicationEventService.recordDecision(
           request.getApplicationId(),
-          e.getMessage());
+          userID,
+          rejectedStage,
+          false,
+          ApplicationStatus.REJECTED,
+          reason);
     }
 
+    // Release reserved property if applicable
+    releaseReservedProperty(request.getApplicationId());
+
+    // Aplikasi ditolak: semua timer SLA workflow aplikasi ini tidak relevan lagi
+    workflowSlaService.onWorkflowsCompleted(request.getApplicationId(), null);
+
     // Notifications: actor and applicant for rejection
     try {
       var optApp = kprApplicationRepository.findById(request.getApplicationId());
       Integer applicantId = optApp.map(a -> a.getUser().getId()).orElse(null);
       String appNumber = optApp.map(a -> a.getApplicationNumber()).orElse("N/A");
 
-      systemNotificationService.saveNotification(
+      systemNotificationService.enqueueNotification(
           SystemNotification.builder()
               .userId(userID)
               .notificationType(NotificationType.APPLICATION_UPDATE)
               .title(
                   "Anda menolak aplikasi pada tahap "
-                      + (workflowStageSafe(request.getApplicationId(), userID)))
+                      + (rejectedStage != null ? rejectedStage : "UNKNOWN_STAGE"))
               .message("Aplikasi: " + appNumber + ", status REJECTED")
               .channel(NotificationChannel.IN_APP)
               .build());
 
       if (applicantId != null) {
-        systemNotificationService.saveNotification(
+        systemNotificationService.enqueueNotification(
             SystemNotification.builder()
                 .userId(applicantId)
                 .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -340,15 +333,224 @@ public class ApprovalWorkflowService {
     return updatedRows > 0;
   }
 
-  // Helper to get current pending stage name for rejection message
-  private String workflowStageSafe(Integer applicationId, Integer userID) {
+  /** Bulk approve/reject tahap verifikasi awal oleh developer */
+  public BulkApprovalResponse bulkApproveOrRejectDeveloper(
+      List<ApprovalConfirmation> decisions, Integer userID) {
+    userRepository
+        .findById(userID)
+        .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userID));
+    return bulkApproveOrReject(decisions, userID, false);
+  }
+
+  /** Bulk approve/reject tahap approval oleh verifikator */
+  public BulkApprovalResponse bulkApproveOrRejectVerifikator(
+      List<ApprovalConfirmation> decisions, Integer userID) {
+    userRepository
+        .findById(userID)
+        .orElseThrow(
+            () -> new IllegalArgumentException("Verifikator not found with ID: " + userID));
+    return bulkApproveOrReject(decisions, userID, true);
+  }
+
+  /**
+   * Terapkan banyak keputusan dalam satu transaksi dengan update berbasis set: satu UPDATE untuk
+   * semua workflow yang disetujui, satu untuk yang ditolak, satu UPDATE status aplikasi per status
+   * tujuan, dan satu release properti untuk semua aplikasi yang ditolak. Item yang tidak valid atau
+   * tidak punya workflow PENDING milik user dilaporkan gagal tanpa membatalkan item lainnya.
+   */
+  private BulkApprovalResponse bulkApproveOrReject(
+      List<ApprovalConfirmation> decisions, Integer userID, boolean verifikator) {
+    var now = LocalDateTime.now();
+    // Keputusan pertama per applicationId yang dipakai; duplikat dilaporkan gagal
+    Map<Integer, String> approveReasons = new LinkedHashMap<>();
+    Map<Integer, String> rejectReasons = new LinkedHashMap<>();
+    for (ApprovalConfirmation decision : decisions) {
+      Integer applicationId = decision.getApplicationId();
+      if (applicationId == null
+          || decision.getIsApproved() == null
+          || approveReasons.containsKey(applicationId)
+          || rejectReasons.containsKey(applicationId)) {
+        continue;
+      }
+      if (decision.getIsApproved()) {
+        approveReasons.put(applicationId, decision.getReason());
+      } else {
+        rejectReasons.put(applicationId, decision.getReason());
+      }
+    }
+
+    Map<Integer, ApprovalWorkflow.WorkflowStage> approvedStages = new HashMap<>();
+    approvalWorkflowRepository
+        .completePendingWorkflows(userID, approveReasons, true, now)
+        .forEach(w -> approvedStages.putIfAbsent(w.applicationId(), w.stage()));
+    Map<Integer, ApprovalWorkflow.WorkflowStage> rejectedStages = new HashMap<>();
+    approvalWorkflowRepository
+        .completePendingWorkflows(userID, rejectReasons, false, now)
+        .forEach(w -> rejectedStages.putIfAbsent(w.applicationId(), w.stage()));
+
+    // Status tujuan per aplikasi yang disetujui, lalu satu UPDATE per status tujuan
+    Map<Integer, ApplicationStatus> nextStatuses = new HashMap<>();
+    approvedStages.forEach(
+        (applicationId, stage) ->
+            nextStatuses.put(
+                applicationId,
+                verifikator
+                    ? determineNextApplicationStatus(stage)
+                    : ApplicationStatus.PROPERTY_APPRAISAL));
+    Map<ApplicationStatus, List<Integer>> idsByStatus = new EnumMap<>(ApplicationStatus.class);
+    nextStatuses.forEach(
+        (applicationId, status) ->
+            idsByStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(applicationId));
+    idsByStatus.forEach(
+        (status, ids) -> approvalWorkflowRepository.updateApplicationStatuses(ids, status, now));
+
+    if (!rejectedStages.isEmpty()) {
+      approvalWorkflowRepository.updateApplicationStatuses(
+          rejectedStages.keySet(), ApplicationStatus.REJECTED, now);
+      int released = approvalWorkflowRepository.releaseReservedProperties(rejectedStages.keySet());
+      if (released > 0) {
+        log.info("Released {} reserved properties due to bulk rejection", released);
+      }
+    }
+
+    List<Integer> completedIds = new ArrayList<>(approvedStages.keySet());
+    completedIds.addAll(rejectedStages.keySet());
+    Map<Integer, ApprovalWorkflowRepositoryCustom.ApplicationSummary> summaries = new HashMap<>();
+    approvalWorkflowRepository
+        .findApplicationSummaries(completedIds)
+        .forEach(s -> summaries.put(s.applicationId(), s));
+
+    for (Integer applicationId : completedIds) {
+      boolean approved = approvedStages.containsKey(applicationId);
+      applicationEventService.recordDecision(
+          applicationId,
+          userID,
+          approved ? approvedStages.get(applicationId) : rejectedStages.get(applicationId),
+          approved,
+          approved ? nextStatuses.get(applicationId) : ApplicationStatus.REJECTED,
+          approved ? approveReasons.get(applicationId) : rejectReasons.get(applicationId));
+      kprApplicationDetailViewService.markStale(applicationId);
+      // Reject: semua timer SLA aplikasi tidak relevan lagi
+      workflowSlaService.onWorkflowsCompleted(applicationId, approved ? userID : null);
+      if (verifikator) {
+        approverAssignmentService.recordCompleted(userID);
+      }
+      enqueueBulkNotifications(
+          summaries.get(applicationId),
+          userID,
+          approved ? approvedStages.get(applicationId) : rejectedStages.get(applicationId),
+          approved ? nextStatuses.get(applicationId) : ApplicationStatus.REJECTED);
+    }
+
+    List<BulkApprovalResponse.ItemResult> results = new ArrayList<>(decisions.size());
+    Set<Integer> seen = new HashSet<>();
+    int approvedCount = 0;
+    int rejectedCount = 0;
+    for (ApprovalConfirmation decision : decisions) {
+      Integer applicationId = decision.getApplicationId();
+      if (applicationId == null || decision.getIsApproved() == null) {
+        results.add(failedItem(applicationId, "applicationId dan isApproved wajib diisi"));
+      } else if (!seen.add(applicationId)) {
+        results.add(failedItem(applicationId, "Duplikat applicationId"));
+      } else if (decision.getIsApproved() && approvedStages.containsKey(applicationId)) {
+        approvedCount++;
+        results.add(
+            completedItem(applicationId, "APPROVED", nextStatuses.get(applicationId), "Disetujui"));
+      } else if (!decision.getIsApproved() && rejectedStages.containsKey(applicationId)) {
+        rejectedCount++;
+        results.add(
+            completedItem(applicationId, "REJECTED", ApplicationStatus.REJECTED, "Ditolak"));
+      } else {
+        results.add(
+            failedItem(applicationId, "Tidak ada workflow PENDING untuk user pada aplikasi ini"));
+      }
+    }
+    int failedCount = results.size() - approvedCount - rejectedCount;
+
+    log.info(
+        "Bulk approval by user {}: {} approved, {} rejected, {} failed",
+        userID,
+        approvedCount,
+        rejectedCount,
+        failedCount);
+    return BulkApprovalResponse.builder()
+        .total(results.size())
+        .approved(approvedCount)
+        .rejected(rejectedCount)
+        .failed(failedCount)
+        .results(results)
+        .build();
+  }
+
+  /** Notifikasi actor dan applicant; dikirim bersama notifikasi lain saat commit */
+  private void enqueueBulkNotifications(
+      ApprovalWorkflowRepositoryCustom.ApplicationSummary summary,
+      Integer userID,
+      ApprovalWorkflow.WorkflowStage stage,
+      ApplicationStatus nextStatus) {
+    String appNumber = summary != null ? summary.applicationNumber() : "N/A";
+    boolean rejected = nextStatus == ApplicationStatus.REJECTED;
+    try {
+      systemNotificationService.enqueueNotification(
+          SystemNotification.builder()
+              .userId(userID)
+              .notificationType(NotificationType.APPLICATION_UPDATE)
+              .title(
+                  (rejected ? "Anda menolak aplikasi pada tahap " : "Anda menyetujui tahap ")
+                      + stage)
+              .message("Aplikasi: " + appNumber + ", status ke " + nextStatus)
+              .channel(NotificationChannel.IN_APP)
+              .build());
+
+      if (summary != null && summary.applicantId() != null) {
+        String title =
+            rejected
+                ? "Aplikasi KPR Anda ditolak"
+                : (nextStatus == ApplicationStatus.APPROVED)
+                    ? "Aplikasi KPR Anda disetujui"
+                    : "Status aplikasi berubah ke " + nextStatus;
+        systemNotificationService.enqueueNotification(
+            SystemNotification.builder()
+                .userId(summary.applicantId())
+                .notificationType(NotificationType.APPLICATION_UPDATE)
+                .title(title)
+                .message("Nomor aplikasi: " + appNumber)
+                .channel(NotificationChannel.IN_APP)
+                .build());
+      }
+    } catch (Exception notifEx) {
+      log.warn("Failed to save bulk approval notifications: {}", notifEx.getMessage());
+    }
+  }
+
+  private BulkApprovalResponse.ItemResult completedItem(
+      Integer applicationId, String action, ApplicationStatus status, String message) {
+    return BulkApprovalResponse.ItemResult.builder()
+        .applicationId(applicationId)
+        .success(true)
+        .action(action)
+        .applicationStatus(status.name())
+        .message(message)
+        .build();
+  }
+
+  private BulkApprovalResponse.ItemResult failedItem(Integer applicationId, String message) {
+    return BulkApprovalResponse.ItemResult.builder()
+        .applicationId(applicationId)
+        .success(false)
+        .message(message)
+        .build();
+  }
+
+  // Helper to get current pending stage of the user for rejection message and event log
+  private ApprovalWorkflow.WorkflowStage pendingStage(Integer applicationId, Integer userID) {
     return approvalWorkflowRepository
         .findByApplicationIdAndStatus(applicationId, ApprovalWorkflow.WorkflowStatus.PENDING)
         .stream()
         .filter(w -> w.getAssignedTo().equals(userID))
         .findFirst()
-        .map(w -> String.valueOf(w.getStage()))
-        .orElse("UNKNOWN_STAGE");
+        .map(ApprovalWorkflow::getStage)
+        .orElse(null);
   }
 
   /** Determine next application status based on current workflow stage */
@@ -372,4 +574,19 @@ public class ApprovalWorkflowService {
             "Unknown or unsupported workflow stage: " + currentStage);
     }
   }
+
+  /** Release properti yang di-reserve aplikasi kembali ke AVAILABLE dengan conditional update */
+  private void releaseReservedProperty(Integer applicationId) {
+    Integer propertyId =
+        kprApplicationRepository.findById(applicationId).map(a -> a.getPropertyId()).orElse(null);
+    if (propertyId == null) {
+      return;
+    }
+    if (propertyRepository.releaseIfReserved(propertyId) > 0) {
+      log.info(
+          "Property {} released from RESERVED to AVAILABLE due to rejection of application {}",
+          propertyId,
+          applicationId);
+    }
+  }
 }
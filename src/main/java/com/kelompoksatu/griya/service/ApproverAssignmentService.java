@@ -0,0 +1,223 @@
+package com.kelompoksatu.griya.service;
+
+import com.kelompoksatu.griya.dto.ApproverLoadResponse;
+import com.kelompoksatu.griya.entity.UserStatus;
+import com.kelompoksatu.griya.repository.ApprovalWorkflowRepository;
+import com.kelompoksatu.griya.repository.UserRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Auto-assignment approver untuk tahap CREDIT_ANALYSIS dan FINAL_APPROVAL.
+ *
+ * <p>Per approver disimpan di memori jumlah antrian aktif dan jumlah workflow yang selesai dalam
+ * window terakhir. Approver dipilih berdasarkan perkiraan waktu menghabiskan antrian, (antrian + 1)
+ * / throughput harian, sehingga approver yang cepat menerima lebih banyak tanpa membebani yang
+ * lambat. Angka di memori diperbarui saat assign/selesai dan disinkronkan ulang dari
+ * approval_workflow secara berkala untuk mengoreksi drift (mis. perubahan dari node lain).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApproverAssignmentService {
+
+  private static final String APPROVER_ROLE = "APPROVER";
+
+  private final UserRepository userRepository;
+  private final ApprovalWorkflowRepository approvalWorkflowRepository;
+
+  /** Window (hari) untuk menghitung throughput approver */
+  @Value("${app.approver-assignment.completion-window-days:14}")
+  private int completionWindowDays;
+
+  /** Throughput minimum per hari agar approver baru tetap mendapat pekerjaan */
+  @Value("${app.approver-assignment.min-daily-throughput:1.0}")
+  private double minDailyThroughput;
+
+  /** Interval sinkronisasi ulang statistik dari database */
+  @Value("${app.approver-assignment.resync-seconds:300}")
+  private long resyncSeconds;
+
+  private final Map<Integer, ApproverLoad> loads = new ConcurrentHashMap<>();
+  private volatile long lastSyncAt;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    try {
+      resync();
+    } catch (Exception e) {
+      log.warn("Failed to load approver workload at startup: {}", e.getMessage());
+    }
+  }
+
+  /** Muat ulang daftar approver aktif, antrian dan throughput dari database */
+  public synchronized void resync() {
+    List<Integer> approverIds =
+        userRepository.findIdsByRoleNameAndStatus(APPROVER_ROLE, UserStatus.ACTIVE);
+    Map<Integer, Integer> queueDepths =
+        toCountMap(approvalWorkflowRepository.countActiveApprovalStagesByAssignee());
+    Map<Integer, Integer> completions =
+        toCountMap(
+            approvalWorkflowRepository.countCompletedApprovalStagesByAssigneeSince(
+                LocalDateTime.now().minusDays(completionWindowDays)));
+
+    Set<Integer> eligible = new HashSet<>(approverIds);
+    loads.keySet().retainAll(eligible);
+    for (Integer approverId : approverIds) {
+      ApproverLoad load = loads.computeIfAbsent(approverId, id -> new ApproverLoad());
+      load.queueDepth.set(queueDepths.getOrDefault(approverId, 0));
+      load.recentCompletions.set(completions.getOrDefault(approverId, 0));
+    }
+    lastSyncAt = System.currentTimeMillis();
+    log.debug("Approver workload synchronized for {} approvers", approverIds.size());
+  }
+
+  /**
+   * Pilih sejumlah approver berbeda dengan beban terendah dan langsung catat assignment-nya. Jika
+   * transaksi pemanggil rollback, assignment dibatalkan kembali.
+   *
+   * @throws IllegalStateException jika approver aktif tidak cukup
+   */
+  public synchronized List<Integer> pickApprovers(int count) {
+    if (System.currentTimeMillis() - lastSyncAt > resyncSeconds * 1000) {
+      resync();
+    }
+    if (loads.size() < count) {
+      throw new IllegalStateException(
+          "Approver aktif tidak mencukupi untuk auto-assignment: dibutuhkan "
+              + count
+              + ", tersedia "
+              + loads.size());
+    }
+
+    List<Integer> picked = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Integer approverId =
+          loads.entrySet().stream()
+              .filter(entry -> !picked.contains(entry.getKey()))
+              .min(
+                  Comparator.comparingDouble(
+                          (Map.Entry<Integer, ApproverLoad> entry) ->
+                              estimatedDaysToClear(entry.getValue(), 1))
+                      .thenComparingInt(entry -> entry.getValue().queueDepth.get())
+                      .thenComparingLong(entry -> entry.getValue().lastAssignedAt))
+              .map(Map.Entry::getKey)
+              .orElseThrow();
+      picked.add(approverId);
+      recordAssigned(approverId);
+    }
+    log.info("Auto-assigned approvers {}", picked);
+    return picked;
+  }
+
+  /** Catat workflow baru untuk approver; dibatalkan jika transaksi rollback */
+  public void recordAssigned(Integer approverId) {
+    ApproverLoad load = loads.get(approverId);
+    if (load == null) {
+      return;
+    }
+    load.queueDepth.incrementAndGet();
+    load.lastAssignedAt = System.nanoTime();
+    onRollback(() -> decrement(load.queueDepth));
+  }
+
+  /** Catat workflow approval yang selesai (approve/reject) setelah transaksi commit */
+  public void recordCompleted(Integer approverId) {
+    ApproverLoad load = loads.get(approverId);
+    if (load == null) {
+      return;
+    }
+    onCommit(
+        () -> {
+          decrement(load.queueDepth);
+          load.recentCompletions.incrementAndGet();
+        });
+  }
+
+  /** Statistik beban approver saat ini, urut dari yang paling ringan */
+  public List<ApproverLoadResponse> getLoads() {
+    return loads.entrySet().stream()
+        .map(
+            entry ->
+                ApproverLoadResponse.builder()
+                    .approverId(entry.getKey())
+                    .queueDepth(entry.getValue().queueDepth.get())
+                    .recentCompletions(entry.getValue().recentCompletions.get())
+                    .estimatedDaysToClear(estimatedDaysToClear(entry.getValue(), 0))
+                    .build())
+        .sorted(Comparator.comparingDouble(ApproverLoadResponse::getEstimatedDaysToClear))
+        .toList();
+  }
+
+  /** Perkiraan hari untuk menghabiskan antrian (ditambah item baru) dengan throughput saat ini */
+  private double estimatedDaysToClear(ApproverLoad load, int additional) {
+    double dailyThroughput =
+        Math.max(
+            (double) load.recentCompletions.get() / Math.max(completionWindowDays, 1),
+            minDailyThroughput);
+    return (load.queueDepth.get() + additional) / dailyThroughput;
+  }
+
+  private void onCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
+  private void onRollback(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK) {
+              action.run();
+            }
+          }
+        });
+  }
+
+  private void decrement(AtomicInteger counter) {
+    counter.updateAndGet(value -> Math.max(value - 1, 0));
+  }
+
+  private Map<Integer, Integer> toCountMap(List<Object[]> rows) {
+    Map<Integer, Integer> counts = new HashMap<>();
+    for (Object[] row : rows) {
+      counts.put((Integer) row[0], ((Number) row[1]).intValue());
+    }
+    return counts;
+  }
+
+  private static class ApproverLoad {
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger recentCompletions = new AtomicInteger();
+    private volatile long lastAssignedAt;
+  }
+}
@@ -2,11 +2,13 @@ package com.kelompoksatu.griya.service;
 
 import com.kelompoksatu.griya.dto.*;
 import com.kelompoksatu.griya.entity.*;
+import com.kelompoksatu.griya.exception.PasswordHashingBusyException;
 import com.kelompoksatu.griya.repository.RoleRepository;
 import com.kelompoksatu.griya.repository.UserRepository;
-import com.kelompoksatu.griya.repository.UserSessionRepository;
 import com.kelompoksatu.griya.repository.VerificationTokenRepository;
+import com.kelompoksatu.griya.security.JwtPrincipal;
 import com.kelompoksatu.griya.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.Valid;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -14,9 +16,7 @@ import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
 import java.util.HexFormat;
-import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -25,8 +25,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.util.Pair;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /** Service class for authentication operations */
@@ -43,8 +43,9 @@ public class AuthService {
   private final UserService userService;
   private final DeveloperService developerService;
   private final RoleRepository roleRepository;
-  private final UserSessionRepository userSessionRepository;
-  private final PasswordEncoder passwordEncoder;
+  private final SessionStoreService sessionStoreService;
+  private final PrincipalCacheService principalCacheService;
+  private final PasswordHashingService passwordHashingService;
   private final JwtUtil jwtUtil;
   private final UserRepository userRepo;
   private final VerificationTokenRepository tokenRepo;
@@ -128,6 +129,8 @@ public class AuthService {
       logger.info("Developer registered successfully: {}", savedUser.getUsername());
       return new RegisterDeveloperResponse(userResponse, developerResponse);
 
+    } catch (PasswordHashingBusyException e) {
+      throw e;
     } catch (IllegalArgumentException e) {
       logger.error("Validation error during developer registration: {}", e.getMessage());
       throw e;
@@ -175,6 +178,8 @@ public class AuthService {
 
       return otpResponse;
 
+    } catch (PasswordHashingBusyException e) {
+      throw e;
     } catch (Exception e) {
       logger.error("Login failed for identifier {}: {}", request.getIdentifier(), e.getMessage());
       throw new RuntimeException("Login gagal: " + e.getMessage());
@@ -182,23 +187,29 @@ public class AuthService {
   }
 
   /** Logout user and invalidate session */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public void logout(String refreshToken) {
     try {
-      userSessionRepository
-          .findActiveByRefreshToken(jwtUtil.hashToken(refreshToken))
-          .ifPresent(
-              session -> {
-                session.setStatus(SessionStatus.REVOKED);
-                session.setLastActivity(LocalDateTime.now());
-                userSessionRepository.save(session);
-                logger.info("User session revoked for token: {}", refreshToken);
-              });
+      Integer userId = jwtUtil.extractUserId(refreshToken);
+      sessionStoreService.revoke(userId, jwtUtil.hashToken(refreshToken));
+      logger.info("User session revoked for user: {}", userId);
+    } catch (JwtException e) {
+      // Refresh token kedaluwarsa atau tidak valid: sesinya sudah tidak ada di store
+      logger.info("Logout with invalid refresh token: {}", e.getMessage());
     } catch (Exception e) {
       logger.error("Logout failed: {}", e.getMessage());
       throw new RuntimeException("Logout gagal: " + e.getMessage());
     }
   }
 
+  /** Logout dari semua perangkat: semua sesi user di-revoke */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public int logoutAll(Integer userId) {
+    int revoked = sessionStoreService.revokeAll(userId);
+    logger.info("Revoked {} sessions for user: {}", revoked, userId);
+    return revoked;
+  }
+
   // ========================================
   // TOKEN OPERATIONS
   // ========================================
@@ -213,35 +224,49 @@ public class AuthService {
     }
   }
 
-  /** Refresh access token */
-  @Transactional
+  /**
+   * Refresh access token. Identitas diambil dari refresh token yang sudah diverifikasi, status dan
+   * role terkini dari cache principal, lalu sesi dirotasi dalam satu round trip Redis.
+   */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public AuthResponse refreshToken(TokenRefreshRequest request) {
     String oldRefreshToken = request.getRefreshToken();
 
-    // Validate JWT structure and expiration
-    jwtUtil.validateToken(oldRefreshToken);
+    // Validate JWT signature and expiration
+    JwtPrincipal principal;
+    try {
+      principal = jwtUtil.verify(oldRefreshToken);
+    } catch (JwtException e) {
+      throw new AuthenticationCredentialsNotFoundException("Refresh token not found or revoked");
+    }
 
-    // Find active session in DB
-    UserSession session =
-        userSessionRepository
-            .findActiveByRefreshToken(jwtUtil.hashToken(oldRefreshToken))
+    UserAuthState state =
+        principalCacheService
+            .get(principal.userId())
+            .filter(UserAuthState::isActive)
             .orElseThrow(
                 () ->
                     new AuthenticationCredentialsNotFoundException(
                         "Refresh token not found or revoked"));
 
-    String username = jwtUtil.extractUsername(oldRefreshToken);
-    User user = session.getUser();
-
-    // Generate new tokens
+    // Generate new tokens for the same session
     String newAccessToken =
-        jwtUtil.generateAccessToken(user.getUsername(), user.getId(), user.getRole().getName());
+        jwtUtil.generateAccessToken(
+            principal.username(), principal.userId(), state.role(), principal.sessionId());
     String newRefreshToken =
-        jwtUtil.generateRefreshToken(user.getUsername(), user.getId(), user.getRole().getName());
-
-    updateUserSession(session, user, newRefreshToken, request);
+        jwtUtil.generateRefreshToken(
+            principal.username(), principal.userId(), state.role(), principal.sessionId());
+
+    if (!sessionStoreService.rotate(
+        principal.userId(),
+        jwtUtil.hashToken(oldRefreshToken),
+        jwtUtil.hashToken(newRefreshToken),
+        request.getIpAddress(),
+        request.getUserAgent())) {
+      throw new AuthenticationCredentialsNotFoundException("Refresh token not found or revoked");
+    }
 
-    logger.info("Access token refreshed for user: {}", username);
+    logger.info("Access token refreshed for user: {}", principal.username());
     return new AuthResponse(newAccessToken, newRefreshToken);
   }
 
@@ -341,11 +366,11 @@ public class AuthService {
     invalidateToken(token);
     User user = token.getUser();
 
-    if (passwordEncoder.matches(newPassword, user.getPasswordHash())) {
+    if (passwordHashingService.matches(newPassword, user.getPasswordHash())) {
       throw new IllegalArgumentException("New password cannot be the same as old password");
     }
 
-    user.setPasswordHash(passwordEncoder.encode(newPassword));
+    user.setPasswordHash(passwordHashingService.encode(newPassword));
     userRepo.save(user);
     // Notify password reset success
     try {
@@ -378,10 +403,10 @@ public class AuthService {
         userRepo
             .findByPhone(normalized)
             .orElseThrow(() -> new IllegalArgumentException("User tidak ditemukan"));
-    if (passwordEncoder.matches(newPassword, user.getPasswordHash())) {
+    if (passwordHashingService.matches(newPassword, user.getPasswordHash())) {
       throw new IllegalArgumentException("Password baru tidak boleh sama dengan yang lama");
     }
-    user.setPasswordHash(passwordEncoder.encode(newPassword));
+    user.setPasswordHash(passwordHashingService.encode(newPassword));
     userRepo.save(user);
     try {
       systemNotificationService.saveNotification(
@@ -401,12 +426,9 @@ public class AuthService {
   // USER PROFILE OPERATIONS
   // ========================================
 
-  /** Get user profile by token */
-  public UserResponse getProfile(String token) {
+  /** Get user profile of the authenticated user */
+  public UserResponse getProfile(Integer userId) {
     try {
-      String username = jwtUtil.extractUsername(token);
-      Integer userId = jwtUtil.extractUserId(token);
-
       return userService.getUserProfile(userId);
 
     } catch (Exception e) {
@@ -447,12 +469,15 @@ public class AuthService {
       }
 
       // Generate tokens and create session
+      String sessionId = sessionStoreService.newSessionId();
       String refreshToken =
-          jwtUtil.generateRefreshToken(user.getUsername(), user.getId(), user.getRole().getName());
+          jwtUtil.generateRefreshToken(
+              user.getUsername(), user.getId(), user.getRole().getName(), sessionId);
       String accessToken =
-          jwtUtil.generateAccessToken(user.getUsername(), user.getId(), user.getRole().getName());
+          jwtUtil.generateAccessToken(
+              user.getUsername(), user.getId(), user.getRole().getName(), sessionId);
 
-      createUserSession(user.getId(), ipAddress, userAgent, refreshToken);
+      createUserSession(sessionId, user.getId(), ipAddress, userAgent, refreshToken);
 
       logger.info(
           "OTP verified successfully and tokens generated for user: {}", user.getUsername());
@@ -551,22 +576,6 @@ public class AuthService {
     return cleanPhone.substring(0, 2) + "****" + cleanPhone.substring(cleanPhone.length() - 4);
   }
 
-  // ========================================
-  // SESSION MANAGEMENT OPERATIONS
-  // ========================================
-
-  /** Clean up expired sessions */
-  public void cleanupExpiredSessions() {
-    try {
-      LocalDateTime expiredBefore =
-          LocalDateTime.now().minusDays(30); // Sessions older than 30 days
-      userSessionRepository.deleteExpiredSessions(expiredBefore);
-      logger.info("Expired sessions cleaned up");
-    } catch (Exception e) {
-      logger.error("Failed to cleanup expired sessions: {}", e.getMessage());
-    }
-  }
-
   // ========================================
   // PRIVATE VALIDATION METHODS
   // ========================================
@@ -611,7 +620,7 @@ public class AuthService {
       throw new RuntimeException("Akun terkunci karena terlalu banyak percobaan login yang gagal");
     }
 
-    if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+    if (!passwordHashingService.matches(request.getPassword(), user.getPasswordHash())) {
       userService.incrementFailedLoginAttempts(user);
       throw new RuntimeException("Password salah");
     }
@@ -634,7 +643,7 @@ public class AuthService {
     user.setUsername(request.getUsername());
     user.setEmail(request.getEmail());
     user.setPhone(request.getPhone());
-    user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+    user.setPasswordHash(passwordHashingService.encode(request.getPassword()));
     user.setRole(developerRole);
     user.setStatus(UserStatus.ACTIVE); // Admin registration - set as active
     user.setFailedLoginAttempts(0);
@@ -678,44 +687,17 @@ public class AuthService {
   }
 
   private void createUserSession(
-      Integer userId, String ipAddress, String userAgent, String refreshToken) {
+      String sessionId, Integer userId, String ipAddress, String userAgent, String refreshToken) {
     try {
-      UserSession session = new UserSession();
-      session.setId(UUID.randomUUID().toString());
-      session.setUserId(userId);
-      session.setIpAddress(ipAddress);
-      session.setUserAgent(userAgent);
-
-      // Create session payload with basic info
-      Map<String, Object> payload = new HashMap<>();
-      payload.put("loginTime", LocalDateTime.now().toString());
-      session.setPayload(payload.toString());
-
-      session.setLastActivity(LocalDateTime.now());
-      session.setCreatedAt(LocalDateTime.now());
-      session.setRefreshToken(jwtUtil.hashToken(refreshToken));
-      session.setStatus(SessionStatus.ACTIVE);
-
-      userSessionRepository.save(session);
+      sessionStoreService.create(
+          sessionId, userId, jwtUtil.hashToken(refreshToken), ipAddress, userAgent);
       logger.info("User session created for userId: {}", userId);
-
     } catch (Exception e) {
       logger.error("Failed to create user session: {}", e.getMessage());
       // Don't throw exception here as it's not critical for login process
     }
   }
 
-  private void updateUserSession(
-      UserSession session, User user, String newRefreshToken, TokenRefreshRequest request) {
-    session.setUserId(user.getId());
-    session.setRefreshToken(jwtUtil.hashToken(newRefreshToken));
-    session.setIpAddress(request.getIpAddress());
-    session.setUserAgent(request.getUserAgent());
-    session.setLastActivity(LocalDateTime.now());
-    session.setStatus(SessionStatus.ACTIVE);
-    userSessionRepository.save(session);
-  }
-
   private void invalidateToken(VerificationToken vt) {
     if (vt.isExpired()) {
       throw new IllegalStateException("Token expired");
@@ -0,0 +1,185 @@
+package com.kelompoksatu.griya.service;
+
+import com.kelompoksatu.griya.repository.StatAdminRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Pemeliharaan rollup harian dashboard admin (tabel stats_daily_*).
+ *
+ * <p>Aplikasi yang berubah status dan user baru dikumpulkan per transaksi; setelah commit hanya
+ * hari yang tersentuh yang dihitung ulang dari tabel sumber. Rekonsiliasi penuh berjalan setiap
+ * malam untuk menangkap perubahan yang tidak melewati hook (mis. update manual di database).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailyStatsService {
+
+  private final StatAdminRepository statAdminRepository;
+  private final PlatformTransactionManager transactionManager;
+  private final CustomerSketchService customerSketchService;
+
+  /** Jam rekonsiliasi penuh setiap malam (waktu server) */
+  @Value("${app.stats-daily.reconcile-time:02:00}")
+  private String reconcileTime;
+
+  @Value("${app.stats-daily.reconcile-enabled:true}")
+  private boolean reconcileEnabled;
+
+  /** Key untuk menyimpan perubahan milik transaksi yang sedang berjalan. */
+  private final Object pendingResourceKey = new Object();
+
+  private ScheduledExecutorService reconcileExecutor;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!reconcileEnabled) {
+      log.info("Daily stats reconciliation disabled");
+      return;
+    }
+    reconcileExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "stats-daily-reconcile");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduleNextReconcile();
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (reconcileExecutor != null) {
+      reconcileExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Tandai aplikasi yang dibuat atau berubah status; rollup harinya dihitung ulang setelah commit
+   */
+  public void markApplicationsChanged(Collection<Integer> applicationIds) {
+    if (applicationIds == null || applicationIds.isEmpty()) {
+      return;
+    }
+    PendingChanges pending = pendingChanges();
+    pending.applicationIds.addAll(applicationIds);
+    applyIfNoTransaction(pending);
+  }
+
+  /** Tandai registrasi user pada hari tertentu */
+  public void markRegistration(LocalDate day) {
+    PendingChanges pending = pendingChanges();
+    pending.registrationDays.add(day != null ? day : LocalDate.now());
+    applyIfNoTransaction(pending);
+  }
+
+  /** Bangun ulang semua rollup dari tabel sumber, lalu isi ulang sketch customer unik */
+  public void reconcile() {
+    long startedAt = System.currentTimeMillis();
+    newTransaction().executeWithoutResult(status -> statAdminRepository.rebuildAll());
+    log.info("Daily stats rollups reconciled in {} ms", System.currentTimeMillis() - startedAt);
+    customerSketchService.rebuild();
+  }
+
+  private void scheduleNextReconcile() {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime next = LocalDate.now().atTime(LocalTime.parse(reconcileTime));
+    if (!next.isAfter(now)) {
+      next = next.plusDays(1);
+    }
+    reconcileExecutor.schedule(
+        () -> {
+          try {
+            reconcile();
+          } catch (Exception e) {
+            log.error("Daily stats reconciliation failed: {}", e.getMessage(), e);
+          } finally {
+            scheduleNextReconcile();
+          }
+        },
+        Duration.between(now, next).toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /** Perubahan milik transaksi berjalan, atau objek baru jika tidak ada transaksi */
+  private PendingChanges pendingChanges() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return new PendingChanges();
+    }
+    PendingChanges pending =
+        (PendingChanges) TransactionSynchronizationManager.getResource(pendingResourceKey);
+    if (pending == null) {
+      PendingChanges newPending = new PendingChanges();
+      TransactionSynchronizationManager.bindResource(pendingResourceKey, newPending);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              applySafely(newPending);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(pendingResourceKey);
+            }
+          });
+      pending = newPending;
+    }
+    return pending;
+  }
+
+  private void applyIfNoTransaction(PendingChanges pending) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      applySafely(pending);
+    }
+  }
+
+  private void applySafely(PendingChanges pending) {
+    try {
+      newTransaction()
+          .executeWithoutResult(
+              status -> {
+                Set<LocalDate> applicationDays =
+                    statAdminRepository.findApplicationDays(pending.applicationIds);
+                // Urutan tetap (aplikasi lalu registrasi) agar lock per hari diambil berurutan
+                statAdminRepository.recomputeApplicationDays(applicationDays);
+                statAdminRepository.recomputeRegistrationDays(pending.registrationDays);
+              });
+    } catch (Exception e) {
+      // Rekonsiliasi malam akan memperbaiki rollup yang tertinggal
+      log.warn("Failed to update daily stats rollups: {}", e.getMessage());
+    }
+  }
+
+  private TransactionTemplate newTransaction() {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    return template;
+  }
+
+  private static class PendingChanges {
+    private final Set<Integer> applicationIds = new HashSet<>();
+    private final Set<LocalDate> registrationDays = new HashSet<>();
+  }
+}
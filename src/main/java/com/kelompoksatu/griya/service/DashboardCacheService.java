@@ -0,0 +1,287 @@
+package com.kelompoksatu.griya.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache Redis untuk hasil dashboard statistik yang mahal dihitung.
+ *
+ * <p>Setiap entry menyimpan waktu load. Setelah umur entry melewati {@code refresh-ahead-ratio}
+ * dari TTL, request berikutnya memicu refresh di background sementara nilai lama tetap
+ * dikembalikan; nilai basi masih dilayani sampai {@code stale-seconds} setelah TTL. Load untuk key
+ * yang sama digabung (single-flight): di satu node lewat future yang sedang berjalan, antar node
+ * lewat lock Redis (SET NX). Node yang tidak mendapat lock menunggu nilai dari node pemegang lock.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardCacheService {
+
+  private static final String CACHE_PREFIX = "cache:";
+  private static final String LOCK_PREFIX = "cache-lock:";
+  private static final long LOCK_POLL_MS = 50;
+
+  /** Lepas lock hanya jika masih dipegang pemanggil */
+  private static final DefaultRedisScript<Long> RELEASE_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.call('get', KEYS[1]) == ARGV[1] then "
+              + "return redis.call('del', KEYS[1]) else return 0 end",
+          Long.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final ObjectMapper objectMapper;
+
+  /** Umur entry yang masih dianggap segar */
+  @Value("${app.dashboard-cache.ttl-seconds:300}")
+  private long ttlSeconds;
+
+  /** Berapa lama nilai basi masih boleh dilayani setelah TTL selama refresh berjalan */
+  @Value("${app.dashboard-cache.stale-seconds:300}")
+  private long staleSeconds;
+
+  /** Fraksi TTL setelah entry mulai di-refresh di background */
+  @Value("${app.dashboard-cache.refresh-ahead-ratio:0.8}")
+  private double refreshAheadRatio;
+
+  /** Masa berlaku lock load antar node */
+  @Value("${app.dashboard-cache.lock-seconds:30}")
+  private long lockSeconds;
+
+  /** Batas waktu menunggu node lain mengisi cache sebelum menghitung sendiri */
+  @Value("${app.dashboard-cache.lock-wait-ms:3000}")
+  private long lockWaitMs;
+
+  @Value("${app.dashboard-cache.refresh-threads:2}")
+  private int refreshThreads;
+
+  /** Load yang sedang berjalan di node ini per key */
+  private final Map<String, CompletableFuture<JsonNode>> inFlight = new ConcurrentHashMap<>();
+
+  private ExecutorService refreshExecutor;
+
+  /** Nilai tersimpan beserta waktu load (epoch millis) */
+  record CacheEntry(long loadedAt, JsonNode value) {}
+
+  @PostConstruct
+  public void init() {
+    AtomicInteger counter = new AtomicInteger();
+    ThreadFactory threadFactory =
+        runnable -> {
+          Thread thread =
+              new Thread(runnable, "dashboard-cache-refresh-" + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        };
+    // Antrian terbatas; refresh yang tidak muat dibuang karena request berikutnya akan memicu lagi
+    refreshExecutor =
+        new ThreadPoolExecutor(
+            refreshThreads,
+            refreshThreads,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(100),
+            threadFactory,
+            new ThreadPoolExecutor.DiscardPolicy());
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (refreshExecutor != null) {
+      refreshExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Ambil nilai dari cache atau hitung dengan {@code loader}. Entry yang mendekati atau melewati
+   * TTL dikembalikan apa adanya sambil di-refresh di background.
+   *
+   * @param key key cache tanpa prefix
+   * @param type tipe hasil untuk deserialisasi JSON
+   * @param loader penghitung nilai; dipanggil paling banyak sekali per key secara bersamaan
+   */
+  public <T> T get(String key, Class<T> type, Supplier<T> loader) {
+    CacheEntry entry = read(key);
+    if (entry != null) {
+      if (System.currentTimeMillis() - entry.loadedAt() >= refreshAfterMs()) {
+        refreshAsync(key, loader);
+      }
+      return convert(entry.value(), type, key);
+    }
+    try {
+      JsonNode value = load(key, loader, false).join();
+      if (value == null) {
+        // Ikut menunggu refresh background yang dilewati karena node lain memegang lock
+        value = load(key, loader, false).join();
+      }
+      return convert(value, type, key);
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new RuntimeException("Failed to load dashboard cache " + key, e.getCause());
+    }
+  }
+
+  /** Simpan nilai yang baru dihitung di luar {@link #get}, mis. snapshot yang harus segar */
+  public void put(String key, Object value) {
+    write(key, objectMapper.valueToTree(value));
+  }
+
+  private void refreshAsync(String key, Supplier<?> loader) {
+    if (inFlight.containsKey(key)) {
+      return;
+    }
+    refreshExecutor.execute(
+        () -> {
+          try {
+            load(key, loader, true).join();
+          } catch (Exception e) {
+            log.warn("Background refresh of dashboard cache {} failed: {}", key, e.getMessage());
+          }
+        });
+  }
+
+  /**
+   * Single-flight di node ini: pemanggil pertama menjalankan load, pemanggil lain menunggu future
+   * yang sama.
+   */
+  private CompletableFuture<JsonNode> load(String key, Supplier<?> loader, boolean background) {
+    CompletableFuture<JsonNode> created = new CompletableFuture<>();
+    CompletableFuture<JsonNode> existing = inFlight.putIfAbsent(key, created);
+    if (existing != null) {
+      return existing;
+    }
+    try {
+      created.complete(loadAcrossNodes(key, loader, background));
+    } catch (Throwable e) {
+      created.completeExceptionally(e);
+    } finally {
+      inFlight.remove(key, created);
+    }
+    return created;
+  }
+
+  /**
+   * Single-flight antar node lewat lock Redis. Refresh background dilewati jika node lain sedang
+   * memegang lock; load karena cache kosong menunggu hasil node lain lalu menghitung sendiri jika
+   * tidak kunjung ada.
+   */
+  private JsonNode loadAcrossNodes(String key, Supplier<?> loader, boolean background) {
+    String token = UUID.randomUUID().toString();
+    boolean locked = tryLock(key, token);
+    if (!locked) {
+      if (background) {
+        return null;
+      }
+      CacheEntry entry = awaitEntry(key);
+      if (entry != null) {
+        return entry.value();
+      }
+      log.warn("Timed out waiting for dashboard cache {}, computing locally", key);
+    }
+    try {
+      JsonNode value = objectMapper.valueToTree(loader.get());
+      write(key, value);
+      return value;
+    } finally {
+      if (locked) {
+        unlock(key, token);
+      }
+    }
+  }
+
+  private CacheEntry awaitEntry(String key) {
+    long deadline = System.currentTimeMillis() + lockWaitMs;
+    while (System.currentTimeMillis() < deadline) {
+      try {
+        Thread.sleep(LOCK_POLL_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+      CacheEntry entry = read(key);
+      if (entry != null) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private CacheEntry read(String key) {
+    try {
+      String json = stringRedisTemplate.opsForValue().get(CACHE_PREFIX + key);
+      return json != null ? objectMapper.readValue(json, CacheEntry.class) : null;
+    } catch (Exception e) {
+      log.warn("Failed to read dashboard cache {}: {}", key, e.getMessage());
+      return null;
+    }
+  }
+
+  private void write(String key, JsonNode value) {
+    try {
+      String json =
+          objectMapper.writeValueAsString(new CacheEntry(System.currentTimeMillis(), value));
+      stringRedisTemplate
+          .opsForValue()
+          .set(CACHE_PREFIX + key, json, Duration.ofSeconds(ttlSeconds + staleSeconds));
+    } catch (Exception e) {
+      log.warn("Failed to write dashboard cache {}: {}", key, e.getMessage());
+    }
+  }
+
+  /** Redis tidak tersedia dianggap mendapat lock agar dashboard tetap bisa dihitung */
+  private boolean tryLock(String key, String token) {
+    try {
+      return Boolean.TRUE.equals(
+          stringRedisTemplate
+              .opsForValue()
+              .setIfAbsent(LOCK_PREFIX + key, token, Duration.ofSeconds(lockSeconds)));
+    } catch (Exception e) {
+      log.warn("Failed to acquire dashboard cache lock {}: {}", key, e.getMessage());
+      return true;
+    }
+  }
+
+  private void unlock(String key, String token) {
+    try {
+      stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_PREFIX + key), token);
+    } catch (Exception e) {
+      log.warn("Failed to release dashboard cache lock {}: {}", key, e.getMessage());
+    }
+  }
+
+  private long refreshAfterMs() {
+    return (long) (ttlSeconds * 1000 * refreshAheadRatio);
+  }
+
+  private <T> T convert(JsonNode value, Class<T> type, String key) {
+    try {
+      return objectMapper.treeToValue(value, type);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException("Failed to deserialize dashboard cache " + key, e);
+    }
+  }
+}
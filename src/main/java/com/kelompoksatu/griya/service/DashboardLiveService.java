@@ -0,0 +1,589 @@
+package com.kelompoksatu.griya.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kelompoksatu.griya.entity.ApplicationEvent;
+import com.kelompoksatu.griya.repository.ApplicationEventRepository;
+import com.kelompoksatu.griya.repository.ApplicationEventRepositoryCustom.EventContext;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Stream dashboard statistik live lewat Server-Sent Events.
+ *
+ * <p>Setiap perubahan status aplikasi (event log yang sudah commit) diubah menjadi delta status
+ * lalu disebar ke semua node lewat Redis Pub/Sub. Setiap node meneruskan delta ke subscriber SSE
+ * scope tersebut ({@code admin}, {@code developer:<id>}, {@code staff:<userId>}). Client memuat
+ * snapshot dashboard sekali saat subscribe lalu hanya menerapkan delta, sehingga tidak perlu
+ * polling maupun menghitung ulang dashboard.
+ *
+ * <p>Snapshot dilayani dari {@link DashboardCacheService} dan membawa {@code lastEventId}, id event
+ * terbesar yang sudah commit sebelum dashboard dihitung. Setiap delta membawa id event-nya; delta
+ * dengan id sampai {@code lastEventId} sudah tercakup snapshot dan tidak dikirim. Karena snapshot
+ * dari cache bisa lebih tua dari saat subscribe, setiap node menyimpan delta terakhir per scope dan
+ * memutar ulang delta setelah {@code lastEventId}. Jika buffer tidak lagi menjangkau snapshot
+ * (snapshot terlalu tua, node baru start, atau ada delta yang hilang), snapshot dihitung ulang dan
+ * ditulis ke cache. Delta membawa tanggal pembuatan aplikasi agar client bisa mengabaikan aplikasi
+ * di luar range dashboard-nya.
+ *
+ * <p>Delta yang gagal di-resolve (antrian resolve penuh atau error) tidak dibuang diam-diam: semua
+ * node menerima sinyal resync, subscriber-nya mendapat event {@code resync} lalu diputus agar
+ * memuat snapshot baru, dan snapshot yang lebih tua dari delta yang hilang tidak dipakai lagi.
+ *
+ * <p>Pengiriman SSE berjalan di pool {@code dashboard-live-send}, bukan di thread listener Redis.
+ * Setiap subscriber punya antrian terbatas; subscriber yang terlalu lambat sehingga antriannya
+ * penuh diputus dan akan memuat snapshot baru saat reconnect.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardLiveService implements MessageListener {
+
+  private static final String EVENTS_CHANNEL = "dashboard-live:deltas";
+  private static final String RESYNC_CHANNEL = "dashboard-live:resync";
+  private static final String ADMIN_SCOPE = "admin";
+
+  private final ApplicationEventRepository applicationEventRepository;
+  private final StringRedisTemplate stringRedisTemplate;
+  private final RedisMessageListenerContainer redisMessageListenerContainer;
+  private final ObjectMapper objectMapper;
+  private final DashboardCacheService dashboardCacheService;
+
+  @Value("${app.dashboard-live.emitter-timeout-minutes:30}")
+  private long emitterTimeoutMinutes;
+
+  @Value("${app.dashboard-live.heartbeat-seconds:15}")
+  private long heartbeatSeconds;
+
+  @Value("${app.dashboard-live.send-threads:2}")
+  private int sendThreads;
+
+  /** Event yang boleh menunggu per subscriber sebelum subscriber dianggap lambat dan diputus */
+  @Value("${app.dashboard-live.max-pending-events:100}")
+  private int maxPendingEvents;
+
+  /** Jumlah delta terakhir per scope yang disimpan untuk diputar ulang ke subscriber baru */
+  @Value("${app.dashboard-live.replay-size:1000}")
+  private int replaySize;
+
+  /** scope -> delta terakhir yang diterima node ini */
+  private final Map<String, ScopeState> scopeStates = new ConcurrentHashMap<>();
+
+  /**
+   * Delta dengan id event sampai nilai ini mungkin tidak pernah diterima node ini: id event
+   * terbesar saat node mulai mendengarkan, dinaikkan oleh setiap resync. {@link Long#MAX_VALUE}
+   * sampai berhasil dibaca saat start.
+   */
+  private final AtomicLong coverageFloor = new AtomicLong(Long.MAX_VALUE);
+
+  /** scope -> subscriber SSE di node ini */
+  private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+  private ExecutorService resolveExecutor;
+  private ExecutorService sendExecutor;
+  private ScheduledExecutorService heartbeatExecutor;
+
+  /**
+   * Satu koneksi SSE. Event diantrikan dan dikirim berurutan oleh satu task send pada satu waktu;
+   * antrian (termasuk delta yang diputar ulang) baru mulai dikirim setelah snapshot terkirim
+   * ({@code started}).
+   */
+  private static final class Subscriber {
+    private final String scope;
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /** Watermark snapshot subscriber ini; delta dengan id event sampai nilai ini dilewati */
+    private final long lastEventId;
+
+    private volatile boolean started;
+
+    /** Diputus setelah antrian (berisi event resync) terkirim */
+    private volatile boolean closeAfterDrain;
+
+    private Subscriber(String scope, SseEmitter emitter, int capacity, long lastEventId) {
+      this.scope = scope;
+      this.emitter = emitter;
+      this.pending = new LinkedBlockingQueue<>(capacity);
+      this.lastEventId = lastEventId;
+    }
+  }
+
+  /**
+   * Delta terakhir satu scope di node ini. Semua delta scope dengan id event di atas {@code
+   * coveredAfter} (dan di atas {@link #coverageFloor}) ada di {@code recent}.
+   */
+  private static final class ScopeState {
+    private final ArrayDeque<BufferedDelta> recent = new ArrayDeque<>();
+    private long coveredAfter;
+  }
+
+  private record BufferedDelta(long eventId, Map<String, Object> payload) {}
+
+  /** Dashboard beserta id event terbesar yang sudah tercakup; disimpan di cache dashboard */
+  public record Snapshot(long lastEventId, JsonNode dashboard) {}
+
+  /** Perubahan status satu aplikasi yang disebar ke semua node */
+  public record StatusDelta(
+      Long eventId,
+      Integer applicationId,
+      String fromStatus,
+      String toStatus,
+      LocalDateTime applicationCreatedAt,
+      Set<String> scopes) {}
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    // Antrian terbatas; batch yang ditolak memicu resync (lihat onEventsCommitted)
+    resolveExecutor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(1000),
+            daemonThreads("dashboard-live-resolve"));
+    // Satu task per subscriber yang punya event tertunda, jadi antrian pool ini ikut terbatas
+    sendExecutor = Executors.newFixedThreadPool(sendThreads, daemonThreads("dashboard-live-send"));
+    heartbeatExecutor =
+        Executors.newSingleThreadScheduledExecutor(daemonThreads("dashboard-live-heartbeat"));
+    heartbeatExecutor.scheduleWithFixedDelay(
+        this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(EVENTS_CHANNEL));
+    redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RESYNC_CHANNEL));
+    // Dibaca setelah subscribe: delta event sesudah id ini pasti dipublikasikan setelah subscribe
+    coverageFloor();
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (resolveExecutor != null) {
+      resolveExecutor.shutdownNow();
+    }
+    if (heartbeatExecutor != null) {
+      heartbeatExecutor.shutdownNow();
+    }
+    if (sendExecutor != null) {
+      sendExecutor.shutdownNow();
+    }
+    subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+  }
+
+  public static String adminScope() {
+    return ADMIN_SCOPE;
+  }
+
+  public static String developerScope(Integer developerId) {
+    return "developer:" + developerId;
+  }
+
+  public static String staffScope(Integer staffUserId) {
+    return "staff:" + staffUserId;
+  }
+
+  /**
+   * Daftarkan subscriber SSE. Event pertama {@code snapshot} berisi dashboard dari cache {@code
+   * cacheKey} dan {@code lastEventId}; selanjutnya event {@code delta} (id = id event) untuk setiap
+   * perubahan status setelah event tersebut. Event {@code resync} berarti ada delta yang hilang;
+   * stream lalu ditutup dan client harus subscribe ulang.
+   *
+   * @param dashboardLoader penghitung dashboard tanpa cache, dipanggil saat cache kosong/basi atau
+   *     snapshot cache tidak lagi bisa disambung dengan delta di node ini
+   */
+  public SseEmitter subscribe(String scope, String cacheKey, Supplier<?> dashboardLoader) {
+    Supplier<Snapshot> loader = () -> loadSnapshot(dashboardLoader);
+    ScopeState state = scopeStates.computeIfAbsent(scope, key -> new ScopeState());
+    Snapshot snapshot = dashboardCacheService.get(cacheKey, Snapshot.class, loader);
+    if (!canReplay(state, snapshot.lastEventId())) {
+      // Snapshot cache lebih tua dari delta yang disimpan node ini; hitung ulang untuk semua node
+      snapshot = loader.get();
+      dashboardCacheService.put(cacheKey, snapshot);
+    }
+
+    SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(emitterTimeoutMinutes));
+    Subscriber subscriber =
+        new Subscriber(scope, emitter, maxPendingEvents, snapshot.lastEventId());
+    Set<Subscriber> scopeSubscribers =
+        subscribers.computeIfAbsent(scope, key -> new CopyOnWriteArraySet<>());
+    emitter.onCompletion(() -> scopeSubscribers.remove(subscriber));
+    emitter.onTimeout(() -> scopeSubscribers.remove(subscriber));
+    emitter.onError(error -> scopeSubscribers.remove(subscriber));
+
+    // Putar ulang delta setelah watermark lalu daftarkan, atomik terhadap forward(), sehingga
+    // subscriber menerima tepat semua delta setelah snapshot-nya
+    boolean replayed;
+    synchronized (state) {
+      replayed = canReplay(state, snapshot.lastEventId());
+      if (replayed) {
+        for (BufferedDelta delta : state.recent) {
+          if (delta.eventId() > subscriber.lastEventId) {
+            subscriber.pending.offer(deltaEvent(delta));
+          }
+        }
+        scopeSubscribers.add(subscriber);
+      }
+    }
+
+    try {
+      if (!replayed) {
+        // Resync terjadi saat snapshot dihitung
+        emitter.send(SseEmitter.event().name("resync").data(Map.of()));
+        emitter.complete();
+        return emitter;
+      }
+      Map<String, Object> data = new LinkedHashMap<>();
+      data.put("dashboard", snapshot.dashboard());
+      data.put("lastEventId", snapshot.lastEventId());
+      emitter.send(
+          SseEmitter.event()
+              .name("snapshot")
+              .id(String.valueOf(snapshot.lastEventId()))
+              .data(data));
+    } catch (Exception e) {
+      disconnect(subscriber, e);
+      return emitter;
+    }
+    subscriber.started = true;
+    scheduleDrain(subscriber);
+    return emitter;
+  }
+
+  /** Watermark dibaca sebelum dashboard dihitung, sehingga semua event sampai id itu tercakup */
+  private Snapshot loadSnapshot(Supplier<?> dashboardLoader) {
+    long lastEventId = applicationEventRepository.findMaxEventId();
+    return new Snapshot(lastEventId, objectMapper.valueToTree(dashboardLoader.get()));
+  }
+
+  /**
+   * Snapshot bisa disambung jika semua delta setelah watermark-nya ada di buffer dan muat di
+   * antrian subscriber
+   */
+  private boolean canReplay(ScopeState state, long lastEventId) {
+    synchronized (state) {
+      if (lastEventId < Math.max(state.coveredAfter, coverageFloor())) {
+        return false;
+      }
+      long missed = state.recent.stream().filter(delta -> delta.eventId() > lastEventId).count();
+      return missed <= maxPendingEvents;
+    }
+  }
+
+  /** Id event terbesar saat node mulai mendengarkan; dibaca ulang jika gagal saat start */
+  private long coverageFloor() {
+    long floor = coverageFloor.get();
+    if (floor != Long.MAX_VALUE) {
+      return floor;
+    }
+    try {
+      long maxEventId = applicationEventRepository.findMaxEventId();
+      coverageFloor.compareAndSet(Long.MAX_VALUE, maxEventId);
+    } catch (Exception e) {
+      log.warn("Failed to read dashboard event watermark: {}", e.getMessage());
+    }
+    return coverageFloor.get();
+  }
+
+  /**
+   * Dipanggil setelah event aplikasi commit. Konteks event dimuat dan delta dipublikasikan di
+   * thread terpisah agar request tidak menunggu.
+   */
+  public void onEventsCommitted(List<ApplicationEvent> events) {
+    if (resolveExecutor == null || events.isEmpty()) {
+      return;
+    }
+    List<ApplicationEvent> relevant =
+        events.stream()
+            .filter(
+                event ->
+                    event.getToStatus() != null
+                        || event.getEventType() == ApplicationEvent.EventType.WORKFLOW_ASSIGNED)
+            .toList();
+    if (relevant.isEmpty()) {
+      return;
+    }
+    long maxEventId = relevant.stream().mapToLong(ApplicationEvent::getId).max().orElse(0);
+    try {
+      resolveExecutor.execute(
+          () -> {
+            try {
+              publishDeltas(relevant);
+            } catch (Exception e) {
+              log.warn("Failed to publish dashboard deltas: {}", e.getMessage());
+              requestResync(maxEventId);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      log.warn("Dashboard delta queue full, requesting resync up to event {}", maxEventId);
+      requestResync(maxEventId);
+    }
+  }
+
+  /** Beri tahu semua node bahwa delta sampai event ini mungkin hilang */
+  private void requestResync(long maxEventId) {
+    try {
+      stringRedisTemplate.convertAndSend(RESYNC_CHANNEL, String.valueOf(maxEventId));
+    } catch (Exception e) {
+      log.warn("Failed to publish dashboard resync: {}", e.getMessage());
+      resync(maxEventId);
+    }
+  }
+
+  /**
+   * Snapshot dengan watermark sebelum {@code maxEventId} tidak bisa lagi disambung dengan delta;
+   * semua subscriber diminta memuat snapshot baru
+   */
+  private void resync(long maxEventId) {
+    coverageFloor.accumulateAndGet(maxEventId, Math::max);
+    subscribers.forEach(
+        (scope, scopeSubscribers) -> {
+          ScopeState state = scopeStates.computeIfAbsent(scope, key -> new ScopeState());
+          synchronized (state) {
+            for (Subscriber subscriber : scopeSubscribers) {
+              scopeSubscribers.remove(subscriber);
+              subscriber.pending.clear();
+              subscriber.pending.offer(SseEmitter.event().name("resync").data(Map.of()));
+              subscriber.closeAfterDrain = true;
+              if (subscriber.started) {
+                scheduleDrain(subscriber);
+              }
+            }
+          }
+        });
+  }
+
+  /** Menerima delta dan sinyal resync dari Pub/Sub (termasuk dari node ini sendiri) */
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    try {
+      if (RESYNC_CHANNEL.equals(new String(message.getChannel(), StandardCharsets.UTF_8))) {
+        resync(Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8)));
+        return;
+      }
+      StatusDelta delta =
+          objectMapper.readValue(
+              new String(message.getBody(), StandardCharsets.UTF_8), StatusDelta.class);
+      if (delta.eventId() == null) {
+        return;
+      }
+      for (String scope : delta.scopes()) {
+        forward(scope, delta);
+      }
+    } catch (Exception e) {
+      log.warn("Failed to handle dashboard delta: {}", e.getMessage());
+    }
+  }
+
+  private void publishDeltas(List<ApplicationEvent> events) throws IOException {
+    List<Integer> assignedTo = new ArrayList<>(events.size());
+    Set<Integer> statusChanged = new HashSet<>();
+    for (ApplicationEvent event : events) {
+      boolean assignment = event.getEventType() == ApplicationEvent.EventType.WORKFLOW_ASSIGNED;
+      assignedTo.add(
+          assignment && event.getData() != null && event.getData().hasNonNull("assignedTo")
+              ? event.getData().get("assignedTo").asInt()
+              : null);
+      if (event.getToStatus() != null) {
+        statusChanged.add(event.getApplicationId());
+      }
+    }
+    Map<String, EventContext> contexts = new HashMap<>();
+    for (EventContext context : applicationEventRepository.findEventContexts(events, assignedTo)) {
+      contexts.put(context.applicationId() + ":" + context.seq(), context);
+    }
+
+    for (int i = 0; i < events.size(); i++) {
+      ApplicationEvent event = events.get(i);
+      EventContext context = contexts.get(event.getApplicationId() + ":" + event.getSeq());
+      if (context == null) {
+        continue;
+      }
+      StatusDelta delta;
+      if (event.getToStatus() != null) {
+        Set<String> scopes = new HashSet<>();
+        scopes.add(ADMIN_SCOPE);
+        if (context.developerId() != null) {
+          scopes.add(developerScope(context.developerId()));
+        }
+        context.assigneeIds().forEach(id -> scopes.add(staffScope(id)));
+        delta =
+            new StatusDelta(
+                event.getId(),
+                event.getApplicationId(),
+                context.previousStatus(),
+                event.getToStatus().name(),
+                context.applicationCreatedAt(),
+                scopes);
+      } else {
+        // Aplikasi baru masuk dashboard staff; dilewati jika sudah dihitung lewat perubahan
+        // status di batch yang sama atau staff sudah punya workflow lain untuk aplikasi ini
+        if (assignedTo.get(i) == null
+            || statusChanged.contains(event.getApplicationId())
+            || context.assigneeWorkflowCount() != 1
+            || context.currentStatus() == null) {
+          continue;
+        }
+        delta =
+            new StatusDelta(
+                event.getId(),
+                event.getApplicationId(),
+                null,
+                context.currentStatus(),
+                context.applicationCreatedAt(),
+                Set.of(staffScope(assignedTo.get(i))));
+      }
+      stringRedisTemplate.convertAndSend(EVENTS_CHANNEL, objectMapper.writeValueAsString(delta));
+    }
+  }
+
+  /** Simpan delta di buffer scope ini lalu antrikan ke subscriber yang belum mencakupnya */
+  private void forward(String scope, StatusDelta delta) {
+    Map<String, Long> changes = new LinkedHashMap<>();
+    if (delta.fromStatus() != null) {
+      changes.put(delta.fromStatus(), -1L);
+    }
+    if (delta.toStatus() != null) {
+      changes.merge(delta.toStatus(), 1L, Long::sum);
+    }
+    Map<String, Object> payload = new LinkedHashMap<>();
+    payload.put("eventId", delta.eventId());
+    payload.put("applicationId", delta.applicationId());
+    payload.put("fromStatus", delta.fromStatus());
+    payload.put("toStatus", delta.toStatus());
+    payload.put("applicationCreatedAt", delta.applicationCreatedAt());
+    payload.put("changes", changes);
+    BufferedDelta buffered = new BufferedDelta(delta.eventId(), payload);
+
+    ScopeState state = scopeStates.computeIfAbsent(scope, key -> new ScopeState());
+    synchronized (state) {
+      state.recent.addLast(buffered);
+      if (state.recent.size() > replaySize) {
+        state.coveredAfter = Math.max(state.coveredAfter, state.recent.removeFirst().eventId());
+      }
+      for (Subscriber subscriber : subscribers.getOrDefault(scope, Set.of())) {
+        if (buffered.eventId() > subscriber.lastEventId) {
+          enqueue(subscriber, deltaEvent(buffered));
+        }
+      }
+    }
+  }
+
+  private SseEmitter.SseEventBuilder deltaEvent(BufferedDelta delta) {
+    return SseEmitter.event()
+        .name("delta")
+        .id(String.valueOf(delta.eventId()))
+        .data(delta.payload());
+  }
+
+  private void sendHeartbeats() {
+    subscribers.values().stream()
+        .flatMap(Set::stream)
+        .filter(subscriber -> subscriber.started)
+        .forEach(subscriber -> enqueue(subscriber, SseEmitter.event().comment("heartbeat")));
+  }
+
+  /** Antrikan event; subscriber yang antriannya penuh terlalu lambat dan diputus */
+  private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+    if (!subscriber.pending.offer(event)) {
+      log.warn("Dashboard stream subscriber {} too slow, disconnecting", subscriber.scope);
+      Set<Subscriber> scopeSubscribers = subscribers.get(subscriber.scope);
+      if (scopeSubscribers != null) {
+        scopeSubscribers.remove(subscriber);
+      }
+      subscriber.emitter.complete();
+      return;
+    }
+    if (subscriber.started) {
+      scheduleDrain(subscriber);
+    }
+  }
+
+  private void scheduleDrain(Subscriber subscriber) {
+    if (subscriber.draining.compareAndSet(false, true)) {
+      try {
+        sendExecutor.execute(() -> drain(subscriber));
+      } catch (RejectedExecutionException e) {
+        subscriber.draining.set(false);
+      }
+    }
+  }
+
+  /** Kirim semua event tertunda satu subscriber secara berurutan */
+  private void drain(Subscriber subscriber) {
+    try {
+      SseEmitter.SseEventBuilder event;
+      while ((event = subscriber.pending.poll()) != null) {
+        try {
+          subscriber.emitter.send(event);
+        } catch (Exception e) {
+          disconnect(subscriber, e);
+          return;
+        }
+      }
+    } finally {
+      subscriber.draining.set(false);
+    }
+    if (subscriber.closeAfterDrain) {
+      subscriber.emitter.complete();
+      return;
+    }
+    // Event yang masuk setelah poll terakhir tetapi sebelum flag dilepas
+    if (!subscriber.pending.isEmpty()) {
+      scheduleDrain(subscriber);
+    }
+  }
+
+  /** Subscriber yang koneksinya putus dilepas */
+  private void disconnect(Subscriber subscriber, Exception error) {
+    Set<Subscriber> scopeSubscribers = subscribers.get(subscriber.scope);
+    if (scopeSubscribers != null) {
+      scopeSubscribers.remove(subscriber);
+    }
+    subscriber.pending.clear();
+    subscriber.emitter.completeWithError(error);
+  }
+
+  private ThreadFactory daemonThreads(String name) {
+    return runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -0,0 +1,93 @@
+package com.kelompoksatu.griya.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service untuk menyimpan status request berdasarkan header Idempotency-Key di Redis.
+ *
+ * <p>Request pertama meng-klaim key dengan status IN_PROGRESS (SET NX). Setelah selesai, response
+ * disimpan sebagai COMPLETED sehingga retry dengan key yang sama mendapat response yang sama tanpa
+ * menjalankan ulang proses bisnis. Hash body request ikut disimpan agar key yang dipakai ulang
+ * untuk request berbeda bisa ditolak.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+  private static final String IDEMPOTENCY_PREFIX = "idempotency:";
+
+  public static final String STATE_IN_PROGRESS = "IN_PROGRESS";
+  public static final String STATE_COMPLETED = "COMPLETED";
+
+  private final RedisService redisService;
+
+  /** Berapa lama response yang sudah selesai disimpan untuk di-replay */
+  @Value("${app.idempotency.ttl-seconds:86400}")
+  private long completedTtlSeconds;
+
+  /** Batas waktu klaim IN_PROGRESS agar key tidak terkunci selamanya jika node mati */
+  @Value("${app.idempotency.in-progress-ttl-seconds:120}")
+  private long inProgressTtlSeconds;
+
+  /**
+   * Mencoba meng-klaim key untuk request baru.
+   *
+   * @return true jika request ini pemilik key dan harus diproses
+   */
+  public boolean tryBegin(String scopedKey, String bodyHash) {
+    IdempotencyRecord marker = new IdempotencyRecord(STATE_IN_PROGRESS, bodyHash, 0, null, null);
+    return redisService.setIfAbsent(redisKey(scopedKey), marker, inProgressTtlSeconds);
+  }
+
+  /** Mengambil record yang tersimpan, atau null jika tidak ada */
+  public IdempotencyRecord find(String scopedKey) {
+    return redisService.get(redisKey(scopedKey), IdempotencyRecord.class);
+  }
+
+  /** Menyimpan response final untuk di-replay pada retry berikutnya */
+  public void complete(
+      String scopedKey, String bodyHash, int status, String contentType, String body) {
+    IdempotencyRecord record =
+        new IdempotencyRecord(STATE_COMPLETED, bodyHash, status, contentType, body);
+    redisService.set(redisKey(scopedKey), record, completedTtlSeconds);
+    log.debug("Idempotency key {} completed with status {}", scopedKey, status);
+  }
+
+  /** Melepas klaim agar request dengan key yang sama boleh dicoba ulang */
+  public void release(String scopedKey) {
+    redisService.delete(redisKey(scopedKey));
+    log.debug("Idempotency key {} released", scopedKey);
+  }
+
+  private String redisKey(String scopedKey) {
+    return IDEMPOTENCY_PREFIX + scopedKey;
+  }
+
+  /** Data yang disimpan per Idempotency-Key */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class IdempotencyRecord {
+    private String state;
+
+    /** SHA-256 body request pertama; key yang dipakai ulang dengan body lain ditolak */
+    private String bodyHash;
+
+    private int status;
+    private String contentType;
+    private String body;
+
+    @JsonIgnore
+    public boolean isCompleted() {
+      return STATE_COMPLETED.equals(state);
+    }
+  }
+}
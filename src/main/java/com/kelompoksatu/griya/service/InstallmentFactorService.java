@@ -0,0 +1,346 @@
+package com.kelompoksatu.griya.service;
+
+import com.kelompoksatu.griya.entity.KprRate;
+import com.kelompoksatu.griya.entity.KprRateYearly;
+import com.kelompoksatu.griya.repository.KprRateRepository;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tabel faktor anuitas per KprRate dan tenor (1-30 tahun) yang disimpan di memori.
+ *
+ * <p>Faktor = r / (1 - (1 + r)^-N), sehingga cicilan bulanan cukup dihitung dengan principal *
+ * faktor. Jika rate memiliki tier KprRateYearly untuk suatu tenor, faktor cicilan awal tenor
+ * tersebut memakai rate tahun pertama (hanya untuk tampilan), sedangkan faktor kualifikasi memakai
+ * rate tertinggi dari tier tenor itu dan effectiveRate, agar pinjaman yang disetujui tetap dalam
+ * batas DTI setelah masa teaser berakhir. Tabel dibangun saat startup, saat KprRate/KprRateYearly
+ * berubah, dan saat tanggal berganti karena effectiveDate/expiryDate rate bisa bergeser.
+ *
+ * <p>Perubahan rate di satu node membuang tabel di semua node lewat Redis Pub/Sub setelah commit;
+ * jika pesan hilang, tabel tetap dibangun ulang saat tanggal berganti.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InstallmentFactorService implements MessageListener {
+
+  public static final int MAX_TENOR_YEARS = 30;
+
+  private static final String INVALIDATE_CHANNEL = "kpr-rate:factor-invalidate";
+
+  private final KprRateRepository kprRateRepository;
+  private final PlatformTransactionManager transactionManager;
+  private final StringRedisTemplate stringRedisTemplate;
+  private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+  private volatile FactorTable table;
+
+  /**
+   * Dinaikkan setiap invalidasi. Tabel hanya berlaku selama generasinya sama dengan nilai ini, jadi
+   * build yang dimulai sebelum invalidasi terakhir tidak pernah dipakai ulang walau selesai
+   * belakangan.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  /** Estimasi cicilan awal untuk kartu listing properti */
+  public record InstallmentEstimate(
+      Integer kprRateId,
+      Integer tenorYears,
+      BigDecimal loanAmount,
+      BigDecimal monthlyInstallment) {}
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    try {
+      refresh();
+    } catch (Exception e) {
+      // Tabel akan dibangun saat pertama kali dibutuhkan
+      log.warn("Failed to build installment factor table at startup: {}", e.getMessage());
+    }
+  }
+
+  /** Bangun ulang tabel faktor dari rate yang aktif hari ini */
+  public synchronized void refresh() {
+    // Generasi dibaca sebelum membaca rate; invalidasi selama build membuat hasilnya langsung basi
+    long startedAt = generation.get();
+    FactorTable built = readOnlyTransaction().execute(status -> build(startedAt));
+    table = built;
+    log.info("Installment factor table built for {} active KPR rates", built.activeRates().size());
+  }
+
+  /**
+   * Tandai tabel perlu dibangun ulang pada pembacaan berikutnya di semua node. Di dalam transaksi,
+   * tabel baru dibuang setelah commit sehingga perubahan yang di-rollback tidak memengaruhi tabel.
+   */
+  public void invalidate() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      publishInvalidation();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            publishInvalidation();
+          }
+        });
+  }
+
+  /** Menerima invalidasi dari Pub/Sub (termasuk dari node ini sendiri) */
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    log.debug(
+        "Installment factor table invalidated: {}",
+        new String(message.getBody(), StandardCharsets.UTF_8));
+    generation.incrementAndGet();
+  }
+
+  private void publishInvalidation() {
+    generation.incrementAndGet();
+    try {
+      stringRedisTemplate.convertAndSend(
+          INVALIDATE_CHANNEL, String.valueOf(System.currentTimeMillis()));
+    } catch (Exception e) {
+      // Node lain membangun ulang tabel saat tanggal berganti
+      log.warn("Failed to publish installment factor invalidation: {}", e.getMessage());
+    }
+  }
+
+  /** Semua rate yang aktif hari ini, urut effectiveRate ASC */
+  public List<KprRate> getActiveRates() {
+    return currentTable().activeRates();
+  }
+
+  /**
+   * Faktor cicilan awal (tahun pertama) per rupiah pinjaman untuk rate dan tenor tertentu. Rate
+   * yang tidak ada di tabel (mis. sudah tidak aktif) dihitung langsung.
+   */
+  public double paymentFactor(KprRate rate, int tenorYears) {
+    RateFactors factors = currentTable().factorsByRateId().get(rate.getId());
+    if (factors != null && tenorYears >= 1 && tenorYears <= MAX_TENOR_YEARS) {
+      return factors.starting()[tenorYears];
+    }
+    return computeFactor(rate.getEffectiveRate(), tenorYears);
+  }
+
+  /**
+   * Faktor cicilan per rupiah pinjaman pada rate tertinggi sepanjang tenor. Dipakai untuk
+   * menghitung pinjaman maksimum terhadap batas DTI, bukan untuk tampilan cicilan awal.
+   */
+  public double qualifyingFactor(KprRate rate, int tenorYears) {
+    RateFactors factors = currentTable().factorsByRateId().get(rate.getId());
+    if (factors != null && tenorYears >= 1 && tenorYears <= MAX_TENOR_YEARS) {
+      return factors.qualifying()[tenorYears];
+    }
+    return computeFactor(qualifyingRate(rate, tenorYears), tenorYears);
+  }
+
+  /**
+   * Cicilan awal termurah untuk properti dengan harga dan tipe tertentu, memakai LTV maksimum dan
+   * tenor terpanjang setiap rate yang berlaku. Rate yang batas min/max pinjamannya tidak mencakup
+   * pinjaman properti ini dilewati. Mengembalikan null jika tidak ada rate yang berlaku.
+   */
+  public InstallmentEstimate estimateStartingInstallment(
+      KprRate.PropertyTypeFilter propertyType, BigDecimal price, BigDecimal minDownPaymentPercent) {
+    if (price == null || price.signum() <= 0) {
+      return null;
+    }
+    List<ListingCandidate> candidates =
+        currentTable()
+            .listingCandidates()
+            .getOrDefault(
+                propertyType != null ? propertyType : KprRate.PropertyTypeFilter.ALL, List.of());
+
+    double propertyLtv =
+        minDownPaymentPercent != null ? 1.0 - minDownPaymentPercent.doubleValue() / 100.0 : 1.0;
+    ListingCandidate best = null;
+    double bestMultiplier = Double.MAX_VALUE;
+    for (ListingCandidate candidate : candidates) {
+      double candidateLoan = price.doubleValue() * Math.min(candidate.ltv(), propertyLtv);
+      if (candidateLoan < candidate.minLoan() || candidateLoan > candidate.maxLoan()) {
+        continue;
+      }
+      double multiplier = Math.min(candidate.ltv(), propertyLtv) * candidate.factor();
+      if (multiplier < bestMultiplier) {
+        best = candidate;
+        bestMultiplier = multiplier;
+      }
+    }
+    if (best == null || bestMultiplier <= 0) {
+      return null;
+    }
+
+    double loan = price.doubleValue() * Math.min(best.ltv(), propertyLtv);
+    return new InstallmentEstimate(
+        best.kprRateId(),
+        best.tenorYears(),
+        BigDecimal.valueOf(loan).setScale(2, RoundingMode.HALF_UP),
+        BigDecimal.valueOf(loan * best.factor()).setScale(2, RoundingMode.HALF_UP));
+  }
+
+  private FactorTable currentTable() {
+    FactorTable current = table;
+    if (isCurrent(current)) {
+      return current;
+    }
+    synchronized (this) {
+      current = table;
+      if (!isCurrent(current)) {
+        refresh();
+        current = table;
+      }
+      return current;
+    }
+  }
+
+  /** Tabel masih berlaku jika dibangun hari ini dan tidak ada invalidasi sejak build dimulai */
+  private boolean isCurrent(FactorTable current) {
+    return current != null
+        && current.generation() == generation.get()
+        && current.builtFor().equals(LocalDate.now());
+  }
+
+  private FactorTable build(long startedAt) {
+    LocalDate today = LocalDate.now();
+    List<KprRate> rates = kprRateRepository.findActiveRates(today);
+
+    Map<Integer, RateFactors> factorsByRateId = new HashMap<>();
+    Map<KprRate.PropertyTypeFilter, List<ListingCandidate>> listingCandidates =
+        new EnumMap<>(KprRate.PropertyTypeFilter.class);
+    for (KprRate.PropertyTypeFilter filter : KprRate.PropertyTypeFilter.values()) {
+      listingCandidates.put(filter, new ArrayList<>());
+    }
+
+    for (KprRate rate : rates) {
+      RateFactors factors = buildFactors(rate);
+      factorsByRateId.put(rate.getId(), factors);
+
+      int tenor = Math.min(rate.getMaxTermYears(), MAX_TENOR_YEARS);
+      if (tenor < 1) {
+        continue;
+      }
+      double ltv = rate.getMaxLtvRatio() != null ? rate.getMaxLtvRatio().doubleValue() : 1.0;
+      if (rate.getMinDownPaymentPercent() != null) {
+        ltv = Math.min(ltv, 1.0 - rate.getMinDownPaymentPercent().doubleValue() / 100.0);
+      }
+      ListingCandidate candidate =
+          new ListingCandidate(
+              rate.getId(),
+              tenor,
+              ltv,
+              factors.starting()[tenor],
+              rate.getMinLoanAmount() != null ? rate.getMinLoanAmount().doubleValue() : 0,
+              rate.getMaxLoanAmount() != null
+                  ? rate.getMaxLoanAmount().doubleValue()
+                  : Double.MAX_VALUE);
+
+      // Rate ALL berlaku untuk semua tipe properti
+      for (KprRate.PropertyTypeFilter filter : KprRate.PropertyTypeFilter.values()) {
+        if (rate.getPropertyType() == KprRate.PropertyTypeFilter.ALL
+            || rate.getPropertyType() == filter) {
+          listingCandidates.get(filter).add(candidate);
+        }
+      }
+    }
+
+    return new FactorTable(
+        startedAt, today, List.copyOf(rates), Map.copyOf(factorsByRateId), listingCandidates);
+  }
+
+  private RateFactors buildFactors(KprRate rate) {
+    // Rate tahun pertama per tenor dari tier KprRateYearly
+    Map<Integer, BigDecimal> firstYearRates = new HashMap<>();
+    if (rate.getYearlyRates() != null) {
+      for (KprRateYearly yearly : rate.getYearlyRates()) {
+        if (yearly.getYear() != null && yearly.getYear() == 1) {
+          firstYearRates.put(yearly.getTenor(), yearly.getRate());
+        }
+      }
+    }
+
+    double[] starting = new double[MAX_TENOR_YEARS + 1];
+    double[] qualifying = new double[MAX_TENOR_YEARS + 1];
+    for (int tenor = 1; tenor <= MAX_TENOR_YEARS; tenor++) {
+      starting[tenor] =
+          computeFactor(firstYearRates.getOrDefault(tenor, rate.getEffectiveRate()), tenor);
+      qualifying[tenor] = computeFactor(qualifyingRate(rate, tenor), tenor);
+    }
+    return new RateFactors(starting, qualifying);
+  }
+
+  /** Rate tertinggi dari effectiveRate dan semua tier KprRateYearly untuk tenor ini */
+  private BigDecimal qualifyingRate(KprRate rate, int tenorYears) {
+    BigDecimal highest = rate.getEffectiveRate();
+    if (rate.getYearlyRates() != null) {
+      for (KprRateYearly yearly : rate.getYearlyRates()) {
+        if (yearly.getTenor() != null
+            && yearly.getTenor() == tenorYears
+            && yearly.getRate() != null
+            && (highest == null || yearly.getRate().compareTo(highest) > 0)) {
+          highest = yearly.getRate();
+        }
+      }
+    }
+    return highest;
+  }
+
+  /** r / (1 - (1 + r)^-N) dengan r = bunga tahunan (persen) / 1200, atau 1 / N untuk bunga 0% */
+  private double computeFactor(BigDecimal annualRatePercent, int tenorYears) {
+    int months = tenorYears * 12;
+    double monthlyRate =
+        annualRatePercent != null ? annualRatePercent.doubleValue() / 12.0 / 100.0 : 0.0;
+    if (monthlyRate == 0) {
+      return 1.0 / months;
+    }
+    return monthlyRate / (1.0 - Math.pow(1.0 + monthlyRate, -months));
+  }
+
+  private TransactionTemplate readOnlyTransaction() {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setReadOnly(true);
+    template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    return template;
+  }
+
+  private record FactorTable(
+      long generation,
+      LocalDate builtFor,
+      List<KprRate> activeRates,
+      Map<Integer, RateFactors> factorsByRateId,
+      Map<KprRate.PropertyTypeFilter, List<ListingCandidate>> listingCandidates) {}
+
+  /** Faktor per tenor (index = tahun): cicilan awal untuk tampilan dan kualifikasi untuk DTI */
+  private record RateFactors(double[] starting, double[] qualifying) {}
+
+  private record ListingCandidate(
+      Integer kprRateId,
+      int tenorYears,
+      double ltv,
+      double factor,
+      double minLoan,
+      double maxLoan) {}
+}
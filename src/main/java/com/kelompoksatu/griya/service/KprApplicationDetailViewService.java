@@ -0,0 +1,483 @@
+package com.kelompoksatu.griya.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kelompoksatu.griya.dto.KprApplicationDetailResponse;
+import com.kelompoksatu.griya.entity.*;
+import com.kelompoksatu.griya.repository.*;
+import com.kelompoksatu.griya.util.IDCloudHostS3Util;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service untuk read model detail aplikasi KPR (tabel kpr_application_detail_views).
+ *
+ * <p>Detail aplikasi dirakit sekali saat data berubah (submit, upload dokumen, assignment dan
+ * approve/reject workflow), bukan setiap kali dibuka. Endpoint detail cukup membaca satu baris
+ * berdasarkan application id.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KprApplicationDetailViewService {
+
+  private final KprApplicationDetailViewRepository detailViewRepository;
+  private final KprApplicationRepository kprApplicationRepository;
+  private final UserRepository userRepository;
+  private final UserProfileRepository userProfileRepository;
+  private final ApprovalWorkflowRepository approvalWorkflowRepository;
+  private final ApplicationDocumentRepository applicationDocumentRepository;
+  private final IDCloudHostS3Util idCloudHostS3Util;
+  private final PlatformTransactionManager transactionManager;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Tandai read model aplikasi perlu dibangun ulang. Jika dipanggil di dalam transaksi, rebuild
+   * dijalankan setelah commit agar membaca data yang sudah final; rollback tidak memicu rebuild.
+   */
+  public void markStale(Integer applicationId) {
+    if (applicationId == null) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      refreshSafely(applicationId);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            refreshSafely(applicationId);
+          }
+        });
+  }
+
+  /** Bangun ulang read model untuk satu aplikasi di transaksi tersendiri */
+  public KprApplicationDetailView refresh(Integer applicationId) {
+    return newTransaction().execute(status -> rebuild(applicationId));
+  }
+
+  /**
+   * Ambil read model aplikasi. Jika belum ada (mis. aplikasi lama sebelum read model dibuat), read
+   * model dibangun saat itu juga.
+   */
+  public KprApplicationDetailView getView(Integer applicationId) {
+    return detailViewRepository.findById(applicationId).orElseGet(() -> refresh(applicationId));
+  }
+
+  /** Konversi read model menjadi response; proxy URL dokumen dibuat saat dibaca */
+  public KprApplicationDetailResponse toResponse(KprApplicationDetailView view) {
+    KprApplicationDetailResponse response;
+    try {
+      response = objectMapper.treeToValue(view.getDetail(), KprApplicationDetailResponse.class);
+    } catch (Exception e) {
+      throw new RuntimeException(
+          "Failed to read application detail for ID: " + view.getApplicationId(), e);
+    }
+
+    if (response.getDocuments() != null) {
+      for (KprApplicationDetailResponse.DocumentInfo document : response.getDocuments()) {
+        String filePath = document.getFilePath();
+        if (filePath != null && !filePath.startsWith("http")) {
+          document.setFilePath(idCloudHostS3Util.generateProxyUrl(filePath));
+        }
+      }
+    }
+    return response;
+  }
+
+  private void refreshSafely(Integer applicationId) {
+    try {
+      refresh(applicationId);
+    } catch (Exception e) {
+      // Read model akan dibangun ulang pada perubahan berikutnya atau saat dibaca
+      log.warn(
+          "Failed to refresh application detail view for {}: {}", applicationId, e.getMessage());
+      try {
+        newTransaction()
+            .executeWithoutResult(status -> detailViewRepository.deleteById(applicationId));
+      } catch (Exception deleteEx) {
+        log.warn(
+            "Failed to drop stale application detail view for {}: {}",
+            applicationId,
+            deleteEx.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Rebuild bisa dipanggil dari afterCommit transaksi lain, sehingga selalu dijalankan dalam
+   * transaksi baru
+   */
+  private TransactionTemplate newTransaction() {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    return template;
+  }
+
+  private KprApplicationDetailView rebuild(Integer applicationId) {
+    KprApplication application =
+        kprApplicationRepository
+            .findByIdWithAllRelations(applicationId)
+            .orElseThrow(
+                () -> new RuntimeException("Application not found with ID: " + applicationId));
+
+    KprApplicationDetailResponse detail = buildDetail(application);
+
+    Integer developerUserId = null;
+    if (application.getProperty() != null
+        && application.getProperty().getDeveloper() != null
+        && application.getProperty().getDeveloper().getUser() != null) {
+      developerUserId = application.getProperty().getDeveloper().getUser().getId();
+    }
+
+    KprApplicationDetailView view =
+        KprApplicationDetailView.builder()
+            .applicationId(application.getId())
+            .ownerUserId(application.getUserId())
+            .developerUserId(developerUserId)
+            .detail(objectMapper.valueToTree(detail))
+            .updatedAt(LocalDateTime.now())
+            .build();
+    log.debug("Rebuilt application detail view for {}", applicationId);
+    return detailViewRepository.save(view);
+  }
+
+  private KprApplicationDetailResponse buildDetail(KprApplication application) {
+    Integer applicationId = application.getId();
+
+    UserProfile userProfile =
+        userProfileRepository.findByUserId(application.getUserId()).orElse(null);
+
+    List<ApprovalWorkflow> approvalWorkflows =
+        approvalWorkflowRepository.findByApplicationIdOrderByCreatedAtAsc(applicationId);
+
+    List<ApplicationDocument> documents =
+        applicationDocumentRepository.findByApplicationIdOrderByUploadedAtDesc(applicationId);
+
+    // Semua approver/escalation user diambil dalam satu query
+    Set<Integer> workflowUserIds = new HashSet<>();
+    for (ApprovalWorkflow workflow : approvalWorkflows) {
+      if (workflow.getAssignedTo() != null) workflowUserIds.add(workflow.getAssignedTo());
+      if (workflow.getEscalatedTo() != null) workflowUserIds.add(workflow.getEscalatedTo());
+    }
+    Map<Integer, User> workflowUsers =
+        workflowUserIds.isEmpty()
+            ? Map.of()
+            : userRepository.findAllById(workflowUserIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+    double ltvRatio = 0.0;
+    if (application.getPropertyValue() != null
+        && application.getPropertyValue().compareTo(BigDecimal.ZERO) > 0) {
+      ltvRatio =
+          application
+              .getLoanAmount()
+              .divide(application.getPropertyValue(), 4, RoundingMode.HALF_UP)
+              .multiply(BigDecimal.valueOf(100))
+              .doubleValue();
+    }
+
+    return KprApplicationDetailResponse.builder()
+        // Basic application info
+        .applicationId(application.getId())
+        .applicationNumber(application.getApplicationNumber())
+        .userId(application.getUserId())
+        .propertyId(application.getPropertyId())
+        .kprRateId(application.getKprRateId())
+        .status(application.getStatus())
+
+        // User information with profile
+        .userInfo(buildUserInfo(application.getUser(), userProfile))
+
+        // Property information
+        .propertyInfo(buildPropertyInfo(application.getProperty()))
+
+        // Developer information
+        .developerInfo(
+            buildDeveloperInfo(
+                application.getProperty() != null
+                    ? application.getProperty().getDeveloper()
+                    : null))
+
+        // KPR Rate information
+        .kprRateInfo(buildKprRateInfo(application.getKprRate()))
+
+        // Loan details
+        .propertyType(application.getPropertyType())
+        .propertyValue(application.getPropertyValue())
+        .loanAmount(application.getLoanAmount())
+        .loanTermYears(application.getLoanTermYears())
+        .interestRate(application.getInterestRate())
+        .monthlyInstallment(application.getMonthlyInstallment())
+        .downPayment(application.getDownPayment())
+        .ltvRatio(BigDecimal.valueOf(ltvRatio))
+
+        // Property details
+        .propertyAddress(application.getPropertyAddress())
+        .propertyCertificateType(application.getPropertyCertificateType())
+        .developerName(application.getDeveloperName())
+        .purpose(application.getPurpose())
+
+        // Application status and timestamps
+        .submittedAt(application.getSubmittedAt())
+        .approvedAt(application.getApprovedAt())
+        .rejectedAt(application.getRejectedAt())
+        .rejectionReason(application.getRejectionReason())
+        .notes(application.getNotes())
+        .createdAt(application.getCreatedAt())
+        .updatedAt(application.getUpdatedAt())
+
+        // Approval workflows
+        .approvalWorkflows(buildApprovalWorkflowInfoList(approvalWorkflows, workflowUsers))
+
+        // Documents
+        .documents(buildDocumentInfoList(documents))
+        .build();
+  }
+
+  /** Build comprehensive user information including profile data */
+  private KprApplicationDetailResponse.UserInfo buildUserInfo(User user, UserProfile profile) {
+    if (user == null) return null;
+
+    return KprApplicationDetailResponse.UserInfo.builder()
+        .userId(user.getId())
+        .username(user.getUsername())
+        .email(user.getEmail())
+        .phone(user.getPhone())
+        .roleName(user.getRole() != null ? user.getRole().getName() : null)
+        .fullName(profile != null ? profile.getFullName() : null)
+        .nik(profile != null ? profile.getNik() : null)
+        .npwp(profile != null ? profile.getNpwp() : null)
+        .birthDate(
+            profile != null && profile.getBirthDate() != null
+                ? profile.getBirthDate().toString()
+                : null)
+        .birthPlace(profile != null ? profile.getBirthPlace() : null)
+        .gender(profile != null && profile.getGender() != null ? profile.getGender().name() : null)
+        .maritalStatus(
+            profile != null && profile.getMaritalStatus() != null
+                ? profile.getMaritalStatus().name()
+                : null)
+        .address(profile != null ? profile.getAddress() : null)
+        .district(profile != null ? profile.getDistrict() : null)
+        .subDistrict(profile != null ? profile.getSubDistrict() : null)
+        .city(profile != null ? profile.getCity() : null)
+        .province(profile != null ? profile.getProvince() : null)
+        .postalCode(profile != null ? profile.getPostalCode() : null)
+        .occupation(profile != null ? profile.getOccupation() : null)
+        .companyName(profile != null ? profile.getCompanyName() : null)
+        .companyAddress(profile != null ? profile.getCompanyAddress() : null)
+        .companyCity(profile != null ? profile.getCompanyCity() : null)
+        .companyProvince(profile != null ? profile.getCompanyProvince() : null)
+        .companyPostalCode(profile != null ? profile.getCompanyPostalCode() : null)
+        .companyDistrict(profile != null ? profile.getCompanyDistrict() : null)
+        .companySubdistrict(profile != null ? profile.getCompanySubdistrict() : null)
+        .monthlyIncome(profile != null ? profile.getMonthlyIncome() : null)
+        .workExperience(profile != null ? profile.getWorkExperience() : null)
+        .build();
+  }
+
+  /** Build comprehensive property information */
+  private KprApplicationDetailResponse.PropertyInfo buildPropertyInfo(Property property) {
+    if (property == null) return null;
+
+    return KprApplicationDetailResponse.PropertyInfo.builder()
+        .propertyId(property.getId())
+        .propertyCode(property.getPropertyCode())
+        .title(property.getTitle())
+        .description(property.getDescription())
+        .address(property.getAddress())
+        .city(property.getCity())
+        .province(property.getProvince())
+        .postalCode(property.getPostalCode())
+        .district(property.getDistrict())
+        .village(property.getVillage())
+        .landArea(property.getLandArea())
+        .buildingArea(property.getBuildingArea())
+        .bedrooms(property.getBedrooms())
+        .bathrooms(property.getBathrooms())
+        .floors(property.getFloors())
+        .garage(property.getGarage())
+        .yearBuilt(property.getYearBuilt())
+        .price(property.getPrice())
+        .pricePerSqm(property.getPricePerSqm())
+        .certificateType(property.getCertificateType())
+        .certificateNumber(property.getCertificateNumber())
+        .pbbValue(property.getPbbValue())
+        .status(property.getStatus())
+        .isKprEligible(property.getIsKprEligible())
+        .minDownPaymentPercent(property.getMinDownPaymentPercent())
+        .maxLoanTermYears(property.getMaxLoanTermYears())
+        .build();
+  }
+
+  /** Build comprehensive developer information */
+  private KprApplicationDetailResponse.DeveloperInfo buildDeveloperInfo(Developer developer) {
+    if (developer == null) return null;
+
+    return KprApplicationDetailResponse.DeveloperInfo.builder()
+        .developerId(developer.getId())
+        .companyName(developer.getCompanyName())
+        .companyCode(developer.getCompanyCode())
+        .businessLicense(developer.getBusinessLicense())
+        .developerLicense(developer.getDeveloperLicense())
+        .contactPerson(developer.getContactPerson())
+        .phone(developer.getPhone())
+        .email(developer.getEmail())
+        .website(developer.getWebsite())
+        .address(developer.getAddress())
+        .city(developer.getCity())
+        .province(developer.getProvince())
+        .postalCode(developer.getPostalCode())
+        .establishedYear(developer.getEstablishedYear())
+        .description(developer.getDescription())
+        .specialization(
+            developer.getSpecialization() != null ? developer.getSpecialization().name() : null)
+        .isPartner(developer.getIsPartner())
+        .partnershipLevel(
+            developer.getPartnershipLevel() != null ? developer.getPartnershipLevel().name() : null)
+        .commissionRate(developer.getCommissionRate())
+        .status(developer.getStatus().name())
+        .verifiedAt(developer.getVerifiedAt())
+        .build();
+  }
+
+  /** Build comprehensive KPR rate information */
+  private KprApplicationDetailResponse.KprRateInfo buildKprRateInfo(KprRate kprRate) {
+    if (kprRate == null) return null;
+
+    return KprApplicationDetailResponse.KprRateInfo.builder()
+        .kprRateId(kprRate.getId())
+        .rateName(kprRate.getRateName())
+        .rateType(kprRate.getRateType().name())
+        .propertyType(kprRate.getPropertyType().name())
+        .customerSegment(kprRate.getCustomerSegment().name())
+        .baseRate(kprRate.getBaseRate())
+        .margin(kprRate.getMargin())
+        .effectiveRate(kprRate.getEffectiveRate())
+        .minLoanAmount(kprRate.getMinLoanAmount())
+        .maxLoanAmount(kprRate.getMaxLoanAmount())
+        .minTermYears(kprRate.getMinTermYears())
+        .maxTermYears(kprRate.getMaxTermYears())
+        .maxLtvRatio(kprRate.getMaxLtvRatio())
+        .minIncome(kprRate.getMinIncome())
+        .maxAge(kprRate.getMaxAge())
+        .minDownPaymentPercent(kprRate.getMinDownPaymentPercent())
+        .adminFee(kprRate.getAdminFee())
+        .adminFeePercent(kprRate.getAdminFeePercent())
+        .appraisalFee(kprRate.getAppraisalFee())
+        .insuranceRate(kprRate.getInsuranceRate())
+        .notaryFeePercent(kprRate.getNotaryFeePercent())
+        .isPromotional(kprRate.getIsPromotional())
+        .promoDescription(kprRate.getPromoDescription())
+        .build();
+  }
+
+  /** Build comprehensive approval workflow information list */
+  private List<KprApplicationDetailResponse.ApprovalWorkflowInfo> buildApprovalWorkflowInfoList(
+      List<ApprovalWorkflow> workflows, Map<Integer, User> users) {
+    if (workflows == null || workflows.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    return workflows.stream()
+        .map(workflow -> buildApprovalWorkflowInfo(workflow, users))
+        .collect(Collectors.toList());
+  }
+
+  /** Build comprehensive approval workflow information */
+  private KprApplicationDetailResponse.ApprovalWorkflowInfo buildApprovalWorkflowInfo(
+      ApprovalWorkflow workflow, Map<Integer, User> users) {
+    if (workflow == null) return null;
+
+    User assignedUser =
+        workflow.getAssignedTo() != null ? users.get(workflow.getAssignedTo()) : null;
+    User escalatedUser =
+        workflow.getEscalatedTo() != null ? users.get(workflow.getEscalatedTo()) : null;
+
+    return KprApplicationDetailResponse.ApprovalWorkflowInfo.builder()
+        .workflowId(workflow.getId())
+        .applicationId(workflow.getApplicationId())
+        .stage(workflow.getStage())
+        .status(workflow.getStatus())
+        .priority(workflow.getPriority())
+        .assignedTo(workflow.getAssignedTo())
+        .assignedToName(
+            assignedUser != null
+                ? assignedUser.getUserProfile() != null
+                    ? assignedUser.getUserProfile().getFullName()
+                    : null
+                : null)
+        .assignedToEmail(
+            assignedUser != null
+                ? assignedUser.getEmail() != null ? assignedUser.getEmail() : null
+                : null)
+        .escalatedTo(workflow.getEscalatedTo())
+        .escalatedToName(
+            escalatedUser != null
+                ? escalatedUser.getUserProfile() != null
+                    ? escalatedUser.getUserProfile().getFullName()
+                    : null
+                : null)
+        .assignedToRole(assignedUser != null ? assignedUser.getRole().toString() : null)
+        .dueDate(workflow.getDueDate())
+        .startedAt(workflow.getStartedAt())
+        .completedAt(workflow.getCompletedAt())
+        .approvalNotes(workflow.getApprovalNotes())
+        .rejectionReason(workflow.getRejectionReason())
+        .approvalNotes(workflow.getApprovalNotes())
+        .createdAt(workflow.getCreatedAt())
+        .updatedAt(workflow.getUpdatedAt())
+        .build();
+  }
+
+  /** Build comprehensive document information list */
+  private List<KprApplicationDetailResponse.DocumentInfo> buildDocumentInfoList(
+      List<ApplicationDocument> documents) {
+    if (documents == null || documents.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    return documents.stream().map(this::buildDocumentInfo).collect(Collectors.toList());
+  }
+
+  /**
+   * Build comprehensive document information. filePath disimpan sebagai key storage mentah karena
+   * proxy URL memiliki signature dengan masa berlaku singkat; URL dibuat saat dibaca.
+   */
+  private KprApplicationDetailResponse.DocumentInfo buildDocumentInfo(
+      ApplicationDocument document) {
+    if (document == null) return null;
+
+    return KprApplicationDetailResponse.DocumentInfo.builder()
+        .documentId(document.getId())
+        .documentType(document.getDocumentType())
+        .documentName(document.getDocumentName())
+        .originalFilename(document.getOriginalFilename())
+        .filePath(document.getFilePath())
+        .fileSize(document.getFileSize())
+        .mimeType(document.getMimeType())
+        .isVerified(document.getIsVerified())
+        .verifiedBy(document.getVerifiedBy())
+        .verifiedAt(document.getVerifiedAt())
+        .verificationNotes(document.getVerificationNotes())
+        .uploadedAt(document.getUploadedAt())
+        .build();
+  }
+}
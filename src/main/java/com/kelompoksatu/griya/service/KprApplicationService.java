@@ -19,6 +19,7 @@ import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -41,6 +42,11 @@ public class KprApplicationService {
   private final FileStorageService fileStorageService;
   private final IDCloudHostS3Util idCloudHostS3Util;
   private final SystemNotificationService systemNotificationService;
+  private final KprApplicationDetailViewService kprApplicationDetailViewService;
+  private final WorkflowSlaService workflowSlaService;
+  private final ApproverAssignmentService approverAssignmentService;
+  private final ApplicationEventService applicationEventService;
+  private final ApplicationEventProjector applicationEventProjector;
 
   Logger logger = LoggerFactory.getLogger(KprApplicationService.class);
 
@@ -108,38 +114,32 @@ public class KprApplicationService {
               applicationNumber,
               currentApprovalLevel);
 
-      // 11. Save application
-      KprApplication savedApplication = kprApplicationRepository.save(application);
+      // 11. Reserve the property atomically before inserting the application; only one
+      // concurrent submission can win
+      reserveProperty(property, applicationNumber);
 
-      // 12. Immediately reserve the property after successful application save
-      try {
-        property.setStatus(Property.PropertyStatus.RESERVED);
-        propertyRepository.save(property);
-        logger.info(
-            "Property {} status updated to RESERVED due to KPR application {}",
-            property.getId(),
-            savedApplication.getId());
-      } catch (Exception ex) {
-        logger.error(
-            "Failed to update property {} status to RESERVED: {}",
-            property.getId(),
-            ex.getMessage(),
-            ex);
-        throw ex;
-      }
+      // 12. Save application
+      KprApplication savedApplication = kprApplicationRepository.save(application);
 
       // 13. Store documents
       List<ApplicationDocument> documents =
-          storeApplicationDocuments(savedApplication.getId(), formRequest);
+          storeApplicationDocuments(savedApplication, formRequest);
       logger.info(
           "Stored {} documents for application: {}", documents.size(), savedApplication.getId());
 
       // 14. Create initial approval workflow
-      createDeveloperApprovalWorkflow(savedApplication.getId(), developer.getUser().getId());
+      applicationEventService.recordSubmitted(savedApplication, developer.getUser().getId());
+      createDeveloperApprovalWorkflow(
+          savedApplication.getId(),
+          savedApplication.getApplicationNumber(),
+          developer.getUser().getId());
+
+      // Read model detail dibangun setelah transaksi commit
+      kprApplicationDetailViewService.markStale(savedApplication.getId());
 
       // 15. Notify applicant about successful submission
       try {
-        systemNotificationService.saveNotification(
+        systemNotificationService.enqueueNotification(
             SystemNotification.builder()
                 .userId(userId)
                 .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -297,6 +297,27 @@ public class KprApplicationService {
     return property;
   }
 
+  /**
+   * Reserve property dengan conditional update (status AVAILABLE dan version sama seperti saat
+   * validasi). Dipanggil sebelum aplikasi di-insert: insert aplikasi mengambil lock FOR KEY SHARE
+   * pada baris properti (foreign key) yang akan membuat reservasi pengajuan lain saling melewati.
+   * Jika gagal, transaksi di-rollback sehingga aplikasi tidak tersimpan.
+   */
+  private void reserveProperty(Property property, String applicationNumber) {
+    int updated = propertyRepository.reserveIfAvailable(property.getId(), property.getVersion());
+    if (updated == 0) {
+      logger.warn(
+          "Property {} could not be reserved for KPR application {}: already reserved or changed",
+          property.getId(),
+          applicationNumber);
+      throw new IllegalStateException("Property is not available for purchase");
+    }
+    logger.info(
+        "Property {} status updated to RESERVED due to KPR application {}",
+        property.getId(),
+        applicationNumber);
+  }
+
   /** Validate property for form submission */
   private Property validatePropertyForForm(KprApplicationFormRequest formRequest) {
     Property property =
@@ -713,16 +734,12 @@ public class KprApplicationService {
 
   /** Store application documents */
   private List<ApplicationDocument> storeApplicationDocuments(
-      Integer applicationId, KprApplicationFormRequest formRequest) {
+      KprApplication application, KprApplicationFormRequest formRequest) {
     List<ApplicationDocument> documents = new ArrayList<>();
+    Integer applicationId = application.getId();
 
     try {
-      // Ambil user pemohon untuk notifikasi upload dokumen
-      KprApplication application =
-          kprApplicationRepository
-              .findById(applicationId)
-              .orElseThrow(
-                  () -> new RuntimeException("Application not found with ID: " + applicationId));
+      // User pemohon untuk notifikasi upload dokumen
       Integer applicantUserId = application.getUserId();
       String appNumber = application.getApplicationNumber();
 
@@ -735,7 +752,7 @@ public class KprApplicationService {
         logger.info("Successfully uploaded KTP document for application {}", applicationId);
 
         // Send notification
-        systemNotificationService.saveNotification(
+        systemNotificationService.enqueueNotification(
             SystemNotification.builder()
                 .userId(applicantUserId)
                 .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -754,7 +771,7 @@ public class KprApplicationService {
         documents.add(applicationDocumentRepository.save(doc));
         logger.info("Successfully uploaded NPWP document for application {}", applicationId);
 
-        systemNotificationService.saveNotification(
+        systemNotificationService.enqueueNotification(
             SystemNotification.builder()
                 .userId(applicantUserId)
                 .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -774,7 +791,7 @@ public class KprApplicationService {
         documents.add(applicationDocumentRepository.save(doc));
         logger.info("Successfully uploaded salary slip document for application {}", applicationId);
 
-        systemNotificationService.saveNotification(
+        systemNotificationService.enqueueNotification(
             SystemNotification.builder()
                 .userId(applicantUserId)
                 .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -793,7 +810,7 @@ public class KprApplicationService {
         documents.add(applicationDocumentRepository.save(doc));
         logger.info("Successfully uploaded other document for application {}", applicationId);
 
-        systemNotificationService.saveNotification(
+        systemNotificationService.enqueueNotification(
             SystemNotification.builder()
                 .userId(applicantUserId)
                 .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -829,7 +846,8 @@ public class KprApplicationService {
   // ========================================
 
   /** Create developer approval workflow */
-  private void createDeveloperApprovalWorkflow(Integer applicationId, Integer developerId) {
+  private void createDeveloperApprovalWorkflow(
+      Integer applicationId, String appNumber, Integer developerId) {
     ApprovalWorkflow workflow =
         ApprovalWorkflow.builder()
             .applicationId(applicationId)
@@ -843,15 +861,12 @@ public class KprApplicationService {
             .build();
 
     approvalWorkflowRepository.save(workflow);
+    workflowSlaService.onWorkflowCreated(workflow);
+    applicationEventService.recordWorkflowAssigned(workflow, null);
 
     // Notify developer assigned to workflow
     try {
-      String appNumber =
-          kprApplicationRepository
-              .findById(applicationId)
-              .map(KprApplication::getApplicationNumber)
-              .orElse("N/A");
-      systemNotificationService.saveNotification(
+      systemNotificationService.enqueueNotification(
           SystemNotification.builder()
               .userId(developerId)
               .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -869,7 +884,8 @@ public class KprApplicationService {
 
   /** Create first approval workflow */
   @Transactional
-  private void createFirstApprovalWorkflow(Integer applicationId, Integer approvalStaffId) {
+  private void createFirstApprovalWorkflow(
+      Integer applicationId, String appNumber, Integer approvalStaffId, Integer assignedBy) {
     ApprovalWorkflow workflow =
         ApprovalWorkflow.builder()
             .applicationId(applicationId)
@@ -883,15 +899,12 @@ public class KprApplicationService {
             .build();
 
     approvalWorkflowRepository.save(workflow);
+    workflowSlaService.onWorkflowCreated(workflow);
+    applicationEventService.recordWorkflowAssigned(workflow, assignedBy);
 
     // Notify first approver assigned
     try {
-      String appNumber =
-          kprApplicationRepository
-              .findById(applicationId)
-              .map(KprApplication::getApplicationNumber)
-              .orElse("N/A");
-      systemNotificationService.saveNotification(
+      systemNotificationService.enqueueNotification(
           SystemNotification.builder()
               .userId(approvalStaffId)
               .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -908,7 +921,8 @@ public class KprApplicationService {
   }
 
   /** Create second approval workflow */
-  private void createSecondApprovalWorkflow(Integer applicationId, Integer approvalStaffId) {
+  private void createSecondApprovalWorkflow(
+      Integer applicationId, String appNumber, Integer approvalStaffId, Integer assignedBy) {
     ApprovalWorkflow workflow =
         ApprovalWorkflow.builder()
             .applicationId(applicationId)
@@ -922,15 +936,12 @@ public class KprApplicationService {
             .build();
 
     approvalWorkflowRepository.save(workflow);
+    workflowSlaService.onWorkflowCreated(workflow);
+    applicationEventService.recordWorkflowAssigned(workflow, assignedBy);
 
     // Notify second approver assigned
     try {
-      String appNumber =
-          kprApplicationRepository
-              .findById(applicationId)
-              .map(KprApplication::getApplicationNumber)
-              .orElse("N/A");
-      systemNotificationService.saveNotification(
+      systemNotificationService.enqueueNotification(
           SystemNotification.builder()
               .userId(approvalStaffId)
               .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -990,28 +1001,20 @@ public class KprApplicationService {
             applicationNumber,
             currentApprovalLevel);
 
-    // 4. Persistence Phase
-    KprApplication savedApplication = kprApplicationRepository.save(application);
+    // 4. Reserve the property atomically before inserting the application; only one concurrent
+    // submission can win
+    reserveProperty(property, applicationNumber);
 
-    // 5. Immediately reserve the property after successful application save
-    try {
-      property.setStatus(Property.PropertyStatus.RESERVED);
-      propertyRepository.save(property);
-      logger.info(
-          "Property {} status updated to RESERVED due to KPR application {}",
-          property.getId(),
-          savedApplication.getId());
-    } catch (Exception ex) {
-      logger.error(
-          "Failed to update property {} status to RESERVED: {}",
-          property.getId(),
-          ex.getMessage(),
-          ex);
-      throw ex;
-    }
+    // 5. Persistence Phase
+    KprApplication savedApplication = kprApplicationRepository.save(application);
 
     // 6. Workflow Creation Phase
-    createDeveloperApprovalWorkflow(savedApplication.getId(), developer.getUser().getId());
+    applicationEventService.recordSubmitted(savedApplication, developer.getUser().getId());
+    createDeveloperApprovalWorkflow(
+        savedApplication.getId(),
+        savedApplication.getApplicationNumber(),
+        developer.getUser().getId());
+    kprApplicationDetailViewService.markStale(savedApplication.getId());
 
     logger.info(
         "KPR application created successfully with ID: {} and number: {}",
@@ -1020,7 +1023,7 @@ public class KprApplicationService {
 
     // Notify applicant about successful submission
     try {
-      systemNotificationService.saveNotification(
+      systemNotificationService.enqueueNotification(
           SystemNotification.builder()
               .userId(userId)
               .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -1055,14 +1058,7 @@ public class KprApplicationService {
       throw new IllegalArgumentException("Only admin users can assign approval workflows");
     }
 
-    logger.info(
-        "Assigning approval workflow for application: {} to approval staff one: {}",
-        request.getApplicationId(),
-        request.getFirstApprovalId());
-
     // 1. Validation Phase
-    User firstApprovalUser = validateUser(request.getFirstApprovalId());
-    User secondApprovalUser = validateUser(request.getSecondApprovalId());
     KprApplication application = validateApplicationExists(request.getApplicationId());
 
     // Ambil Approval Workflow jika di count sudah 3 maka gaboleh assign lagi
@@ -1071,6 +1067,29 @@ public class KprApplicationService {
       throw new IllegalArgumentException("Approval workflow already completed");
     }
 
+    Integer firstApprovalId = request.getFirstApprovalId();
+    Integer secondApprovalId = request.getSecondApprovalId();
+    if (firstApprovalId == null && secondApprovalId == null) {
+      // Auto-assignment ke approver dengan beban terendah
+      List<Integer> approverIds = approverAssignmentService.pickApprovers(2);
+      firstApprovalId = approverIds.get(0);
+      secondApprovalId = approverIds.get(1);
+    } else if (firstApprovalId == null || secondApprovalId == null) {
+      throw new IllegalArgumentException(
+          "firstApprovalId and secondApprovalId must both be set, or both empty for auto-assignment");
+    } else {
+      approverAssignmentService.recordAssigned(firstApprovalId);
+      approverAssignmentService.recordAssigned(secondApprovalId);
+    }
+
+    logger.info(
+        "Assigning approval workflow for application: {} to approval staff one: {}",
+        request.getApplicationId(),
+        firstApprovalId);
+
+    User firstApprovalUser = validateUser(firstApprovalId);
+    User secondApprovalUser = validateUser(secondApprovalId);
+
     logger.info(
         "Approval staff one: {} has been assigned to application: {}",
         firstApprovalUser.getUsername(),
@@ -1084,12 +1103,14 @@ public class KprApplicationService {
         application.getApplicationNumber());
 
     // 2. Workflow Creation Phase
-    createFirstApprovalWorkflow(application.getId(), request.getFirstApprovalId());
-    createSecondApprovalWorkflow(application.getId(), request.getSecondApprovalId());
+    createFirstApprovalWorkflow(
+        application.getId(), application.getApplicationNumber(), firstApprovalId, adminId);
+    createSecondApprovalWorkflow(
+        application.getId(), application.getApplicationNumber(), secondApprovalId, adminId);
 
     // Notify admin about successful assignment
     try {
-      systemNotificationService.saveNotification(
+      systemNotificationService.enqueueNotification(
           SystemNotification.builder()
               .userId(adminId)
               .notificationType(NotificationType.APPLICATION_UPDATE)
@@ -1104,14 +1125,78 @@ public class KprApplicationService {
           notifEx.getMessage());
     }
 
+    kprApplicationDetailViewService.markStale(application.getId());
+
     // 3. Response Building
     return AssignWorkflowResponse.builder()
         .applicationID(application.getId())
-        .firstApprovalId(request.getFirstApprovalId())
-        .secondApprovalId(request.getSecondApprovalId())
+        .firstApprovalId(firstApprovalId)
+        .secondApprovalId(secondApprovalId)
+        .build();
+  }
+
+  /** Beban kerja approver untuk auto-assignment (khusus ADMIN) */
+  public List<ApproverLoadResponse> getApproverLoads(String userRole) {
+    if (userRole == null || !userRole.equalsIgnoreCase("ADMIN")) {
+      throw new IllegalArgumentException("Only admin users can view approver workload");
+    }
+    return approverAssignmentService.getLoads();
+  }
+
+  /**
+   * Timeline aplikasi dari event log. Otorisasi memakai pemilik dan developer yang tercatat di
+   * event SUBMITTED sehingga tabel mutable tidak dibaca sama sekali.
+   */
+  public ApplicationTimelineResponse getApplicationTimeline(
+      Integer applicationId, Integer currentUserId, String currentUserRole) {
+    List<ApplicationEvent> events = applicationEventService.getEvents(applicationId);
+    if (events.isEmpty()) {
+      throw new IllegalArgumentException("Application not found with ID: " + applicationId);
+    }
+    ApplicationEventProjector.ApplicationProjection projection =
+        applicationEventProjector.project(applicationId, events);
+
+    boolean isOwner = Objects.equals(projection.ownerUserId(), currentUserId);
+    boolean isStaff =
+        currentUserRole != null
+            && (currentUserRole.contains("ADMIN") || currentUserRole.contains("APPROVER"));
+    boolean isDeveloper = Objects.equals(projection.developerUserId(), currentUserId);
+    if (!isOwner && !isStaff && !isDeveloper) {
+      throw new RuntimeException("Unauthorized to view this application");
+    }
+
+    return ApplicationTimelineResponse.builder()
+        .applicationId(applicationId)
+        .applicationNumber(projection.applicationNumber())
+        .currentStatus(projection.status() != null ? projection.status().name() : null)
+        .events(
+            events.stream()
+                .map(
+                    event ->
+                        ApplicationTimelineResponse.TimelineEvent.builder()
+                            .seq(event.getSeq())
+                            .eventType(event.getEventType().name())
+                            .actorId(event.getActorId())
+                            .stage(event.getStage() != null ? event.getStage().name() : null)
+                            .toStatus(
+                                event.getToStatus() != null ? event.getToStatus().name() : null)
+                            .data(event.getData())
+                            .occurredAt(event.getOccurredAt())
+                            .build())
+                .toList())
         .build();
   }
 
+  /** Bangun ulang status dan read model aplikasi dari event log (khusus ADMIN) */
+  public String rebuildApplicationFromEvents(Integer applicationId, String userRole) {
+    if (userRole == null || !userRole.equalsIgnoreCase("ADMIN")) {
+      throw new IllegalArgumentException("Only admin users can rebuild applications from events");
+    }
+    ApplicationEventProjector.ApplicationProjection projection =
+        applicationEventProjector.rebuild(applicationId);
+    return projection.status().name();
+  }
+
   // ========================================
   // PUBLIC SERVICE METHODS - QUERY OPERATIONS
   // ========================================
@@ -1176,6 +1261,7 @@ public class KprApplicationService {
       default -> throw new IllegalArgumentException("Unsupported property type: " + propertyType);
     };
   }
+
   private Property.CertificateType convertToCertificateType(
       Property.CertificateType certificateType) {
     return switch (certificateType) {
@@ -1380,372 +1466,67 @@ public class KprApplicationService {
   }
 
   /**
-   * Get detailed KPR application information with all related entities
+   * Get one keyset page of a KPR work queue
+   *
+   * @param queue Work queue to read
+   * @param userId Current user ID (assignee for developer/verifikator queues)
+   * @param userRole Current user role name from the access token
+   * @param request Filter, sort and cursor parameters
+   * @return Page of queue items with the cursor for the next page
+   * @throws AccessDeniedException if the role may not read this queue
+   */
+  @Transactional(readOnly = true)
+  public KeysetPageResponse<KprQueueItem> getWorkQueue(
+      KprWorkQueue queue, Integer userId, String userRole, KprQueueRequest request) {
+    String requiredRole =
+        switch (queue) {
+          case DEVELOPER -> "DEVELOPER";
+          case VERIFIKATOR -> "APPROVER";
+          default -> "ADMIN";
+        };
+    if (!requiredRole.equalsIgnoreCase(userRole)) {
+      throw new AccessDeniedException("You are not authorized to view this queue");
+    }
+
+    KeysetPageResponse<KprQueueItem> page =
+        kprApplicationRepository.findWorkQueue(queue, userId, request);
+    logger.info(
+        "Retrieved {} {} queue items for user ID: {} (hasNext={})",
+        page.getData().size(),
+        queue,
+        userId,
+        page.isHasNext());
+    return page;
+  }
+
+  /**
+   * Get detailed KPR application information from the precomputed read model
    *
    * @param applicationId Application ID
    * @param currentUserId Current user ID for authorization
+   * @param currentUserRole Current user role name from the access token
    * @return Comprehensive application details
    */
-  @Transactional(readOnly = true)
   public KprApplicationDetailResponse getApplicationDetail(
-      Integer applicationId, Integer currentUserId) {
+      Integer applicationId, Integer currentUserId, String currentUserRole) {
     log.info(
         "Fetching comprehensive application detail for ID: {} by user: {}",
         applicationId,
         currentUserId);
 
-    // 1. Fetch application with all relationships eagerly loaded
-    KprApplication application =
-        kprApplicationRepository
-            .findByIdWithAllRelations(applicationId)
-            .orElseThrow(
-                () -> new RuntimeException("Application not found with ID: " + applicationId));
-
-    // 2. Authorization check - user can only view their own applications or admin/staff can view
-    // all
-    User currentUser =
-        userRepository
-            .findById(currentUserId)
-            .orElseThrow(() -> new RuntimeException("Current user not found"));
+    KprApplicationDetailView view = kprApplicationDetailViewService.getView(applicationId);
 
-    boolean isOwner = application.getUserId().equals(currentUserId);
+    // Authorization check - user can only view their own applications or admin/staff can view all
+    boolean isOwner = Objects.equals(view.getOwnerUserId(), currentUserId);
     boolean isStaff =
-        currentUser.getRole() != null
-            && (currentUser.getRole().getName().contains("ADMIN")
-                || currentUser.getRole().getName().contains("APPROVER"));
-
-    boolean isDeveloper =
-        Objects.equals(application.getProperty().getDeveloper().getUser().getId(), currentUserId);
+        currentUserRole != null
+            && (currentUserRole.contains("ADMIN") || currentUserRole.contains("APPROVER"));
+    boolean isDeveloper = Objects.equals(view.getDeveloperUserId(), currentUserId);
 
     if (!isOwner && !isStaff && !isDeveloper) {
       throw new RuntimeException("Unauthorized to view this application");
     }
 
-    // 3. Fetch user profile for comprehensive user data
-    UserProfile userProfile =
-        userProfileRepository.findByUserId(application.getUserId()).orElse(null);
-
-    // 4. Fetch all approval workflows for this application
-    List<ApprovalWorkflow> approvalWorkflows =
-        approvalWorkflowRepository.findByApplicationIdOrderByCreatedAtAsc(applicationId);
-
-    // 5. Fetch all application documents
-    List<ApplicationDocument> documents =
-        applicationDocumentRepository.findByApplicationIdOrderByUploadedAtDesc(applicationId);
-
-    // 6. Calculate LTV ratio
-    double ltvRatio = 0.0;
-    if (application.getPropertyValue() != null
-        && application.getPropertyValue().compareTo(BigDecimal.ZERO) > 0) {
-      ltvRatio =
-          application
-              .getLoanAmount()
-              .divide(application.getPropertyValue(), 4, RoundingMode.HALF_UP)
-              .multiply(BigDecimal.valueOf(100))
-              .doubleValue();
-    }
-
-    // 7. Build comprehensive response
-    return KprApplicationDetailResponse.builder()
-        // Basic application info
-        .applicationId(application.getId())
-        .applicationNumber(application.getApplicationNumber())
-        .userId(application.getUserId())
-        .propertyId(application.getPropertyId())
-        .kprRateId(application.getKprRateId())
-        .status(application.getStatus())
-
-        // User information with profile
-        .userInfo(buildUserInfo(application.getUser(), userProfile))
-
-        // Property information
-        .propertyInfo(buildPropertyInfo(application.getProperty()))
-
-        // Developer information
-        .developerInfo(
-            buildDeveloperInfo(
-                application.getProperty() != null
-                    ? application.getProperty().getDeveloper()
-                    : null))
-
-        // KPR Rate information
-        .kprRateInfo(buildKprRateInfo(application.getKprRate()))
-
-        // Loan details
-        .propertyType(application.getPropertyType())
-        .propertyValue(application.getPropertyValue())
-        .loanAmount(application.getLoanAmount())
-        .loanTermYears(application.getLoanTermYears())
-        .interestRate(application.getInterestRate())
-        .monthlyInstallment(application.getMonthlyInstallment())
-        .downPayment(application.getDownPayment())
-        .ltvRatio(BigDecimal.valueOf(ltvRatio))
-
-        // Property details
-        .propertyAddress(application.getPropertyAddress())
-        .propertyCertificateType(application.getPropertyCertificateType())
-        .developerName(application.getDeveloperName())
-        .purpose(application.getPurpose())
-
-        // Application status and timestamps
-        .submittedAt(application.getSubmittedAt())
-        .approvedAt(application.getApprovedAt())
-        .rejectedAt(application.getRejectedAt())
-        .rejectionReason(application.getRejectionReason())
-        .notes(application.getNotes())
-        .createdAt(application.getCreatedAt())
-        .updatedAt(application.getUpdatedAt())
-
-        // Approval workflows
-        .approvalWorkflows(buildApprovalWorkflowInfoList(approvalWorkflows))
-
-        // Documents
-        .documents(buildDocumentInfoList(documents))
-        .build();
-  }
-
-  /** Build comprehensive user information including profile data */
-  private KprApplicationDetailResponse.UserInfo buildUserInfo(User user, UserProfile profile) {
-    if (user == null) return null;
-
-    return KprApplicationDetailResponse.UserInfo.builder()
-        .userId(user.getId())
-        .username(user.getUsername())
-        .email(user.getEmail())
-        .phone(user.getPhone())
-        .roleName(user.getRole() != null ? user.getRole().getName() : null)
-        .fullName(profile != null ? profile.getFullName() : null)
-        .nik(profile != null ? profile.getNik() : null)
-        .npwp(profile != null ? profile.getNpwp() : null)
-        .birthDate(
-            profile != null && profile.getBirthDate() != null
-                ? profile.getBirthDate().toString()
-                : null)
-        .birthPlace(profile != null ? profile.getBirthPlace() : null)
-        .gender(profile != null && profile.getGender() != null ? profile.getGender().name() : null)
-        .maritalStatus(
-            profile != null && profile.getMaritalStatus() != null
-                ? profile.getMaritalStatus().name()
-                : null)
-        .address(profile != null ? profile.getAddress() : null)
-        .district(profile != null ? profile.getDistrict() : null)
-        .subDistrict(profile != null ? profile.getSubDistrict() : null)
-        .city(profile != null ? profile.getCity() : null)
-        .province(profile != null ? profile.getProvince() : null)
-        .postalCode(profile != null ? profile.getPostalCode() : null)
-        .occupation(profile != null ? profile.getOccupation() : null)
-        .companyName(profile != null ? profile.getCompanyName() : null)
-        .companyAddress(profile != null ? profile.getCompanyAddress() : null)
-        .companyCity(profile != null ? profile.getCompanyCity() : null)
-        .companyProvince(profile != null ? profile.getCompanyProvince() : null)
-        .companyPostalCode(profile != null ? profile.getCompanyPostalCode() : null)
-        .companyDistrict(profile != null ? profile.getCompanyDistrict() : null)
-        .companySubdistrict(profile != null ? profile.getCompanySubdistrict() : null)
-        .monthlyIncome(profile != null ? profile.getMonthlyIncome() : null)
-        .workExperience(profile != null ? profile.getWorkExperience() : null)
-        .build();
-  }
-
-  /** Build comprehensive property information */
-  private KprApplicationDetailResponse.PropertyInfo buildPropertyInfo(Property property) {
-    if (property == null) return null;
-
-    return KprApplicationDetailResponse.PropertyInfo.builder()
-        .propertyId(property.getId())
-        .propertyCode(property.getPropertyCode())
-        .title(property.getTitle())
-        .description(property.getDescription())
-        .address(property.getAddress())
-        .city(property.getCity())
-        .province(property.getProvince())
-        .postalCode(property.getPostalCode())
-        .district(property.getDistrict())
-        .village(property.getVillage())
-        .landArea(property.getLandArea())
-        .buildingArea(property.getBuildingArea())
-        .bedrooms(property.getBedrooms())
-        .bathrooms(property.getBathrooms())
-        .floors(property.getFloors())
-        .garage(property.getGarage())
-        .yearBuilt(property.getYearBuilt())
-        .price(property.getPrice())
-        .pricePerSqm(property.getPricePerSqm())
-        .certificateType(property.getCertificateType())
-        .certificateNumber(property.getCertificateNumber())
-        .pbbValue(property.getPbbValue())
-        .status(property.getStatus())
-        .isKprEligible(property.getIsKprEligible())
-        .minDownPaymentPercent(property.getMinDownPaymentPercent())
-        .maxLoanTermYears(property.getMaxLoanTermYears())
-        .build();
-  }
-
-  /** Build comprehensive developer information */
-  private KprApplicationDetailResponse.DeveloperInfo buildDeveloperInfo(Developer developer) {
-    if (developer == null) return null;
-
-    return KprApplicationDetailResponse.DeveloperInfo.builder()
-        .developerId(developer.getId())
-        .companyName(developer.getCompanyName())
-        .companyCode(developer.getCompanyCode())
-        .businessLicense(developer.getBusinessLicense())
-        .developerLicense(developer.getDeveloperLicense())
-        .contactPerson(developer.getContactPerson())
-        .phone(developer.getPhone())
-        .email(developer.getEmail())
-        .website(developer.getWebsite())
-        .address(developer.getAddress())
-        .city(developer.getCity())
-        .province(developer.getProvince())
-        .postalCode(developer.getPostalCode())
-        .establishedYear(developer.getEstablishedYear())
-        .description(developer.getDescription())
-        .specialization(
-            developer.getSpecialization() != null ? developer.getSpecialization().name() : null)
-        .isPartner(developer.getIsPartner())
-        .partnershipLevel(
-            developer.getPartnershipLevel() != null ? developer.getPartnershipLevel().name() : null)
-        .commissionRate(developer.getCommissionRate())
-        .status(developer.getStatus().name())
-        .verifiedAt(developer.getVerifiedAt())
-        .build();
-  }
-
-  /** Build comprehensive KPR rate information */
-  private KprApplicationDetailResponse.KprRateInfo buildKprRateInfo(KprRate kprRate) {
-    if (kprRate == null) return null;
-
-    return KprApplicationDetailResponse.KprRateInfo.builder()
-        .kprRateId(kprRate.getId())
-        .rateName(kprRate.getRateName())
-        .rateType(kprRate.getRateType().name())
-        .propertyType(kprRate.getPropertyType().name())
-        .customerSegment(kprRate.getCustomerSegment().name())
-        .baseRate(kprRate.getBaseRate())
-        .margin(kprRate.getMargin())
-        .effectiveRate(kprRate.getEffectiveRate())
-        .minLoanAmount(kprRate.getMinLoanAmount())
-        .maxLoanAmount(kprRate.getMaxLoanAmount())
-        .minTermYears(kprRate.getMinTermYears())
-        .maxTermYears(kprRate.getMaxTermYears())
-        .maxLtvRatio(kprRate.getMaxLtvRatio())
-        .minIncome(kprRate.getMinIncome())
-        .maxAge(kprRate.getMaxAge())
-        .minDownPaymentPercent(kprRate.getMinDownPaymentPercent())
-        .adminFee(kprRate.getAdminFee())
-        .adminFeePercent(kprRate.getAdminFeePercent())
-        .appraisalFee(kprRate.getAppraisalFee())
-        .insuranceRate(kprRate.getInsuranceRate())
-        .notaryFeePercent(kprRate.getNotaryFeePercent())
-        .isPromotional(kprRate.getIsPromotional())
-        .promoDescription(kprRate.getPromoDescription())
-        .build();
-  }
-
-  /** Build comprehensive approval workflow information list */
-  private List<KprApplicationDetailResponse.ApprovalWorkflowInfo> buildApprovalWorkflowInfoList(
-      List<ApprovalWorkflow> workflows) {
-    if (workflows == null || workflows.isEmpty()) {
-      return new ArrayList<>();
-    }
-
-    return workflows.stream().map(this::buildApprovalWorkflowInfo).collect(Collectors.toList());
-  }
-
-  /** Build comprehensive approval workflow information */
-  private KprApplicationDetailResponse.ApprovalWorkflowInfo buildApprovalWorkflowInfo(
-      ApprovalWorkflow workflow) {
-    if (workflow == null) return null;
-
-    // Fetch assigned user details
-    User assignedUser = null;
-    if (workflow.getAssignedTo() != null) {
-      assignedUser = userRepository.findById(workflow.getAssignedTo()).orElse(null);
-    }
-
-    // Fetch escalated user details
-    User escalatedUser = null;
-    if (workflow.getEscalatedTo() != null) {
-      escalatedUser = userRepository.findById(workflow.getEscalatedTo()).orElse(null);
-    }
-
-    return KprApplicationDetailResponse.ApprovalWorkflowInfo.builder()
-        .workflowId(workflow.getId())
-        .applicationId(workflow.getApplicationId())
-        .stage(workflow.getStage())
-        .status(workflow.getStatus())
-        .priority(workflow.getPriority())
-        .assignedTo(workflow.getAssignedTo())
-        .assignedToName(
-            assignedUser != null
-                ? assignedUser.getUserProfile() != null
-                    ? assignedUser.getUserProfile().getFullName()
-                    : null
-                : null)
-        .assignedToEmail(
-            assignedUser != null
-                ? assignedUser.getEmail() != null ? assignedUser.getEmail() : null
-                : null)
-        .escalatedTo(workflow.getEscalatedTo())
-        .escalatedToName(
-            escalatedUser != null
-                ? escalatedUser.getUserProfile() != null
-                    ? escalatedUser.getUserProfile().getFullName()
-                    : null
-                : null)
-        .assignedToRole(assignedUser != null ? assignedUser.getRole().toString() : null)
-        .dueDate(workflow.getDueDate())
-        .startedAt(workflow.getStartedAt())
-        .completedAt(workflow.getCompletedAt())
-        .approvalNotes(workflow.getApprovalNotes())
-        .rejectionReason(workflow.getRejectionReason())
-        .approvalNotes(workflow.getApprovalNotes())
-        .createdAt(workflow.getCreatedAt())
-        .updatedAt(workflow.getUpdatedAt())
-        .build();
-  }
-
-  /** Build comprehensive document information list */
-  private List<KprApplicationDetailResponse.DocumentInfo> buildDocumentInfoList(
-      List<ApplicationDocument> documents) {
-    if (documents == null || documents.isEmpty()) {
-      return new ArrayList<>();
-    }
-
-    return documents.stream().map(this::buildDocumentInfo).collect(Collectors.toList());
-  }
-
-  /** Build comprehensive document information */
-  private KprApplicationDetailResponse.DocumentInfo buildDocumentInfo(
-      ApplicationDocument document) {
-    if (document == null) return null;
-
-    // Fetch verifier details
-    User verifier = null;
-    if (document.getVerifiedBy() != null) {
-      verifier = userRepository.findById(document.getVerifiedBy()).orElse(null);
-    }
-
-    String proxyUrl = null;
-    if (document.getFilePath() != null && !document.getFilePath().startsWith("http")) {
-      proxyUrl = idCloudHostS3Util.generateProxyUrl(document.getFilePath());
-    } else {
-      proxyUrl = document.getFilePath();
-    }
-
-    return KprApplicationDetailResponse.DocumentInfo.builder()
-        .documentId(document.getId())
-        .documentType(document.getDocumentType())
-        .documentName(document.getDocumentName())
-        .originalFilename(document.getOriginalFilename())
-        .filePath(proxyUrl)
-        .fileSize(document.getFileSize())
-        .mimeType(document.getMimeType())
-        .isVerified(document.getIsVerified())
-        .verifiedBy(document.getVerifiedBy())
-        .verifiedAt(document.getVerifiedAt())
-        .verificationNotes(document.getVerificationNotes())
-        .uploadedAt(document.getUploadedAt())
-        .build();
+    return kprApplicationDetailViewService.toResponse(view);
   }
 }
@@ -0,0 +1,30 @@
+package com.kelompoksatu.griya.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener untuk KprRate dan KprRateYearly. Setiap perubahan rate membuat tabel faktor
+ * cicilan dibangun ulang di semua node setelah transaksi commit (lihat {@link
+ * InstallmentFactorService#invalidate()}).
+ */
+@Component
+public class KprRateChangeListener {
+
+  private final InstallmentFactorService installmentFactorService;
+
+  // @Lazy: listener dibuat saat EntityManagerFactory diinisialisasi, sebelum repository siap
+  public KprRateChangeListener(@Lazy InstallmentFactorService installmentFactorService) {
+    this.installmentFactorService = installmentFactorService;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void onRateChanged(Object rate) {
+    installmentFactorService.invalidate();
+  }
+}
@@ -53,13 +53,31 @@ public class NotificationEventConsumerService {
   }
 
   private void onMessage(String body) {
+    JsonNode node;
     try {
-      JsonNode node = objectMapper.readTree(body);
-      String event = text(node, "event");
-      if (!"SYSTEM_NOTIFICATION".equalsIgnoreCase(event)) {
-        return;
+      node = objectMapper.readTree(body);
+    } catch (Exception e) {
+      log.warn("Failed to parse notification event: {}", e.getMessage());
+      return;
+    }
+
+    String event = text(node, "event");
+    if ("SYSTEM_NOTIFICATION_BATCH".equalsIgnoreCase(event)) {
+      JsonNode items = node.get("notifications");
+      if (items != null && items.isArray()) {
+        for (JsonNode item : items) {
+          handleNotification(item);
+        }
       }
+      return;
+    }
+    if ("SYSTEM_NOTIFICATION".equalsIgnoreCase(event)) {
+      handleNotification(node);
+    }
+  }
 
+  private void handleNotification(JsonNode node) {
+    try {
       long notificationId = longValue(node, "notificationId");
       int userId = intValue(node, "userId");
       String title = text(node, "title");
@@ -93,7 +111,6 @@ public class NotificationEventConsumerService {
       }
     } catch (Exception e) {
       try {
-        JsonNode node = objectMapper.readTree(body);
         long notificationId = longValue(node, "notificationId");
         updateStatus(notificationId, NotificationStatus.FAILED, null);
       } catch (Exception ignore) {
@@ -0,0 +1,242 @@
+package com.kelompoksatu.griya.service;
+
+import com.kelompoksatu.griya.dto.KeysetPageResponse;
+import com.kelompoksatu.griya.dto.OtpAuditEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.connection.stream.StringRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Audit log OTP dalam satu Redis Stream {@code audit:otp}.
+ *
+ * <p>Dulu setiap event menjadi key sendiri dengan TTL 30 hari; jutaan key kecil memakan memori
+ * (overhead per key jauh lebih besar dari datanya) dan tidak bisa di-query. Stream menyimpan event
+ * secara berurutan dalam node listpack yang dikompresi, dengan id stream = waktu event sehingga
+ * query rentang waktu langsung memakai XREVRANGE. Panjang stream dibatasi {@code max-length} (XADD
+ * MAXLEN ~) dan event lebih tua dari {@code retention-days} dibuang berkala (XTRIM MINID).
+ *
+ * <p>Nomor telepon tidak disimpan mentah: hanya versi masking untuk ditampilkan dan HMAC-SHA256
+ * dengan secret aplikasi untuk pencarian per nomor, sehingga isi stream tidak bisa dicocokkan
+ * dengan menghitung hash semua nomor telepon tanpa secret tersebut.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OtpAuditService {
+
+  private static final String STREAM_KEY = "audit:otp";
+
+  /** Entry yang dibaca per XREVRANGE saat mencari event satu nomor */
+  private static final int SCAN_BATCH = 500;
+
+  /** Format id entry stream: {@code <millis>-<seq>} */
+  private static final Pattern STREAM_ID = Pattern.compile("\\d+-\\d+");
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  @Value("${app.otp-audit.max-length:1000000}")
+  private long maxLength;
+
+  @Value("${app.otp-audit.retention-days:30}")
+  private int retentionDays;
+
+  /** Batas entry yang dipindai per query agar rentang waktu lebar tidak membebani Redis */
+  @Value("${app.otp-audit.max-scan:50000}")
+  private int maxScan;
+
+  /** Key HMAC untuk hash nomor telepon */
+  @Value("${app.otp-audit.hash-secret}")
+  private String hashSecret;
+
+  private ScheduledExecutorService trimExecutor;
+
+  @PostConstruct
+  public void start() {
+    trimExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "otp-audit-trim");
+              thread.setDaemon(true);
+              return thread;
+            });
+    trimExecutor.scheduleWithFixedDelay(this::trimExpired, 1, 60, TimeUnit.MINUTES);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (trimExecutor != null) {
+      trimExecutor.shutdownNow();
+    }
+  }
+
+  /** Catat satu event audit OTP */
+  public void record(
+      String phone, String maskedPhone, String purpose, String action, String result) {
+    StringRecord record =
+        StreamRecords.string(
+                Map.of(
+                    "phoneHash",
+                    phoneHash(phone),
+                    "maskedPhone",
+                    maskedPhone,
+                    "purpose",
+                    purpose != null ? purpose : "",
+                    "action",
+                    action,
+                    "result",
+                    result != null ? result : ""))
+            .withStreamKey(STREAM_KEY);
+    // XADD MAXLEN ~: trimming per node listpack, murah dan tanpa round trip tambahan
+    stringRedisTemplate.execute(
+        (RedisCallback<Object>)
+            connection ->
+                ((StringRedisConnection) connection)
+                    .xAdd(record, XAddOptions.maxlen(maxLength).approximateTrimming(true)));
+  }
+
+  /**
+   * Event audit satu nomor telepon dalam rentang waktu, terbaru lebih dulu.
+   *
+   * <p>Satu panggilan memindai paling banyak {@code max-scan} entry. Jika berhenti sebelum rentang
+   * habis (limit tercapai atau batas scan), {@code hasNext} bernilai true dan {@code nextCursor}
+   * dipakai untuk melanjutkan pencarian.
+   *
+   * @param phone nomor telepon yang sudah dinormalisasi (format 62...)
+   * @param from awal rentang (inklusif)
+   * @param to akhir rentang (inklusif)
+   * @param limit jumlah event maksimal
+   * @param cursor nextCursor dari hasil sebelumnya, atau null
+   */
+  public KeysetPageResponse<OtpAuditEntry> find(
+      String phone, LocalDateTime from, LocalDateTime to, int limit, String cursor) {
+    if (from.isAfter(to)) {
+      throw new IllegalArgumentException("Waktu awal harus sebelum waktu akhir");
+    }
+    String hash = phoneHash(phone);
+    List<OtpAuditEntry> entries = new ArrayList<>();
+    // Id stream <millis>-<seq>; millis tanpa seq mencakup semua entry di milidetik itu
+    String lower = String.valueOf(toMillis(from));
+    String upper = String.valueOf(toMillis(to));
+    boolean upperInclusive = true;
+    if (cursor != null && !cursor.isBlank()) {
+      if (!STREAM_ID.matcher(cursor).matches()) {
+        throw new IllegalArgumentException("Cursor tidak valid");
+      }
+      // Cursor = id entry terakhir yang sudah diperiksa, jadi batas atas eksklusif
+      upper = cursor;
+      upperInclusive = false;
+    }
+    int scanned = 0;
+    String nextCursor = null;
+
+    while (true) {
+      if (scanned >= maxScan) {
+        // Batas scan tercapai sebelum rentang habis
+        nextCursor = upper;
+        break;
+      }
+      Range<String> range =
+          Range.of(
+              Range.Bound.inclusive(lower),
+              upperInclusive ? Range.Bound.inclusive(upper) : Range.Bound.exclusive(upper));
+      List<MapRecord<String, Object, Object>> batch =
+          stringRedisTemplate
+              .opsForStream()
+              .reverseRange(STREAM_KEY, range, Limit.limit().count(SCAN_BATCH));
+      if (batch == null || batch.isEmpty()) {
+        break;
+      }
+      for (MapRecord<String, Object, Object> record : batch) {
+        Map<Object, Object> fields = record.getValue();
+        if (hash.equals(fields.get("phoneHash"))) {
+          entries.add(toEntry(record.getId().getValue(), record.getId().getTimestamp(), fields));
+          if (entries.size() >= limit) {
+            nextCursor = record.getId().getValue();
+            break;
+          }
+        }
+      }
+      if (nextCursor != null) {
+        break;
+      }
+      scanned += batch.size();
+      if (batch.size() < SCAN_BATCH) {
+        break;
+      }
+      upper = batch.get(batch.size() - 1).getId().getValue();
+      upperInclusive = false;
+    }
+    return KeysetPageResponse.<OtpAuditEntry>builder()
+        .data(entries)
+        .size(limit)
+        .hasNext(nextCursor != null)
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  /** Buang event lebih tua dari masa retensi */
+  private void trimExpired() {
+    try {
+      long minId = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays);
+      stringRedisTemplate.execute(
+          (RedisCallback<Object>)
+              connection ->
+                  connection.execute(
+                      "XTRIM",
+                      STREAM_KEY.getBytes(StandardCharsets.UTF_8),
+                      "MINID".getBytes(StandardCharsets.UTF_8),
+                      "~".getBytes(StandardCharsets.UTF_8),
+                      String.valueOf(minId).getBytes(StandardCharsets.UTF_8)));
+    } catch (Exception e) {
+      log.warn("Failed to trim OTP audit stream: {}", e.getMessage());
+    }
+  }
+
+  private static OtpAuditEntry toEntry(String id, Long timestamp, Map<Object, Object> fields) {
+    return OtpAuditEntry.builder()
+        .id(id)
+        .timestamp(
+            timestamp != null
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault())
+                : null)
+        .maskedPhone((String) fields.get("maskedPhone"))
+        .purpose((String) fields.get("purpose"))
+        .action((String) fields.get("action"))
+        .result((String) fields.get("result"))
+        .build();
+  }
+
+  private static long toMillis(LocalDateTime time) {
+    return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  private String phoneHash(String phone) {
+    return new HmacUtils(HmacAlgorithms.HMAC_SHA_256, hashSecret)
+        .hmacHex(phone != null ? phone : "");
+  }
+}
@@ -2,6 +2,7 @@ package com.kelompoksatu.griya.service;
 
 import com.kelompoksatu.griya.dto.OtpErrorType;
 import com.kelompoksatu.griya.dto.OtpResponse;
+import com.kelompoksatu.griya.service.RedisService.OtpVerification;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -28,6 +29,7 @@ public class OtpService {
 
   private final RedisService redisService;
   private final WhatsAppService whatsAppService;
+  private final OtpAuditService otpAuditService;
 
   @Value("${otp.length:6}")
   private int otpLength;
@@ -157,18 +159,12 @@ public class OtpService {
       String otp = generateNumericOtp();
 
       // Store OTP di Redis
-      log.info(
-          "DEBUG: Storing OTP - Phone: {}, Purpose: {}, Identifier: {}, OTP: {}",
-          phone,
-          purpose,
-          identifier,
-          otp);
+      log.debug("Storing OTP - Phone: {}, Purpose: {}", maskPhoneNumber(phone), purpose);
       redisService.storeOtp(identifier, otp, otpTtlMinutes);
 
       // Verify OTP was stored
       boolean otpExists = redisService.exists("otp:" + identifier);
-      log.info(
-          "DEBUG: OTP storage verification - Key exists: {}, Key: otp:{}", otpExists, identifier);
+      log.debug("OTP storage verification - Key exists: {}", otpExists);
 
       // Reset attempts counter - Fixed key handling
 
@@ -230,54 +226,33 @@ public class OtpService {
 
       String identifier = phone + ":" + purpose;
 
-      log.info(
-          "DEBUG: Validating OTP - Phone: {}, Purpose: {}, Identifier: {}, Input OTP: {}",
-          phone,
-          purpose,
-          identifier,
-          otp);
-
-      // Check if OTP exists in Redis using RedisService method
-      String redisKey = "otp:" + identifier;
-      boolean otpExists = redisService.exists(redisKey);
-      log.info("DEBUG: OTP existence check - Key exists: {}, Key: {}", otpExists, redisKey);
+      log.debug("Validating OTP - Phone: {}, Purpose: {}", maskPhoneNumber(phone), purpose);
 
-      // Get stored OTP for comparison using RedisService method
-      String storedOtp = redisService.get(redisKey, String.class);
-      log.info(
-          "DEBUG: Stored OTP comparison - Stored: {}, Input: {}, Match: {}",
-          storedOtp,
-          otp,
-          (storedOtp != null && storedOtp.equals(otp.trim())));
-
-      // Check attempts - Fixed key handling
-      String attemptsIdentifier = identifier; // Use identifier directly for rate limiting
-      long attempts = redisService.getRateLimitCount(attemptsIdentifier);
-      if (attempts >= maxAttempts) {
-        log.warn("Maksimal attempts tercapai untuk OTP validation: {}", identifier);
-        auditLog(phone, purpose, "OTP_MAX_ATTEMPTS", "BLOCKED");
-        // Return false instead of throwing exception to prevent 500 error
-        return false;
-      }
+      // Cek batas percobaan, hitung percobaan, bandingkan dan hapus OTP dalam satu round trip
+      OtpVerification verification =
+          redisService.verifyOtp(identifier, otp.trim(), maxAttempts, otpTtlMinutes);
 
-      // Increment attempts
-      redisService.incrementRateLimit(attemptsIdentifier, otpTtlMinutes);
-
-      // Validate OTP using RedisService method (this will also delete the OTP if valid)
-      boolean isValid = redisService.validateOtp(identifier, otp.trim());
-
-      if (isValid) {
-        // Clear attempts counter jika berhasil - Fixed key handling
-        String rateLimitKey = "rate_limit:" + attemptsIdentifier;
-        redisService.delete(rateLimitKey);
-        log.info("OTP berhasil divalidasi untuk {}, purpose: {}", phone, purpose);
-        auditLog(phone, purpose, "OTP_VALIDATED", "SUCCESS");
-        return true;
-      } else {
-        log.warn(
-            "OTP tidak valid untuk {}, purpose: {}, attempts: {}", phone, purpose, attempts + 1);
-        auditLog(phone, purpose, "OTP_INVALID", "FAILED - Attempt " + (attempts + 1));
-        return false;
+      switch (verification.status()) {
+        case VALID -> {
+          log.info("OTP berhasil divalidasi untuk {}, purpose: {}", phone, purpose);
+          auditLog(phone, purpose, "OTP_VALIDATED", "SUCCESS");
+          return true;
+        }
+        case MAX_ATTEMPTS -> {
+          log.warn("Maksimal attempts tercapai untuk OTP validation: {}", identifier);
+          auditLog(phone, purpose, "OTP_MAX_ATTEMPTS", "BLOCKED");
+          // Return false instead of throwing exception to prevent 500 error
+          return false;
+        }
+        default -> {
+          log.warn(
+              "OTP tidak valid untuk {}, purpose: {}, attempts: {}",
+              phone,
+              purpose,
+              verification.attempts());
+          auditLog(phone, purpose, "OTP_INVALID", "FAILED - Attempt " + verification.attempts());
+          return false;
+        }
       }
 
     } catch (Exception e) {
@@ -453,11 +428,8 @@ public class OtpService {
           action,
           result);
 
-      // Store audit log di Redis untuk compliance (optional)
-      String auditKey = "audit:otp:" + timestamp + ":" + phone.hashCode();
-      String auditData =
-          String.format("%s|%s|%s|%s|%s", timestamp, maskedPhone, purpose, action, result);
-      redisService.set(auditKey, auditData, 30 * 24 * 60 * 60); // 30 hari
+      // Simpan audit di Redis Stream untuk compliance (bisa di-query per nomor dan waktu)
+      otpAuditService.record(phone, maskedPhone, purpose, action, result);
 
     } catch (Exception e) {
       log.error("Error saat audit logging: {}", e.getMessage(), e);
@@ -473,7 +445,7 @@ public class OtpService {
    */
   public OtpResponse sendOtp(String phone, String purpose) {
     try {
-      log.info("DEBUG: sendOtp called - Original phone: {}, Purpose: {}", phone, purpose);
+      log.debug("sendOtp called - Phone: {}, Purpose: {}", maskPhoneNumber(phone), purpose);
 
       // Validate input parameters
       if (phone == null || phone.trim().isEmpty()) {
@@ -489,18 +461,13 @@ public class OtpService {
       String normalizedPhone;
       try {
         normalizedPhone = normalizePhoneNumber(phone);
-        log.info(
-            "DEBUG: Phone normalization in sendOtp - Original: {}, Normalized: {}",
-            phone,
-            normalizedPhone);
+        log.debug("Phone normalized in sendOtp: {}", maskPhoneNumber(normalizedPhone));
       } catch (IllegalArgumentException e) {
         log.error("Phone normalization failed for phone: {}, error: {}", phone, e.getMessage());
         // Try with original phone number as fallback
         normalizedPhone = phone.replaceAll("[^0-9]", "");
-        log.info(
-            "DEBUG: Using fallback phone normalization in sendOtp - Original: {}, Fallback: {}",
-            phone,
-            normalizedPhone);
+        log.debug(
+            "Using fallback phone normalization in sendOtp: {}", maskPhoneNumber(normalizedPhone));
       }
 
       // Generate and send OTP
@@ -557,11 +524,7 @@ public class OtpService {
    */
   public boolean verifyOtp(String phone, String otp, String purpose) {
     try {
-      log.info(
-          "DEBUG: verifyOtp called - Original phone: {}, OTP: {}, Purpose: {}",
-          phone,
-          otp,
-          purpose);
+      log.debug("verifyOtp called - Phone: {}, Purpose: {}", maskPhoneNumber(phone), purpose);
 
       // Validate input parameters
       if (phone == null || phone.trim().isEmpty()) {
@@ -586,16 +549,12 @@ public class OtpService {
       String normalizedPhone;
       try {
         normalizedPhone = normalizePhoneNumber(phone);
-        log.info(
-            "DEBUG: Phone normalization - Original: {}, Normalized: {}", phone, normalizedPhone);
+        log.debug("Phone normalized: {}", maskPhoneNumber(normalizedPhone));
       } catch (IllegalArgumentException e) {
         log.error("Phone normalization failed for phone: {}, error: {}", phone, e.getMessage());
         // Try with original phone number as fallback
         normalizedPhone = phone.replaceAll("[^0-9]", "");
-        log.info(
-            "DEBUG: Using fallback phone normalization - Original: {}, Fallback: {}",
-            phone,
-            normalizedPhone);
+        log.debug("Using fallback phone normalization: {}", maskPhoneNumber(normalizedPhone));
       }
 
       // Validate OTP
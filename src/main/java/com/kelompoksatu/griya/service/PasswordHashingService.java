@@ -0,0 +1,145 @@
+package com.kelompoksatu.griya.service;
+
+import com.kelompoksatu.griya.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hash dan verifikasi password (BCrypt) di pool thread terpisah dari thread request Tomcat.
+ *
+ * <p>Jumlah thread sebanyak core CPU dengan antrian terbatas, sehingga lonjakan login hanya bisa
+ * memakai CPU sebanyak pool ini dan endpoint lain tetap dilayani. Jika antrian penuh, request
+ * langsung ditolak dengan {@link PasswordHashingBusyException} (429) daripada menunggu lama.
+ *
+ * <p>Metrics: {@code password.hash.queue.size}, {@code password.hash.active}, {@code
+ * password.hash.wait} (lama di antrian), {@code password.hash.duration} (lama hash, tag {@code
+ * operation}) dan {@code password.hash.rejected}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+  private final PasswordEncoder passwordEncoder;
+  private final MeterRegistry meterRegistry;
+
+  /** 0 berarti sebanyak core CPU */
+  @Value("${app.password-hash.threads:0}")
+  private int threads;
+
+  @Value("${app.password-hash.queue-capacity:32}")
+  private int queueCapacity;
+
+  private ThreadPoolExecutor executor;
+  private Timer waitTimer;
+  private Timer encodeTimer;
+  private Timer matchesTimer;
+  private Counter rejectedCounter;
+
+  @PostConstruct
+  public void init() {
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadNumber = new AtomicInteger();
+    executor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    Gauge.builder("password.hash.queue.size", executor, pool -> pool.getQueue().size())
+        .description("Password hashing tasks waiting for a thread")
+        .register(meterRegistry);
+    Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Password hashing tasks running")
+        .register(meterRegistry);
+    waitTimer =
+        Timer.builder("password.hash.wait")
+            .description("Time a password hashing task waited in the queue")
+            .register(meterRegistry);
+    encodeTimer = hashTimer("encode");
+    matchesTimer = hashTimer("matches");
+    rejectedCounter =
+        Counter.builder("password.hash.rejected")
+            .description("Password hashing tasks rejected because the queue was full")
+            .register(meterRegistry);
+    log.info("Password hashing pool started with {} threads, queue {}", poolSize, queueCapacity);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  public String encode(String rawPassword) {
+    return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+  }
+
+  public boolean matches(String rawPassword, String encodedPassword) {
+    return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+  }
+
+  private <T> T run(Timer hashTimer, Callable<T> task) {
+    long submittedAt = System.nanoTime();
+    Future<T> future;
+    try {
+      future =
+          executor.submit(
+              () -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(task);
+              });
+    } catch (RejectedExecutionException e) {
+      rejectedCounter.increment();
+      log.warn("Password hashing queue full ({} waiting), rejecting request", queueCapacity);
+      throw new PasswordHashingBusyException("Server sedang sibuk, silakan coba lagi sebentar");
+    }
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Password hashing interrupted", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+
+  private Timer hashTimer(String operation) {
+    return Timer.builder("password.hash.duration")
+        .description("Time to hash or verify one password")
+        .tag("operation", operation)
+        .register(meterRegistry);
+  }
+}
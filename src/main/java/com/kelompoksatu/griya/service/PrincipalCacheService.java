@@ -0,0 +1,127 @@
+package com.kelompoksatu.griya.service;
+
+import com.kelompoksatu.griya.dto.UserAuthState;
+import com.kelompoksatu.griya.repository.UserRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache di memori untuk status akun dan role per user id, dipakai filter JWT agar request
+ * terautentikasi tidak menyentuh database.
+ *
+ * <p>Entry berlaku paling lama {@code ttl-seconds} dan jumlahnya dibatasi {@code max-size}. User
+ * yang tidak ada juga di-cache agar token user terhapus tidak memicu query berulang. Perubahan user
+ * (suspend, hapus, ganti role, lock login) meng-invalidate entry setelah commit di semua node lewat
+ * Redis Pub/Sub; TTL membatasi data basi jika pesan invalidasi hilang.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PrincipalCacheService implements MessageListener {
+
+  private static final String INVALIDATE_CHANNEL = "auth:principal-invalidate";
+
+  private final UserRepository userRepository;
+  private final StringRedisTemplate stringRedisTemplate;
+  private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+  @Value("${app.principal-cache.ttl-seconds:60}")
+  private long ttlSeconds;
+
+  @Value("${app.principal-cache.max-size:10000}")
+  private int maxSize;
+
+  private final Map<Integer, CachedState> cache = new ConcurrentHashMap<>();
+
+  /** State user (null jika user tidak ada) dan waktu kedaluwarsa entry (epoch millis) */
+  private record CachedState(UserAuthState state, long expiresAt) {}
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+  }
+
+  /** Status dan role user; dimuat dari database hanya jika tidak ada di cache atau kedaluwarsa */
+  public Optional<UserAuthState> get(Integer userId) {
+    long now = System.currentTimeMillis();
+    CachedState cached = cache.get(userId);
+    if (cached != null && cached.expiresAt() > now) {
+      return Optional.ofNullable(cached.state());
+    }
+    UserAuthState state = userRepository.findAuthStateById(userId).orElse(null);
+    if (cache.size() >= maxSize) {
+      evict(now);
+    }
+    cache.put(userId, new CachedState(state, now + ttlSeconds * 1000));
+    return Optional.ofNullable(state);
+  }
+
+  /**
+   * Buang entry user di semua node. Dalam transaksi, pesan dikirim setelah commit agar node lain
+   * tidak memuat ulang state lama; entry lokal juga dibuang lagi setelah commit.
+   */
+  public void invalidate(Integer userId) {
+    if (userId == null) {
+      return;
+    }
+    cache.remove(userId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              publish(userId);
+            }
+          });
+    } else {
+      publish(userId);
+    }
+  }
+
+  /** Menerima invalidasi dari Pub/Sub (termasuk dari node ini sendiri) */
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    try {
+      cache.remove(Integer.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+    } catch (NumberFormatException e) {
+      log.warn("Invalid principal invalidation message: {}", e.getMessage());
+    }
+  }
+
+  private void publish(Integer userId) {
+    cache.remove(userId);
+    try {
+      stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, String.valueOf(userId));
+    } catch (Exception e) {
+      // Node lain memuat ulang setelah TTL habis
+      log.warn("Failed to publish principal invalidation for user {}: {}", userId, e.getMessage());
+    }
+  }
+
+  /** Buang entry kedaluwarsa; jika masih penuh, buang sebagian entry sembarang */
+  private void evict(long now) {
+    cache.values().removeIf(cached -> cached.expiresAt() <= now);
+    Iterator<Integer> iterator = cache.keySet().iterator();
+    int toRemove = cache.size() - maxSize + Math.max(maxSize / 10, 1);
+    while (toRemove-- > 0 && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kelompoksatu.griya.dto.*;
 import com.kelompoksatu.griya.entity.Developer;
+import com.kelompoksatu.griya.entity.KprRate;
 import com.kelompoksatu.griya.entity.Property;
 import com.kelompoksatu.griya.repository.DeveloperRepository;
 import com.kelompoksatu.griya.repository.PropertyImageRepository;
@@ -31,6 +32,7 @@ public class PropertyService {
   private final PropertyImageRepository propertyImageRepository;
   private final com.kelompoksatu.griya.repository.PropertyFeatureRepository
       propertyFeatureRepository;
+  private final InstallmentFactorService installmentFactorService;
 
   private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -39,11 +41,13 @@ public class PropertyService {
       PropertyRepository propertyRepository,
       DeveloperRepository developerRepository,
       PropertyImageRepository propertyImageRepository,
-      com.kelompoksatu.griya.repository.PropertyFeatureRepository propertyFeatureRepository) {
+      com.kelompoksatu.griya.repository.PropertyFeatureRepository propertyFeatureRepository,
+      InstallmentFactorService installmentFactorService) {
     this.propertyRepository = propertyRepository;
     this.developerRepository = developerRepository;
     this.propertyImageRepository = propertyImageRepository;
     this.propertyFeatureRepository = propertyFeatureRepository;
+    this.installmentFactorService = installmentFactorService;
   }
 
   // ========================================
@@ -779,8 +783,42 @@ public class PropertyService {
         mutableRow.remove("features_json");
       }
 
+      putInstallmentEstimate(mutableRow);
+
       processedRows.add(mutableRow);
     }
     return processedRows;
   }
+
+  /** Tambahkan "cicilan mulai dari" ke kartu listing dari tabel faktor cicilan di memori */
+  private void putInstallmentEstimate(Map<String, Object> row) {
+    if (Boolean.FALSE.equals(row.get("is_kpr_eligible"))
+        || !(row.get("price") instanceof BigDecimal price)) {
+      return;
+    }
+    Object minDp = row.get("min_down_payment_percent");
+    InstallmentFactorService.InstallmentEstimate estimate =
+        installmentFactorService.estimateStartingInstallment(
+            toRateFilter(row.get("property_type")),
+            price,
+            minDp instanceof BigDecimal dp ? dp : null);
+    if (estimate != null) {
+      row.put("estimatedMonthlyInstallment", estimate.monthlyInstallment());
+      row.put("estimatedLoanAmount", estimate.loanAmount());
+      row.put("estimatedTenorYears", estimate.tenorYears());
+      row.put("estimatedKprRateId", estimate.kprRateId());
+    }
+  }
+
+  private KprRate.PropertyTypeFilter toRateFilter(Object propertyType) {
+    if (propertyType == null) {
+      return KprRate.PropertyTypeFilter.ALL;
+    }
+    try {
+      return KprRate.PropertyTypeFilter.valueOf(propertyType.toString().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      // Tipe lain (tanah, villa, ...) hanya dilayani rate dengan propertyType ALL
+      return KprRate.PropertyTypeFilter.ALL;
+    }
+  }
 }
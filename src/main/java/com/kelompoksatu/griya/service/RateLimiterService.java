@@ -0,0 +1,114 @@
+package com.kelompoksatu.griya.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rate limiter terdistribusi dengan algoritma GCRA (token bucket) di Redis.
+ *
+ * <p>Setiap key hanya menyimpan satu nilai, "theoretical arrival time" (TAT), dan pengecekan plus
+ * update dilakukan dalam satu script Lua (satu round trip, atomik, TTL selalu terpasang). Waktu
+ * diambil dari Redis agar semua node memakai jam yang sama.
+ *
+ * <p>Client yang ditolak dicatat di memori sampai waktu retry-nya, sehingga request berikutnya dari
+ * client yang jelas melewati batas langsung ditolak tanpa menyentuh Redis.
+ */
+@Service
+@RequiredArgsConstructor
+public class RateLimiterService {
+
+  private static final String KEY_PREFIX = "ratelimit:";
+
+  /**
+   * ARGV: interval emisi (ms per token), kapasitas burst. Return: {allowed, remaining, retry after
+   * ms}.
+   */
+  @SuppressWarnings("rawtypes")
+  private static final DefaultRedisScript<List> GCRA_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.replicate_commands then redis.replicate_commands() end "
+              + "local t = redis.call('TIME') "
+              + "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) "
+              + "local interval = tonumber(ARGV[1]) "
+              + "local tolerance = interval * tonumber(ARGV[2]) "
+              + "local tat = tonumber(redis.call('GET', KEYS[1])) or now "
+              + "if tat < now then tat = now end "
+              + "local newTat = tat + interval "
+              + "local allowAt = newTat - tolerance "
+              + "if now < allowAt then return {0, 0, allowAt - now} end "
+              + "redis.call('SET', KEYS[1], newTat, 'PX', newTat - now) "
+              + "return {1, math.floor((now - allowAt) / interval), 0}",
+          List.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  @Value("${app.rate-limit.local-cache-max-size:10000}")
+  private int localCacheMaxSize;
+
+  /** Key -> epoch millis sampai kapan client pasti masih ditolak */
+  private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+  /**
+   * Hasil pengecekan rate limit.
+   *
+   * @param allowed request boleh diproses
+   * @param remaining sisa request yang masih boleh dalam burst saat ini
+   * @param retryAfterMillis jika ditolak, waktu tunggu sampai request berikutnya diizinkan
+   */
+  public record Decision(boolean allowed, long remaining, long retryAfterMillis) {}
+
+  /**
+   * Ambil satu token untuk key ini. Batas {@code limit} request per {@code period}, dengan burst
+   * hingga {@code limit} request sekaligus.
+   */
+  public Decision tryAcquire(String key, int limit, Duration period) {
+    if (limit <= 0 || period.isZero() || period.isNegative()) {
+      throw new IllegalArgumentException("Limit dan periode rate limit harus lebih dari 0");
+    }
+    String redisKey = KEY_PREFIX + key;
+    long now = System.currentTimeMillis();
+    Long localBlock = blockedUntil.get(redisKey);
+    if (localBlock != null) {
+      if (localBlock > now) {
+        return new Decision(false, 0, localBlock - now);
+      }
+      blockedUntil.remove(redisKey, localBlock);
+    }
+
+    long intervalMillis = Math.max(period.toMillis() / limit, 1);
+    List<?> result =
+        stringRedisTemplate.execute(
+            GCRA_SCRIPT, List.of(redisKey), String.valueOf(intervalMillis), String.valueOf(limit));
+    if (result == null || result.size() < 3) {
+      throw new IllegalStateException("Unexpected rate limit script result: " + result);
+    }
+    boolean allowed = toLong(result.get(0)) == 1;
+    long remaining = toLong(result.get(1));
+    long retryAfterMillis = toLong(result.get(2));
+    if (!allowed) {
+      rememberBlocked(redisKey, now + retryAfterMillis, now);
+    }
+    return new Decision(allowed, remaining, retryAfterMillis);
+  }
+
+  private void rememberBlocked(String redisKey, long until, long now) {
+    if (blockedUntil.size() >= localCacheMaxSize) {
+      blockedUntil.values().removeIf(blockedTime -> blockedTime <= now);
+      if (blockedUntil.size() >= localCacheMaxSize) {
+        return;
+      }
+    }
+    blockedUntil.put(redisKey, until);
+  }
+
+  private static long toLong(Object value) {
+    return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+  }
+}
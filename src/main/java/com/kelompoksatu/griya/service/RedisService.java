@@ -3,11 +3,14 @@ package com.kelompoksatu.griya.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Duration;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
 /**
@@ -25,8 +28,42 @@ import org.springframework.stereotype.Service;
 public class RedisService {
 
   private final RedisTemplate<String, Object> redisTemplate;
+  private final StringRedisTemplate stringRedisTemplate;
   private final ObjectMapper objectMapper;
 
+  /**
+   * KEYS: OTP, counter percobaan. ARGV: OTP input, batas percobaan, TTL counter (detik). Return:
+   * {status, percobaan} dengan status 1 valid, 0 salah, -1 batas tercapai, -2 OTP tidak ada. Nilai
+   * OTP disimpan sebagai JSON string oleh {@link #storeOtp}, jadi di-decode dulu.
+   */
+  @SuppressWarnings("rawtypes")
+  private static final DefaultRedisScript<List> VERIFY_OTP_SCRIPT =
+      new DefaultRedisScript<>(
+          "local attempts = tonumber(redis.call('GET', KEYS[2])) or 0 "
+              + "if attempts >= tonumber(ARGV[2]) then return {-1, attempts} end "
+              + "attempts = redis.call('INCR', KEYS[2]) "
+              + "if redis.call('TTL', KEYS[2]) < 0 then redis.call('EXPIRE', KEYS[2], ARGV[3]) end "
+              + "local stored = redis.call('GET', KEYS[1]) "
+              + "if not stored then return {-2, attempts} end "
+              + "if string.sub(stored, 1, 1) == '\"' then stored = cjson.decode(stored) end "
+              + "local input = ARGV[1] "
+              + "local diff = bit.bxor(#stored, #input) "
+              + "for i = 1, #input do "
+              + "diff = bit.bor(diff, bit.bxor(string.byte(input, i), string.byte(stored, i) or 0)) "
+              + "end "
+              + "if diff ~= 0 then return {0, attempts} end "
+              + "redis.call('DEL', KEYS[1], KEYS[2]) "
+              + "return {1, attempts}",
+          List.class);
+
+  /** INCR lalu pasang TTL jika key belum punya TTL (key baru atau TTL hilang) */
+  private static final DefaultRedisScript<Long> INCREMENT_WITH_TTL_SCRIPT =
+      new DefaultRedisScript<>(
+          "local count = redis.call('INCR', KEYS[1]) "
+              + "if redis.call('TTL', KEYS[1]) < 0 then redis.call('EXPIRE', KEYS[1], ARGV[1]) end "
+              + "return count",
+          Long.class);
+
   // Prefix untuk berbagai jenis data
   private static final String OTP_PREFIX = "otp:";
   private static final String SESSION_PREFIX = "session:";
@@ -50,6 +87,26 @@ public class RedisService {
     }
   }
 
+  /**
+   * Menyimpan data hanya jika key belum ada (SET NX) dengan TTL
+   *
+   * @param key Key untuk data
+   * @param value Value yang akan disimpan
+   * @param ttl Time to live dalam detik
+   * @return true jika key berhasil dibuat, false jika key sudah ada
+   */
+  public boolean setIfAbsent(String key, Object value, long ttl) {
+    try {
+      Boolean created =
+          redisTemplate.opsForValue().setIfAbsent(key, value, Duration.ofSeconds(ttl));
+      log.debug("SET NX untuk key: {} -> {}", key, created);
+      return Boolean.TRUE.equals(created);
+    } catch (Exception e) {
+      log.error("Gagal SET NX ke Redis dengan key: {}", key, e);
+      throw new RuntimeException("Failed to store data in Redis", e);
+    }
+  }
+
   /**
    * Menyimpan data ke Redis tanpa TTL (permanent)
    *
@@ -194,32 +251,49 @@ public class RedisService {
     log.info("OTP disimpan untuk identifier: {} dengan TTL: {} menit", identifier, ttlMinutes);
   }
 
+  /** Hasil verifikasi OTP */
+  public enum OtpStatus {
+    VALID,
+    INVALID,
+    NOT_FOUND,
+    MAX_ATTEMPTS
+  }
+
   /**
-   * Validasi OTP
+   * @param status hasil verifikasi
+   * @param attempts jumlah percobaan untuk OTP ini, termasuk percobaan sekarang
+   */
+  public record OtpVerification(OtpStatus status, long attempts) {}
+
+  /**
+   * Verifikasi OTP dalam satu round trip: cek batas percobaan, tambah counter percobaan, bandingkan
+   * OTP (constant time) lalu hapus OTP dan counter jika cocok, semuanya atomik di satu script Lua.
    *
-   * @param identifier Identifier (email/phone)
+   * @param identifier Identifier (phone:purpose)
    * @param otp Kode OTP yang akan divalidasi
-   * @return true jika OTP valid
+   * @param maxAttempts Batas percobaan sebelum OTP diblokir
+   * @param ttlMinutes TTL counter percobaan dalam menit
+   * @return status verifikasi dan jumlah percobaan
    */
-  public boolean validateOtp(String identifier, String otp) {
-    String key = OTP_PREFIX + identifier;
-    String storedOtp = get(key, String.class);
-
-    if (storedOtp == null) {
-      log.warn("OTP tidak ditemukan atau sudah expired untuk identifier: {}", identifier);
-      return false;
-    }
-
-    boolean isValid = storedOtp.equals(otp);
-    if (isValid) {
-      // Hapus OTP setelah berhasil divalidasi
-      delete(key);
-      log.info("OTP berhasil divalidasi untuk identifier: {}", identifier);
-    } else {
-      log.warn("OTP tidak valid untuk identifier: {}", identifier);
+  public OtpVerification verifyOtp(String identifier, String otp, int maxAttempts, int ttlMinutes) {
+    List<?> result =
+        stringRedisTemplate.execute(
+            VERIFY_OTP_SCRIPT,
+            List.of(OTP_PREFIX + identifier, RATE_LIMIT_PREFIX + identifier),
+            otp,
+            String.valueOf(maxAttempts),
+            String.valueOf(ttlMinutes * 60L));
+    if (result == null || result.size() < 2) {
+      throw new IllegalStateException("Unexpected OTP verification result: " + result);
     }
-
-    return isValid;
+    OtpStatus status =
+        switch (((Number) result.get(0)).intValue()) {
+          case 1 -> OtpStatus.VALID;
+          case -1 -> OtpStatus.MAX_ATTEMPTS;
+          case -2 -> OtpStatus.NOT_FOUND;
+          default -> OtpStatus.INVALID;
+        };
+    return new OtpVerification(status, ((Number) result.get(1)).longValue());
   }
 
   /**
@@ -304,12 +378,10 @@ public class RedisService {
    */
   public long incrementRateLimit(String identifier, int windowMinutes) {
     String key = RATE_LIMIT_PREFIX + identifier;
-    Long count = redisTemplate.opsForValue().increment(key);
-
-    if (count != null && count == 1) {
-      // Set TTL hanya untuk key baru
-      expire(key, windowMinutes * 60L);
-    }
+    // INCR dan EXPIRE dalam satu script: satu round trip dan key tidak pernah tertinggal tanpa TTL
+    Long count =
+        stringRedisTemplate.execute(
+            INCREMENT_WITH_TTL_SCRIPT, List.of(key), String.valueOf(windowMinutes * 60L));
 
     return count != null ? count : 0;
   }
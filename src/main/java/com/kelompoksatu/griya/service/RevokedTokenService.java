@@ -0,0 +1,192 @@
+package com.kelompoksatu.griya.service;
+
+import com.kelompoksatu.griya.util.BloomFilter;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+/**
+ * Denylist sesi yang sudah di-revoke (logout, logout semua perangkat, hapus user) agar access token
+ * sesi tersebut langsung ditolak sebelum kedaluwarsa.
+ *
+ * <p>Sumber kebenaran adalah sorted set Redis {@code revoked-sessions} (member id sesi, score waktu
+ * revoke); entry lebih tua dari masa berlaku access token dibuang karena semua token-nya sudah
+ * kedaluwarsa. Setiap node menyimpan replika berupa Bloom filter per bucket waktu di memori, diisi
+ * dari sorted set saat start dan secara berkala, serta diperbarui lewat Redis Pub/Sub. Bucket yang
+ * lebih tua dari masa berlaku access token dibuang utuh, sehingga filter tidak pernah penuh.
+ *
+ * <p>Pengecekan per request cukup membaca Bloom filter tanpa network call. Hanya jika filter
+ * menjawab "mungkin" (revoke sungguhan atau false positive ~1%) dilakukan lookup eksak ke Redis.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RevokedTokenService implements MessageListener {
+
+  private static final String REVOKED_KEY = "revoked-sessions";
+  private static final String REVOKED_CHANNEL = "auth:revoked-sessions";
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+  /** Masa berlaku access token (ms); selama itu sesi yang di-revoke harus tetap ditolak */
+  @Value("${jwt.access.expiration}")
+  private long accessTokenExpirationMs;
+
+  @Value("${app.revoked-tokens.bucket-seconds:300}")
+  private long bucketSeconds;
+
+  /** Kapasitas tiap bucket; melebihi ini false positive rate naik, tidak pernah false negative */
+  @Value("${app.revoked-tokens.expected-per-bucket:10000}")
+  private int expectedPerBucket;
+
+  @Value("${app.revoked-tokens.false-positive-rate:0.01}")
+  private double falsePositiveRate;
+
+  /** Interval pengisian ulang dari Redis untuk menambal pesan Pub/Sub yang hilang */
+  @Value("${app.revoked-tokens.resync-seconds:60}")
+  private long resyncSeconds;
+
+  /** Index bucket (waktu revoke / lebar bucket) -> Bloom filter */
+  private final Map<Long, BloomFilter> buckets = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService resyncExecutor;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    // Subscribe dulu agar revoke selama pengisian awal tidak terlewat
+    redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(REVOKED_CHANNEL));
+    resyncExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "revoked-tokens-resync");
+              thread.setDaemon(true);
+              return thread;
+            });
+    resyncExecutor.scheduleWithFixedDelay(this::resync, 0, resyncSeconds, TimeUnit.SECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (resyncExecutor != null) {
+      resyncExecutor.shutdownNow();
+    }
+  }
+
+  /** Revoke sesi-sesi tersebut di semua node */
+  public void revokeSessions(Collection<String> sessionIds) {
+    if (sessionIds == null || sessionIds.isEmpty()) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    for (String sessionId : sessionIds) {
+      add(sessionId, now);
+    }
+    try {
+      for (String sessionId : sessionIds) {
+        stringRedisTemplate.opsForZSet().add(REVOKED_KEY, sessionId, now);
+        stringRedisTemplate.convertAndSend(REVOKED_CHANNEL, sessionId + "|" + now);
+      }
+      stringRedisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, 0, cutoff(now));
+    } catch (Exception e) {
+      log.warn("Failed to publish revoked sessions: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Apakah sesi token ini sudah di-revoke. Tanpa network call kecuali Bloom filter positif; jika
+   * lookup eksak gagal, token dianggap revoked (fail closed).
+   */
+  public boolean isRevoked(String sessionId) {
+    if (sessionId == null) {
+      return false;
+    }
+    long now = System.currentTimeMillis();
+    long oldestBucket = bucketOf(cutoff(now));
+    boolean maybeRevoked = false;
+    for (Map.Entry<Long, BloomFilter> bucket : buckets.entrySet()) {
+      if (bucket.getKey() >= oldestBucket && bucket.getValue().mightContain(sessionId)) {
+        maybeRevoked = true;
+        break;
+      }
+    }
+    if (!maybeRevoked) {
+      return false;
+    }
+    try {
+      Double revokedAt = stringRedisTemplate.opsForZSet().score(REVOKED_KEY, sessionId);
+      return revokedAt != null && revokedAt > cutoff(now);
+    } catch (Exception e) {
+      log.warn("Failed to check revoked session {}: {}", sessionId, e.getMessage());
+      return true;
+    }
+  }
+
+  /** Menerima revoke dari Pub/Sub (termasuk dari node ini sendiri) */
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+    int separator = body.lastIndexOf('|');
+    try {
+      add(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+    } catch (RuntimeException e) {
+      log.warn("Invalid revoked session message: {}", body);
+    }
+  }
+
+  /** Tambahkan revoke yang masih berlaku dari Redis dan buang bucket kedaluwarsa */
+  private void resync() {
+    try {
+      long now = System.currentTimeMillis();
+      Set<TypedTuple<String>> revoked =
+          stringRedisTemplate
+              .opsForZSet()
+              .rangeByScoreWithScores(REVOKED_KEY, cutoff(now), Double.POSITIVE_INFINITY);
+      if (revoked != null) {
+        for (TypedTuple<String> entry : revoked) {
+          if (entry.getValue() != null && entry.getScore() != null) {
+            add(entry.getValue(), entry.getScore().longValue());
+          }
+        }
+      }
+      long oldestBucket = bucketOf(cutoff(now));
+      buckets.keySet().removeIf(bucket -> bucket < oldestBucket);
+    } catch (Exception e) {
+      log.warn("Failed to resync revoked sessions: {}", e.getMessage());
+    }
+  }
+
+  private void add(String sessionId, long revokedAt) {
+    buckets
+        .computeIfAbsent(
+            bucketOf(revokedAt), key -> new BloomFilter(expectedPerBucket, falsePositiveRate))
+        .put(sessionId);
+  }
+
+  private long bucketOf(long timeMillis) {
+    return timeMillis / TimeUnit.SECONDS.toMillis(bucketSeconds);
+  }
+
+  /** Revoke sebelum waktu ini sudah tidak relevan: semua access token-nya sudah kedaluwarsa */
+  private long cutoff(long now) {
+    return now - accessTokenExpirationMs;
+  }
+}
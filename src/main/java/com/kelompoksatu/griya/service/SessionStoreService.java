@@ -0,0 +1,286 @@
+package com.kelompoksatu.griya.service;
+
+import com.kelompoksatu.griya.entity.SessionStatus;
+import com.kelompoksatu.griya.entity.UserSession;
+import com.kelompoksatu.griya.repository.UserSessionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Penyimpanan sesi login (refresh token) di Redis.
+ *
+ * <p>Setiap sesi aktif adalah hash {@code session:{userId}:<hash refresh token>} dengan TTL sama
+ * dengan masa berlaku refresh token, sehingga sesi kedaluwarsa terhapus sendiri tanpa job
+ * pembersihan. Set {@code sessions:{userId}} berisi hash token semua sesi user untuk logout dari
+ * semua perangkat; hash tag {@code {userId}} menjaga semua key user di slot yang sama. Rotasi,
+ * revoke dan revoke semua masing-masing satu script Lua (satu round trip, atomik). Sesi yang
+ * di-revoke juga didaftarkan ke {@link RevokedTokenService} agar access token-nya ikut ditolak.
+ *
+ * <p>Tabel user_sessions hanya menjadi jejak audit yang ditulis asinkron dan tidak pernah dibaca
+ * untuk autentikasi; kegagalan menulis audit tidak menggagalkan login.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SessionStoreService {
+
+  /** Pindahkan sesi ke hash token baru; kembalikan id sesi atau nil jika sesi tidak aktif */
+  private static final DefaultRedisScript<String> ROTATE_SCRIPT =
+      new DefaultRedisScript<>(
+          "local id = redis.call('HGET', KEYS[1], 'id') "
+              + "if not id then return nil end "
+              + "redis.call('RENAME', KEYS[1], KEYS[2]) "
+              + "redis.call('HSET', KEYS[2], 'ipAddress', ARGV[3], 'userAgent', ARGV[4], "
+              + "'lastActivity', ARGV[5]) "
+              + "redis.call('EXPIRE', KEYS[2], ARGV[6]) "
+              + "redis.call('SREM', KEYS[3], ARGV[1]) "
+              + "redis.call('SADD', KEYS[3], ARGV[2]) "
+              + "redis.call('EXPIRE', KEYS[3], ARGV[6]) "
+              + "return id",
+          String.class);
+
+  /** Hapus satu sesi; kembalikan id sesi atau nil */
+  private static final DefaultRedisScript<String> REVOKE_SCRIPT =
+      new DefaultRedisScript<>(
+          "local id = redis.call('HGET', KEYS[1], 'id') "
+              + "redis.call('DEL', KEYS[1]) "
+              + "redis.call('SREM', KEYS[2], ARGV[1]) "
+              + "return id",
+          String.class);
+
+  /** Hapus semua sesi user; kembalikan id sesi yang dihapus */
+  @SuppressWarnings("rawtypes")
+  private static final DefaultRedisScript<List> REVOKE_ALL_SCRIPT =
+      new DefaultRedisScript<>(
+          "local ids = {} "
+              + "for _, hash in ipairs(redis.call('SMEMBERS', KEYS[1])) do "
+              + "local key = ARGV[1] .. hash "
+              + "local id = redis.call('HGET', key, 'id') "
+              + "if id then table.insert(ids, id) end "
+              + "redis.call('DEL', key) "
+              + "end "
+              + "redis.call('DEL', KEYS[1]) "
+              + "return ids",
+          List.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final UserSessionRepository userSessionRepository;
+  private final RevokedTokenService revokedTokenService;
+
+  /** Masa berlaku refresh token (ms); TTL sesi mengikuti nilai ini */
+  @Value("${jwt.expiration}")
+  private Long refreshTokenExpirationMs;
+
+  @Value("${app.session-store.audit-queue-capacity:1000}")
+  private int auditQueueCapacity;
+
+  private ExecutorService auditExecutor;
+
+  @PostConstruct
+  public void init() {
+    // Audit yang tidak muat di antrian dibuang; Redis tetap sumber kebenaran sesi
+    auditExecutor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(auditQueueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "session-audit");
+              thread.setDaemon(true);
+              return thread;
+            },
+            (runnable, executor) -> log.warn("Session audit queue full, dropping audit write"));
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (auditExecutor != null) {
+      auditExecutor.shutdown();
+    }
+  }
+
+  /** Id sesi baru; dibuat sebelum token diterbitkan karena token membawa id sesi (claim sid) */
+  public String newSessionId() {
+    return UUID.randomUUID().toString();
+  }
+
+  /** Buat sesi baru untuk refresh token yang baru diterbitkan */
+  public void create(
+      String sessionId,
+      Integer userId,
+      String refreshTokenHash,
+      String ipAddress,
+      String userAgent) {
+    String now = LocalDateTime.now().toString();
+    String sessionKey = sessionKey(userId, refreshTokenHash);
+    String userKey = userSessionsKey(userId);
+    long ttlSeconds = ttlSeconds();
+    stringRedisTemplate.executePipelined(
+        (RedisCallback<Object>)
+            connection -> {
+              StringRedisConnection redis = (StringRedisConnection) connection;
+              redis.hMSet(
+                  sessionKey,
+                  Map.of(
+                      "id",
+                      sessionId,
+                      "userId",
+                      String.valueOf(userId),
+                      "ipAddress",
+                      nullToEmpty(ipAddress),
+                      "userAgent",
+                      nullToEmpty(userAgent),
+                      "createdAt",
+                      now,
+                      "lastActivity",
+                      now));
+              redis.expire(sessionKey, ttlSeconds);
+              redis.sAdd(userKey, refreshTokenHash);
+              redis.expire(userKey, ttlSeconds);
+              return null;
+            });
+
+    audit(
+        () -> {
+          UserSession session = new UserSession();
+          session.setId(sessionId);
+          session.setUserId(userId);
+          session.setIpAddress(nullToEmpty(ipAddress));
+          session.setUserAgent(nullToEmpty(userAgent));
+          session.setPayload(Map.of("loginTime", now).toString());
+          session.setLastActivity(LocalDateTime.now());
+          session.setCreatedAt(LocalDateTime.now());
+          session.setRefreshToken(refreshTokenHash);
+          session.setStatus(SessionStatus.ACTIVE);
+          userSessionRepository.save(session);
+        });
+  }
+
+  /**
+   * Ganti refresh token sesi secara atomik. Refresh token lama langsung tidak berlaku.
+   *
+   * @return false jika sesi untuk token lama tidak ada (kedaluwarsa, logout atau sudah dirotasi)
+   */
+  public boolean rotate(
+      Integer userId,
+      String oldRefreshTokenHash,
+      String newRefreshTokenHash,
+      String ipAddress,
+      String userAgent) {
+    String sessionId =
+        stringRedisTemplate.execute(
+            ROTATE_SCRIPT,
+            List.of(
+                sessionKey(userId, oldRefreshTokenHash),
+                sessionKey(userId, newRefreshTokenHash),
+                userSessionsKey(userId)),
+            oldRefreshTokenHash,
+            newRefreshTokenHash,
+            nullToEmpty(ipAddress),
+            nullToEmpty(userAgent),
+            LocalDateTime.now().toString(),
+            String.valueOf(ttlSeconds()));
+    if (sessionId == null) {
+      return false;
+    }
+    audit(
+        () ->
+            userSessionRepository
+                .findById(sessionId)
+                .ifPresent(
+                    session -> {
+                      session.setRefreshToken(newRefreshTokenHash);
+                      session.setIpAddress(nullToEmpty(ipAddress));
+                      session.setUserAgent(nullToEmpty(userAgent));
+                      session.setLastActivity(LocalDateTime.now());
+                      session.setStatus(SessionStatus.ACTIVE);
+                      userSessionRepository.save(session);
+                    }));
+    return true;
+  }
+
+  /** Logout satu sesi */
+  public void revoke(Integer userId, String refreshTokenHash) {
+    String sessionId =
+        stringRedisTemplate.execute(
+            REVOKE_SCRIPT,
+            List.of(sessionKey(userId, refreshTokenHash), userSessionsKey(userId)),
+            refreshTokenHash);
+    if (sessionId != null) {
+      revokedTokenService.revokeSessions(List.of(sessionId));
+      auditRevoked(List.of(sessionId));
+    }
+  }
+
+  /** Logout dari semua perangkat */
+  @SuppressWarnings("unchecked")
+  public int revokeAll(Integer userId) {
+    List<String> sessionIds =
+        stringRedisTemplate.execute(
+            REVOKE_ALL_SCRIPT, List.of(userSessionsKey(userId)), "session:{" + userId + "}:");
+    if (sessionIds == null || sessionIds.isEmpty()) {
+      return 0;
+    }
+    revokedTokenService.revokeSessions(sessionIds);
+    auditRevoked(sessionIds);
+    return sessionIds.size();
+  }
+
+  private void auditRevoked(List<String> sessionIds) {
+    audit(
+        () ->
+            userSessionRepository
+                .findAllById(sessionIds)
+                .forEach(
+                    session -> {
+                      session.setStatus(SessionStatus.REVOKED);
+                      session.setLastActivity(LocalDateTime.now());
+                      userSessionRepository.save(session);
+                    }));
+  }
+
+  private void audit(Runnable write) {
+    auditExecutor.execute(
+        () -> {
+          try {
+            write.run();
+          } catch (Exception e) {
+            log.warn("Failed to write session audit: {}", e.getMessage());
+          }
+        });
+  }
+
+  private long ttlSeconds() {
+    return Math.max(TimeUnit.MILLISECONDS.toSeconds(refreshTokenExpirationMs), 1);
+  }
+
+  private static String sessionKey(Integer userId, String refreshTokenHash) {
+    return "session:{" + userId + "}:" + refreshTokenHash;
+  }
+
+  private static String userSessionsKey(Integer userId) {
+    return "sessions:{" + userId + "}";
+  }
+
+  private static String nullToEmpty(String value) {
+    return value != null ? value : "";
+  }
+}
@@ -8,10 +8,13 @@ import com.kelompoksatu.griya.dto.AdminStatsResponse.ProcessingFunnelItem;
 import com.kelompoksatu.griya.dto.AdminStatsResponse.Summary;
 import com.kelompoksatu.griya.dto.AdminStatsResponse.UserRegistered;
 import com.kelompoksatu.griya.dto.AdminStatsResponse.UserRegisteredItem;
-import com.kelompoksatu.griya.entity.KprApplication;
 import com.kelompoksatu.griya.entity.KprApplication.ApplicationStatus;
-import com.kelompoksatu.griya.entity.User;
+import com.kelompoksatu.griya.repository.DashboardAggregates.KpiComparison;
 import com.kelompoksatu.griya.repository.StatAdminRepository;
+import com.kelompoksatu.griya.repository.StatAdminRepositoryCustom.DashboardTotals;
+import com.kelompoksatu.griya.repository.StatAdminRepositoryCustom.MonthlyStatusTotal;
+import com.kelompoksatu.griya.util.QueryFanOut;
+import com.kelompoksatu.griya.util.QueryFanOut.Subtask;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
@@ -22,7 +25,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -32,32 +35,41 @@ import org.springframework.stereotype.Service;
 public class StatAdminService {
 
   private final StatAdminRepository repo;
-  private final RedisService redisService;
-  private static final int DASHBOARD_TTL_MINUTES = 5;
+  private final DashboardCacheService dashboardCacheService;
+  private final QueryFanOut queryFanOut;
+  private final CustomerSketchService customerSketchService;
+
+  /** Hasil query rollup yang dibutuhkan dashboard admin */
+  private record AdminRollups(DashboardTotals dashboard, Map<YearMonth, Integer> registrations) {}
 
   public AdminStatsResponse getDashboard(String rangeStr) {
     Range range = parseRange(rangeStr);
-    String rangeKey = canonicalRangeString(range);
+    return dashboardCacheService.get(
+        "dashboard:admin:dto:" + canonicalRangeString(range),
+        AdminStatsResponse.class,
+        () -> computeDashboard(range, rangeStr));
+  }
 
-    AdminStatsResponse cached =
-        redisService.getCache("dashboard:admin:dto:" + rangeKey, AdminStatsResponse.class);
-    if (cached != null) {
-      return cached;
-    }
+  private AdminStatsResponse computeDashboard(Range range, String rangeStr) {
     LocalDateTime end = LocalDate.now().atStartOfDay().plusDays(1);
     LocalDateTime start = computeStart(range, end);
 
-    long approved = repo.countApprovedBetween(start, end);
-    long rejected = repo.countRejectedBetween(start, end);
-    long pending = repo.countPendingBetween(start, end);
-    long customers = repo.countDistinctCustomersBetween(start, end);
-
-    LocalDateTime prevEnd = start;
-    LocalDateTime prevStart = computePreviousStart(range, start);
-    long prevApproved = repo.countApprovedBetween(prevStart, prevEnd);
-    long prevRejected = repo.countRejectedBetween(prevStart, prevEnd);
-    long prevPending = repo.countPendingBetween(prevStart, prevEnd);
-    long prevCustomers = repo.countDistinctCustomersBetween(prevStart, prevEnd);
+    // Semua angka dibaca dari rollup harian stats_daily_*
+    LocalDate startDate = start.toLocalDate();
+    LocalDate endDate = end.toLocalDate();
+    LocalDate prevStartDate = computePreviousStart(range, start).toLocalDate();
+    AdminRollups rollups = loadRollups(prevStartDate, startDate, endDate);
+    DashboardTotals dashboard = rollups.dashboard();
+    List<MonthlyStatusTotal> totals = dashboard.monthlyTotals();
+    KpiComparison kpis = dashboard.kpis();
+    long approved = kpis.approved();
+    long rejected = kpis.rejected();
+    long pending = kpis.pending();
+    long customers = kpis.customers();
+    long prevApproved = kpis.prevApproved();
+    long prevRejected = kpis.prevRejected();
+    long prevPending = kpis.prevPending();
+    long prevCustomers = kpis.prevCustomers();
 
     Summary summary = new Summary();
     Summary.SummaryItem approvedItem = new Summary.SummaryItem();
@@ -78,18 +90,10 @@ public class StatAdminService {
     summary.setPending(pendingItem);
     summary.setCustomers(customersItem);
 
-    // Load entities for aggregation
-    List<KprApplication> apps = repo.findApplicationsBetween(start, end);
-    List<User> users = repo.findUsersCreatedBetween(start, end);
-
-    // Monthly labels
-    LocalDate startDate = start.toLocalDate();
-    LocalDate endDate = end.toLocalDate();
-
-    List<GrowthAndDemandItem> growth = buildGrowthAndDemand(apps, startDate, endDate);
-    OutstandingLoan ol = buildOutstandingLoan(apps, startDate, endDate);
-    List<ProcessingFunnelItem> funnel = buildProcessingFunnel(apps);
-    UserRegistered ur = buildUserRegistered(users, startDate, endDate);
+    List<GrowthAndDemandItem> growth = buildGrowthAndDemand(totals, startDate, endDate);
+    OutstandingLoan ol = buildOutstandingLoan(totals, startDate, endDate);
+    List<ProcessingFunnelItem> funnel = buildProcessingFunnel(totals);
+    UserRegistered ur = buildUserRegistered(rollups.registrations(), startDate, endDate);
 
     AdminStatsResponse resp = new AdminStatsResponse();
     resp.setRange(rangeStr);
@@ -98,33 +102,48 @@ public class StatAdminService {
     resp.setOutstandingLoan(ol);
     resp.setProcessingFunnel(funnel);
     resp.setUserRegistered(ur);
-    redisService.cache("dashboard:admin:dto:" + rangeKey, resp, DASHBOARD_TTL_MINUTES);
     return resp;
   }
 
+  @SuppressWarnings("unchecked")
   public java.util.Map<String, Object> getDashboardStructured(String rangeStr) {
     Range range = parseRange(rangeStr);
-    String rangeKey = canonicalRangeString(range);
+    return dashboardCacheService.get(
+        "dashboard:admin:structured:" + canonicalRangeString(range),
+        java.util.Map.class,
+        () -> computeDashboardStructured(range));
+  }
 
-    java.util.Map<String, Object> cached =
-        redisService.getCache("dashboard:admin:structured:" + rangeKey, java.util.Map.class);
-    if (cached != null) {
-      return cached;
-    }
+  /** Dashboard terstruktur langsung dari rollup tanpa cache, dihitung saat snapshot live basi */
+  public java.util.Map<String, Object> getDashboardStructuredUncached(String rangeStr) {
+    return computeDashboardStructured(parseRange(rangeStr));
+  }
+
+  /** Key cache snapshot stream live (dashboard + watermark event) */
+  public String liveSnapshotKey(String rangeStr) {
+    return "dashboard:live:admin:" + canonicalRangeString(parseRange(rangeStr));
+  }
+
+  private java.util.Map<String, Object> computeDashboardStructured(Range range) {
     LocalDateTime end = LocalDate.now().atStartOfDay().plusDays(1);
     LocalDateTime start = computeStart(range, end);
 
-    long approved = repo.countApprovedBetween(start, end);
-    long rejected = repo.countRejectedBetween(start, end);
-    long pending = repo.countPendingBetween(start, end);
-    long customers = repo.countDistinctCustomersBetween(start, end);
-
-    LocalDateTime prevEnd = start;
-    LocalDateTime prevStart = computePreviousStart(range, start);
-    long prevApproved = repo.countApprovedBetween(prevStart, prevEnd);
-    long prevRejected = repo.countRejectedBetween(prevStart, prevEnd);
-    long prevPending = repo.countPendingBetween(prevStart, prevEnd);
-    long prevCustomers = repo.countDistinctCustomersBetween(prevStart, prevEnd);
+    // Semua angka dibaca dari rollup harian stats_daily_*
+    LocalDate startDate = start.toLocalDate();
+    LocalDate endDate = end.toLocalDate();
+    LocalDate prevStartDate = computePreviousStart(range, start).toLocalDate();
+    AdminRollups rollups = loadRollups(prevStartDate, startDate, endDate);
+    DashboardTotals dashboard = rollups.dashboard();
+    List<MonthlyStatusTotal> totals = dashboard.monthlyTotals();
+    KpiComparison kpis = dashboard.kpis();
+    long approved = kpis.approved();
+    long rejected = kpis.rejected();
+    long pending = kpis.pending();
+    long customers = kpis.customers();
+    long prevApproved = kpis.prevApproved();
+    long prevRejected = kpis.prevRejected();
+    long prevPending = kpis.prevPending();
+    long prevCustomers = kpis.prevCustomers();
 
     java.util.Map<String, Object> kpi = new java.util.LinkedHashMap<>();
     java.util.Map<String, Object> kApproved = new java.util.LinkedHashMap<>();
@@ -144,10 +163,7 @@ public class StatAdminService {
     kpi.put("pending", kPending);
     kpi.put("customers", kCustomers);
 
-    List<KprApplication> apps = repo.findApplicationsBetween(start, end);
-
-    List<GrowthAndDemandItem> growthItems =
-        buildGrowthAndDemand(apps, start.toLocalDate(), end.toLocalDate());
+    List<GrowthAndDemandItem> growthItems = buildGrowthAndDemand(totals, startDate, endDate);
     java.util.Map<String, Object> growthAndDemand = new java.util.LinkedHashMap<>();
     growthAndDemand.put("unit", "applications");
     List<java.util.Map<String, Object>> growthData = new java.util.ArrayList<>();
@@ -160,7 +176,7 @@ public class StatAdminService {
     }
     growthAndDemand.put("data", growthData);
 
-    OutstandingLoan ol = buildOutstandingLoan(apps, start.toLocalDate(), end.toLocalDate());
+    OutstandingLoan ol = buildOutstandingLoan(totals, startDate, endDate);
     java.util.Map<String, Object> outstandingLoan = new java.util.LinkedHashMap<>();
     outstandingLoan.put("unit", ol.getUnit());
     List<java.util.Map<String, Object>> olData = new java.util.ArrayList<>();
@@ -174,17 +190,10 @@ public class StatAdminService {
 
     java.util.Map<String, Object> processingFunnel = new java.util.LinkedHashMap<>();
     processingFunnel.put("unit", "applications");
-    int submitted =
-        (int) apps.stream().filter(a -> a.getStatus() == ApplicationStatus.SUBMITTED).count();
-    int appraisal =
-        (int)
-            apps.stream()
-                .filter(a -> a.getStatus() == ApplicationStatus.PROPERTY_APPRAISAL)
-                .count();
-    int analysis =
-        (int) apps.stream().filter(a -> a.getStatus() == ApplicationStatus.CREDIT_ANALYSIS).count();
-    int finalApproval =
-        (int) apps.stream().filter(a -> a.getStatus() == ApplicationStatus.FINAL_APPROVAL).count();
+    int submitted = (int) countStatuses(totals, Set.of(ApplicationStatus.SUBMITTED));
+    int appraisal = (int) countStatuses(totals, Set.of(ApplicationStatus.PROPERTY_APPRAISAL));
+    int analysis = (int) countStatuses(totals, Set.of(ApplicationStatus.CREDIT_ANALYSIS));
+    int finalApproval = (int) countStatuses(totals, Set.of(ApplicationStatus.FINAL_APPROVAL));
     List<java.util.Map<String, Object>> stages = new java.util.ArrayList<>();
     java.util.Map<String, Object> s1 = new java.util.LinkedHashMap<>();
     s1.put("stage", "Submitted");
@@ -204,8 +213,7 @@ public class StatAdminService {
     stages.add(s4);
     processingFunnel.put("stages", stages);
 
-    List<User> users = repo.findUsersCreatedBetween(start, end);
-    UserRegistered ur = buildUserRegistered(users, start.toLocalDate(), end.toLocalDate());
+    UserRegistered ur = buildUserRegistered(rollups.registrations(), startDate, endDate);
     java.util.Map<String, Object> userRegistered = new java.util.LinkedHashMap<>();
     userRegistered.put("unit", ur.getUnit());
     List<java.util.Map<String, Object>> urData = new java.util.ArrayList<>();
@@ -223,10 +231,47 @@ public class StatAdminService {
     data.put("outstandingLoan", outstandingLoan);
     data.put("processingFunnel", processingFunnel);
     data.put("userRegistered", userRegistered);
-    redisService.cache("dashboard:admin:structured:" + rangeKey, data, DASHBOARD_TTL_MINUTES);
     return data;
   }
 
+  /**
+   * Query rollup aplikasi, registrasi dan sketch customer unik saling independen, jadi dijalankan
+   * paralel
+   */
+  private AdminRollups loadRollups(
+      LocalDate prevStartDate, LocalDate startDate, LocalDate endDate) {
+    String adminScope = DashboardLiveService.adminScope();
+    try (QueryFanOut.Scope scope = queryFanOut.open("dashboard-admin")) {
+      Subtask<DashboardTotals> dashboard =
+          scope.fork(() -> repo.sumDashboard(prevStartDate, startDate, endDate));
+      Subtask<Map<YearMonth, Integer>> registrations =
+          scope.fork(() -> repo.sumRegistrationsByMonth(startDate, endDate));
+      Subtask<Long> customers =
+          scope.fork(
+              () ->
+                  customerSketchService.countDistinct(
+                      adminScope,
+                      startDate,
+                      endDate,
+                      () -> repo.countDistinctCustomers(startDate, endDate)));
+      Subtask<Long> prevCustomers =
+          scope.fork(
+              () ->
+                  customerSketchService.countDistinct(
+                      adminScope,
+                      prevStartDate,
+                      startDate,
+                      () -> repo.countDistinctCustomers(prevStartDate, startDate)));
+      scope.join();
+      DashboardTotals totals = dashboard.get();
+      return new AdminRollups(
+          new DashboardTotals(
+              totals.kpis().withCustomers(customers.get(), prevCustomers.get()),
+              totals.monthlyTotals()),
+          registrations.get());
+    }
+  }
+
   // =========================
   // Helpers
   // =========================
@@ -293,44 +338,49 @@ public class StatAdminService {
     return ((double) (current - previous) / (double) previous) * 100.0;
   }
 
+  /** Jumlah aplikasi dengan status saat ini di antara statuses */
+  private long countStatuses(List<MonthlyStatusTotal> totals, Set<ApplicationStatus> statuses) {
+    return totals.stream()
+        .filter(t -> statuses.contains(parseStatus(t.status())))
+        .mapToLong(MonthlyStatusTotal::applicationCount)
+        .sum();
+  }
+
+  /** Total per bulan untuk satu status */
+  private Map<YearMonth, MonthlyStatusTotal> byMonth(
+      List<MonthlyStatusTotal> totals, ApplicationStatus status) {
+    return totals.stream()
+        .filter(t -> parseStatus(t.status()) == status)
+        .collect(Collectors.toMap(MonthlyStatusTotal::month, t -> t));
+  }
+
+  /** Status dari rollup; nilai enum database yang tidak dikenal aplikasi diabaikan */
+  private ApplicationStatus parseStatus(String status) {
+    try {
+      return ApplicationStatus.valueOf(status);
+    } catch (IllegalArgumentException | NullPointerException e) {
+      return null;
+    }
+  }
+
   private List<GrowthAndDemandItem> buildGrowthAndDemand(
-      List<KprApplication> apps, LocalDate start, LocalDate end) {
-    Map<YearMonth, List<KprApplication>> byMonth =
-        apps.stream().collect(Collectors.groupingBy(a -> YearMonth.from(a.getCreatedAt())));
+      List<MonthlyStatusTotal> totals, LocalDate start, LocalDate end) {
+    Map<YearMonth, MonthlyStatusTotal> approvedByMonth =
+        byMonth(totals, ApplicationStatus.APPROVED);
+    Map<YearMonth, MonthlyStatusTotal> rejectedByMonth =
+        byMonth(totals, ApplicationStatus.REJECTED);
 
     List<GrowthAndDemandItem> out = new ArrayList<>();
     DateTimeFormatter fmt = DateTimeFormatter.ofPattern("LLL", new Locale("id", "ID"));
     YearMonth cur = YearMonth.from(start);
     YearMonth last = YearMonth.from(end.minusDays(1));
     while (!cur.isAfter(last)) {
-      final YearMonth curMonth = cur;
-      List<KprApplication> monthApps = byMonth.getOrDefault(curMonth, List.of());
-      int approvals =
-          (int)
-              monthApps.stream()
-                  .filter(
-                      a -> {
-                        if (a.getApprovedAt() != null) {
-                          return YearMonth.from(a.getApprovedAt()).equals(curMonth);
-                        }
-                        return a.getStatus() == ApplicationStatus.APPROVED;
-                      })
-                  .count();
-      int rejects =
-          (int)
-              monthApps.stream()
-                  .filter(
-                      a -> {
-                        if (a.getRejectedAt() != null) {
-                          return YearMonth.from(a.getRejectedAt()).equals(curMonth);
-                        }
-                        return a.getStatus() == ApplicationStatus.REJECTED;
-                      })
-                  .count();
+      MonthlyStatusTotal approvals = approvedByMonth.get(cur);
+      MonthlyStatusTotal rejects = rejectedByMonth.get(cur);
       GrowthAndDemandItem item = new GrowthAndDemandItem();
-      item.setMonth(capitalize(curMonth.format(fmt)));
-      item.setApproval(approvals);
-      item.setReject(rejects);
+      item.setMonth(capitalize(cur.format(fmt)));
+      item.setApproval(approvals != null ? (int) approvals.applicationCount() : 0);
+      item.setReject(rejects != null ? (int) rejects.applicationCount() : 0);
       out.add(item);
       cur = cur.plusMonths(1);
     }
@@ -338,9 +388,9 @@ public class StatAdminService {
   }
 
   private OutstandingLoan buildOutstandingLoan(
-      List<KprApplication> apps, LocalDate start, LocalDate end) {
-    Map<YearMonth, List<KprApplication>> byMonth =
-        apps.stream().collect(Collectors.groupingBy(a -> YearMonth.from(a.getCreatedAt())));
+      List<MonthlyStatusTotal> totals, LocalDate start, LocalDate end) {
+    Map<YearMonth, MonthlyStatusTotal> approvedByMonth =
+        byMonth(totals, ApplicationStatus.APPROVED);
 
     List<OutstandingLoanItem> data = new ArrayList<>();
     DateTimeFormatter fmt = DateTimeFormatter.ofPattern("LLL", new Locale("id", "ID"));
@@ -348,24 +398,12 @@ public class StatAdminService {
     YearMonth last = YearMonth.from(end.minusDays(1));
     BigDecimal cumulative = BigDecimal.ZERO;
     while (!cur.isAfter(last)) {
-      final YearMonth curMonth = cur;
-      List<KprApplication> monthApps = byMonth.getOrDefault(curMonth, List.of());
-      BigDecimal approvedValue =
-          monthApps.stream()
-              .filter(
-                  a -> {
-                    if (a.getApprovedAt() != null) {
-                      return YearMonth.from(a.getApprovedAt()).equals(curMonth);
-                    }
-                    return a.getStatus() == ApplicationStatus.APPROVED;
-                  })
-              .map(KprApplication::getLoanAmount)
-              .filter(Objects::nonNull)
-              .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      cumulative = cumulative.add(approvedValue);
+      MonthlyStatusTotal approved = approvedByMonth.get(cur);
+      if (approved != null && approved.loanAmountSum() != null) {
+        cumulative = cumulative.add(approved.loanAmountSum());
+      }
       OutstandingLoanItem item = new OutstandingLoanItem();
-      item.setMonth(capitalize(curMonth.format(fmt)));
+      item.setMonth(capitalize(cur.format(fmt)));
       // convert to billions (miliar rupiah) with 2 decimals
       item.setValue(cumulative.divide(new BigDecimal(1_000_000_000L), 2, RoundingMode.HALF_UP));
       data.add(item);
@@ -378,28 +416,23 @@ public class StatAdminService {
     return ol;
   }
 
-  private List<ProcessingFunnelItem> buildProcessingFunnel(List<KprApplication> apps) {
-    int draft =
-        (int) apps.stream().filter(a -> a.getStatus() == ApplicationStatus.SUBMITTED).count();
+  private List<ProcessingFunnelItem> buildProcessingFunnel(List<MonthlyStatusTotal> totals) {
+    int draft = (int) countStatuses(totals, Set.of(ApplicationStatus.SUBMITTED));
     int review =
         (int)
-            apps.stream()
-                .filter(
-                    a ->
-                        a.getStatus() == ApplicationStatus.DOCUMENT_VERIFICATION
-                            || a.getStatus() == ApplicationStatus.PROPERTY_APPRAISAL)
-                .count();
+            countStatuses(
+                totals,
+                Set.of(
+                    ApplicationStatus.DOCUMENT_VERIFICATION, ApplicationStatus.PROPERTY_APPRAISAL));
     int approval =
         (int)
-            apps.stream()
-                .filter(
-                    a ->
-                        a.getStatus() == ApplicationStatus.CREDIT_ANALYSIS
-                            || a.getStatus() == ApplicationStatus.APPROVAL_PENDING
-                            || a.getStatus() == ApplicationStatus.APPROVED)
-                .count();
-    int reject =
-        (int) apps.stream().filter(a -> a.getStatus() == ApplicationStatus.REJECTED).count();
+            countStatuses(
+                totals,
+                Set.of(
+                    ApplicationStatus.CREDIT_ANALYSIS,
+                    ApplicationStatus.APPROVAL_PENDING,
+                    ApplicationStatus.APPROVED));
+    int reject = (int) countStatuses(totals, Set.of(ApplicationStatus.REJECTED));
 
     List<ProcessingFunnelItem> out = new ArrayList<>();
     ProcessingFunnelItem i1 = new ProcessingFunnelItem();
@@ -421,21 +454,16 @@ public class StatAdminService {
     return out;
   }
 
-  private UserRegistered buildUserRegistered(List<User> users, LocalDate start, LocalDate end) {
-    Map<YearMonth, List<User>> byMonth =
-        users.stream()
-            .filter(u -> u.getCreatedAt() != null)
-            .collect(Collectors.groupingBy(u -> YearMonth.from(u.getCreatedAt())));
-
+  private UserRegistered buildUserRegistered(
+      Map<YearMonth, Integer> registrationsByMonth, LocalDate start, LocalDate end) {
     List<UserRegisteredItem> data = new ArrayList<>();
     DateTimeFormatter fmt = DateTimeFormatter.ofPattern("LLL", new Locale("id", "ID"));
     YearMonth cur = YearMonth.from(start);
     YearMonth last = YearMonth.from(end.minusDays(1));
     while (!cur.isAfter(last)) {
-      int count = byMonth.getOrDefault(cur, List.of()).size();
       UserRegisteredItem item = new UserRegisteredItem();
       item.setMonth(capitalize(cur.format(fmt)));
-      item.setCount(count);
+      item.setCount(registrationsByMonth.getOrDefault(cur, 0));
       data.add(item);
       cur = cur.plusMonths(1);
     }
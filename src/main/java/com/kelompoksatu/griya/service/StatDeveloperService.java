@@ -1,10 +1,11 @@
 package com.kelompoksatu.griya.service;
 
 import com.kelompoksatu.griya.dto.DeveloperStatsResponse;
-import com.kelompoksatu.griya.entity.KprApplication;
+import com.kelompoksatu.griya.repository.DashboardAggregates.KpiComparison;
+import com.kelompoksatu.griya.repository.DashboardAggregates.MonthlyApplicationTotal;
+import com.kelompoksatu.griya.repository.DashboardAggregates.ScopedDashboardStats;
 import com.kelompoksatu.griya.repository.StatDeveloperRepository;
 import java.math.BigDecimal;
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
@@ -13,7 +14,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -23,62 +24,77 @@ import org.springframework.stereotype.Service;
 public class StatDeveloperService {
 
   private final StatDeveloperRepository statDeveloperRepository;
+  private final DashboardCacheService dashboardCacheService;
+  private final CustomerSketchService customerSketchService;
 
   public DeveloperStatsResponse getDashboard(Integer developerId, String range) {
     int months = parseMonths(range);
+    return dashboardCacheService.get(
+        "dashboard:developer:" + developerId + ":" + months + "m",
+        DeveloperStatsResponse.class,
+        () -> computeDashboard(developerId, months));
+  }
+
+  /** Dashboard langsung dari database tanpa cache, dihitung saat snapshot live basi */
+  public DeveloperStatsResponse getDashboardUncached(Integer developerId, String range) {
+    return computeDashboard(developerId, parseMonths(range));
+  }
+
+  /** Key cache snapshot stream live (dashboard + watermark event) */
+  public String liveSnapshotKey(Integer developerId, String range) {
+    return "dashboard:live:developer:" + developerId + ":" + parseMonths(range) + "m";
+  }
+
+  private DeveloperStatsResponse computeDashboard(Integer developerId, int months) {
     LocalDate endDate = LocalDate.now().withDayOfMonth(1).plusMonths(1);
     LocalDate startDate = endDate.minusMonths(months);
 
     LocalDateTime start = startDate.atStartOfDay();
     LocalDateTime end = endDate.atStartOfDay();
 
-    long approved =
-        statDeveloperRepository.countApprovedByDeveloperAndCreatedBetween(developerId, start, end);
-    long rejected =
-        statDeveloperRepository.countRejectedByDeveloperAndCreatedBetween(developerId, start, end);
-    long pending =
-        statDeveloperRepository.countPendingByDeveloperAndCreatedBetween(developerId, start, end);
-    long customers =
-        statDeveloperRepository.countDistinctUsersByDeveloperAndCreatedBetween(
-            developerId, start, end);
-
-    LocalDateTime prevStart = start.minusMonths(months);
-    LocalDateTime prevEnd = start;
-    long prevApproved =
-        statDeveloperRepository.countApprovedByDeveloperAndCreatedBetween(
-            developerId, prevStart, prevEnd);
-    long prevRejected =
-        statDeveloperRepository.countRejectedByDeveloperAndCreatedBetween(
-            developerId, prevStart, prevEnd);
-    long prevPending =
-        statDeveloperRepository.countPendingByDeveloperAndCreatedBetween(
-            developerId, prevStart, prevEnd);
-    long prevCustomers =
-        statDeveloperRepository.countDistinctUsersByDeveloperAndCreatedBetween(
-            developerId, prevStart, prevEnd);
+    // KPI kedua periode, funnel, SLA dan grafik bulanan dihitung dalam satu query; customer unik
+    // dari sketch HyperLogLog
+    ScopedDashboardStats stats =
+        statDeveloperRepository.aggregateDashboard(
+            developerId, start.minusMonths(months), start, end);
+    LocalDate prevStartDate = startDate.minusMonths(months);
+    String scope = DashboardLiveService.developerScope(developerId);
+    KpiComparison kpis =
+        stats
+            .kpis()
+            .withCustomers(
+                customerSketchService.countDistinct(
+                    scope,
+                    startDate,
+                    endDate,
+                    () -> statDeveloperRepository.countDistinctCustomers(developerId, start, end)),
+                customerSketchService.countDistinct(
+                    scope,
+                    prevStartDate,
+                    startDate,
+                    () ->
+                        statDeveloperRepository.countDistinctCustomers(
+                            developerId, prevStartDate.atStartOfDay(), start)));
 
     DeveloperStatsResponse.Summary summary = new DeveloperStatsResponse.Summary();
-    summary.setApprovedCount((int) approved);
-    summary.setRejectedCount((int) rejected);
-    summary.setPendingCount((int) pending);
-    summary.setActiveCustomers((int) customers);
+    summary.setApprovedCount((int) kpis.approved());
+    summary.setRejectedCount((int) kpis.rejected());
+    summary.setPendingCount((int) kpis.pending());
+    summary.setActiveCustomers((int) kpis.customers());
     DeveloperStatsResponse.Summary.Growth growth = new DeveloperStatsResponse.Summary.Growth();
-    growth.setApproved(percentChange(approved, prevApproved));
-    growth.setRejected(percentChange(rejected, prevRejected));
-    growth.setPending(percentChange(pending, prevPending));
-    growth.setCustomers(percentChange(customers, prevCustomers));
+    growth.setApproved(percentChange(kpis.approved(), kpis.prevApproved()));
+    growth.setRejected(percentChange(kpis.rejected(), kpis.prevRejected()));
+    growth.setPending(percentChange(kpis.pending(), kpis.prevPending()));
+    growth.setCustomers(percentChange(kpis.customers(), kpis.prevCustomers()));
     summary.setGrowth(growth);
 
-    List<KprApplication> apps =
-        statDeveloperRepository.findApplicationsByDeveloperAndCreatedBetween(
-            developerId, start, end);
-
+    Map<YearMonth, MonthlyApplicationTotal> byMonth = byMonth(stats.months());
     List<DeveloperStatsResponse.SubmissionVsApprovedItem> subVsAppr =
-        buildSubmissionVsApproved(apps, start.toLocalDate(), end.toLocalDate());
+        buildSubmissionVsApproved(byMonth, start.toLocalDate(), end.toLocalDate());
     List<DeveloperStatsResponse.ValueVsIncomeItem> valVsInc =
-        buildValueVsIncome(apps, start.toLocalDate(), end.toLocalDate());
-    List<DeveloperStatsResponse.FunnelItem> funnel = buildFunnelItems(apps);
-    List<DeveloperStatsResponse.SLABucketItem> sla = buildSlaBucketsFromApps(apps);
+        buildValueVsIncome(byMonth, start.toLocalDate(), end.toLocalDate());
+    List<DeveloperStatsResponse.FunnelItem> funnel = buildFunnelItems(stats);
+    List<DeveloperStatsResponse.SLABucketItem> sla = buildSlaBuckets(stats);
 
     DeveloperStatsResponse resp = new DeveloperStatsResponse();
     resp.setSummary(summary);
@@ -111,30 +127,24 @@ public class StatDeveloperService {
     return ((double) (current - previous) / (double) previous) * 100.0;
   }
 
-  private List<DeveloperStatsResponse.SubmissionVsApprovedItem> buildSubmissionVsApproved(
-      List<KprApplication> apps, LocalDate start, LocalDate end) {
-    Map<YearMonth, List<KprApplication>> byMonth =
-        apps.stream()
-            .filter(a -> a.getCreatedAt() != null)
-            .collect(Collectors.groupingBy(a -> YearMonth.from(a.getCreatedAt())));
+  private Map<YearMonth, MonthlyApplicationTotal> byMonth(List<MonthlyApplicationTotal> months) {
+    return months.stream()
+        .collect(Collectors.toMap(MonthlyApplicationTotal::month, Function.identity()));
+  }
 
+  private List<DeveloperStatsResponse.SubmissionVsApprovedItem> buildSubmissionVsApproved(
+      Map<YearMonth, MonthlyApplicationTotal> byMonth, LocalDate start, LocalDate end) {
     List<DeveloperStatsResponse.SubmissionVsApprovedItem> out = new ArrayList<>();
     DateTimeFormatter fmt = DateTimeFormatter.ofPattern("LLL yy", new Locale("id", "ID"));
     YearMonth cur = YearMonth.from(start);
     YearMonth last = YearMonth.from(end.minusDays(1));
     while (!cur.isAfter(last)) {
-      List<KprApplication> monthApps = byMonth.getOrDefault(cur, List.of());
-      int submitted = monthApps.size();
-      int approved =
-          (int)
-              monthApps.stream()
-                  .filter(a -> a.getStatus() == KprApplication.ApplicationStatus.APPROVED)
-                  .count();
+      MonthlyApplicationTotal month = byMonth.get(cur);
       DeveloperStatsResponse.SubmissionVsApprovedItem item =
           new DeveloperStatsResponse.SubmissionVsApprovedItem();
       item.setMonth(capitalize(cur.format(fmt)));
-      item.setSubmitted(submitted);
-      item.setApproved(approved);
+      item.setSubmitted(month != null ? (int) month.submitted() : 0);
+      item.setApproved(month != null ? (int) month.approved() : 0);
       out.add(item);
       cur = cur.plusMonths(1);
     }
@@ -142,83 +152,41 @@ public class StatDeveloperService {
   }
 
   private List<DeveloperStatsResponse.ValueVsIncomeItem> buildValueVsIncome(
-      List<KprApplication> apps, LocalDate start, LocalDate end) {
-    Map<YearMonth, List<KprApplication>> byMonth =
-        apps.stream()
-            .filter(a -> a.getCreatedAt() != null)
-            .collect(Collectors.groupingBy(a -> YearMonth.from(a.getCreatedAt())));
-
+      Map<YearMonth, MonthlyApplicationTotal> byMonth, LocalDate start, LocalDate end) {
     List<DeveloperStatsResponse.ValueVsIncomeItem> out = new ArrayList<>();
     DateTimeFormatter fmt = DateTimeFormatter.ofPattern("LLL yy", new Locale("id", "ID"));
     YearMonth cur = YearMonth.from(start);
     YearMonth last = YearMonth.from(end.minusDays(1));
     while (!cur.isAfter(last)) {
-      List<KprApplication> monthApps = byMonth.getOrDefault(cur, List.of());
-      BigDecimal submissionValue =
-          monthApps.stream()
-              .map(KprApplication::getLoanAmount)
-              .filter(Objects::nonNull)
-              .reduce(BigDecimal.ZERO, BigDecimal::add);
-      BigDecimal income =
-          monthApps.stream()
-              .map(KprApplication::getMonthlyInstallment)
-              .filter(Objects::nonNull)
-              .reduce(BigDecimal.ZERO, BigDecimal::add);
+      MonthlyApplicationTotal month = byMonth.get(cur);
       DeveloperStatsResponse.ValueVsIncomeItem item =
           new DeveloperStatsResponse.ValueVsIncomeItem();
       item.setMonth(capitalize(cur.format(fmt)));
-      item.setSubmissionValue(submissionValue);
-      item.setIncome(income);
+      item.setSubmissionValue(month != null ? month.loanAmountSum() : BigDecimal.ZERO);
+      item.setIncome(month != null ? month.monthlyInstallmentSum() : BigDecimal.ZERO);
       out.add(item);
       cur = cur.plusMonths(1);
     }
     return out;
   }
 
-  private List<DeveloperStatsResponse.FunnelItem> buildFunnelItems(List<KprApplication> apps) {
-    int appraisal =
-        (int)
-            apps.stream()
-                .filter(a -> a.getStatus() == KprApplication.ApplicationStatus.PROPERTY_APPRAISAL)
-                .count();
-    int analysis =
-        (int)
-            apps.stream()
-                .filter(a -> a.getStatus() == KprApplication.ApplicationStatus.CREDIT_ANALYSIS)
-                .count();
-    int finalApproval =
-        (int)
-            apps.stream()
-                .filter(a -> a.getStatus() == KprApplication.ApplicationStatus.APPROVAL_PENDING)
-                .count();
-    int approvedCount =
-        (int)
-            apps.stream()
-                .filter(a -> a.getStatus() == KprApplication.ApplicationStatus.APPROVED)
-                .count();
-
+  private List<DeveloperStatsResponse.FunnelItem> buildFunnelItems(ScopedDashboardStats stats) {
     List<DeveloperStatsResponse.FunnelItem> out = new ArrayList<>();
-    out.add(new DeveloperStatsResponse.FunnelItem("Property Appraisal", appraisal));
-    out.add(new DeveloperStatsResponse.FunnelItem("Credit Analysis", analysis));
-    out.add(new DeveloperStatsResponse.FunnelItem("Final Approval", finalApproval));
-    out.add(new DeveloperStatsResponse.FunnelItem("Approved", approvedCount));
+    out.add(
+        new DeveloperStatsResponse.FunnelItem(
+            "Property Appraisal", (int) stats.propertyAppraisal()));
+    out.add(new DeveloperStatsResponse.FunnelItem("Credit Analysis", (int) stats.creditAnalysis()));
+    out.add(new DeveloperStatsResponse.FunnelItem("Final Approval", (int) stats.approvalPending()));
+    out.add(new DeveloperStatsResponse.FunnelItem("Approved", (int) stats.kpis().approved()));
     return out;
   }
 
-  private List<DeveloperStatsResponse.SLABucketItem> buildSlaBucketsFromApps(
-      List<KprApplication> apps) {
-    int bucket0to2 = 0, bucket3to5 = 0, bucketGt5 = 0;
-    for (KprApplication a : apps) {
-      if (a.getSubmittedAt() == null || a.getApprovedAt() == null) continue;
-      long days = Duration.between(a.getSubmittedAt(), a.getApprovedAt()).toDays();
-      if (days <= 2) bucket0to2++;
-      else if (days <= 5) bucket3to5++;
-      else bucketGt5++;
-    }
+  /** SLA dari submittedAt sampai approvedAt, dihitung di database */
+  private List<DeveloperStatsResponse.SLABucketItem> buildSlaBuckets(ScopedDashboardStats stats) {
     List<DeveloperStatsResponse.SLABucketItem> out = new ArrayList<>();
-    out.add(new DeveloperStatsResponse.SLABucketItem("0-2 hari", bucket0to2));
-    out.add(new DeveloperStatsResponse.SLABucketItem("3-5 hari", bucket3to5));
-    out.add(new DeveloperStatsResponse.SLABucketItem(">5 hari", bucketGt5));
+    out.add(new DeveloperStatsResponse.SLABucketItem("0-2 hari", (int) stats.slaUpToTwoDays()));
+    out.add(new DeveloperStatsResponse.SLABucketItem("3-5 hari", (int) stats.slaThreeToFiveDays()));
+    out.add(new DeveloperStatsResponse.SLABucketItem(">5 hari", (int) stats.slaOverFiveDays()));
     return out;
   }
 
@@ -6,8 +6,9 @@ import com.kelompoksatu.griya.dto.StaffStatsResponse.SLABucketItem;
 import com.kelompoksatu.griya.dto.StaffStatsResponse.SubmissionVsApprovedItem;
 import com.kelompoksatu.griya.dto.StaffStatsResponse.Summary;
 import com.kelompoksatu.griya.dto.StaffStatsResponse.ValueVsIncomeItem;
-import com.kelompoksatu.griya.entity.ApprovalWorkflow;
-import com.kelompoksatu.griya.entity.KprApplication;
+import com.kelompoksatu.griya.repository.DashboardAggregates.KpiComparison;
+import com.kelompoksatu.griya.repository.DashboardAggregates.MonthlyApplicationTotal;
+import com.kelompoksatu.griya.repository.DashboardAggregates.ScopedDashboardStats;
 import com.kelompoksatu.griya.repository.StatStaffRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -18,7 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 
@@ -26,9 +27,16 @@ import org.springframework.stereotype.Service;
 public class StatStaffService {
 
   private final StatStaffRepository repo;
+  private final DashboardCacheService dashboardCacheService;
+  private final CustomerSketchService customerSketchService;
 
-  public StatStaffService(StatStaffRepository repo) {
+  public StatStaffService(
+      StatStaffRepository repo,
+      DashboardCacheService dashboardCacheService,
+      CustomerSketchService customerSketchService) {
     this.repo = repo;
+    this.dashboardCacheService = dashboardCacheService;
+    this.customerSketchService = customerSketchService;
   }
 
   public enum Range {
@@ -40,48 +48,68 @@ public class StatStaffService {
 
   public StaffStatsResponse getDashboard(Integer staffUserId, String rangeStr) {
     Range range = parseRange(rangeStr);
+    return dashboardCacheService.get(
+        "dashboard:staff:" + staffUserId + ":" + range.name().toLowerCase(Locale.ROOT),
+        StaffStatsResponse.class,
+        () -> computeDashboard(staffUserId, range));
+  }
+
+  /** Dashboard langsung dari database tanpa cache, dihitung saat snapshot live basi */
+  public StaffStatsResponse getDashboardUncached(Integer staffUserId, String rangeStr) {
+    return computeDashboard(staffUserId, parseRange(rangeStr));
+  }
+
+  /** Key cache snapshot stream live (dashboard + watermark event) */
+  public String liveSnapshotKey(Integer staffUserId, String rangeStr) {
+    return "dashboard:live:staff:"
+        + staffUserId
+        + ":"
+        + parseRange(rangeStr).name().toLowerCase(Locale.ROOT);
+  }
+
+  private StaffStatsResponse computeDashboard(Integer staffUserId, Range range) {
     LocalDateTime end = LocalDate.now().atStartOfDay().plusDays(1); // inclusive end
     LocalDateTime start = computeStart(range, end);
 
-    // Fetch current-period data scoped by assigned approver
-    long approved = repo.countApprovedAssignedToStaffBetween(staffUserId, start, end);
-    long rejected = repo.countRejectedAssignedToStaffBetween(staffUserId, start, end);
-    long pending = repo.countPendingAssignedToStaffBetween(staffUserId, start, end);
-    long customers = repo.countDistinctUsersAssignedToStaffBetween(staffUserId, start, end);
-
-    // Previous-period for growth
-    LocalDateTime prevEnd = start;
+    // KPI kedua periode, funnel, SLA dan grafik bulanan dihitung dalam satu query; customer unik
+    // dari sketch HyperLogLog
     LocalDateTime prevStart = computePreviousStart(range, start);
-    long prevApproved = repo.countApprovedAssignedToStaffBetween(staffUserId, prevStart, prevEnd);
-    long prevRejected = repo.countRejectedAssignedToStaffBetween(staffUserId, prevStart, prevEnd);
-    long prevPending = repo.countPendingAssignedToStaffBetween(staffUserId, prevStart, prevEnd);
-    long prevCustomers =
-        repo.countDistinctUsersAssignedToStaffBetween(staffUserId, prevStart, prevEnd);
+    ScopedDashboardStats stats = repo.aggregateDashboard(staffUserId, prevStart, start, end);
+    String scope = DashboardLiveService.staffScope(staffUserId);
+    KpiComparison kpis =
+        stats
+            .kpis()
+            .withCustomers(
+                customerSketchService.countDistinct(
+                    scope,
+                    start.toLocalDate(),
+                    end.toLocalDate(),
+                    () -> repo.countDistinctCustomers(staffUserId, start, end)),
+                customerSketchService.countDistinct(
+                    scope,
+                    prevStart.toLocalDate(),
+                    start.toLocalDate(),
+                    () -> repo.countDistinctCustomers(staffUserId, prevStart, start)));
 
     Summary summary = new Summary();
-    summary.setApprovedCount((int) approved);
-    summary.setRejectedCount((int) rejected);
-    summary.setPendingCount((int) pending);
-    summary.setActiveCustomers((int) customers);
+    summary.setApprovedCount((int) kpis.approved());
+    summary.setRejectedCount((int) kpis.rejected());
+    summary.setPendingCount((int) kpis.pending());
+    summary.setActiveCustomers((int) kpis.customers());
     Summary.Growth growth = new Summary.Growth();
-    growth.setApproved(percentChange(approved, prevApproved));
-    growth.setRejected(percentChange(rejected, prevRejected));
-    growth.setPending(percentChange(pending, prevPending));
-    growth.setCustomers(percentChange(customers, prevCustomers));
+    growth.setApproved(percentChange(kpis.approved(), kpis.prevApproved()));
+    growth.setRejected(percentChange(kpis.rejected(), kpis.prevRejected()));
+    growth.setPending(percentChange(kpis.pending(), kpis.prevPending()));
+    growth.setCustomers(percentChange(kpis.customers(), kpis.prevCustomers()));
     summary.setGrowth(growth);
 
-    // Applications for monthly series and funnel/SLA
-    List<KprApplication> apps =
-        repo.findApplicationsAssignedToStaffBetween(staffUserId, start, end);
-    List<ApprovalWorkflow> flows =
-        repo.findWorkflowsAssignedToStaffBetween(staffUserId, start, end);
-
+    Map<YearMonth, MonthlyApplicationTotal> byMonth = byMonth(stats.months());
     List<SubmissionVsApprovedItem> subVsAppr =
-        buildSubmissionVsApproved(apps, start.toLocalDate(), end.toLocalDate());
+        buildSubmissionVsApproved(byMonth, start.toLocalDate(), end.toLocalDate());
     List<ValueVsIncomeItem> valVsInc =
-        buildValueVsIncome(apps, start.toLocalDate(), end.toLocalDate());
-    List<FunnelItem> funnel = buildFunnel(apps);
-    List<SLABucketItem> sla = buildSlaBuckets(flows);
+        buildValueVsIncome(byMonth, start.toLocalDate(), end.toLocalDate());
+    List<FunnelItem> funnel = buildFunnel(stats);
+    List<SLABucketItem> sla = buildSlaBuckets(stats);
 
     StaffStatsResponse resp = new StaffStatsResponse();
     resp.setSummary(summary);
@@ -145,30 +173,23 @@ public class StatStaffService {
     return ((double) (current - previous) / (double) previous) * 100.0;
   }
 
-  private List<SubmissionVsApprovedItem> buildSubmissionVsApproved(
-      List<KprApplication> apps, LocalDate start, LocalDate end) {
-    // Group by YearMonth of createdAt
-    Map<YearMonth, List<KprApplication>> byMonth =
-        apps.stream()
-            .filter(a -> a.getCreatedAt() != null)
-            .collect(Collectors.groupingBy(a -> YearMonth.from(a.getCreatedAt())));
+  private Map<YearMonth, MonthlyApplicationTotal> byMonth(List<MonthlyApplicationTotal> months) {
+    return months.stream()
+        .collect(Collectors.toMap(MonthlyApplicationTotal::month, Function.identity()));
+  }
 
+  private List<SubmissionVsApprovedItem> buildSubmissionVsApproved(
+      Map<YearMonth, MonthlyApplicationTotal> byMonth, LocalDate start, LocalDate end) {
     List<SubmissionVsApprovedItem> out = new ArrayList<>();
     DateTimeFormatter fmt = DateTimeFormatter.ofPattern("LLL yy", new Locale("id", "ID"));
     YearMonth cur = YearMonth.from(start);
     YearMonth last = YearMonth.from(end.minusDays(1));
     while (!cur.isAfter(last)) {
-      List<KprApplication> monthApps = byMonth.getOrDefault(cur, List.of());
-      int submitted = monthApps.size();
-      int approved =
-          (int)
-              monthApps.stream()
-                  .filter(a -> a.getStatus() == KprApplication.ApplicationStatus.APPROVED)
-                  .count();
+      MonthlyApplicationTotal month = byMonth.get(cur);
       SubmissionVsApprovedItem item = new SubmissionVsApprovedItem();
       item.setMonth(capitalize(cur.format(fmt)));
-      item.setSubmitted(submitted);
-      item.setApproved(approved);
+      item.setSubmitted(month != null ? (int) month.submitted() : 0);
+      item.setApproved(month != null ? (int) month.approved() : 0);
       out.add(item);
       cur = cur.plusMonths(1);
     }
@@ -176,82 +197,38 @@ public class StatStaffService {
   }
 
   private List<ValueVsIncomeItem> buildValueVsIncome(
-      List<KprApplication> apps, LocalDate start, LocalDate end) {
-    Map<YearMonth, List<KprApplication>> byMonth =
-        apps.stream()
-            .filter(a -> a.getCreatedAt() != null)
-            .collect(Collectors.groupingBy(a -> YearMonth.from(a.getCreatedAt())));
-
+      Map<YearMonth, MonthlyApplicationTotal> byMonth, LocalDate start, LocalDate end) {
     List<ValueVsIncomeItem> out = new ArrayList<>();
     DateTimeFormatter fmt = DateTimeFormatter.ofPattern("LLL yy", new Locale("id", "ID"));
     YearMonth cur = YearMonth.from(start);
     YearMonth last = YearMonth.from(end.minusDays(1));
     while (!cur.isAfter(last)) {
-      List<KprApplication> monthApps = byMonth.getOrDefault(cur, List.of());
-      BigDecimal submissionValue =
-          monthApps.stream()
-              .map(KprApplication::getLoanAmount)
-              .filter(Objects::nonNull)
-              .reduce(BigDecimal.ZERO, BigDecimal::add);
-      BigDecimal income =
-          monthApps.stream()
-              .map(KprApplication::getMonthlyInstallment)
-              .filter(Objects::nonNull)
-              .reduce(BigDecimal.ZERO, BigDecimal::add);
+      MonthlyApplicationTotal month = byMonth.get(cur);
       ValueVsIncomeItem item = new ValueVsIncomeItem();
       item.setMonth(capitalize(cur.format(fmt)));
-      item.setSubmissionValue(submissionValue);
-      item.setIncome(income);
+      item.setSubmissionValue(month != null ? month.loanAmountSum() : BigDecimal.ZERO);
+      item.setIncome(month != null ? month.monthlyInstallmentSum() : BigDecimal.ZERO);
       out.add(item);
       cur = cur.plusMonths(1);
     }
     return out;
   }
 
-  private List<FunnelItem> buildFunnel(List<KprApplication> apps) {
-    int appraisal =
-        (int)
-            apps.stream()
-                .filter(a -> a.getStatus() == KprApplication.ApplicationStatus.PROPERTY_APPRAISAL)
-                .count();
-    int analysis =
-        (int)
-            apps.stream()
-                .filter(a -> a.getStatus() == KprApplication.ApplicationStatus.CREDIT_ANALYSIS)
-                .count();
-    int finalApproval =
-        (int)
-            apps.stream()
-                .filter(a -> a.getStatus() == KprApplication.ApplicationStatus.APPROVAL_PENDING)
-                .count();
-    int approved =
-        (int)
-            apps.stream()
-                .filter(a -> a.getStatus() == KprApplication.ApplicationStatus.APPROVED)
-                .count();
-
+  private List<FunnelItem> buildFunnel(ScopedDashboardStats stats) {
     List<FunnelItem> out = new ArrayList<>();
-    out.add(new FunnelItem("Property Appraisal", appraisal));
-    out.add(new FunnelItem("Credit Analysis", analysis));
-    out.add(new FunnelItem("Final Approval", finalApproval));
-    out.add(new FunnelItem("Approved", approved));
+    out.add(new FunnelItem("Property Appraisal", (int) stats.propertyAppraisal()));
+    out.add(new FunnelItem("Credit Analysis", (int) stats.creditAnalysis()));
+    out.add(new FunnelItem("Final Approval", (int) stats.approvalPending()));
+    out.add(new FunnelItem("Approved", (int) stats.kpis().approved()));
     return out;
   }
 
-  private List<SLABucketItem> buildSlaBuckets(List<ApprovalWorkflow> flows) {
-    // SLA := duration between workflow createdAt and completedAt
-    int bucket0to2 = 0, bucket3to5 = 0, bucketGt5 = 0;
-    for (ApprovalWorkflow aw : flows) {
-      if (aw.getCompletedAt() == null || aw.getCreatedAt() == null) continue;
-      long days = java.time.Duration.between(aw.getCreatedAt(), aw.getCompletedAt()).toDays();
-      if (days <= 2) bucket0to2++;
-      else if (days <= 5) bucket3to5++;
-      else bucketGt5++;
-    }
+  private List<SLABucketItem> buildSlaBuckets(ScopedDashboardStats stats) {
+    // SLA := duration between workflow createdAt and completedAt, bucketed in the database
     List<SLABucketItem> out = new ArrayList<>();
-    out.add(new SLABucketItem("0-2 hari", bucket0to2));
-    out.add(new SLABucketItem("3-5 hari", bucket3to5));
-    out.add(new SLABucketItem(">5 hari", bucketGt5));
+    out.add(new SLABucketItem("0-2 hari", (int) stats.slaUpToTwoDays()));
+    out.add(new SLABucketItem("3-5 hari", (int) stats.slaThreeToFiveDays()));
+    out.add(new SLABucketItem(">5 hari", (int) stats.slaOverFiveDays()));
     return out;
   }
 
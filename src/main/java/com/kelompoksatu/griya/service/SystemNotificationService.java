@@ -4,12 +4,19 @@ import com.kelompoksatu.griya.entity.NotificationStatus;
 import com.kelompoksatu.griya.entity.SystemNotification;
 import com.kelompoksatu.griya.repository.SystemNotificationRepository;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -18,10 +25,14 @@ public class SystemNotificationService {
 
   private final SystemNotificationRepository notificationRepository;
   private final RabbitMQService rabbitMQService;
+  private final PlatformTransactionManager transactionManager;
 
   @Value("${app.rabbitmq.notificationQueue:notifications.events}")
   private String notificationQueue;
 
+  /** Key untuk menyimpan batch notifikasi milik transaksi yang sedang berjalan. */
+  private final Object batchResourceKey = new Object();
+
   /** Menyimpan notifikasi baru ke database. */
   public SystemNotification saveNotification(SystemNotification notification) {
     log.info("SERVICE: Saving new notification with title: {}", notification.getTitle());
@@ -47,6 +58,32 @@ public class SystemNotificationService {
     return savedNotification;
   }
 
+  /**
+   * Menambahkan notifikasi ke batch milik transaksi yang sedang berjalan. Semua notifikasi dalam
+   * satu unit kerja ditulis dengan satu multi-row INSERT sesaat sebelum commit, lalu dipublish
+   * sebagai satu pesan RabbitMQ setelah commit berhasil. Jika tidak ada transaksi aktif, notifikasi
+   * langsung disimpan seperti {@link #saveNotification}.
+   *
+   * <p>Notifikasi yang ditambahkan setelah batch di-flush (mis. dari callback beforeCommit lain)
+   * langsung di-insert dalam transaksi yang sama; yang ditambahkan setelah commit (afterCommit)
+   * disimpan di transaksi baru.
+   */
+  public void enqueueNotification(SystemNotification notification) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      saveNotification(notification);
+      return;
+    }
+
+    BatchSynchronization synchronization =
+        (BatchSynchronization) TransactionSynchronizationManager.getResource(batchResourceKey);
+    if (synchronization == null) {
+      synchronization = new BatchSynchronization();
+      TransactionSynchronizationManager.bindResource(batchResourceKey, synchronization);
+      TransactionSynchronizationManager.registerSynchronization(synchronization);
+    }
+    synchronization.add(notification);
+  }
+
   /** Mengambil semua notifikasi untuk user tertentu. */
   public List<SystemNotification> getNotificationsByUserId(Integer userId) {
     log.debug("SERVICE: Fetching notifications for user ID: {}", userId);
@@ -84,11 +121,98 @@ public class SystemNotificationService {
     }
   }
 
+  // =============================
+  // Transaction-bound batch
+  // =============================
+  private class BatchSynchronization implements TransactionSynchronization {
+
+    private final List<SystemNotification> batch = new ArrayList<>();
+    private boolean flushed;
+    private boolean committed;
+
+    private void add(SystemNotification notification) {
+      if (committed) {
+        // Transaksi sudah selesai: simpan di transaksi baru lalu publish
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<SystemNotification> saved =
+            template.execute(status -> notificationRepository.insertAll(List.of(notification)));
+        publishBatchSafely(saved);
+        return;
+      }
+      if (flushed) {
+        // Batch sudah ditulis tapi transaksi belum commit: insert sekarang, publish setelah commit
+        notificationRepository.insertAll(List.of(notification));
+      }
+      batch.add(notification);
+    }
+
+    /** Dijalankan sebelum synchronization lain agar committed sudah benar di afterCommit mereka */
+    @Override
+    public int getOrder() {
+      return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      if (!batch.isEmpty()) {
+        notificationRepository.insertAll(batch);
+        log.info("SERVICE: Flushed {} batched notifications before commit.", batch.size());
+      }
+      flushed = true;
+    }
+
+    @Override
+    public void afterCommit() {
+      committed = true;
+      publishBatchSafely(batch);
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      TransactionSynchronizationManager.unbindResourceIfPossible(batchResourceKey);
+    }
+  }
+
   // =============================
   // RabbitMQ Event Publishing
   // =============================
+  private void publishBatchSafely(List<SystemNotification> notifications) {
+    if (notifications == null || notifications.isEmpty()) return;
+    try {
+      if (notifications.size() == 1) {
+        publishEvent(notifications.get(0));
+      } else {
+        publishBatchEvent(notifications);
+      }
+      log.info(
+          "SERVICE: Published {} notification(s) to queue '{}' in one message",
+          notifications.size(),
+          notificationQueue);
+    } catch (Exception ex) {
+      // Do not fail business flow if messaging fails; log safely
+      log.warn("SERVICE: Failed to publish notification batch event: {}", ex.getMessage());
+    }
+  }
+
+  private void publishBatchEvent(List<SystemNotification> notifications) {
+    StringBuilder payload =
+        new StringBuilder("{\"event\":\"SYSTEM_NOTIFICATION_BATCH\",\"notifications\":[");
+    for (int i = 0; i < notifications.size(); i++) {
+      if (i > 0) payload.append(',');
+      payload.append(toEventJson(notifications.get(i)));
+    }
+    payload.append("]}");
+
+    rabbitMQService.publishToQueue(notificationQueue, payload.toString());
+  }
+
   private void publishEvent(SystemNotification n) {
     if (n == null) return;
+    rabbitMQService.publishToQueue(notificationQueue, toEventJson(n));
+  }
+
+  private String toEventJson(SystemNotification n) {
     String type = (n.getNotificationType() != null) ? n.getNotificationType().name() : "UNKNOWN";
     String channel = (n.getChannel() != null) ? n.getChannel().name() : "UNKNOWN";
     String status = (n.getStatus() != null) ? n.getStatus().name() : "PENDING";
@@ -96,35 +220,32 @@ public class SystemNotificationService {
         (n.getCreatedAt() != null) ? n.getCreatedAt().toString() : LocalDateTime.now().toString();
 
     // Minimal JSON payload without external dependencies
-    String payload =
-        "{"
-            + "\"event\":\"SYSTEM_NOTIFICATION\","
-            + "\"notificationId\":"
-            + n.getId()
-            + ","
-            + "\"userId\":"
-            + n.getUserId()
-            + ","
-            + "\"type\":\""
-            + type
-            + "\","
-            + "\"channel\":\""
-            + channel
-            + "\","
-            + "\"title\":\""
-            + escape(n.getTitle())
-            + "\","
-            + "\"message\":\""
-            + escape(n.getMessage())
-            + "\","
-            + "\"status\":\""
-            + status
-            + "\","
-            + "\"createdAt\":\""
-            + createdAt
-            + "\"}";
-
-    rabbitMQService.publishToQueue(notificationQueue, payload);
+    return "{"
+        + "\"event\":\"SYSTEM_NOTIFICATION\","
+        + "\"notificationId\":"
+        + n.getId()
+        + ","
+        + "\"userId\":"
+        + n.getUserId()
+        + ","
+        + "\"type\":\""
+        + type
+        + "\","
+        + "\"channel\":\""
+        + channel
+        + "\","
+        + "\"title\":\""
+        + escape(n.getTitle())
+        + "\","
+        + "\"message\":\""
+        + escape(n.getMessage())
+        + "\","
+        + "\"status\":\""
+        + status
+        + "\","
+        + "\"createdAt\":\""
+        + createdAt
+        + "\"}";
   }
 
   private String escape(String s) {
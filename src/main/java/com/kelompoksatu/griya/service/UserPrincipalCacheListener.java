@@ -0,0 +1,28 @@
+package com.kelompoksatu.griya.service;
+
+import com.kelompoksatu.griya.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener untuk User. Setiap update (status, role, dll.) dan hapus user membuang state
+ * autentikasi user tersebut dari cache principal di semua node setelah transaksi commit.
+ */
+@Component
+public class UserPrincipalCacheListener {
+
+  private final PrincipalCacheService principalCacheService;
+
+  // @Lazy: listener dibuat saat EntityManagerFactory diinisialisasi, sebelum repository siap
+  public UserPrincipalCacheListener(@Lazy PrincipalCacheService principalCacheService) {
+    this.principalCacheService = principalCacheService;
+  }
+
+  @PostUpdate
+  @PostRemove
+  public void onUserChanged(User user) {
+    principalCacheService.invalidate(user.getId());
+  }
+}
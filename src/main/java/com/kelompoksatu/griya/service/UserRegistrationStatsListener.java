@@ -0,0 +1,27 @@
+package com.kelompoksatu.griya.service;
+
+import com.kelompoksatu.griya.entity.User;
+import jakarta.persistence.PostPersist;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener untuk User. Setiap user baru membuat rollup registrasi harian hari tersebut
+ * dihitung ulang setelah transaksi commit.
+ */
+@Component
+public class UserRegistrationStatsListener {
+
+  private final DailyStatsService dailyStatsService;
+
+  // @Lazy: listener dibuat saat EntityManagerFactory diinisialisasi, sebelum repository siap
+  public UserRegistrationStatsListener(@Lazy DailyStatsService dailyStatsService) {
+    this.dailyStatsService = dailyStatsService;
+  }
+
+  @PostPersist
+  public void onUserCreated(User user) {
+    dailyStatsService.markRegistration(
+        user.getCreatedAt() != null ? user.getCreatedAt().toLocalDate() : null);
+  }
+}
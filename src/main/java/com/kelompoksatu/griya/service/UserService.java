@@ -21,7 +21,6 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.util.Pair;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,10 +37,11 @@ public class UserService {
   @Autowired private UserRepository userRepository;
   @Autowired private UserProfileRepository userProfileRepository;
   @Autowired private RoleRepository roleRepository;
-  @Autowired private PasswordEncoder passwordEncoder;
+  @Autowired private PasswordHashingService passwordHashingService;
   @Autowired private EmailService emailService;
   @Autowired private AuthService authService;
   @Autowired private UserMapper userMapper;
+  @Autowired private PrincipalCacheService principalCacheService;
 
   // ========================================
   // USER REGISTRATION AND CREATION
@@ -165,6 +165,8 @@ public class UserService {
       if (attempts >= 5) {
         LocalDateTime lockUntil = LocalDateTime.now().plusMinutes(30);
         userRepository.lockUserAccount(user.getId(), lockUntil);
+        // Bulk update tidak memicu entity listener
+        principalCacheService.invalidate(user.getId());
         logger.warn("Account locked for user ID: {} until {}", user.getId(), lockUntil);
       }
     }
@@ -173,6 +175,7 @@ public class UserService {
   /** 1. Reset failed login attempts 2. Reset last login time 3. Unlock account */
   public void resetLogin(Integer userId) {
     userRepository.unlockResetAndSetLastLogin(userId);
+    principalCacheService.invalidate(userId);
   }
 
   /** Check if user account is locked */
@@ -358,7 +361,7 @@ public class UserService {
     user.setUsername(request.getUsername());
     user.setEmail(request.getEmail());
     user.setPhone(request.getPhone());
-    user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+    user.setPasswordHash(passwordHashingService.encode(request.getPassword()));
     user.setRole(userRole);
     user.setStatus(UserStatus.PENDING_VERIFICATION);
     user.setFailedLoginAttempts(0);
@@ -0,0 +1,424 @@
+package com.kelompoksatu.griya.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kelompoksatu.griya.entity.ApprovalWorkflow;
+import com.kelompoksatu.griya.entity.ApprovalWorkflow.PriorityLevel;
+import com.kelompoksatu.griya.entity.ApprovalWorkflow.WorkflowStatus;
+import com.kelompoksatu.griya.entity.KprApplication.ApplicationStatus;
+import com.kelompoksatu.griya.entity.NotificationChannel;
+import com.kelompoksatu.griya.entity.NotificationType;
+import com.kelompoksatu.griya.entity.SystemNotification;
+import com.kelompoksatu.griya.repository.ApprovalWorkflowRepository;
+import com.kelompoksatu.griya.util.HierarchicalTimerWheel;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Scheduler SLA approval workflow berbasis timer wheel di memori.
+ *
+ * <p>Hanya satu node (leader, dipilih lewat lease di Redis) yang memegang timer. Saat menjadi
+ * leader, node memuat workflow aktif sekali dari database; setelah itu timer diperbarui dari event
+ * Pub/Sub yang dikirim setiap node saat workflow dibuat atau diselesaikan. Saat timer jatuh tempo,
+ * prioritas workflow dinaikkan satu level dan assignee diberi notifikasi; jika belum URGENT, timer
+ * dipasang lagi untuk eskalasi berikutnya. Tidak ada query polling berkala.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkflowSlaService implements MessageListener {
+
+  private static final String LEADER_KEY = "workflow-sla:leader";
+  private static final String EVENTS_CHANNEL = "workflow-sla:events";
+
+  private static final Set<ApplicationStatus> FINAL_APPLICATION_STATUSES =
+      EnumSet.of(
+          ApplicationStatus.APPROVED,
+          ApplicationStatus.REJECTED,
+          ApplicationStatus.CANCELLED,
+          ApplicationStatus.DISBURSED);
+
+  /** Perpanjang lease hanya jika masih dipegang node ini */
+  private static final DefaultRedisScript<Long> RENEW_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.call('get', KEYS[1]) == ARGV[1] then "
+              + "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+          Long.class);
+
+  /** Lepas lease hanya jika masih dipegang node ini */
+  private static final DefaultRedisScript<Long> RELEASE_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.call('get', KEYS[1]) == ARGV[1] then "
+              + "return redis.call('del', KEYS[1]) else return 0 end",
+          Long.class);
+
+  private final ApprovalWorkflowRepository approvalWorkflowRepository;
+  private final SystemNotificationService systemNotificationService;
+  private final StringRedisTemplate stringRedisTemplate;
+  private final RedisMessageListenerContainer redisMessageListenerContainer;
+  private final PlatformTransactionManager transactionManager;
+  private final ObjectMapper objectMapper;
+
+  @Value("${app.workflow-sla.enabled:true}")
+  private boolean enabled;
+
+  @Value("${app.workflow-sla.tick-ms:1000}")
+  private long tickMs;
+
+  @Value("${app.workflow-sla.wheel-size:60}")
+  private int wheelSize;
+
+  @Value("${app.workflow-sla.leader-ttl-seconds:30}")
+  private long leaderTtlSeconds;
+
+  /** Jeda sebelum eskalasi berikutnya jika workflow masih belum selesai */
+  @Value("${app.workflow-sla.re-escalation-hours:24}")
+  private long reEscalationHours;
+
+  private final String nodeId = UUID.randomUUID().toString();
+
+  /** applicationId -> (workflowId -> assignedTo) untuk timer yang sedang terpasang */
+  private final Map<Integer, Map<Integer, Integer>> timersByApplication = new ConcurrentHashMap<>();
+
+  private HierarchicalTimerWheel<Integer> timerWheel;
+  private ScheduledExecutorService leaseExecutor;
+  private ExecutorService escalationExecutor;
+  private volatile boolean leader;
+
+  /** Event perubahan workflow yang dikirim ke leader */
+  public record WorkflowSlaEvent(
+      String type, Integer workflowId, Integer applicationId, Integer assignedTo, Long dueAt) {
+    static final String SCHEDULED = "SCHEDULED";
+    static final String COMPLETED = "COMPLETED";
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled) {
+      log.info("Workflow SLA scheduler disabled");
+      return;
+    }
+    escalationExecutor = Executors.newFixedThreadPool(2, daemonThreads("workflow-sla-escalation"));
+    timerWheel = new HierarchicalTimerWheel<>(tickMs, wheelSize, escalationExecutor);
+    timerWheel.start("workflow-sla-timer");
+    redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(EVENTS_CHANNEL));
+
+    leaseExecutor = Executors.newSingleThreadScheduledExecutor(daemonThreads("workflow-sla-lease"));
+    long periodSeconds = Math.max(leaderTtlSeconds / 3, 1);
+    leaseExecutor.scheduleWithFixedDelay(
+        this::maintainLeadership, 0, periodSeconds, TimeUnit.SECONDS);
+    log.info("Workflow SLA scheduler started on node {}", nodeId);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (leaseExecutor != null) {
+      leaseExecutor.shutdownNow();
+    }
+    if (timerWheel != null) {
+      timerWheel.stop();
+    }
+    if (escalationExecutor != null) {
+      escalationExecutor.shutdownNow();
+    }
+    if (leader) {
+      leader = false;
+      try {
+        stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(LEADER_KEY), nodeId);
+      } catch (Exception e) {
+        log.warn("Failed to release workflow SLA leadership: {}", e.getMessage());
+      }
+    }
+  }
+
+  /** Daftarkan timer SLA untuk workflow baru setelah transaksi commit */
+  public void onWorkflowCreated(ApprovalWorkflow workflow) {
+    if (workflow.getId() == null || workflow.getDueDate() == null) {
+      return;
+    }
+    long dueAt = workflow.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    publishAfterCommit(
+        new WorkflowSlaEvent(
+            WorkflowSlaEvent.SCHEDULED,
+            workflow.getId(),
+            workflow.getApplicationId(),
+            workflow.getAssignedTo(),
+            dueAt));
+  }
+
+  /**
+   * Batalkan timer SLA workflow aplikasi setelah transaksi commit. assignedTo null membatalkan
+   * semua timer aplikasi (mis. aplikasi ditolak).
+   */
+  public void onWorkflowsCompleted(Integer applicationId, Integer assignedTo) {
+    if (applicationId == null) {
+      return;
+    }
+    publishAfterCommit(
+        new WorkflowSlaEvent(WorkflowSlaEvent.COMPLETED, null, applicationId, assignedTo, null));
+  }
+
+  /** Menerima event dari Pub/Sub; hanya leader yang memproses */
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    if (!leader) {
+      return;
+    }
+    try {
+      WorkflowSlaEvent event =
+          objectMapper.readValue(
+              new String(message.getBody(), StandardCharsets.UTF_8), WorkflowSlaEvent.class);
+      if (WorkflowSlaEvent.SCHEDULED.equals(event.type())) {
+        schedule(event.workflowId(), event.applicationId(), event.assignedTo(), event.dueAt());
+      } else if (WorkflowSlaEvent.COMPLETED.equals(event.type())) {
+        cancel(event.applicationId(), event.assignedTo());
+      }
+    } catch (Exception e) {
+      log.warn("Invalid workflow SLA event: {}", e.getMessage());
+    }
+  }
+
+  private void publishAfterCommit(WorkflowSlaEvent event) {
+    if (!enabled) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      publish(event);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            publish(event);
+          }
+        });
+  }
+
+  private void publish(WorkflowSlaEvent event) {
+    try {
+      stringRedisTemplate.convertAndSend(EVENTS_CHANNEL, objectMapper.writeValueAsString(event));
+    } catch (Exception e) {
+      // Leader berikutnya tetap memuat workflow ini dari database saat mengambil alih
+      log.warn("Failed to publish workflow SLA event {}: {}", event, e.getMessage());
+    }
+  }
+
+  // ========================================
+  // LEADERSHIP
+  // ========================================
+
+  private void maintainLeadership() {
+    try {
+      if (leader) {
+        Long renewed =
+            stringRedisTemplate.execute(
+                RENEW_SCRIPT,
+                List.of(LEADER_KEY),
+                nodeId,
+                String.valueOf(TimeUnit.SECONDS.toMillis(leaderTtlSeconds)));
+        if (renewed == null || renewed == 0L) {
+          stepDown("lease lost");
+        }
+        return;
+      }
+      Boolean acquired =
+          stringRedisTemplate
+              .opsForValue()
+              .setIfAbsent(LEADER_KEY, nodeId, leaderTtlSeconds, TimeUnit.SECONDS);
+      if (Boolean.TRUE.equals(acquired)) {
+        becomeLeader();
+      }
+    } catch (Exception e) {
+      if (leader) {
+        // Tanpa Redis lease tidak bisa diperpanjang; lebih aman melepas timer daripada dua leader
+        stepDown("Redis unavailable: " + e.getMessage());
+      } else {
+        log.debug("Workflow SLA leader election skipped: {}", e.getMessage());
+      }
+    }
+  }
+
+  private void becomeLeader() {
+    // Set leader lebih dulu agar event yang datang selama memuat tidak terlewat
+    leader = true;
+    List<Object[]> rows = approvalWorkflowRepository.findActiveWorkflowDueDates();
+    for (Object[] row : rows) {
+      LocalDateTime dueDate = (LocalDateTime) row[3];
+      schedule(
+          (Integer) row[0],
+          (Integer) row[1],
+          (Integer) row[2],
+          dueDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+    log.info("Node {} is now workflow SLA leader with {} timers", nodeId, rows.size());
+  }
+
+  private void stepDown(String reason) {
+    leader = false;
+    timerWheel.clear();
+    timersByApplication.clear();
+    log.warn("Node {} stepped down as workflow SLA leader: {}", nodeId, reason);
+  }
+
+  // ========================================
+  // TIMERS
+  // ========================================
+
+  private void schedule(Integer workflowId, Integer applicationId, Integer assignedTo, Long dueAt) {
+    if (workflowId == null || dueAt == null) {
+      return;
+    }
+    if (applicationId != null) {
+      timersByApplication
+          .computeIfAbsent(applicationId, id -> new ConcurrentHashMap<>())
+          .put(workflowId, assignedTo != null ? assignedTo : -1);
+    }
+    timerWheel.schedule(workflowId, dueAt, this::escalateSafely);
+  }
+
+  private void cancel(Integer applicationId, Integer assignedTo) {
+    Map<Integer, Integer> timers = timersByApplication.get(applicationId);
+    if (timers == null) {
+      return;
+    }
+    timers
+        .entrySet()
+        .removeIf(
+            entry -> {
+              if (assignedTo != null && !assignedTo.equals(entry.getValue())) {
+                return false;
+              }
+              timerWheel.cancel(entry.getKey());
+              return true;
+            });
+    if (timers.isEmpty()) {
+      timersByApplication.remove(applicationId);
+    }
+  }
+
+  private void forget(ApprovalWorkflow workflow) {
+    Map<Integer, Integer> timers = timersByApplication.get(workflow.getApplicationId());
+    if (timers != null) {
+      timers.remove(workflow.getId());
+      if (timers.isEmpty()) {
+        timersByApplication.remove(workflow.getApplicationId());
+      }
+    }
+  }
+
+  private void escalateSafely(Integer workflowId) {
+    if (!leader) {
+      return;
+    }
+    try {
+      new TransactionTemplate(transactionManager)
+          .executeWithoutResult(status -> escalate(workflowId));
+    } catch (Exception e) {
+      log.error("Failed to escalate workflow {}: {}", workflowId, e.getMessage(), e);
+    }
+  }
+
+  /** Naikkan prioritas satu level dan beri tahu assignee; dijalankan saat SLA terlewati */
+  private void escalate(Integer workflowId) {
+    ApprovalWorkflow workflow = approvalWorkflowRepository.findById(workflowId).orElse(null);
+    if (workflow == null) {
+      return;
+    }
+    boolean active =
+        workflow.getStatus() == WorkflowStatus.PENDING
+            || workflow.getStatus() == WorkflowStatus.IN_PROGRESS;
+    boolean applicationFinal =
+        workflow.getKprApplication() != null
+            && FINAL_APPLICATION_STATUSES.contains(workflow.getKprApplication().getStatus());
+    if (!active || applicationFinal || workflow.getDueDate() == null) {
+      forget(workflow);
+      return;
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    if (workflow.getDueDate().isAfter(now)) {
+      // Due date dimundurkan sejak timer dipasang
+      schedule(
+          workflowId,
+          workflow.getApplicationId(),
+          workflow.getAssignedTo(),
+          workflow.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+      return;
+    }
+
+    PriorityLevel current =
+        workflow.getPriority() != null ? workflow.getPriority() : PriorityLevel.NORMAL;
+    PriorityLevel next = nextPriority(current);
+    if (next != current
+        && approvalWorkflowRepository.escalatePriority(workflowId, current, next, now) == 0) {
+      log.info("Workflow {} changed concurrently, skipping escalation", workflowId);
+      return;
+    }
+
+    String appNumber =
+        workflow.getKprApplication() != null
+            ? workflow.getKprApplication().getApplicationNumber()
+            : String.valueOf(workflow.getApplicationId());
+    systemNotificationService.enqueueNotification(
+        SystemNotification.builder()
+            .userId(workflow.getAssignedTo())
+            .notificationType(NotificationType.APPLICATION_UPDATE)
+            .title("Workflow " + workflow.getStage() + " melewati batas waktu")
+            .message("Aplikasi: " + appNumber + ", prioritas " + next)
+            .channel(NotificationChannel.IN_APP)
+            .build());
+    log.info("Workflow {} overdue, priority {} -> {}", workflowId, current, next);
+
+    if (next != PriorityLevel.URGENT) {
+      long nextAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(reEscalationHours);
+      schedule(workflowId, workflow.getApplicationId(), workflow.getAssignedTo(), nextAt);
+    } else {
+      forget(workflow);
+    }
+  }
+
+  private PriorityLevel nextPriority(PriorityLevel current) {
+    return switch (current) {
+      case LOW -> PriorityLevel.NORMAL;
+      case NORMAL -> PriorityLevel.HIGH;
+      case HIGH, URGENT -> PriorityLevel.URGENT;
+    };
+  }
+
+  private static ThreadFactory daemonThreads(String name) {
+    return runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
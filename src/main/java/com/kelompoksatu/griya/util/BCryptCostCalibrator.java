@@ -0,0 +1,58 @@
+package com.kelompoksatu.griya.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Benchmark cost factor BCrypt di hardware tempat aplikasi berjalan.
+ *
+ * <p>Setiap kenaikan cost menggandakan waktu hash, jadi cost diukur naik dari {@link #MIN_STRENGTH}
+ * dan berhenti sebelum satu hash melewati target. Hash lama tetap bisa diverifikasi setelah cost
+ * berubah karena cost tersimpan di dalam hash.
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+  /** Batas bawah yang tetap dipakai walau hardware terlalu lambat untuk target */
+  public static final int MIN_STRENGTH = 10;
+
+  public static final int MAX_STRENGTH = 16;
+
+  private static final String SAMPLE_PASSWORD = "calibration-P4ssw0rd!";
+
+  private BCryptCostCalibrator() {}
+
+  /** Cost tertinggi yang satu hash-nya tidak lebih lama dari {@code targetMillis} */
+  public static int calibrate(long targetMillis) {
+    if (targetMillis <= 0) {
+      throw new IllegalArgumentException("Target waktu hash harus lebih dari 0");
+    }
+    // Pemanasan JIT agar pengukuran pertama tidak terlalu lambat
+    for (int i = 0; i < 3; i++) {
+      BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(4));
+    }
+
+    int chosen = MIN_STRENGTH;
+    for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+      long millis = measure(strength);
+      log.info("BCrypt cost {}: {} ms per hash", strength, millis);
+      if (millis > targetMillis) {
+        break;
+      }
+      chosen = strength;
+      // Cost berikutnya sekitar dua kali lipat; tidak perlu diukur jika pasti lewat target
+      if (millis * 2 > targetMillis) {
+        break;
+      }
+    }
+    log.info("BCrypt cost calibrated to {} for target {} ms", chosen, targetMillis);
+    return chosen;
+  }
+
+  private static long measure(int strength) {
+    String salt = BCrypt.gensalt(strength);
+    long start = System.nanoTime();
+    BCrypt.hashpw(SAMPLE_PASSWORD, salt);
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+}
@@ -0,0 +1,89 @@
+package com.kelompoksatu.griya.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter string berukuran tetap yang aman dipakai banyak thread tanpa lock.
+ *
+ * <p>Ukuran bit array dan jumlah hash dihitung dari kapasitas yang diharapkan dan false positive
+ * rate target. Posisi bit memakai double hashing ({@code h1 + i * h2}) dari satu hash 64-bit
+ * (FNV-1a diikuti finalizer MurmurHash3), sehingga {@link #mightContain} hanya membaca k word tanpa
+ * alokasi. Jika isi melebihi kapasitas, false positive rate naik tetapi tidak pernah ada false
+ * negative.
+ */
+public class BloomFilter {
+
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashCount;
+
+  /**
+   * @param expectedInsertions jumlah elemen yang diharapkan
+   * @param falsePositiveRate target false positive rate, antara 0 dan 1 (eksklusif)
+   */
+  public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("Kapasitas atau false positive rate tidak valid");
+    }
+    // m = -n ln p / (ln 2)^2, k = m / n ln 2
+    long bits =
+        (long)
+            Math.ceil(
+                -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+    this.bitCount = (long) words.length() * 64;
+    this.hashCount =
+        Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+  }
+
+  public void put(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long bit = index(h1 + i * h2);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current;
+      do {
+        current = words.get(word);
+        if ((current & mask) != 0) {
+          break;
+        }
+      } while (!words.compareAndSet(word, current, current | mask));
+    }
+  }
+
+  /** false berarti pasti belum pernah ditambahkan; true berarti mungkin sudah */
+  public boolean mightContain(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long bit = index(h1 + i * h2);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private long index(int combined) {
+    return (combined & Integer.MAX_VALUE) % bitCount;
+  }
+
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
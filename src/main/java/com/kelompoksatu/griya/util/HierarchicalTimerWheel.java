@@ -0,0 +1,269 @@
+package com.kelompoksatu.griya.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hierarchical timer wheel untuk timer dengan jumlah besar dan jangka panjang (jam sampai hari).
+ *
+ * <p>Wheel level terbawah punya slot selebar {@code tickMs}; timer yang terlalu jauh diletakkan di
+ * wheel overflow dengan slot {@code tickMs * wheelSize}, dan seterusnya. Schedule dan cancel O(1).
+ * Hanya bucket yang berisi timer yang masuk {@link DelayQueue}, sehingga thread driver tidur sampai
+ * bucket berikutnya jatuh tempo, bukan berdetak setiap tick. Saat bucket di level atas jatuh tempo,
+ * isinya diturunkan ke level bawah atau langsung dijalankan.
+ *
+ * <p>Setiap timer diidentifikasi dengan key; schedule ulang dengan key yang sama menggantikan timer
+ * sebelumnya. Action dijalankan di {@code executor} agar driver tidak pernah terblokir.
+ *
+ * @param <K> tipe key timer
+ */
+@Slf4j
+public class HierarchicalTimerWheel<K> {
+
+  private final long tickMs;
+  private final int wheelSize;
+  private final Executor executor;
+  private final DelayQueue<Bucket> delayQueue = new DelayQueue<>();
+  private final Map<K, Entry> entries = new HashMap<>();
+  private final Object lock = new Object();
+
+  private Wheel wheel;
+  private volatile Thread driver;
+  private volatile boolean running;
+
+  public HierarchicalTimerWheel(long tickMs, int wheelSize, Executor executor) {
+    if (tickMs <= 0 || wheelSize <= 1) {
+      throw new IllegalArgumentException("tickMs must be > 0 and wheelSize must be > 1");
+    }
+    this.tickMs = tickMs;
+    this.wheelSize = wheelSize;
+    this.executor = executor;
+    this.wheel = new Wheel(tickMs, System.currentTimeMillis());
+  }
+
+  /** Jalankan thread driver */
+  public void start(String threadName) {
+    synchronized (lock) {
+      if (running) {
+        return;
+      }
+      running = true;
+      Thread thread = new Thread(this::runDriver, threadName);
+      thread.setDaemon(true);
+      driver = thread;
+      thread.start();
+    }
+  }
+
+  /** Hentikan thread driver dan buang semua timer */
+  public void stop() {
+    Thread thread;
+    synchronized (lock) {
+      running = false;
+      thread = driver;
+      driver = null;
+      clearLocked();
+    }
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  /**
+   * Jadwalkan action pada waktu epoch millis tertentu, menggantikan timer lain dengan key yang
+   * sama. Waktu dibulatkan ke atas ke kelipatan tickMs sehingga action tidak pernah berjalan
+   * sebelum waktunya. Timer yang sudah lewat waktunya langsung dijalankan.
+   */
+  public void schedule(K key, long expirationMs, Consumer<K> action) {
+    long remainder = Math.floorMod(expirationMs, tickMs);
+    long roundedMs = remainder == 0 ? expirationMs : expirationMs - remainder + tickMs;
+    synchronized (lock) {
+      Entry previous = entries.remove(key);
+      if (previous != null) {
+        previous.cancelled = true;
+      }
+      Entry entry = new Entry(key, roundedMs, action);
+      entries.put(key, entry);
+      addOrRun(entry);
+    }
+  }
+
+  /** Batalkan timer dengan key tertentu; mengembalikan true jika timer masih terjadwal */
+  public boolean cancel(K key) {
+    synchronized (lock) {
+      Entry entry = entries.remove(key);
+      if (entry == null) {
+        return false;
+      }
+      entry.cancelled = true;
+      return true;
+    }
+  }
+
+  /** Buang semua timer tanpa menjalankannya */
+  public void clear() {
+    synchronized (lock) {
+      clearLocked();
+    }
+  }
+
+  /** Jumlah timer yang masih terjadwal */
+  public int size() {
+    synchronized (lock) {
+      return entries.size();
+    }
+  }
+
+  private void clearLocked() {
+    entries.values().forEach(entry -> entry.cancelled = true);
+    entries.clear();
+    delayQueue.clear();
+    wheel = new Wheel(tickMs, System.currentTimeMillis());
+  }
+
+  private void runDriver() {
+    while (running) {
+      try {
+        Bucket bucket = delayQueue.take();
+        synchronized (lock) {
+          while (bucket != null) {
+            wheel.advanceClock(bucket.expiration.get());
+            bucket.flush(this::addOrRun);
+            bucket = delayQueue.poll();
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        log.error("Timer wheel driver error: {}", e.getMessage(), e);
+      }
+    }
+  }
+
+  /** Harus dipanggil dengan lock dipegang */
+  private void addOrRun(Entry entry) {
+    if (entry.cancelled) {
+      return;
+    }
+    if (wheel.add(entry)) {
+      return;
+    }
+    // Sudah jatuh tempo: lepas dari registry lalu jalankan di executor
+    if (entries.get(entry.key) == entry) {
+      entries.remove(entry.key);
+    }
+    try {
+      executor.execute(() -> entry.action.accept(entry.key));
+    } catch (Exception e) {
+      log.error("Failed to dispatch timer {}: {}", entry.key, e.getMessage(), e);
+    }
+  }
+
+  private final class Entry {
+    private final K key;
+    private final long expirationMs;
+    private final Consumer<K> action;
+    private volatile boolean cancelled;
+
+    private Entry(K key, long expirationMs, Consumer<K> action) {
+      this.key = key;
+      this.expirationMs = expirationMs;
+      this.action = action;
+    }
+  }
+
+  /** Satu level wheel; level berikutnya dibuat saat pertama kali dibutuhkan */
+  private final class Wheel {
+    private final long slotMs;
+    private final long intervalMs;
+    private final List<Bucket> buckets;
+    private long currentTime;
+    private Wheel overflow;
+
+    private Wheel(long slotMs, long startMs) {
+      this.slotMs = slotMs;
+      this.intervalMs = slotMs * wheelSize;
+      this.currentTime = startMs - (startMs % slotMs);
+      this.buckets = new ArrayList<>(wheelSize);
+      for (int i = 0; i < wheelSize; i++) {
+        buckets.add(new Bucket());
+      }
+    }
+
+    /**
+     * @return false jika entry sudah jatuh tempo dan harus dijalankan
+     */
+    private boolean add(Entry entry) {
+      long expiration = entry.expirationMs;
+      if (expiration < currentTime + slotMs) {
+        return false;
+      }
+      if (expiration < currentTime + intervalMs) {
+        long virtualId = expiration / slotMs;
+        Bucket bucket = buckets.get((int) (virtualId % wheelSize));
+        bucket.add(entry);
+        if (bucket.setExpiration(virtualId * slotMs)) {
+          delayQueue.offer(bucket);
+        }
+        return true;
+      }
+      if (overflow == null) {
+        overflow = new Wheel(intervalMs, currentTime);
+      }
+      return overflow.add(entry);
+    }
+
+    private void advanceClock(long timeMs) {
+      if (timeMs >= currentTime + slotMs) {
+        currentTime = timeMs - (timeMs % slotMs);
+        if (overflow != null) {
+          overflow.advanceClock(currentTime);
+        }
+      }
+    }
+  }
+
+  private final class Bucket implements Delayed {
+    private final AtomicLong expiration = new AtomicLong(-1L);
+    private List<Entry> bucketEntries = new ArrayList<>();
+
+    private void add(Entry entry) {
+      bucketEntries.add(entry);
+    }
+
+    /**
+     * @return true jika expiration berubah sehingga bucket perlu masuk delay queue lagi
+     */
+    private boolean setExpiration(long expirationMs) {
+      return expiration.getAndSet(expirationMs) != expirationMs;
+    }
+
+    private void flush(Consumer<Entry> consumer) {
+      List<Entry> flushed = bucketEntries;
+      bucketEntries = new ArrayList<>();
+      expiration.set(-1L);
+      flushed.forEach(consumer);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(
+          Math.max(expiration.get() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+    }
+  }
+}
@@ -1,18 +1,25 @@
 package com.kelompoksatu.griya.util;
 
+import com.kelompoksatu.griya.security.JwtPrincipal;
+import com.kelompoksatu.griya.service.RevokedTokenService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 import javax.crypto.SecretKey;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /** JWT Utility class for token generation, validation, and extraction */
 @Component
@@ -29,9 +36,44 @@ public class JwtUtil {
   @Value("${jwt.access.expiration}")
   private Long accessTokenExpirationMs;
 
-  /** Generate secret key from the configured secret */
+  @Autowired private RevokedTokenService revokedTokenService;
+
+  /** Atribut request berisi token terakhir yang sudah diverifikasi beserta claims-nya */
+  private static final String VERIFIED_TOKEN_ATTRIBUTE = JwtUtil.class.getName() + ".verified";
+
+  /** Key HMAC dan parser dibangun sekali; keduanya immutable dan thread-safe */
+  private SecretKey signingKey;
+
+  private JwtParser parser;
+
+  /** Token yang sudah diverifikasi pada request berjalan */
+  private record VerifiedToken(String token, Claims claims) {}
+
+  @PostConstruct
+  public void init() {
+    signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+    parser = Jwts.parser().verifyWith(signingKey).build();
+  }
+
+  /** Secret key from the configured secret */
   private SecretKey getSigningKey() {
-    return Keys.hmacShaKeyFor(secret.getBytes());
+    return signingKey;
+  }
+
+  /**
+   * Verifikasi token dan kembalikan identitasnya. Dalam satu request, token yang sama hanya
+   * di-parse dan diverifikasi sekali.
+   *
+   * @throws JwtException jika token tidak valid, kedaluwarsa, atau sesinya sudah di-revoke
+   */
+  public JwtPrincipal verify(String token) {
+    Claims claims = extractAllClaims(token);
+    return new JwtPrincipal(
+        claims.getSubject(),
+        claims.get("userId", Integer.class),
+        claims.get("role", String.class),
+        claims.get("sid", String.class),
+        claims.getExpiration());
   }
 
   /** Extract username from JWT token */
@@ -50,23 +92,43 @@ public class JwtUtil {
     return claimsResolver.apply(claims);
   }
 
-  /** Extract all claims from JWT token */
+  /**
+   * Extract all claims from JWT token. Claims token yang sudah diverifikasi di request berjalan
+   * dipakai ulang; token lain (atau di luar request) di-parse dan diverifikasi. Token dari sesi
+   * yang sudah di-revoke ditolak di sini, sehingga semua pemanggil (filter maupun controller) ikut
+   * menolaknya.
+   */
   private Claims extractAllClaims(String token) {
+    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    if (request != null
+        && request.getAttribute(VERIFIED_TOKEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+            instanceof VerifiedToken verified
+        && verified.token().equals(token)) {
+      return verified.claims();
+    }
+    Claims claims;
     try {
-      return Jwts.parser()
-          .verifyWith(getSigningKey())
-          .build()
-          .parseSignedClaims(token)
-          .getPayload();
+      claims = parser.parseSignedClaims(token).getPayload();
     } catch (JwtException e) {
       logger.error("Failed to parse JWT token: {}", e.getMessage());
       throw e;
     }
+    if (revokedTokenService.isRevoked(claims.get("sid", String.class))) {
+      logger.warn("Token of revoked session used by user: {}", claims.getSubject());
+      throw new JwtException("Session has been revoked");
+    }
+    if (request != null) {
+      request.setAttribute(
+          VERIFIED_TOKEN_ATTRIBUTE,
+          new VerifiedToken(token, claims),
+          RequestAttributes.SCOPE_REQUEST);
+    }
+    return claims;
   }
 
   /** Check if JWT token is expired */
-  private Boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  private Boolean isTokenExpired(Claims claims) {
+    return claims.getExpiration().before(new Date());
   }
 
   /** Generate JWT token for user */
@@ -88,6 +150,7 @@ public class JwtUtil {
 
     return Jwts.builder()
         .claims(claims)
+        .id(UUID.randomUUID().toString())
         .subject(subject)
         .issuedAt(now)
         .expiration(expiryDate)
@@ -102,6 +165,7 @@ public class JwtUtil {
 
     return Jwts.builder()
         .claims(claims)
+        .id(UUID.randomUUID().toString())
         .subject(subject)
         .issuedAt(now)
         .expiration(expiryDate)
@@ -112,8 +176,8 @@ public class JwtUtil {
   /** Validate JWT token against user details */
   public Boolean validateToken(String token, UserDetails userDetails) {
     try {
-      final String username = extractUsername(token);
-      return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+      Claims claims = extractAllClaims(token);
+      return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
     } catch (JwtException e) {
       logger.error("JWT token validation failed: {}", e.getMessage());
       return false;
@@ -123,8 +187,7 @@ public class JwtUtil {
   /** Validate JWT token format and expiration */
   public Boolean validateToken(String token) {
     try {
-      extractAllClaims(token);
-      return !isTokenExpired(token);
+      return !isTokenExpired(extractAllClaims(token));
     } catch (JwtException e) {
       logger.error("JWT token validation failed: {}", e.getMessage());
       return false;
@@ -149,20 +212,27 @@ public class JwtUtil {
     return claims.get("role", String.class);
   }
 
-  /** Generate refresh token with user ID and role */
-  public String generateRefreshToken(String username, Integer userId, String role) {
-    Map<String, Object> claims = new HashMap<>();
-    claims.put("userId", userId);
-    claims.put("role", role);
-    return createToken(claims, username);
+  /** Generate refresh token with user ID, role and login session ID */
+  public String generateRefreshToken(
+      String username, Integer userId, String role, String sessionId) {
+    return createToken(sessionClaims(userId, role, sessionId), username);
+  }
+
+  /** Generate access token with user ID, role and login session ID */
+  public String generateAccessToken(
+      String username, Integer userId, String role, String sessionId) {
+    return createAccessToken(sessionClaims(userId, role, sessionId), username);
   }
 
-  /** Generate access token with user ID and role */
-  public String generateAccessToken(String username, Integer userId, String role) {
+  /** Claims token sesi login; sid dipakai untuk menolak token dari sesi yang sudah di-revoke */
+  private Map<String, Object> sessionClaims(Integer userId, String role, String sessionId) {
     Map<String, Object> claims = new HashMap<>();
     claims.put("userId", userId);
     claims.put("role", role);
-    return createAccessToken(claims, username);
+    if (sessionId != null) {
+      claims.put("sid", sessionId);
+    }
+    return claims;
   }
 
   public String hashToken(String token) {
@@ -0,0 +1,170 @@
+package com.kelompoksatu.griya.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Menjalankan query read-only yang saling independen secara paralel di virtual thread.
+ *
+ * <p>Pemakaian mengikuti pola structured concurrency: buka {@link Scope} per request, {@link
+ * Scope#fork} setiap query, {@link Scope#join} lalu baca hasil. Setiap task berjalan di thread
+ * sendiri tanpa transaksi pemanggil, sehingga repository mengambil koneksi sendiri dari pool.
+ * Jumlah task yang berjalan bersamaan per scope dibatasi agar satu request tidak menghabiskan pool
+ * koneksi. Jika satu task gagal atau deadline terlewati, task lain dibatalkan dan scope selalu
+ * menunggu semua thread-nya selesai saat ditutup.
+ *
+ * <p>Pembatalan future tidak menghentikan query JDBC yang sedang berjalan, jadi setiap task
+ * dijalankan dalam transaksi read-only dengan {@code SET LOCAL statement_timeout} sebesar sisa
+ * deadline. PostgreSQL membatalkan query yang melewatinya, sehingga penutupan scope tidak menunggu
+ * lebih lama dari deadline.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryFanOut {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final PlatformTransactionManager transactionManager;
+
+  /** Maksimum query bersamaan (koneksi DB) per scope */
+  @Value("${app.query-fan-out.max-concurrency:4}")
+  private int maxConcurrency;
+
+  /** Batas waktu seluruh query dalam satu scope */
+  @Value("${app.query-fan-out.deadline-ms:10000}")
+  private long deadlineMs;
+
+  /** Buka scope baru dengan deadline dihitung dari sekarang */
+  public Scope open(String name) {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    transaction.setReadOnly(true);
+    return new Scope(name, maxConcurrency, deadlineMs, jdbcTemplate, transaction);
+  }
+
+  /** Hasil satu task; hanya boleh dibaca setelah {@link Scope#join} berhasil */
+  public static final class Subtask<T> {
+    private final Future<T> future;
+
+    private Subtask(Future<T> future) {
+      this.future = future;
+    }
+
+    public T get() {
+      if (!future.isDone()) {
+        throw new IllegalStateException("Subtask belum selesai, panggil join() terlebih dahulu");
+      }
+      return future.resultNow();
+    }
+  }
+
+  /** Sekumpulan task paralel milik satu request */
+  public static final class Scope implements AutoCloseable {
+    private final String name;
+    private final Semaphore permits;
+    private final long deadlineNanos;
+    private final ExecutorService executor;
+    private final List<Future<?>> futures = new ArrayList<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    private Scope(
+        String name,
+        int maxConcurrency,
+        long deadlineMs,
+        JdbcTemplate jdbcTemplate,
+        TransactionTemplate transaction) {
+      this.name = name;
+      this.jdbcTemplate = jdbcTemplate;
+      this.transaction = transaction;
+      this.permits = new Semaphore(Math.max(maxConcurrency, 1));
+      this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+      this.executor =
+          Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+
+    public <T> Subtask<T> fork(Callable<T> task) {
+      Future<T> future =
+          executor.submit(
+              () -> {
+                permits.acquire();
+                try {
+                  return callWithStatementTimeout(task);
+                } finally {
+                  permits.release();
+                }
+              });
+      futures.add(future);
+      return new Subtask<>(future);
+    }
+
+    /** Jalankan task dalam transaksi sendiri dengan statement timeout sebesar sisa deadline */
+    private <T> T callWithStatementTimeout(Callable<T> task) {
+      long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+      if (remainingMs <= 0) {
+        throw new IllegalStateException("Query " + name + " melewati deadline");
+      }
+      return transaction.execute(
+          status -> {
+            // SET LOCAL tidak menerima parameter bind; nilainya angka hasil perhitungan di atas
+            jdbcTemplate.execute("SET LOCAL statement_timeout = " + remainingMs);
+            try {
+              return task.call();
+            } catch (RuntimeException e) {
+              throw e;
+            } catch (Exception e) {
+              throw new RuntimeException("Query " + name + " gagal", e);
+            }
+          });
+    }
+
+    /**
+     * Tunggu semua task selesai.
+     *
+     * @throws IllegalStateException jika deadline terlewati
+     * @throws RuntimeException kegagalan task pertama (dibungkus jika checked)
+     */
+    public void join() {
+      try {
+        for (Future<?> future : futures) {
+          future.get(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        }
+      } catch (TimeoutException e) {
+        cancelAll();
+        throw new IllegalStateException("Query " + name + " melewati deadline");
+      } catch (ExecutionException e) {
+        cancelAll();
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        throw new RuntimeException("Query " + name + " gagal", e.getCause());
+      } catch (InterruptedException e) {
+        cancelAll();
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Query " + name + " diinterupsi");
+      }
+    }
+
+    private void cancelAll() {
+      futures.forEach(future -> future.cancel(true));
+    }
+
+    @Override
+    public void close() {
+      cancelAll();
+      executor.close();
+    }
+  }
+}
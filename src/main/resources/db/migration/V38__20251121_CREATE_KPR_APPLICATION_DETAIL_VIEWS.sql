@@ -0,0 +1,9 @@
+-- Denormalised read model for the KPR application detail endpoint.
+-- One row per application, rebuilt after submit, document upload, assignment and approve/reject.
+CREATE TABLE IF NOT EXISTS kpr_application_detail_views (
+    application_id    INTEGER PRIMARY KEY REFERENCES kpr_applications(id) ON DELETE CASCADE,
+    owner_user_id     INTEGER NOT NULL,
+    developer_user_id INTEGER,
+    detail            JSONB NOT NULL,
+    updated_at        TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
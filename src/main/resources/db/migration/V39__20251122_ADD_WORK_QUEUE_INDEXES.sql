@@ -0,0 +1,14 @@
+-- Composite indexes for the keyset-paginated work queues.
+-- Admin queues page on (created_at, id), optionally filtered by status.
+CREATE INDEX IF NOT EXISTS idx_kpr_applications_created_at_id
+    ON kpr_applications (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_kpr_applications_status_created_at_id
+    ON kpr_applications (status, created_at, id);
+
+-- Developer/verifikator queues: open workflows of one assignee, ordered by due date.
+CREATE INDEX IF NOT EXISTS idx_approval_workflow_assignee_status_due
+    ON approval_workflow (assigned_to, status, due_date, application_id);
+
+-- Stage checks (EXISTS) and workflow counts per application.
+CREATE INDEX IF NOT EXISTS idx_approval_workflow_application_stage_status
+    ON approval_workflow (application_id, stage, status);
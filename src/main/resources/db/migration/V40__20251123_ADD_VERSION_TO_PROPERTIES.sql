@@ -0,0 +1,2 @@
+-- Version counter for atomic property reservation/release (conditional UPDATE ... WHERE version = ?)
+ALTER TABLE properties ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,62 @@
+-- Append-only event log per KPR application, used for timelines, audit and replay.
+-- seq is a gap-free counter per application; (application_id, seq) serves timeline range reads.
+CREATE TABLE IF NOT EXISTS application_events (
+    id             BIGSERIAL PRIMARY KEY,
+    application_id INTEGER     NOT NULL,
+    seq            INTEGER     NOT NULL,
+    event_type     VARCHAR(40) NOT NULL,
+    actor_id       INTEGER,
+    stage          VARCHAR(40),
+    to_status      VARCHAR(40),
+    data           JSONB,
+    occurred_at    TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_application_events_application_seq UNIQUE (application_id, seq)
+);
+
+-- Backfill history of existing applications from the current tables
+INSERT INTO application_events
+    (application_id, seq, event_type, actor_id, stage, to_status, data, occurred_at)
+SELECT application_id,
+       ROW_NUMBER() OVER (PARTITION BY application_id ORDER BY occurred_at, ord, source_id),
+       event_type, actor_id, stage, to_status, data, occurred_at
+FROM (
+    SELECT k.id AS application_id, 0 AS ord, k.id AS source_id,
+           'SUBMITTED' AS event_type, k.user_id AS actor_id, NULL AS stage,
+           'SUBMITTED' AS to_status,
+           jsonb_build_object(
+               'applicationNumber', k.application_number,
+               'ownerUserId', k.user_id,
+               'developerUserId', d.user_id,
+               'propertyId', k.property_id) AS data,
+           COALESCE(k.created_at, CURRENT_TIMESTAMP) AS occurred_at
+    FROM kpr_applications k
+    LEFT JOIN properties p ON p.id = k.property_id
+    LEFT JOIN developers d ON d.id = p.developer_id
+
+    UNION ALL
+
+    SELECT aw.application_id, 1, aw.id,
+           'WORKFLOW_ASSIGNED', NULL, CAST(aw.stage AS text), NULL,
+           jsonb_build_object(
+               'workflowId', aw.id, 'assignedTo', aw.assigned_to, 'dueDate', aw.due_date),
+           COALESCE(aw.created_at, CURRENT_TIMESTAMP)
+    FROM approval_workflow aw
+
+    UNION ALL
+
+    SELECT aw.application_id, 2, aw.id,
+           CAST(aw.status AS text), aw.assigned_to, CAST(aw.stage AS text),
+           CASE
+               WHEN aw.status = 'REJECTED' THEN 'REJECTED'
+               WHEN aw.stage = 'PROPERTY_APPRAISAL' THEN 'PROPERTY_APPRAISAL'
+               WHEN aw.stage = 'CREDIT_ANALYSIS' THEN 'FINAL_APPROVAL'
+               WHEN aw.stage = 'FINAL_APPROVAL' THEN 'APPROVED'
+           END,
+           jsonb_build_object(
+               'workflowId', aw.id,
+               'reason', COALESCE(aw.rejection_reason, aw.approval_notes)),
+           aw.completed_at
+    FROM approval_workflow aw
+    WHERE aw.status IN ('APPROVED', 'REJECTED') AND aw.completed_at IS NOT NULL
+) legacy
+WHERE NOT EXISTS (SELECT 1 FROM application_events);
@@ -0,0 +1,47 @@
+-- Daily rollups for the admin dashboard. Applications are bucketed by the day they were created
+-- and their current status; rows of a day are recomputed whenever an application of that day
+-- changes status, and all days are reconciled nightly.
+CREATE TABLE IF NOT EXISTS stats_daily_applications (
+    day               DATE           NOT NULL,
+    status            VARCHAR(40)    NOT NULL,
+    application_count INTEGER        NOT NULL DEFAULT 0,
+    loan_amount_sum   NUMERIC(18, 2) NOT NULL DEFAULT 0,
+    updated_at        TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (day, status)
+);
+
+-- Customers (applicants) per day, so distinct customers of any range stay exact
+CREATE TABLE IF NOT EXISTS stats_daily_customers (
+    day     DATE    NOT NULL,
+    user_id INTEGER NOT NULL,
+    PRIMARY KEY (day, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS stats_daily_registrations (
+    day        DATE      PRIMARY KEY,
+    user_count INTEGER   NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Per-day recompute of registrations
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
+
+INSERT INTO stats_daily_applications (day, status, application_count, loan_amount_sum)
+SELECT CAST(created_at AS date), CAST(status AS text), COUNT(*), COALESCE(SUM(loan_amount), 0)
+FROM kpr_applications
+WHERE created_at IS NOT NULL AND status IS NOT NULL
+GROUP BY 1, 2
+ON CONFLICT DO NOTHING;
+
+INSERT INTO stats_daily_customers (day, user_id)
+SELECT DISTINCT CAST(created_at AS date), user_id
+FROM kpr_applications
+WHERE created_at IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+INSERT INTO stats_daily_registrations (day, user_count)
+SELECT CAST(created_at AS date), COUNT(*)
+FROM users
+WHERE created_at IS NOT NULL
+GROUP BY 1
+ON CONFLICT DO NOTHING;